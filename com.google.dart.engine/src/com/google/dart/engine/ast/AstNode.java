@@ -19,7 +19,6 @@ import com.google.dart.engine.utilities.io.PrintStringWriter;
 
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Map;
 
 /**
  * The abstract class {@code AstNode} defines the behavior common to all nodes in the AST structure
@@ -33,16 +32,24 @@ public abstract class AstNode {
    */
   public static final AstNode[] EMPTY_ARRAY = new AstNode[0];
 
+  /**
+   * A table mapping the names of the properties that have been associated with any node to the
+   * small integers used to identify those properties within {@link #properties}. Access to the
+   * table is synchronized on the table.
+   */
+  private static final HashMap<String, Integer> PROPERTY_IDS = new HashMap<String, Integer>();
+
   /**
    * The parent of the node, or {@code null} if the node is the root of an AST structure.
    */
   private AstNode parent;
 
   /**
-   * A table mapping the names of properties to their values, or {@code null} if this node does not
-   * have any properties associated with it.
+   * The properties associated with this node, stored as pairs of the id of the property followed by
+   * its value, or {@code null} if this node does not have any properties associated with it. Nodes
+   * rarely have more than one or two properties, so a linear search is faster than hashing.
    */
-  private Map<String, Object> propertyMap;
+  private Object[] properties;
 
   /**
    * A comparator that can be used to sort AST nodes in lexical order. In other words,
@@ -57,6 +64,28 @@ public abstract class AstNode {
     }
   };
 
+  /**
+   * Return the id of the property with the given name. If the property has not been seen before,
+   * either assign a new id to it or return {@code -1}, depending on the given flag.
+   * 
+   * @param propertyName the name of the property whose id is to be returned
+   * @param create {@code true} if a new id should be assigned to a property that has not been seen
+   * @return the id of the property with the given name
+   */
+  private static int getPropertyId(String propertyName, boolean create) {
+    synchronized (PROPERTY_IDS) {
+      Integer id = PROPERTY_IDS.get(propertyName);
+      if (id == null) {
+        if (!create) {
+          return -1;
+        }
+        id = Integer.valueOf(PROPERTY_IDS.size());
+        PROPERTY_IDS.put(propertyName, id);
+      }
+      return id.intValue();
+    }
+  }
+
   /**
    * Use the given visitor to visit this node.
    * 
@@ -155,10 +184,18 @@ public abstract class AstNode {
    * @return the value of the property with the given name
    */
   public Object getProperty(String propertyName) {
-    if (propertyMap == null) {
+    if (properties == null) {
       return null;
     }
-    return propertyMap.get(propertyName);
+    int id = getPropertyId(propertyName, false);
+    if (id < 0) {
+      return null;
+    }
+    int index = indexOfProperty(id);
+    if (index < 0) {
+      return null;
+    }
+    return properties[index + 1];
   }
 
   /**
@@ -197,17 +234,43 @@ public abstract class AstNode {
    */
   public void setProperty(String propertyName, Object propertyValue) {
     if (propertyValue == null) {
-      if (propertyMap != null) {
-        propertyMap.remove(propertyName);
-        if (propertyMap.isEmpty()) {
-          propertyMap = null;
-        }
+      if (properties == null) {
+        return;
+      }
+      int id = getPropertyId(propertyName, false);
+      if (id < 0) {
+        return;
+      }
+      int index = indexOfProperty(id);
+      if (index < 0) {
+        return;
+      }
+      int length = properties.length;
+      if (length == 2) {
+        properties = null;
+      } else {
+        Object[] newProperties = new Object[length - 2];
+        System.arraycopy(properties, 0, newProperties, 0, index);
+        System.arraycopy(properties, index + 2, newProperties, index, length - index - 2);
+        properties = newProperties;
       }
     } else {
-      if (propertyMap == null) {
-        propertyMap = new HashMap<String, Object>();
+      int id = getPropertyId(propertyName, true);
+      if (properties == null) {
+        properties = new Object[] {id, propertyValue};
+        return;
+      }
+      int index = indexOfProperty(id);
+      if (index >= 0) {
+        properties[index + 1] = propertyValue;
+      } else {
+        int length = properties.length;
+        Object[] newProperties = new Object[length + 2];
+        System.arraycopy(properties, 0, newProperties, 0, length);
+        newProperties[length] = id;
+        newProperties[length + 1] = propertyValue;
+        properties = newProperties;
       }
-      propertyMap.put(propertyName, propertyValue);
     }
   }
 
@@ -262,6 +325,23 @@ public abstract class AstNode {
     }
   }
 
+  /**
+   * Return the index in {@link #properties} of the id of the property with the given id, or
+   * {@code -1} if this node does not have a value for the property.
+   * 
+   * @param id the id of the property being searched for
+   * @return the index of the id of the property with the given id
+   */
+  private int indexOfProperty(int id) {
+    int length = properties.length;
+    for (int i = 0; i < length; i += 2) {
+      if (((Integer) properties[i]).intValue() == id) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   /**
    * Set the parent of this node to the given node.
    * 
@@ -44,6 +44,12 @@ public class BlockFunctionBody extends FunctionBody {
    */
   private Block block;
 
+  /**
+   * A flag indicating whether the statements of the body were skipped by the parser, in which case
+   * the block is empty even though the source contains statements.
+   */
+  private boolean skipped = false;
+
   /**
    * Initialize a newly created function body consisting of a block of statements.
    * 
@@ -114,6 +120,16 @@ public class BlockFunctionBody extends FunctionBody {
     return star != null;
   }
 
+  /**
+   * Return {@code true} if the statements of this body were skipped by the parser, in which case
+   * the block is empty even though the source may contain statements.
+   * 
+   * @return {@code true} if the statements of this body were skipped
+   */
+  public boolean isSkipped() {
+    return skipped;
+  }
+
   @Override
   public boolean isSynchronous() {
     return keyword == null || !keyword.getLexeme().equals(Parser.ASYNC);
@@ -137,6 +153,15 @@ public class BlockFunctionBody extends FunctionBody {
     this.keyword = keyword;
   }
 
+  /**
+   * Set whether the statements of this body were skipped by the parser.
+   * 
+   * @param skipped {@code true} if the statements of this body were skipped
+   */
+  public void setSkipped(boolean skipped) {
+    this.skipped = skipped;
+  }
+
   /**
    * Set the star following the 'async' or 'sync' keyword to the given token.
    * 
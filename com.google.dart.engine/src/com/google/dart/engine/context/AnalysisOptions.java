@@ -100,6 +100,24 @@ public interface AnalysisOptions {
    */
   public boolean getIncremental();
 
+  /**
+   * Return {@code true} if the function bodies of sources for which no errors are generated, that
+   * is sources in the SDK unless {@link #getGenerateSdkErrors()} returns {@code true}, are only
+   * parsed when the source is a priority source. The AST structures of the other such sources
+   * represent each block function body as an empty block that is marked as
+   * {@link com.google.dart.engine.ast.BlockFunctionBody#isSkipped() skipped}. The default value is
+   * {@code false}.
+   * <p>
+   * Only SDK sources are affected, because errors are computed for every other source and that
+   * requires its function bodies. An SDK source is parsed again with its bodies when it becomes a
+   * priority source, when the options change so that its bodies are needed, or when a client asks
+   * for its resolved compilation unit or its errors. In the last case the context reports that no
+   * resolved compilation unit is available until the source has been parsed and resolved again.
+   * 
+   * @return {@code true} if function bodies are only parsed when they are needed
+   */
+  public boolean getLazyFunctionBodies();
+
   /**
    * Return {@code true} if analysis is to parse comments.
    * 
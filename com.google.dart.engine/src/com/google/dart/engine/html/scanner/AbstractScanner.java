@@ -64,6 +64,11 @@ public abstract class AbstractScanner {
    */
   private String[] passThroughElements = NO_PASS_THROUGH_ELEMENTS;
 
+  /**
+   * A flag indicating whether text that cannot affect analysis should be scanned.
+   */
+  private boolean preserveText = true;
+
   /**
    * Initialize a newly created scanner.
    * 
@@ -112,6 +117,18 @@ public abstract class AbstractScanner {
         : NO_PASS_THROUGH_ELEMENTS;
   }
 
+  /**
+   * Set whether text that cannot affect analysis should be scanned. If not, comments, declarations
+   * and directives are skipped, and text between tags is skipped unless it contains an embedded
+   * expression ("{{"). The content of pass-through elements is always scanned. Skipping such text
+   * avoids creating a string for most of the characters in large files.
+   * 
+   * @param preserveText {@code true} if all of the text should be scanned
+   */
+  public void setPreserveText(boolean preserveText) {
+    this.preserveText = preserveText;
+  }
+
   /**
    * Scan the source code to produce a list of tokens representing the source.
    * 
@@ -228,10 +245,12 @@ public abstract class AbstractScanner {
               }
               c = recordStartOfLineAndAdvance(c);
             }
-            emitWithOffsetAndLength(COMMENT, start, -1);
-            // Capture <!--> and <!---> as tokens but report an error
-            if (tail.getLength() < 7) {
-              // TODO (danrubel): Report invalid HTML comment
+            if (preserveText) {
+              emitWithOffsetAndLength(COMMENT, start, -1);
+              // Capture <!--> and <!---> as tokens but report an error
+              if (tail.getLength() < 7) {
+                // TODO (danrubel): Report invalid HTML comment
+              }
             }
 
           } else {
@@ -243,9 +262,11 @@ public abstract class AbstractScanner {
               }
               c = recordStartOfLineAndAdvance(c);
             }
-            emitWithOffsetAndLength(DECLARATION, start, -1);
-            if (!StringUtilities.endsWithChar(tail.getLexeme(), '>')) {
-              // TODO (danrubel): Report missing '>' in directive
+            if (preserveText) {
+              emitWithOffsetAndLength(DECLARATION, start, -1);
+              if (!StringUtilities.endsWithChar(tail.getLexeme(), '>')) {
+                // TODO (danrubel): Report missing '>' in directive
+              }
             }
           }
 
@@ -262,9 +283,11 @@ public abstract class AbstractScanner {
               c = recordStartOfLineAndAdvance(c);
             }
           }
-          emitWithOffsetAndLength(DIRECTIVE, start, -1);
-          if (tail.getLength() < 4) {
-            // TODO (danrubel): Report invalid directive
+          if (preserveText) {
+            emitWithOffsetAndLength(DIRECTIVE, start, -1);
+            if (tail.getLength() < 4) {
+              // TODO (danrubel): Report invalid directive
+            }
           }
 
         } else if (c == '/') {
@@ -347,11 +370,19 @@ public abstract class AbstractScanner {
         c = advance();
 
       } else if (!inBrackets) {
+        boolean hasExpression = false;
+        int previous = c;
         c = recordStartOfLineAndAdvance(c);
         while (c != '<' && c >= 0) {
+          if (c == '{' && previous == '{') {
+            hasExpression = true;
+          }
+          previous = c;
           c = recordStartOfLineAndAdvance(c);
         }
-        emitWithOffsetAndLength(TEXT, start, -1);
+        if (preserveText || hasExpression) {
+          emitWithOffsetAndLength(TEXT, start, -1);
+        }
 
       } else if (c == '"' || c == '\'') {
         // read a string
@@ -34,6 +34,18 @@ import com.google.dart.engine.source.SourceContainer;
  * @coverage dart.engine.index
  */
 public interface Index {
+  /**
+   * Associate the given context with the given key, which must identify the same context across
+   * sessions, so that a persisted index can use the information recorded for the context in an
+   * earlier session. Unlike the other operations, this is done synchronously.
+   * <p>
+   * This method should be invoked when a context is created, before anything is indexed in it.
+   * 
+   * @param context the {@link AnalysisContext} being bound
+   * @param key the key identifying the context across sessions
+   */
+  void bindContext(AnalysisContext context, String key);
+
   /**
    * Asynchronously remove from the index all of the information.
    */
@@ -115,7 +127,10 @@ public interface Index {
   void run();
 
   /**
-   * Should be called to stop process running {@link #run()}, so stop processing requests.
+   * Should be called to stop process running {@link #run()}, so stop processing requests. Does not
+   * wait for the requests being processed to complete: the {@link IndexStore} is closed by the
+   * thread running {@link #run()} once they have completed, or by this method if {@link #run()} was
+   * never invoked.
    */
   void stop();
 }
@@ -21,16 +21,21 @@ import com.google.dart.engine.internal.index.file.ContextCodec;
 import com.google.dart.engine.internal.index.file.ElementCodec;
 import com.google.dart.engine.internal.index.file.FileManager;
 import com.google.dart.engine.internal.index.file.FileNodeManager;
+import com.google.dart.engine.internal.index.file.IndexJournal;
+import com.google.dart.engine.internal.index.file.IntToIntSetTable;
 import com.google.dart.engine.internal.index.file.NodeManager;
+import com.google.dart.engine.internal.index.file.PagedIntToIntSetTable;
 import com.google.dart.engine.internal.index.file.RelationshipCodec;
 import com.google.dart.engine.internal.index.file.SeparateFileManager;
 import com.google.dart.engine.internal.index.file.SplitIndexStoreImpl;
 import com.google.dart.engine.internal.index.file.StringCodec;
 import com.google.dart.engine.internal.index.operation.OperationProcessor;
 import com.google.dart.engine.internal.index.operation.OperationQueue;
+import com.google.dart.engine.utilities.logging.Logger;
 import com.google.dart.engine.utilities.translation.DartOmit;
 
 import java.io.File;
+import java.io.IOException;
 
 /**
  * Factory for {@link Index} and {@link IndexStore}.
@@ -39,24 +44,60 @@ import java.io.File;
  */
 @DartOmit
 public class IndexFactory {
+  /**
+   * The maximum number of pages of the mapping of elements to index files that are kept in memory.
+   */
+  private static final int MAX_ELEMENT_NODE_PAGES = 1024;
+
   /**
    * Returns an instance of {@link IndexStore} that stores data on disk in the given directory.
+   * <p>
+   * The codecs, the mapping of elements to index files and the library/unit pairs of the index
+   * files are persisted in journals, so if the directory contains an index written by an earlier
+   * session, it is used rather than discarded. Contexts must be bound to stable keys using
+   * {@link IndexStore#bindContext} for the information recorded for them in an earlier session to
+   * be found, and the store must be closed to write the journals completely.
+   * <p>
+   * While the store is used, the mapping of elements to index files is kept in a paged B+ tree on
+   * disk, so the heap it uses does not grow with the number of elements.
    */
   public static IndexStore newFileIndexStore(File directory) {
-    StringCodec stringCodec = new StringCodec();
-    ContextCodec contextCodec = new ContextCodec();
-    ElementCodec elementCodec = new ElementCodec(stringCodec);
-    RelationshipCodec relationshipCodec = new RelationshipCodec(stringCodec);
-    FileManager fileManager = new SeparateFileManager(directory);
-    NodeManager nodeManager = new FileNodeManager(
-        fileManager,
-        AnalysisEngine.getInstance().getLogger(),
-        stringCodec,
-        contextCodec,
-        elementCodec,
-        relationshipCodec);
-    nodeManager = new CachingNodeManager(nodeManager);
-    return newSplitIndexStore(nodeManager);
+    Logger logger = AnalysisEngine.getInstance().getLogger();
+    File journalDirectory = new File(directory, "journals");
+    journalDirectory.mkdirs();
+    // the records of each journal refer to the records of the journals before it
+    IndexJournal strings = new IndexJournal(new File(journalDirectory, "strings"), logger);
+    IndexJournal contexts = new IndexJournal(
+        new File(journalDirectory, "contexts"),
+        logger,
+        strings);
+    IndexJournal elements = new IndexJournal(
+        new File(journalDirectory, "elements"),
+        logger,
+        contexts);
+    IndexJournal[] journals = {
+        strings,
+        contexts,
+        elements,
+        new IndexJournal(new File(journalDirectory, "elementNodes"), logger, elements),
+        new IndexJournal(new File(journalDirectory, "units"), logger, elements)};
+    boolean restore = true;
+    for (IndexJournal journal : journals) {
+      restore &= journal.exists();
+    }
+    if (restore) {
+      try {
+        return newFileIndexStore(directory, logger, journals, true);
+      } catch (IOException exception) {
+        logger.logError("Exception during restoring index from " + directory, exception);
+      }
+    }
+    try {
+      return newFileIndexStore(directory, logger, journals, false);
+    } catch (IOException exception) {
+      // cannot happen, the journals are empty
+      throw new IllegalStateException(exception);
+    }
   }
 
   /**
@@ -64,7 +105,9 @@ public class IndexFactory {
    */
   public static Index newIndex(IndexStore store) {
     OperationQueue queue = new OperationQueue();
-    OperationProcessor processor = new OperationProcessor(queue);
+    // units are visited in parallel, but changes to the store are serialized
+    int workerCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    OperationProcessor processor = new OperationProcessor(queue, workerCount);
     return new IndexImpl(store, queue, processor);
   }
 
@@ -81,4 +124,52 @@ public class IndexFactory {
   public static IndexStore newSplitIndexStore(NodeManager nodeManager) {
     return new SplitIndexStoreImpl(nodeManager);
   }
+
+  /**
+   * Returns an instance of {@link IndexStore} that stores data on disk in the given directory,
+   * using the given journals to persist the codecs, the mapping of elements to index files and the
+   * library/unit pairs of the index files.
+   * 
+   * @param restore {@code true} if the existing index should be restored from the journals, or
+   *          {@code false} if it should be discarded
+   * @throws IOException if the journals cannot be read
+   */
+  private static IndexStore newFileIndexStore(File directory, Logger logger,
+      IndexJournal[] journals, boolean restore) throws IOException {
+    if (!restore) {
+      for (IndexJournal journal : journals) {
+        journal.clear();
+      }
+    }
+    StringCodec stringCodec = new StringCodec(journals[0]);
+    ContextCodec contextCodec = new ContextCodec(journals[1]);
+    ElementCodec elementCodec = new ElementCodec(stringCodec, journals[2]);
+    RelationshipCodec relationshipCodec = new RelationshipCodec(stringCodec);
+    FileManager fileManager = new SeparateFileManager(directory, !restore);
+    NodeManager nodeManager = new FileNodeManager(
+        fileManager,
+        logger,
+        stringCodec,
+        contextCodec,
+        elementCodec,
+        relationshipCodec);
+    nodeManager = new CachingNodeManager(nodeManager);
+    File pageDirectory = new File(directory, "pages");
+    pageDirectory.mkdirs();
+    IntToIntSetTable elementToNodeNames = new PagedIntToIntSetTable(
+        new File(pageDirectory, "elementNodes"),
+        MAX_ELEMENT_NODE_PAGES);
+    SplitIndexStoreImpl store;
+    try {
+      store = new SplitIndexStoreImpl(nodeManager, elementToNodeNames, journals[3], journals[4]);
+    } catch (IOException exception) {
+      elementToNodeNames.close();
+      throw exception;
+    }
+    if (restore) {
+      // remove the files of contexts that cannot be bound again and of removed units
+      fileManager.retainAll(store.getNodeNames());
+    }
+    return store;
+  }
 }
@@ -51,11 +51,30 @@ public interface IndexStore {
    */
   boolean aboutToIndexHtml(AnalysisContext context, HtmlElement htmlElement);
 
+  /**
+   * Associates the given {@link AnalysisContext} with the given key, which must identify the same
+   * context across sessions (for example, the path of the folder that the context analyzes). A
+   * store that is persisted uses the key to find the information recorded for the context in an
+   * earlier session, other stores ignore it.
+   * <p>
+   * This method should be invoked when a context is created, before anything is indexed in it.
+   * 
+   * @param context the {@link AnalysisContext} being bound
+   * @param key the key identifying the context across sessions
+   */
+  void bindContext(AnalysisContext context, String key);
+
   /**
    * Removes all of the information.
    */
   void clear();
 
+  /**
+   * Releases the resources used by this store, writing any information that is persisted. This
+   * method should be invoked when the store is no longer used.
+   */
+  void close();
+
   /**
    * Notifies that index store that the current Dart or HTML unit indexing is done.
    * <p>
@@ -69,6 +88,10 @@ public interface IndexStore {
    * For example, if the element represents a method and the relationship is the is-referenced-by
    * relationship, then the returned locations will be all of the places where the method is
    * invoked.
+   * <p>
+   * Unlike the other methods, this method is invoked without synchronizing on the store, so that a
+   * store that supports concurrent reads does not make queries wait for index operations. A store
+   * that does not support them must synchronize on itself.
    * 
    * @param element the the element that has the relationship with the locations to be returned
    * @param relationship the {@link Relationship} between the given element and the locations to be
@@ -17,10 +17,14 @@ import com.google.dart.engine.AnalysisEngine;
 import com.google.dart.engine.context.AnalysisContextStatistics.PartitionData;
 import com.google.dart.engine.internal.context.AnalysisContextStatisticsImpl;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.source.DirectoryBasedSourceContainer;
 import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceContainer;
 import com.google.dart.engine.utilities.collection.MapIterator;
 import com.google.dart.engine.utilities.collection.MultipleMapIterator;
 
+import java.io.File;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -66,6 +70,35 @@ public class AnalysisCache {
     }
   }
 
+  /**
+   * Add all of the sources in this cache that are contained in the given container to the given
+   * list. Sources in a {@link DirectoryBasedSourceContainer} are found using the path index of each
+   * partition rather than by testing every source in the cache. Subclasses of that class might
+   * override {@link SourceContainer#contains(Source)}, so their sources are found by testing.
+   * 
+   * @param sources the list to which the sources are to be added
+   * @param container the container containing the sources to be added
+   */
+  public void addSourcesInContainer(List<Source> sources, SourceContainer container) {
+    if (container.getClass() == DirectoryBasedSourceContainer.class) {
+      String path = ((DirectoryBasedSourceContainer) container).getPath();
+      if (path.length() > 0 && path.charAt(path.length() - 1) == File.separatorChar) {
+        int count = partitions.length;
+        for (int i = 0; i < count; i++) {
+          partitions[i].addSourcesInDirectory(path, sources);
+        }
+        return;
+      }
+    }
+    MapIterator<Source, SourceEntry> iterator = iterator();
+    while (iterator.moveNext()) {
+      Source source = iterator.getKey();
+      if (container.contains(source)) {
+        sources.add(source);
+      }
+    }
+  }
+
   /**
    * Return the entry associated with the given source.
    * 
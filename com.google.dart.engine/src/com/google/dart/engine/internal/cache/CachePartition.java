@@ -20,6 +20,7 @@ import com.google.dart.engine.utilities.collection.SingleMapIterator;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,6 +50,11 @@ public abstract class CachePartition {
    */
   private final HashMap<Source, SourceEntry> sourceMap = new HashMap<Source, SourceEntry>();
 
+  /**
+   * An index of the sources in {@link #sourceMap} by the directories containing them.
+   */
+  private final SourcePathTrie sourcesByPath = new SourcePathTrie();
+
   /**
    * A list containing the most recently accessed sources with the most recently used at the end of
    * the list. When more sources are added than the maximum allowed then the least recently used
@@ -92,6 +98,17 @@ public abstract class CachePartition {
     recentlyUsed.add(source);
   }
 
+  /**
+   * Add the sources in this partition whose full name starts with the given path to the given list.
+   * The path must end with {@link java.io.File#separatorChar}.
+   * 
+   * @param path the path of the directory containing the sources to be added
+   * @param sources the list to which the sources are to be added
+   */
+  public void addSourcesInDirectory(String path, List<Source> sources) {
+    sourcesByPath.addSourcesInDirectory(path, sources);
+  }
+
   /**
    * Return {@code true} if the given source is contained in this partition.
    * 
@@ -174,7 +191,9 @@ public abstract class CachePartition {
    */
   public void put(Source source, SourceEntry entry) {
     ((SourceEntryImpl) entry).fixExceptionState();
-    sourceMap.put(source, entry);
+    if (sourceMap.put(source, entry) == null) {
+      sourcesByPath.add(source);
+    }
   }
 
   /**
@@ -184,7 +203,9 @@ public abstract class CachePartition {
    */
   public void remove(Source source) {
     recentlyUsed.remove(source);
-    sourceMap.remove(source);
+    if (sourceMap.remove(source) != null) {
+      sourcesByPath.remove(source);
+    }
   }
 
   /**
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+/**
+ * The class {@code CacheStateArray} defines methods for operating on integers and longs as if they
+ * were arrays of {@link CacheState cache states}, in the same way that
+ * {@link com.google.dart.engine.utilities.collection.BooleanArray BooleanArray} treats integers as
+ * arrays of booleans. Each state occupies three bits, and a value of zero represents
+ * {@link CacheState#INVALID}, so an array whose value is zero has every element set to
+ * {@code INVALID}.
+ * 
+ * @coverage dart.engine
+ */
+public final class CacheStateArray {
+  /**
+   * The number of bits used to encode a single state.
+   */
+  private static final int BITS_PER_STATE = 3;
+
+  /**
+   * The mask used to extract a single encoded state.
+   */
+  private static final int STATE_MASK = (1 << BITS_PER_STATE) - 1;
+
+  /**
+   * The largest index that can be used with an integer-encoded array.
+   */
+  private static final int MAX_INT_INDEX = 32 / BITS_PER_STATE - 1;
+
+  /**
+   * The largest index that can be used with a long-encoded array.
+   */
+  private static final int MAX_LONG_INDEX = 64 / BITS_PER_STATE - 1;
+
+  /**
+   * The states corresponding to each of the encoded values.
+   */
+  private static final CacheState[] DECODED_STATES = {
+      CacheState.INVALID, CacheState.VALID, CacheState.FLUSHED, CacheState.IN_PROCESS,
+      CacheState.ERROR};
+
+  /**
+   * Return {@code true} if any element of the given array has the given value.
+   * 
+   * @param array the array being searched
+   * @param state the value being searched for
+   * @return {@code true} if any element of the array has the given value
+   */
+  public static boolean contains(int array, CacheState state) {
+    int code = encode(state);
+    for (int index = 0; index <= MAX_INT_INDEX; index++) {
+      if (((array >>> (index * BITS_PER_STATE)) & STATE_MASK) == code) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Return {@code true} if any element of the given array has the given value.
+   * 
+   * @param array the array being searched
+   * @param state the value being searched for
+   * @return {@code true} if any element of the array has the given value
+   */
+  public static boolean contains(long array, CacheState state) {
+    int code = encode(state);
+    for (int index = 0; index <= MAX_LONG_INDEX; index++) {
+      if (((int) (array >>> (index * BITS_PER_STATE)) & STATE_MASK) == code) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Return the value of the element at the given index.
+   * 
+   * @param array the array being accessed
+   * @param index the index of the element being accessed
+   * @return the value of the element at the given index
+   * @throws IndexOutOfBoundsException if the index is not between zero (0) and 9, inclusive
+   */
+  public static CacheState get(int array, int index) {
+    checkIndex(index, MAX_INT_INDEX);
+    return DECODED_STATES[(array >>> (index * BITS_PER_STATE)) & STATE_MASK];
+  }
+
+  /**
+   * Return the value of the element at the given index.
+   * 
+   * @param array the array being accessed
+   * @param index the index of the element being accessed
+   * @return the value of the element at the given index
+   * @throws IndexOutOfBoundsException if the index is not between zero (0) and 20, inclusive
+   */
+  public static CacheState get(long array, int index) {
+    checkIndex(index, MAX_LONG_INDEX);
+    return DECODED_STATES[(int) (array >>> (index * BITS_PER_STATE)) & STATE_MASK];
+  }
+
+  /**
+   * Set the value of the element at the given index to the given value.
+   * 
+   * @param array the array being modified
+   * @param index the index of the element being set
+   * @param state the value to be assigned to the element
+   * @return the updated value of the array
+   * @throws IndexOutOfBoundsException if the index is not between zero (0) and 9, inclusive
+   */
+  public static int set(int array, int index, CacheState state) {
+    checkIndex(index, MAX_INT_INDEX);
+    int shift = index * BITS_PER_STATE;
+    return (array & ~(STATE_MASK << shift)) | (encode(state) << shift);
+  }
+
+  /**
+   * Set the value of the element at the given index to the given value.
+   * 
+   * @param array the array being modified
+   * @param index the index of the element being set
+   * @param state the value to be assigned to the element
+   * @return the updated value of the array
+   * @throws IndexOutOfBoundsException if the index is not between zero (0) and 20, inclusive
+   */
+  public static long set(long array, int index, CacheState state) {
+    checkIndex(index, MAX_LONG_INDEX);
+    int shift = index * BITS_PER_STATE;
+    return (array & ~((long) STATE_MASK << shift)) | ((long) encode(state) << shift);
+  }
+
+  /**
+   * Throw an exception if the index is not within the bounds allowed for an encoded array of
+   * states.
+   * 
+   * @throws IndexOutOfBoundsException if the index is not between zero (0) and the given maximum,
+   *           inclusive
+   */
+  private static void checkIndex(int index, int maxIndex) {
+    if (index < 0 || index > maxIndex) {
+      throw new IndexOutOfBoundsException("Index not between 0 and " + maxIndex + ": " + index);
+    }
+  }
+
+  /**
+   * Return the value used to encode the given state.
+   * 
+   * @param state the state to be encoded
+   * @return the value used to encode the given state
+   */
+  private static int encode(CacheState state) {
+    switch (state) {
+      case INVALID:
+        return 0;
+      case VALID:
+        return 1;
+      case FLUSHED:
+        return 2;
+      case IN_PROCESS:
+        return 3;
+      case ERROR:
+        return 4;
+    }
+    throw new IllegalArgumentException("Invalid state: " + state);
+  }
+
+  /**
+   * Prevent the creation of instances of this class.
+   */
+  private CacheStateArray() {
+    super();
+  }
+}
@@ -52,9 +52,10 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     private Source librarySource;
 
     /**
-     * The state of the cached compilation unit that contains references to the built element model.
+     * A bit-encoding of the states of the data values associated with this state, in the form used
+     * by {@link CacheStateArray}.
      */
-    private CacheState builtUnitState = CacheState.INVALID;
+    private int states;
 
     /**
      * The compilation unit that contains references to the built element model, or {@code null} if
@@ -62,33 +63,18 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      */
     private CompilationUnit builtUnit;
 
-    /**
-     * The state of the cached errors reported while building an element model.
-     */
-    private CacheState buildElementErrorsState = CacheState.INVALID;
-
     /**
      * The errors produced while building an element model, or an empty array if the errors are not
      * currently cached.
      */
     private AnalysisError[] buildElementErrors = AnalysisError.NO_ERRORS;
 
-    /**
-     * The state of the cached resolved compilation unit.
-     */
-    private CacheState resolvedUnitState = CacheState.INVALID;
-
     /**
      * The resolved compilation unit, or {@code null} if the resolved compilation unit is not
      * currently cached.
      */
     private CompilationUnit resolvedUnit;
 
-    /**
-     * The state of the cached resolution errors.
-     */
-    private CacheState resolutionErrorsState = CacheState.INVALID;
-
     /**
      * The errors produced while resolving the compilation unit, or an empty array if the errors are
      * not currently cached.
@@ -96,26 +82,48 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     private AnalysisError[] resolutionErrors = AnalysisError.NO_ERRORS;
 
     /**
-     * The state of the cached verification errors.
+     * The errors produced while verifying the compilation unit, or an empty array if the errors are
+     * not currently cached.
      */
-    private CacheState verificationErrorsState = CacheState.INVALID;
+    private AnalysisError[] verificationErrors = AnalysisError.NO_ERRORS;
 
     /**
-     * The errors produced while verifying the compilation unit, or an empty array if the errors are
+     * The hints produced while auditing the compilation unit, or an empty array if the hints are
      * not currently cached.
      */
-    private AnalysisError[] verificationErrors = AnalysisError.NO_ERRORS;
+    private AnalysisError[] hints = AnalysisError.NO_ERRORS;
 
     /**
-     * The state of the cached hints.
+     * The index in {@link #states} of the state of the cached compilation unit that contains
+     * references to the built element model.
      */
-    private CacheState hintsState = CacheState.INVALID;
+    private static final int BUILT_UNIT_STATE_INDEX = 0;
 
     /**
-     * The hints produced while auditing the compilation unit, or an empty array if the hints are
-     * not currently cached.
+     * The index in {@link #states} of the state of the cached errors reported while building an
+     * element model.
      */
-    private AnalysisError[] hints = AnalysisError.NO_ERRORS;
+    private static final int BUILD_ELEMENT_ERRORS_STATE_INDEX = 1;
+
+    /**
+     * The index in {@link #states} of the state of the cached resolved compilation unit.
+     */
+    private static final int RESOLVED_UNIT_STATE_INDEX = 2;
+
+    /**
+     * The index in {@link #states} of the state of the cached resolution errors.
+     */
+    private static final int RESOLUTION_ERRORS_STATE_INDEX = 3;
+
+    /**
+     * The index in {@link #states} of the state of the cached verification errors.
+     */
+    private static final int VERIFICATION_ERRORS_STATE_INDEX = 4;
+
+    /**
+     * The index in {@link #states} of the state of the cached hints.
+     */
+    private static final int HINTS_STATE_INDEX = 5;
 
     /**
      * Initialize a newly created resolution state.
@@ -132,23 +140,18 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      */
     public void copyFrom(ResolutionState other) {
       librarySource = other.librarySource;
+      states = other.states;
 
-      builtUnitState = other.builtUnitState;
       builtUnit = other.builtUnit;
 
-      buildElementErrorsState = other.buildElementErrorsState;
       buildElementErrors = other.buildElementErrors;
 
-      resolvedUnitState = other.resolvedUnitState;
       resolvedUnit = other.resolvedUnit;
 
-      resolutionErrorsState = other.resolutionErrorsState;
       resolutionErrors = other.resolutionErrors;
 
-      verificationErrorsState = other.verificationErrorsState;
       verificationErrors = other.verificationErrors;
 
-      hintsState = other.hintsState;
       hints = other.hints;
 
       if (other.nextState != null) {
@@ -161,12 +164,12 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      * Flush any AST structures being maintained by this state.
      */
     public void flushAstStructures() {
-      if (builtUnitState == CacheState.VALID) {
-        builtUnitState = CacheState.FLUSHED;
+      if (getStateAt(BUILT_UNIT_STATE_INDEX) == CacheState.VALID) {
+        setStateAt(BUILT_UNIT_STATE_INDEX, CacheState.FLUSHED);
         builtUnit = null;
       }
-      if (resolvedUnitState == CacheState.VALID) {
-        resolvedUnitState = CacheState.FLUSHED;
+      if (getStateAt(RESOLVED_UNIT_STATE_INDEX) == CacheState.VALID) {
+        setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.FLUSHED);
         resolvedUnit = null;
       }
       if (nextState != null) {
@@ -174,10 +177,18 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
       }
     }
 
+    /**
+     * Return the state of the data value whose state is recorded at the given index.
+     * 
+     * @param index the index of the state to be returned
+     * @return the state of the data value whose state is recorded at the given index
+     */
+    public CacheState getStateAt(int index) {
+      return CacheStateArray.get(states, index);
+    }
+
     public boolean hasErrorState() {
-      return builtUnitState == CacheState.ERROR || buildElementErrorsState == CacheState.ERROR
-          || resolvedUnitState == CacheState.ERROR || resolutionErrorsState == CacheState.ERROR
-          || verificationErrorsState == CacheState.ERROR || hintsState == CacheState.ERROR
+      return CacheStateArray.contains(states, CacheState.ERROR)
           || (nextState != null && nextState.hasErrorState());
     }
 
@@ -188,22 +199,22 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
       nextState = null;
       librarySource = null;
 
-      builtUnitState = CacheState.INVALID;
+      setStateAt(BUILT_UNIT_STATE_INDEX, CacheState.INVALID);
       builtUnit = null;
 
-      buildElementErrorsState = CacheState.INVALID;
+      setStateAt(BUILD_ELEMENT_ERRORS_STATE_INDEX, CacheState.INVALID);
       buildElementErrors = AnalysisError.NO_ERRORS;
 
-      resolvedUnitState = CacheState.INVALID;
+      setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.INVALID);
       resolvedUnit = null;
 
-      resolutionErrorsState = CacheState.INVALID;
+      setStateAt(RESOLUTION_ERRORS_STATE_INDEX, CacheState.INVALID);
       resolutionErrors = AnalysisError.NO_ERRORS;
 
-      verificationErrorsState = CacheState.INVALID;
+      setStateAt(VERIFICATION_ERRORS_STATE_INDEX, CacheState.INVALID);
       verificationErrors = AnalysisError.NO_ERRORS;
 
-      hintsState = CacheState.INVALID;
+      setStateAt(HINTS_STATE_INDEX, CacheState.INVALID);
       hints = AnalysisError.NO_ERRORS;
     }
 
@@ -212,10 +223,10 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      * represented by this state.
      */
     public void recordBuildElementError() {
-      builtUnitState = CacheState.ERROR;
+      setStateAt(BUILT_UNIT_STATE_INDEX, CacheState.ERROR);
       builtUnit = null;
 
-      buildElementErrorsState = CacheState.ERROR;
+      setStateAt(BUILD_ELEMENT_ERRORS_STATE_INDEX, CacheState.ERROR);
       buildElementErrors = AnalysisError.NO_ERRORS;
 
       recordResolutionError();
@@ -227,7 +238,7 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      */
     public void recordHintError() {
       hints = AnalysisError.NO_ERRORS;
-      hintsState = CacheState.ERROR;
+      setStateAt(HINTS_STATE_INDEX, CacheState.ERROR);
     }
 
     /**
@@ -235,10 +246,10 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      * state.
      */
     public void recordResolutionError() {
-      resolvedUnitState = CacheState.ERROR;
+      setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.ERROR);
       resolvedUnit = null;
 
-      resolutionErrorsState = CacheState.ERROR;
+      setStateAt(RESOLUTION_ERRORS_STATE_INDEX, CacheState.ERROR);
       resolutionErrors = AnalysisError.NO_ERRORS;
 
       recordVerificationError();
@@ -250,16 +261,16 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      * will not change the state of any parse results.
      */
     public void recordResolutionErrorsInAllLibraries() {
-      builtUnitState = CacheState.ERROR;
+      setStateAt(BUILT_UNIT_STATE_INDEX, CacheState.ERROR);
       builtUnit = null;
 
-      buildElementErrorsState = CacheState.ERROR;
+      setStateAt(BUILD_ELEMENT_ERRORS_STATE_INDEX, CacheState.ERROR);
       buildElementErrors = AnalysisError.NO_ERRORS;
 
-      resolvedUnitState = CacheState.ERROR;
+      setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.ERROR);
       resolvedUnit = null;
 
-      resolutionErrorsState = CacheState.ERROR;
+      setStateAt(RESOLUTION_ERRORS_STATE_INDEX, CacheState.ERROR);
       resolutionErrors = AnalysisError.NO_ERRORS;
 
       recordVerificationError();
@@ -274,17 +285,17 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      * were invalidated before they could be recorded.
      */
     public void recordResolutionNotInProcess() {
-      if (resolvedUnitState == CacheState.IN_PROCESS) {
-        resolvedUnitState = CacheState.INVALID;
+      if (getStateAt(RESOLVED_UNIT_STATE_INDEX) == CacheState.IN_PROCESS) {
+        setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.INVALID);
       }
-      if (resolutionErrorsState == CacheState.IN_PROCESS) {
-        resolutionErrorsState = CacheState.INVALID;
+      if (getStateAt(RESOLUTION_ERRORS_STATE_INDEX) == CacheState.IN_PROCESS) {
+        setStateAt(RESOLUTION_ERRORS_STATE_INDEX, CacheState.INVALID);
       }
-      if (verificationErrorsState == CacheState.IN_PROCESS) {
-        verificationErrorsState = CacheState.INVALID;
+      if (getStateAt(VERIFICATION_ERRORS_STATE_INDEX) == CacheState.IN_PROCESS) {
+        setStateAt(VERIFICATION_ERRORS_STATE_INDEX, CacheState.INVALID);
       }
-      if (hintsState == CacheState.IN_PROCESS) {
-        hintsState = CacheState.INVALID;
+      if (getStateAt(HINTS_STATE_INDEX) == CacheState.IN_PROCESS) {
+        setStateAt(HINTS_STATE_INDEX, CacheState.INVALID);
       }
       if (nextState != null) {
         nextState.recordResolutionNotInProcess();
@@ -298,11 +309,22 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
      */
     public void recordVerificationError() {
       verificationErrors = AnalysisError.NO_ERRORS;
-      verificationErrorsState = CacheState.ERROR;
+      setStateAt(VERIFICATION_ERRORS_STATE_INDEX, CacheState.ERROR);
 
       recordHintError();
     }
 
+    /**
+     * Set the state of the data value whose state is recorded at the given index to the given
+     * state.
+     * 
+     * @param index the index of the state to be set
+     * @param state the new state of the data value
+     */
+    public void setStateAt(int index, CacheState state) {
+      states = CacheStateArray.set(states, index, state);
+    }
+
     /**
      * Write a textual representation of the difference between the old entry and this entry to the
      * given string builder.
@@ -317,28 +339,28 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
           needsSeparator,
           oldEntry,
           RESOLVED_UNIT,
-          resolvedUnitState,
+          getStateAt(RESOLVED_UNIT_STATE_INDEX),
           "resolvedUnit");
       needsSeparator = writeStateDiffOn(
           builder,
           needsSeparator,
           oldEntry,
           RESOLUTION_ERRORS,
-          resolutionErrorsState,
+          getStateAt(RESOLUTION_ERRORS_STATE_INDEX),
           "resolutionErrors");
       needsSeparator = writeStateDiffOn(
           builder,
           needsSeparator,
           oldEntry,
           VERIFICATION_ERRORS,
-          verificationErrorsState,
+          getStateAt(VERIFICATION_ERRORS_STATE_INDEX),
           "verificationErrors");
       needsSeparator = writeStateDiffOn(
           builder,
           needsSeparator,
           oldEntry,
           HINTS,
-          hintsState,
+          getStateAt(HINTS_STATE_INDEX),
           "hints");
       return needsSeparator;
     }
@@ -352,17 +374,17 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     protected void writeOn(StringBuilder builder) {
       if (librarySource != null) {
         builder.append("; builtUnit = ");
-        builder.append(builtUnitState);
+        builder.append(getStateAt(BUILT_UNIT_STATE_INDEX));
         builder.append("; buildElementErrors = ");
-        builder.append(buildElementErrorsState);
+        builder.append(getStateAt(BUILD_ELEMENT_ERRORS_STATE_INDEX));
         builder.append("; resolvedUnit = ");
-        builder.append(resolvedUnitState);
+        builder.append(getStateAt(RESOLVED_UNIT_STATE_INDEX));
         builder.append("; resolutionErrors = ");
-        builder.append(resolutionErrorsState);
+        builder.append(getStateAt(RESOLUTION_ERRORS_STATE_INDEX));
         builder.append("; verificationErrors = ");
-        builder.append(verificationErrorsState);
+        builder.append(getStateAt(VERIFICATION_ERRORS_STATE_INDEX));
         builder.append("; hints = ");
-        builder.append(hintsState);
+        builder.append(getStateAt(HINTS_STATE_INDEX));
         if (nextState != null) {
           nextState.writeOn(builder);
         }
@@ -398,42 +420,22 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     }
   }
 
-  /**
-   * The state of the cached token stream.
-   */
-  private CacheState tokenStreamState = CacheState.INVALID;
-
   /**
    * The head of the token stream, or {@code null} if the token stream is not currently cached.
    */
   private Token tokenStream;
 
-  /**
-   * The state of the cached scan errors.
-   */
-  private CacheState scanErrorsState = CacheState.INVALID;
-
   /**
    * The errors produced while scanning the compilation unit, or an empty array if the errors are
    * not currently cached.
    */
   private AnalysisError[] scanErrors = AnalysisError.NO_ERRORS;
 
-  /**
-   * The state of the cached source kind.
-   */
-  private CacheState sourceKindState = CacheState.INVALID;
-
   /**
    * The kind of this source.
    */
   private SourceKind sourceKind = SourceKind.UNKNOWN;
 
-  /**
-   * The state of the cached parsed compilation unit.
-   */
-  private CacheState parsedUnitState = CacheState.INVALID;
-
   /**
    * A flag indicating whether the parsed AST structure has been accessed since it was set. This is
    * used to determine whether the structure needs to be copied before it is resolved.
@@ -446,44 +448,24 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    */
   private CompilationUnit parsedUnit;
 
-  /**
-   * The state of the cached parse errors.
-   */
-  private CacheState parseErrorsState = CacheState.INVALID;
-
   /**
    * The errors produced while parsing the compilation unit, or an empty array if the errors are not
    * currently cached.
    */
   private AnalysisError[] parseErrors = AnalysisError.NO_ERRORS;
 
-  /**
-   * The state of the cached list of imported libraries.
-   */
-  private CacheState importedLibrariesState = CacheState.INVALID;
-
   /**
    * The list of libraries imported by the library, or an empty array if the list is not currently
    * cached. The list will be empty if the Dart file is a part rather than a library.
    */
   private Source[] importedLibraries = Source.EMPTY_ARRAY;
 
-  /**
-   * The state of the cached list of exported libraries.
-   */
-  private CacheState exportedLibrariesState = CacheState.INVALID;
-
   /**
    * The list of libraries exported by the library, or an empty array if the list is not currently
    * cached. The list will be empty if the Dart file is a part rather than a library.
    */
   private Source[] exportedLibraries = Source.EMPTY_ARRAY;
 
-  /**
-   * The state of the cached list of included parts.
-   */
-  private CacheState includedPartsState = CacheState.INVALID;
-
   /**
    * The list of parts included in the library, or an empty array if the list is not currently
    * cached. The list will be empty if the Dart file is a part rather than a library.
@@ -502,36 +484,16 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    */
   private ResolutionState resolutionState = new ResolutionState();
 
-  /**
-   * The state of the cached library element.
-   */
-  private CacheState elementState = CacheState.INVALID;
-
   /**
    * The element representing the library, or {@code null} if the element is not currently cached.
    */
   private LibraryElement element;
 
-  /**
-   * The state of the cached public namespace.
-   */
-  private CacheState publicNamespaceState = CacheState.INVALID;
-
   /**
    * The public namespace of the library, or {@code null} if the namespace is not currently cached.
    */
   private Namespace publicNamespace;
 
-  /**
-   * The state of the cached client/ server flag.
-   */
-  private CacheState clientServerState = CacheState.INVALID;
-
-  /**
-   * The state of the cached launchable flag.
-   */
-  private CacheState launchableState = CacheState.INVALID;
-
   /**
    * The error produced while performing Angular resolution, or an empty array if there are no
    * errors if the error are not currently cached.
@@ -551,6 +513,66 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    */
   private static final int CLIENT_CODE_INDEX = 2;
 
+  /**
+   * The index of the state of the cached token stream.
+   */
+  private static final int TOKEN_STREAM_STATE_INDEX = 2;
+
+  /**
+   * The index of the state of the cached scan errors.
+   */
+  private static final int SCAN_ERRORS_STATE_INDEX = 3;
+
+  /**
+   * The index of the state of the cached source kind.
+   */
+  private static final int SOURCE_KIND_STATE_INDEX = 4;
+
+  /**
+   * The index of the state of the cached parsed compilation unit.
+   */
+  private static final int PARSED_UNIT_STATE_INDEX = 5;
+
+  /**
+   * The index of the state of the cached parse errors.
+   */
+  private static final int PARSE_ERRORS_STATE_INDEX = 6;
+
+  /**
+   * The index of the state of the cached list of imported libraries.
+   */
+  private static final int IMPORTED_LIBRARIES_STATE_INDEX = 7;
+
+  /**
+   * The index of the state of the cached list of exported libraries.
+   */
+  private static final int EXPORTED_LIBRARIES_STATE_INDEX = 8;
+
+  /**
+   * The index of the state of the cached list of included parts.
+   */
+  private static final int INCLUDED_PARTS_STATE_INDEX = 9;
+
+  /**
+   * The index of the state of the cached library element.
+   */
+  private static final int ELEMENT_STATE_INDEX = 10;
+
+  /**
+   * The index of the state of the cached public namespace.
+   */
+  private static final int PUBLIC_NAMESPACE_STATE_INDEX = 11;
+
+  /**
+   * The index of the state of the cached client/ server flag.
+   */
+  private static final int CLIENT_SERVER_STATE_INDEX = 12;
+
+  /**
+   * The index of the state of the cached launchable flag.
+   */
+  private static final int LAUNCHABLE_STATE_INDEX = 13;
+
   /**
    * Initialize a newly created cache entry to be empty.
    */
@@ -572,12 +594,12 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    * Flush any AST structures being maintained by this entry.
    */
   public void flushAstStructures() {
-    if (tokenStreamState == CacheState.VALID) {
-      tokenStreamState = CacheState.FLUSHED;
+    if (getStateAt(TOKEN_STREAM_STATE_INDEX) == CacheState.VALID) {
+      setStateAt(TOKEN_STREAM_STATE_INDEX, CacheState.FLUSHED);
       tokenStream = null;
     }
-    if (parsedUnitState == CacheState.VALID) {
-      parsedUnitState = CacheState.FLUSHED;
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.VALID) {
+      setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.FLUSHED);
       parsedUnitAccessed = false;
       parsedUnit = null;
     }
@@ -606,13 +628,13 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
 
   @Override
   public CompilationUnit getAnyParsedCompilationUnit() {
-    if (parsedUnitState == CacheState.VALID) {
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.VALID) {
       parsedUnitAccessed = true;
       return parsedUnit;
     }
     ResolutionState state = resolutionState;
     while (state != null) {
-      if (state.builtUnitState == CacheState.VALID) {
+      if (state.getStateAt(ResolutionState.BUILT_UNIT_STATE_INDEX) == CacheState.VALID) {
         return state.builtUnit;
       }
       state = state.nextState;
@@ -624,7 +646,7 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
   public CompilationUnit getAnyResolvedCompilationUnit() {
     ResolutionState state = resolutionState;
     while (state != null) {
-      if (state.resolvedUnitState == CacheState.VALID) {
+      if (state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX) == CacheState.VALID) {
         return state.resolvedUnit;
       }
       state = state.nextState;
@@ -668,24 +690,24 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    * @return a compilation unit that can be modified by the reconciler
    */
   public CompilationUnit getResolvableCompilationUnit() {
-    if (parsedUnitState == CacheState.VALID) {
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.VALID) {
       if (parsedUnitAccessed) {
         return (CompilationUnit) parsedUnit.accept(new AstCloner());
       }
       CompilationUnit unit = parsedUnit;
-      parsedUnitState = CacheState.FLUSHED;
+      setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.FLUSHED);
       parsedUnitAccessed = false;
       parsedUnit = null;
       return unit;
     }
     ResolutionState state = resolutionState;
     while (state != null) {
-      if (state.builtUnitState == CacheState.VALID) {
+      if (state.getStateAt(ResolutionState.BUILT_UNIT_STATE_INDEX) == CacheState.VALID) {
         // TODO(brianwilkerson) We're cloning the structure to remove any previous resolution data,
         // but I'm not sure that's necessary.
         return (CompilationUnit) state.builtUnit.accept(new AstCloner());
       }
-      if (state.resolvedUnitState == CacheState.VALID) {
+      if (state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX) == CacheState.VALID) {
         return (CompilationUnit) state.resolvedUnit.accept(new AstCloner());
       }
       state = state.nextState;
@@ -696,29 +718,29 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
   @Override
   public CacheState getState(DataDescriptor<?> descriptor) {
     if (descriptor == ELEMENT) {
-      return elementState;
+      return getStateAt(ELEMENT_STATE_INDEX);
     } else if (descriptor == EXPORTED_LIBRARIES) {
-      return exportedLibrariesState;
+      return getStateAt(EXPORTED_LIBRARIES_STATE_INDEX);
     } else if (descriptor == IMPORTED_LIBRARIES) {
-      return importedLibrariesState;
+      return getStateAt(IMPORTED_LIBRARIES_STATE_INDEX);
     } else if (descriptor == INCLUDED_PARTS) {
-      return includedPartsState;
+      return getStateAt(INCLUDED_PARTS_STATE_INDEX);
     } else if (descriptor == IS_CLIENT) {
-      return clientServerState;
+      return getStateAt(CLIENT_SERVER_STATE_INDEX);
     } else if (descriptor == IS_LAUNCHABLE) {
-      return launchableState;
+      return getStateAt(LAUNCHABLE_STATE_INDEX);
     } else if (descriptor == PARSE_ERRORS) {
-      return parseErrorsState;
+      return getStateAt(PARSE_ERRORS_STATE_INDEX);
     } else if (descriptor == PARSED_UNIT) {
-      return parsedUnitState;
+      return getStateAt(PARSED_UNIT_STATE_INDEX);
     } else if (descriptor == PUBLIC_NAMESPACE) {
-      return publicNamespaceState;
+      return getStateAt(PUBLIC_NAMESPACE_STATE_INDEX);
     } else if (descriptor == SCAN_ERRORS) {
-      return scanErrorsState;
+      return getStateAt(SCAN_ERRORS_STATE_INDEX);
     } else if (descriptor == SOURCE_KIND) {
-      return sourceKindState;
+      return getStateAt(SOURCE_KIND_STATE_INDEX);
     } else if (descriptor == TOKEN_STREAM) {
-      return tokenStreamState;
+      return getStateAt(TOKEN_STREAM_STATE_INDEX);
     } else {
       return super.getState(descriptor);
     }
@@ -730,13 +752,13 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     while (state != null) {
       if (librarySource.equals(state.librarySource)) {
         if (descriptor == RESOLUTION_ERRORS) {
-          return state.resolutionErrorsState;
+          return state.getStateAt(ResolutionState.RESOLUTION_ERRORS_STATE_INDEX);
         } else if (descriptor == RESOLVED_UNIT) {
-          return state.resolvedUnitState;
+          return state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX);
         } else if (descriptor == VERIFICATION_ERRORS) {
-          return state.verificationErrorsState;
+          return state.getStateAt(ResolutionState.VERIFICATION_ERRORS_STATE_INDEX);
         } else if (descriptor == HINTS) {
-          return state.hintsState;
+          return state.getStateAt(ResolutionState.HINTS_STATE_INDEX);
         } else {
           throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
         }
@@ -826,41 +848,43 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
   @Override
   public boolean hasInvalidData(DataDescriptor<?> descriptor) {
     if (descriptor == ELEMENT) {
-      return elementState == CacheState.INVALID;
+      return getStateAt(ELEMENT_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == EXPORTED_LIBRARIES) {
-      return exportedLibrariesState == CacheState.INVALID;
+      return getStateAt(EXPORTED_LIBRARIES_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == IMPORTED_LIBRARIES) {
-      return importedLibrariesState == CacheState.INVALID;
+      return getStateAt(IMPORTED_LIBRARIES_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == INCLUDED_PARTS) {
-      return includedPartsState == CacheState.INVALID;
+      return getStateAt(INCLUDED_PARTS_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == IS_CLIENT) {
-      return clientServerState == CacheState.INVALID;
+      return getStateAt(CLIENT_SERVER_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == IS_LAUNCHABLE) {
-      return launchableState == CacheState.INVALID;
+      return getStateAt(LAUNCHABLE_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == PARSE_ERRORS) {
-      return parseErrorsState == CacheState.INVALID;
+      return getStateAt(PARSE_ERRORS_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == PARSED_UNIT) {
-      return parsedUnitState == CacheState.INVALID;
+      return getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == PUBLIC_NAMESPACE) {
-      return publicNamespaceState == CacheState.INVALID;
+      return getStateAt(PUBLIC_NAMESPACE_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == SCAN_ERRORS) {
-      return scanErrorsState == CacheState.INVALID;
+      return getStateAt(SCAN_ERRORS_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == SOURCE_KIND) {
-      return sourceKindState == CacheState.INVALID;
+      return getStateAt(SOURCE_KIND_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == TOKEN_STREAM) {
-      return tokenStreamState == CacheState.INVALID;
+      return getStateAt(TOKEN_STREAM_STATE_INDEX) == CacheState.INVALID;
     } else if (descriptor == RESOLUTION_ERRORS || descriptor == RESOLVED_UNIT
         || descriptor == VERIFICATION_ERRORS || descriptor == HINTS) {
       ResolutionState state = resolutionState;
       while (state != null) {
         if (descriptor == RESOLUTION_ERRORS) {
-          return state.resolutionErrorsState == CacheState.INVALID;
+          return state.getStateAt(ResolutionState.RESOLUTION_ERRORS_STATE_INDEX)
+              == CacheState.INVALID;
         } else if (descriptor == RESOLVED_UNIT) {
-          return state.resolvedUnitState == CacheState.INVALID;
+          return state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX) == CacheState.INVALID;
         } else if (descriptor == VERIFICATION_ERRORS) {
-          return state.verificationErrorsState == CacheState.INVALID;
+          return state.getStateAt(ResolutionState.VERIFICATION_ERRORS_STATE_INDEX)
+              == CacheState.INVALID;
         } else if (descriptor == HINTS) {
-          return state.hintsState == CacheState.INVALID;
+          return state.getStateAt(ResolutionState.HINTS_STATE_INDEX) == CacheState.INVALID;
         }
       }
       return false;
@@ -871,12 +895,13 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
 
   @Override
   public boolean hasResolvableCompilationUnit() {
-    if (parsedUnitState == CacheState.VALID) {
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.VALID) {
       return true;
     }
     ResolutionState state = resolutionState;
     while (state != null) {
-      if (state.builtUnitState == CacheState.VALID || state.resolvedUnitState == CacheState.VALID) {
+      if (state.getStateAt(ResolutionState.BUILT_UNIT_STATE_INDEX) == CacheState.VALID
+          || state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX) == CacheState.VALID) {
         return true;
       }
       state = state.nextState;
@@ -889,20 +914,20 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     super.invalidateAllInformation();
 
     scanErrors = AnalysisError.NO_ERRORS;
-    scanErrorsState = CacheState.INVALID;
+    setStateAt(SCAN_ERRORS_STATE_INDEX, CacheState.INVALID);
 
     tokenStream = null;
-    tokenStreamState = CacheState.INVALID;
+    setStateAt(TOKEN_STREAM_STATE_INDEX, CacheState.INVALID);
 
     sourceKind = SourceKind.UNKNOWN;
-    sourceKindState = CacheState.INVALID;
+    setStateAt(SOURCE_KIND_STATE_INDEX, CacheState.INVALID);
 
     parseErrors = AnalysisError.NO_ERRORS;
-    parseErrorsState = CacheState.INVALID;
+    setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.INVALID);
 
     parsedUnit = null;
     parsedUnitAccessed = false;
-    parsedUnitState = CacheState.INVALID;
+    setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.INVALID);
 
     discardCachedResolutionInformation(true);
   }
@@ -914,18 +939,19 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    *          be invalidated.
    */
   public void invalidateAllResolutionInformation(boolean invalidateUris) {
-    if (parsedUnitState == CacheState.FLUSHED) {
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.FLUSHED) {
       ResolutionState state = resolutionState;
       while (state != null) {
-        if (state.builtUnitState == CacheState.VALID) {
+        if (state.getStateAt(ResolutionState.BUILT_UNIT_STATE_INDEX) == CacheState.VALID) {
           parsedUnit = state.builtUnit;
           parsedUnitAccessed = true;
-          parsedUnitState = CacheState.VALID;
+          setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.VALID);
           break;
-        } else if (state.resolvedUnitState == CacheState.VALID) {
+        } else if (state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX)
+            == CacheState.VALID) {
           parsedUnit = state.resolvedUnit;
           parsedUnitAccessed = true;
-          parsedUnitState = CacheState.VALID;
+          setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.VALID);
           break;
         }
         state = state.nextState;
@@ -938,7 +964,7 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
   public boolean isRefactoringSafe() {
     ResolutionState state = resolutionState;
     while (state != null) {
-      CacheState resolvedState = state.resolvedUnitState;
+      CacheState resolvedState = state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX);
       if (resolvedState != CacheState.VALID && resolvedState != CacheState.FLUSHED) {
         return false;
       }
@@ -959,11 +985,11 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     setException(exception);
 
     element = null;
-    elementState = CacheState.ERROR;
+    setStateAt(ELEMENT_STATE_INDEX, CacheState.ERROR);
 
     clearFlags(LAUNCHABLE_INDEX, CLIENT_CODE_INDEX);
-    clientServerState = CacheState.ERROR;
-    launchableState = CacheState.ERROR;
+    setStateAt(CLIENT_SERVER_STATE_INDEX, CacheState.ERROR);
+    setStateAt(LAUNCHABLE_STATE_INDEX, CacheState.ERROR);
 
     ResolutionState state = getOrCreateResolutionState(librarySource);
     state.recordBuildElementError();
@@ -974,14 +1000,14 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    * were invalidated before they could be recorded.
    */
   public void recordBuildElementNotInProcess() {
-    if (elementState == CacheState.IN_PROCESS) {
-      elementState = CacheState.INVALID;
+    if (getStateAt(ELEMENT_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(ELEMENT_STATE_INDEX, CacheState.INVALID);
     }
-    if (clientServerState == CacheState.IN_PROCESS) {
-      clientServerState = CacheState.INVALID;
+    if (getStateAt(CLIENT_SERVER_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(CLIENT_SERVER_STATE_INDEX, CacheState.INVALID);
     }
-    if (launchableState == CacheState.IN_PROCESS) {
-      launchableState = CacheState.INVALID;
+    if (getStateAt(LAUNCHABLE_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(LAUNCHABLE_STATE_INDEX, CacheState.INVALID);
     }
   }
 
@@ -1014,23 +1040,23 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    */
   public void recordParseError(AnalysisException exception) {
     sourceKind = SourceKind.UNKNOWN;
-    sourceKindState = CacheState.ERROR;
+    setStateAt(SOURCE_KIND_STATE_INDEX, CacheState.ERROR);
 
     parseErrors = AnalysisError.NO_ERRORS;
-    parseErrorsState = CacheState.ERROR;
+    setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.ERROR);
 
     parsedUnit = null;
     parsedUnitAccessed = false;
-    parsedUnitState = CacheState.ERROR;
+    setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.ERROR);
 
     exportedLibraries = Source.EMPTY_ARRAY;
-    exportedLibrariesState = CacheState.ERROR;
+    setStateAt(EXPORTED_LIBRARIES_STATE_INDEX, CacheState.ERROR);
 
     importedLibraries = Source.EMPTY_ARRAY;
-    importedLibrariesState = CacheState.ERROR;
+    setStateAt(IMPORTED_LIBRARIES_STATE_INDEX, CacheState.ERROR);
 
     includedParts = Source.EMPTY_ARRAY;
-    includedPartsState = CacheState.ERROR;
+    setStateAt(INCLUDED_PARTS_STATE_INDEX, CacheState.ERROR);
 
     recordResolutionError(exception);
   }
@@ -1040,23 +1066,23 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    * the current thread.
    */
   public void recordParseInProcess() {
-    if (sourceKindState != CacheState.VALID) {
-      sourceKindState = CacheState.IN_PROCESS;
+    if (getStateAt(SOURCE_KIND_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(SOURCE_KIND_STATE_INDEX, CacheState.IN_PROCESS);
     }
-    if (parseErrorsState != CacheState.VALID) {
-      parseErrorsState = CacheState.IN_PROCESS;
+    if (getStateAt(PARSE_ERRORS_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.IN_PROCESS);
     }
-    if (parsedUnitState != CacheState.VALID) {
-      parsedUnitState = CacheState.IN_PROCESS;
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.IN_PROCESS);
     }
-    if (exportedLibrariesState != CacheState.VALID) {
-      exportedLibrariesState = CacheState.IN_PROCESS;
+    if (getStateAt(EXPORTED_LIBRARIES_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(EXPORTED_LIBRARIES_STATE_INDEX, CacheState.IN_PROCESS);
     }
-    if (importedLibrariesState != CacheState.VALID) {
-      importedLibrariesState = CacheState.IN_PROCESS;
+    if (getStateAt(IMPORTED_LIBRARIES_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(IMPORTED_LIBRARIES_STATE_INDEX, CacheState.IN_PROCESS);
     }
-    if (includedPartsState != CacheState.VALID) {
-      includedPartsState = CacheState.IN_PROCESS;
+    if (getStateAt(INCLUDED_PARTS_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(INCLUDED_PARTS_STATE_INDEX, CacheState.IN_PROCESS);
     }
   }
 
@@ -1068,23 +1094,23 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     if (getState(LINE_INFO) == CacheState.IN_PROCESS) {
       setState(LINE_INFO, CacheState.INVALID);
     }
-    if (sourceKindState == CacheState.IN_PROCESS) {
-      sourceKindState = CacheState.INVALID;
+    if (getStateAt(SOURCE_KIND_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(SOURCE_KIND_STATE_INDEX, CacheState.INVALID);
     }
-    if (parseErrorsState == CacheState.IN_PROCESS) {
-      parseErrorsState = CacheState.INVALID;
+    if (getStateAt(PARSE_ERRORS_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.INVALID);
     }
-    if (parsedUnitState == CacheState.IN_PROCESS) {
-      parsedUnitState = CacheState.INVALID;
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.INVALID);
     }
-    if (exportedLibrariesState == CacheState.IN_PROCESS) {
-      exportedLibrariesState = CacheState.INVALID;
+    if (getStateAt(EXPORTED_LIBRARIES_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(EXPORTED_LIBRARIES_STATE_INDEX, CacheState.INVALID);
     }
-    if (importedLibrariesState == CacheState.IN_PROCESS) {
-      importedLibrariesState = CacheState.INVALID;
+    if (getStateAt(IMPORTED_LIBRARIES_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(IMPORTED_LIBRARIES_STATE_INDEX, CacheState.INVALID);
     }
-    if (includedPartsState == CacheState.IN_PROCESS) {
-      includedPartsState = CacheState.INVALID;
+    if (getStateAt(INCLUDED_PARTS_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(INCLUDED_PARTS_STATE_INDEX, CacheState.INVALID);
     }
   }
 
@@ -1099,16 +1125,16 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     setException(exception);
 
     element = null;
-    elementState = CacheState.ERROR;
+    setStateAt(ELEMENT_STATE_INDEX, CacheState.ERROR);
 
     clearFlags(LAUNCHABLE_INDEX, CLIENT_CODE_INDEX);
-    clientServerState = CacheState.ERROR;
-    launchableState = CacheState.ERROR;
+    setStateAt(CLIENT_SERVER_STATE_INDEX, CacheState.ERROR);
+    setStateAt(LAUNCHABLE_STATE_INDEX, CacheState.ERROR);
     // TODO(brianwilkerson) Remove the code above this line after resolution and element building
     // are separated.
 
     publicNamespace = null;
-    publicNamespaceState = CacheState.ERROR;
+    setStateAt(PUBLIC_NAMESPACE_STATE_INDEX, CacheState.ERROR);
 
     resolutionState.recordResolutionErrorsInAllLibraries();
   }
@@ -1125,16 +1151,16 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     setException(exception);
 
     element = null;
-    elementState = CacheState.ERROR;
+    setStateAt(ELEMENT_STATE_INDEX, CacheState.ERROR);
 
     clearFlags(LAUNCHABLE_INDEX, CLIENT_CODE_INDEX);
-    clientServerState = CacheState.ERROR;
-    launchableState = CacheState.ERROR;
+    setStateAt(CLIENT_SERVER_STATE_INDEX, CacheState.ERROR);
+    setStateAt(LAUNCHABLE_STATE_INDEX, CacheState.ERROR);
     // TODO(brianwilkerson) Remove the code above this line after resolution and element building
     // are separated.
 
     publicNamespace = null;
-    publicNamespaceState = CacheState.ERROR;
+    setStateAt(PUBLIC_NAMESPACE_STATE_INDEX, CacheState.ERROR);
 
     ResolutionState state = getOrCreateResolutionState(librarySource);
     state.recordResolutionError();
@@ -1145,19 +1171,19 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    * were invalidated before they could be recorded.
    */
   public void recordResolutionNotInProcess() {
-    if (elementState == CacheState.IN_PROCESS) {
-      elementState = CacheState.INVALID;
+    if (getStateAt(ELEMENT_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(ELEMENT_STATE_INDEX, CacheState.INVALID);
     }
-    if (clientServerState == CacheState.IN_PROCESS) {
-      clientServerState = CacheState.INVALID;
+    if (getStateAt(CLIENT_SERVER_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(CLIENT_SERVER_STATE_INDEX, CacheState.INVALID);
     }
-    if (launchableState == CacheState.IN_PROCESS) {
-      launchableState = CacheState.INVALID;
+    if (getStateAt(LAUNCHABLE_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(LAUNCHABLE_STATE_INDEX, CacheState.INVALID);
     }
     // TODO(brianwilkerson) Remove the code above this line after resolution and element building
     // are separated.
-    if (publicNamespaceState == CacheState.IN_PROCESS) {
-      publicNamespaceState = CacheState.INVALID;
+    if (getStateAt(PUBLIC_NAMESPACE_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(PUBLIC_NAMESPACE_STATE_INDEX, CacheState.INVALID);
     }
     resolutionState.recordResolutionNotInProcess();
   }
@@ -1174,10 +1200,10 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     super.recordScanError(exception);
 
     scanErrors = AnalysisError.NO_ERRORS;
-    scanErrorsState = CacheState.ERROR;
+    setStateAt(SCAN_ERRORS_STATE_INDEX, CacheState.ERROR);
 
     tokenStream = null;
-    tokenStreamState = CacheState.ERROR;
+    setStateAt(TOKEN_STREAM_STATE_INDEX, CacheState.ERROR);
 
     recordParseError(exception);
   }
@@ -1190,11 +1216,11 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     if (getState(LINE_INFO) != CacheState.VALID) {
       setState(LINE_INFO, CacheState.IN_PROCESS);
     }
-    if (scanErrorsState != CacheState.VALID) {
-      scanErrorsState = CacheState.IN_PROCESS;
+    if (getStateAt(SCAN_ERRORS_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(SCAN_ERRORS_STATE_INDEX, CacheState.IN_PROCESS);
     }
-    if (tokenStreamState != CacheState.VALID) {
-      tokenStreamState = CacheState.IN_PROCESS;
+    if (getStateAt(TOKEN_STREAM_STATE_INDEX) != CacheState.VALID) {
+      setStateAt(TOKEN_STREAM_STATE_INDEX, CacheState.IN_PROCESS);
     }
   }
 
@@ -1206,11 +1232,11 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     if (getState(LINE_INFO) == CacheState.IN_PROCESS) {
       setState(LINE_INFO, CacheState.INVALID);
     }
-    if (scanErrorsState == CacheState.IN_PROCESS) {
-      scanErrorsState = CacheState.INVALID;
+    if (getStateAt(SCAN_ERRORS_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(SCAN_ERRORS_STATE_INDEX, CacheState.INVALID);
     }
-    if (tokenStreamState == CacheState.IN_PROCESS) {
-      tokenStreamState = CacheState.INVALID;
+    if (getStateAt(TOKEN_STREAM_STATE_INDEX) == CacheState.IN_PROCESS) {
+      setStateAt(TOKEN_STREAM_STATE_INDEX, CacheState.INVALID);
     }
   }
 
@@ -1284,44 +1310,44 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
   public void setState(DataDescriptor<?> descriptor, CacheState state) {
     if (descriptor == ELEMENT) {
       element = updatedValue(state, element, null);
-      elementState = state;
+      setStateAt(ELEMENT_STATE_INDEX, state);
     } else if (descriptor == EXPORTED_LIBRARIES) {
       exportedLibraries = updatedValue(state, exportedLibraries, Source.EMPTY_ARRAY);
-      exportedLibrariesState = state;
+      setStateAt(EXPORTED_LIBRARIES_STATE_INDEX, state);
     } else if (descriptor == IMPORTED_LIBRARIES) {
       importedLibraries = updatedValue(state, importedLibraries, Source.EMPTY_ARRAY);
-      importedLibrariesState = state;
+      setStateAt(IMPORTED_LIBRARIES_STATE_INDEX, state);
     } else if (descriptor == INCLUDED_PARTS) {
       includedParts = updatedValue(state, includedParts, Source.EMPTY_ARRAY);
-      includedPartsState = state;
+      setStateAt(INCLUDED_PARTS_STATE_INDEX, state);
     } else if (descriptor == IS_CLIENT) {
       updateValueOfFlag(CLIENT_CODE_INDEX, state);
-      clientServerState = state;
+      setStateAt(CLIENT_SERVER_STATE_INDEX, state);
     } else if (descriptor == IS_LAUNCHABLE) {
       updateValueOfFlag(LAUNCHABLE_INDEX, state);
-      launchableState = state;
+      setStateAt(LAUNCHABLE_STATE_INDEX, state);
     } else if (descriptor == PARSE_ERRORS) {
       parseErrors = updatedValue(state, parseErrors, AnalysisError.NO_ERRORS);
-      parseErrorsState = state;
+      setStateAt(PARSE_ERRORS_STATE_INDEX, state);
     } else if (descriptor == PARSED_UNIT) {
       CompilationUnit newUnit = updatedValue(state, parsedUnit, null);
       if (newUnit != parsedUnit) {
         parsedUnitAccessed = false;
       }
       parsedUnit = newUnit;
-      parsedUnitState = state;
+      setStateAt(PARSED_UNIT_STATE_INDEX, state);
     } else if (descriptor == PUBLIC_NAMESPACE) {
       publicNamespace = updatedValue(state, publicNamespace, null);
-      publicNamespaceState = state;
+      setStateAt(PUBLIC_NAMESPACE_STATE_INDEX, state);
     } else if (descriptor == SCAN_ERRORS) {
       scanErrors = updatedValue(state, scanErrors, AnalysisError.NO_ERRORS);
-      scanErrorsState = state;
+      setStateAt(SCAN_ERRORS_STATE_INDEX, state);
     } else if (descriptor == SOURCE_KIND) {
       sourceKind = updatedValue(state, sourceKind, SourceKind.UNKNOWN);
-      sourceKindState = state;
+      setStateAt(SOURCE_KIND_STATE_INDEX, state);
     } else if (descriptor == TOKEN_STREAM) {
       tokenStream = updatedValue(state, tokenStream, null);
-      tokenStreamState = state;
+      setStateAt(TOKEN_STREAM_STATE_INDEX, state);
     } else {
       super.setState(descriptor, state);
     }
@@ -1344,19 +1370,19 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
           cacheState,
           state.resolutionErrors,
           AnalysisError.NO_ERRORS);
-      state.resolutionErrorsState = cacheState;
+      state.setStateAt(ResolutionState.RESOLUTION_ERRORS_STATE_INDEX, cacheState);
     } else if (descriptor == RESOLVED_UNIT) {
       state.resolvedUnit = updatedValue(cacheState, state.resolvedUnit, null);
-      state.resolvedUnitState = cacheState;
+      state.setStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX, cacheState);
     } else if (descriptor == VERIFICATION_ERRORS) {
       state.verificationErrors = updatedValue(
           cacheState,
           state.verificationErrors,
           AnalysisError.NO_ERRORS);
-      state.verificationErrorsState = cacheState;
+      state.setStateAt(ResolutionState.VERIFICATION_ERRORS_STATE_INDEX, cacheState);
     } else if (descriptor == HINTS) {
       state.hints = updatedValue(cacheState, state.hints, AnalysisError.NO_ERRORS);
-      state.hintsState = cacheState;
+      state.setStateAt(ResolutionState.HINTS_STATE_INDEX, cacheState);
     } else {
       throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
     }
@@ -1367,54 +1393,54 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     if (descriptor == ANGULAR_ERRORS) {
       angularErrors = value == null ? AnalysisError.NO_ERRORS : (AnalysisError[]) value;
     } else if (descriptor == ELEMENT) {
-      countTransitionToValid(descriptor, elementState);
+      countTransitionToValid(descriptor, getStateAt(ELEMENT_STATE_INDEX));
       element = (LibraryElement) value;
-      elementState = CacheState.VALID;
+      setStateAt(ELEMENT_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == EXPORTED_LIBRARIES) {
-      countTransitionToValid(descriptor, exportedLibrariesState);
+      countTransitionToValid(descriptor, getStateAt(EXPORTED_LIBRARIES_STATE_INDEX));
       exportedLibraries = value == null ? Source.EMPTY_ARRAY : (Source[]) value;
-      exportedLibrariesState = CacheState.VALID;
+      setStateAt(EXPORTED_LIBRARIES_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == IMPORTED_LIBRARIES) {
-      countTransitionToValid(descriptor, importedLibrariesState);
+      countTransitionToValid(descriptor, getStateAt(IMPORTED_LIBRARIES_STATE_INDEX));
       importedLibraries = value == null ? Source.EMPTY_ARRAY : (Source[]) value;
-      importedLibrariesState = CacheState.VALID;
+      setStateAt(IMPORTED_LIBRARIES_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == INCLUDED_PARTS) {
-      countTransitionToValid(descriptor, includedPartsState);
+      countTransitionToValid(descriptor, getStateAt(INCLUDED_PARTS_STATE_INDEX));
       includedParts = value == null ? Source.EMPTY_ARRAY : (Source[]) value;
-      includedPartsState = CacheState.VALID;
+      setStateAt(INCLUDED_PARTS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == IS_CLIENT) {
-      countTransitionToValid(descriptor, clientServerState);
+      countTransitionToValid(descriptor, getStateAt(CLIENT_SERVER_STATE_INDEX));
       setFlag(CLIENT_CODE_INDEX, ((Boolean) value).booleanValue());
-      clientServerState = CacheState.VALID;
+      setStateAt(CLIENT_SERVER_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == IS_LAUNCHABLE) {
-      countTransitionToValid(descriptor, launchableState);
+      countTransitionToValid(descriptor, getStateAt(LAUNCHABLE_STATE_INDEX));
       setFlag(LAUNCHABLE_INDEX, ((Boolean) value).booleanValue());
-      launchableState = CacheState.VALID;
+      setStateAt(LAUNCHABLE_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == PARSE_ERRORS) {
-      countTransitionToValid(descriptor, parseErrorsState);
+      countTransitionToValid(descriptor, getStateAt(PARSE_ERRORS_STATE_INDEX));
       parseErrors = value == null ? AnalysisError.NO_ERRORS : (AnalysisError[]) value;
-      parseErrorsState = CacheState.VALID;
+      setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == PARSED_UNIT) {
-      countTransitionToValid(descriptor, parsedUnitState);
+      countTransitionToValid(descriptor, getStateAt(PARSED_UNIT_STATE_INDEX));
       parsedUnit = (CompilationUnit) value;
       parsedUnitAccessed = false;
-      parsedUnitState = CacheState.VALID;
+      setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == PUBLIC_NAMESPACE) {
-      countTransitionToValid(descriptor, publicNamespaceState);
+      countTransitionToValid(descriptor, getStateAt(PUBLIC_NAMESPACE_STATE_INDEX));
       publicNamespace = (Namespace) value;
-      publicNamespaceState = CacheState.VALID;
+      setStateAt(PUBLIC_NAMESPACE_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == SCAN_ERRORS) {
-      countTransitionToValid(descriptor, scanErrorsState);
+      countTransitionToValid(descriptor, getStateAt(SCAN_ERRORS_STATE_INDEX));
       scanErrors = value == null ? AnalysisError.NO_ERRORS : (AnalysisError[]) value;
-      scanErrorsState = CacheState.VALID;
+      setStateAt(SCAN_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == SOURCE_KIND) {
-      countTransitionToValid(descriptor, sourceKindState);
+      countTransitionToValid(descriptor, getStateAt(SOURCE_KIND_STATE_INDEX));
       sourceKind = (SourceKind) value;
-      sourceKindState = CacheState.VALID;
+      setStateAt(SOURCE_KIND_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == TOKEN_STREAM) {
-      countTransitionToValid(descriptor, tokenStreamState);
+      countTransitionToValid(descriptor, getStateAt(TOKEN_STREAM_STATE_INDEX));
       tokenStream = (Token) value;
-      tokenStreamState = CacheState.VALID;
+      setStateAt(TOKEN_STREAM_STATE_INDEX, CacheState.VALID);
     } else {
       super.setValue(descriptor, value);
     }
@@ -1432,21 +1458,27 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
   public <E> void setValueInLibrary(DataDescriptor<E> descriptor, Source librarySource, E value) {
     ResolutionState state = getOrCreateResolutionState(librarySource);
     if (descriptor == RESOLUTION_ERRORS) {
-      countTransitionToValid(descriptor, state.resolutionErrorsState);
+      countTransitionToValid(
+          descriptor,
+          state.getStateAt(ResolutionState.RESOLUTION_ERRORS_STATE_INDEX));
       state.resolutionErrors = value == null ? AnalysisError.NO_ERRORS : (AnalysisError[]) value;
-      state.resolutionErrorsState = CacheState.VALID;
+      state.setStateAt(ResolutionState.RESOLUTION_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == RESOLVED_UNIT) {
-      countTransitionToValid(descriptor, state.resolvedUnitState);
+      countTransitionToValid(
+          descriptor,
+          state.getStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX));
       state.resolvedUnit = (CompilationUnit) value;
-      state.resolvedUnitState = CacheState.VALID;
+      state.setStateAt(ResolutionState.RESOLVED_UNIT_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == VERIFICATION_ERRORS) {
-      countTransitionToValid(descriptor, state.verificationErrorsState);
+      countTransitionToValid(
+          descriptor,
+          state.getStateAt(ResolutionState.VERIFICATION_ERRORS_STATE_INDEX));
       state.verificationErrors = value == null ? AnalysisError.NO_ERRORS : (AnalysisError[]) value;
-      state.verificationErrorsState = CacheState.VALID;
+      state.setStateAt(ResolutionState.VERIFICATION_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == HINTS) {
-      countTransitionToValid(descriptor, state.hintsState);
+      countTransitionToValid(descriptor, state.getStateAt(ResolutionState.HINTS_STATE_INDEX));
       state.hints = value == null ? AnalysisError.NO_ERRORS : (AnalysisError[]) value;
-      state.hintsState = CacheState.VALID;
+      state.setStateAt(ResolutionState.HINTS_STATE_INDEX, CacheState.VALID);
     }
   }
 
@@ -1454,43 +1486,25 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
   protected void copyFrom(SourceEntryImpl entry) {
     super.copyFrom(entry);
     DartEntryImpl other = (DartEntryImpl) entry;
-    scanErrorsState = other.scanErrorsState;
     scanErrors = other.scanErrors;
-    tokenStreamState = other.tokenStreamState;
     tokenStream = other.tokenStream;
-    sourceKindState = other.sourceKindState;
     sourceKind = other.sourceKind;
-    parsedUnitState = other.parsedUnitState;
     parsedUnit = other.parsedUnit;
     parsedUnitAccessed = other.parsedUnitAccessed;
-    parseErrorsState = other.parseErrorsState;
     parseErrors = other.parseErrors;
-    includedPartsState = other.includedPartsState;
     includedParts = other.includedParts;
-    exportedLibrariesState = other.exportedLibrariesState;
     exportedLibraries = other.exportedLibraries;
-    importedLibrariesState = other.importedLibrariesState;
     importedLibraries = other.importedLibraries;
     containingLibraries = new ArrayList<Source>(other.containingLibraries);
     resolutionState.copyFrom(other.resolutionState);
-    elementState = other.elementState;
     element = other.element;
-    publicNamespaceState = other.publicNamespaceState;
     publicNamespace = other.publicNamespace;
-    clientServerState = other.clientServerState;
-    launchableState = other.launchableState;
     angularErrors = other.angularErrors;
   }
 
   @Override
   protected boolean hasErrorState() {
-    return super.hasErrorState() || scanErrorsState == CacheState.ERROR
-        || tokenStreamState == CacheState.ERROR || sourceKindState == CacheState.ERROR
-        || parsedUnitState == CacheState.ERROR || parseErrorsState == CacheState.ERROR
-        || importedLibrariesState == CacheState.ERROR || exportedLibrariesState == CacheState.ERROR
-        || includedPartsState == CacheState.ERROR || elementState == CacheState.ERROR
-        || publicNamespaceState == CacheState.ERROR || clientServerState == CacheState.ERROR
-        || launchableState == CacheState.ERROR || resolutionState.hasErrorState();
+    return super.hasErrorState() || resolutionState.hasErrorState();
   }
 
   @Override
@@ -1610,31 +1624,31 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     builder.append("Dart: ");
     super.writeOn(builder);
     builder.append("; tokenStream = ");
-    builder.append(tokenStreamState);
+    builder.append(getStateAt(TOKEN_STREAM_STATE_INDEX));
     builder.append("; scanErrors = ");
-    builder.append(scanErrorsState);
+    builder.append(getStateAt(SCAN_ERRORS_STATE_INDEX));
     builder.append("; sourceKind = ");
-    builder.append(sourceKindState);
+    builder.append(getStateAt(SOURCE_KIND_STATE_INDEX));
     builder.append("; parsedUnit = ");
-    builder.append(parsedUnitState);
+    builder.append(getStateAt(PARSED_UNIT_STATE_INDEX));
     builder.append(" (");
     builder.append(parsedUnitAccessed ? "T" : "F");
     builder.append("); parseErrors = ");
-    builder.append(parseErrorsState);
+    builder.append(getStateAt(PARSE_ERRORS_STATE_INDEX));
     builder.append("; exportedLibraries = ");
-    builder.append(exportedLibrariesState);
+    builder.append(getStateAt(EXPORTED_LIBRARIES_STATE_INDEX));
     builder.append("; importedLibraries = ");
-    builder.append(importedLibrariesState);
+    builder.append(getStateAt(IMPORTED_LIBRARIES_STATE_INDEX));
     builder.append("; includedParts = ");
-    builder.append(includedPartsState);
+    builder.append(getStateAt(INCLUDED_PARTS_STATE_INDEX));
     builder.append("; element = ");
-    builder.append(elementState);
+    builder.append(getStateAt(ELEMENT_STATE_INDEX));
     builder.append("; publicNamespace = ");
-    builder.append(publicNamespaceState);
+    builder.append(getStateAt(PUBLIC_NAMESPACE_STATE_INDEX));
     builder.append("; clientServer = ");
-    builder.append(clientServerState);
+    builder.append(getStateAt(CLIENT_SERVER_STATE_INDEX));
     builder.append("; launchable = ");
-    builder.append(launchableState);
+    builder.append(getStateAt(LAUNCHABLE_STATE_INDEX));
 //    builder.append("; angularElements = ");
     resolutionState.writeOn(builder);
   }
@@ -1647,26 +1661,26 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    */
   private void discardCachedResolutionInformation(boolean invalidateUris) {
     element = null;
-    elementState = CacheState.INVALID;
+    setStateAt(ELEMENT_STATE_INDEX, CacheState.INVALID);
 
     clearFlags(LAUNCHABLE_INDEX, CLIENT_CODE_INDEX);
-    clientServerState = CacheState.INVALID;
-    launchableState = CacheState.INVALID;
+    setStateAt(CLIENT_SERVER_STATE_INDEX, CacheState.INVALID);
+    setStateAt(LAUNCHABLE_STATE_INDEX, CacheState.INVALID);
 
     publicNamespace = null;
-    publicNamespaceState = CacheState.INVALID;
+    setStateAt(PUBLIC_NAMESPACE_STATE_INDEX, CacheState.INVALID);
 
     resolutionState.invalidateAllResolutionInformation();
 
     if (invalidateUris) {
       importedLibraries = Source.EMPTY_ARRAY;
-      importedLibrariesState = CacheState.INVALID;
+      setStateAt(IMPORTED_LIBRARIES_STATE_INDEX, CacheState.INVALID);
 
       exportedLibraries = Source.EMPTY_ARRAY;
-      exportedLibrariesState = CacheState.INVALID;
+      setStateAt(EXPORTED_LIBRARIES_STATE_INDEX, CacheState.INVALID);
 
       includedParts = Source.EMPTY_ARRAY;
-      includedPartsState = CacheState.INVALID;
+      setStateAt(INCLUDED_PARTS_STATE_INDEX, CacheState.INVALID);
     }
   }
 
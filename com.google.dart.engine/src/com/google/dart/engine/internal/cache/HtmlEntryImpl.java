@@ -31,166 +31,168 @@ import java.util.ArrayList;
  */
 public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
   /**
-   * The state of the cached parsed (but not resolved) HTML unit.
+   * The parsed HTML unit, or {@code null} if the parsed HTML unit is not currently cached.
    */
-  private CacheState parsedUnitState = CacheState.INVALID;
+  private HtmlUnit parsedUnit;
 
   /**
-   * The parsed HTML unit, or {@code null} if the parsed HTML unit is not currently cached.
+   * The resolved HTML unit, or {@code null} if the resolved HTML unit is not currently cached.
    */
-  private HtmlUnit parsedUnit;
+  private HtmlUnit resolvedUnit;
 
   /**
-   * The state of the cached resolved HTML unit.
+   * The errors produced while scanning and parsing the HTML, or {@code null} if the errors are not
+   * currently cached.
    */
-  private CacheState resolvedUnitState = CacheState.INVALID;
+  private AnalysisError[] parseErrors = AnalysisError.NO_ERRORS;
 
   /**
-   * The resolved HTML unit, or {@code null} if the resolved HTML unit is not currently cached.
+   * The errors produced while resolving the HTML, or {@code null} if the errors are not currently
+   * cached.
    */
-  private HtmlUnit resolvedUnit;
+  private AnalysisError[] resolutionErrors = AnalysisError.NO_ERRORS;
 
   /**
-   * The state of the cached parse errors.
+   * The list of libraries referenced in the HTML, or {@code null} if the list is not currently
+   * cached. Note that this list does not include libraries defined directly within the HTML file.
    */
-  private CacheState parseErrorsState = CacheState.INVALID;
+  private Source[] referencedLibraries = Source.EMPTY_ARRAY;
 
   /**
-   * The errors produced while scanning and parsing the HTML, or {@code null} if the errors are not
-   * currently cached.
+   * The element representing the HTML file, or {@code null} if the element is not currently cached.
    */
-  private AnalysisError[] parseErrors = AnalysisError.NO_ERRORS;
+  private HtmlElement element;
 
   /**
-   * The state of the cached resolution errors.
+   * Information about the Angular Application this unit is used in.
    */
-  private CacheState resolutionErrorsState = CacheState.INVALID;
+  private AngularApplication angularApplication;
 
   /**
-   * The errors produced while resolving the HTML, or {@code null} if the errors are not currently
-   * cached.
+   * Information about the Angular Application this unit is entry point for.
    */
-  private AnalysisError[] resolutionErrors = AnalysisError.NO_ERRORS;
+  private AngularApplication angularEntry = null;
 
   /**
-   * The state of the cached list of referenced libraries.
+   * Information about the {@link AngularComponentElement} this unit is used as template for.
    */
-  private CacheState referencedLibrariesState = CacheState.INVALID;
+  private AngularComponentElement angularComponent = null;
 
   /**
-   * The list of libraries referenced in the HTML, or {@code null} if the list is not currently
-   * cached. Note that this list does not include libraries defined directly within the HTML file.
+   * The hints produced while performing Angular resolution, or an empty array if the error are not
+   * currently cached.
    */
-  private Source[] referencedLibraries = Source.EMPTY_ARRAY;
+  private AnalysisError[] angularErrors = AnalysisError.NO_ERRORS;
 
   /**
-   * The state of the cached HTML element.
+   * The hints produced while auditing the compilation unit, or an empty array if the hints are not
+   * currently cached.
    */
-  private CacheState elementState = CacheState.INVALID;
+  private AnalysisError[] hints = AnalysisError.NO_ERRORS;
 
   /**
-   * The element representing the HTML file, or {@code null} if the element is not currently cached.
+   * The hints produced while performing Polymer HTML elements building, or an empty array if the
+   * error are not currently cached.
    */
-  private HtmlElement element;
+  private AnalysisError[] polymerBuildErrors = AnalysisError.NO_ERRORS;
 
   /**
-   * The state of the {@link #angularApplication}.
+   * The hints produced while performing Polymer resolution, or an empty array if the error are not
+   * currently cached.
    */
-  private CacheState angularApplicationState = CacheState.VALID;
+  private AnalysisError[] polymerResolutionErrors = AnalysisError.NO_ERRORS;
 
   /**
-   * Information about the Angular Application this unit is used in.
+   * The index of the state of the cached parsed (but not resolved) HTML unit.
    */
-  private AngularApplication angularApplication;
+  private static final int PARSED_UNIT_STATE_INDEX = 2;
 
   /**
-   * The state of the {@link #angularEntry}.
+   * The index of the state of the cached resolved HTML unit.
    */
-  private CacheState angularEntryState = CacheState.INVALID;
+  private static final int RESOLVED_UNIT_STATE_INDEX = 3;
 
   /**
-   * Information about the Angular Application this unit is entry point for.
+   * The index of the state of the cached parse errors.
    */
-  private AngularApplication angularEntry = null;
+  private static final int PARSE_ERRORS_STATE_INDEX = 4;
 
   /**
-   * The state of the {@link #angularComponent}.
+   * The index of the state of the cached resolution errors.
    */
-  private CacheState angularComponentState = CacheState.VALID;
+  private static final int RESOLUTION_ERRORS_STATE_INDEX = 5;
 
   /**
-   * Information about the {@link AngularComponentElement} this unit is used as template for.
+   * The index of the state of the cached list of referenced libraries.
    */
-  private AngularComponentElement angularComponent = null;
+  private static final int REFERENCED_LIBRARIES_STATE_INDEX = 6;
 
   /**
-   * The state of the Angular resolution errors.
+   * The index of the state of the cached HTML element.
    */
-  private CacheState angularErrorsState = CacheState.INVALID;
+  private static final int ELEMENT_STATE_INDEX = 7;
 
   /**
-   * The hints produced while performing Angular resolution, or an empty array if the error are not
-   * currently cached.
+   * The index of the state of the {@link #angularApplication}.
    */
-  private AnalysisError[] angularErrors = AnalysisError.NO_ERRORS;
+  private static final int ANGULAR_APPLICATION_STATE_INDEX = 8;
 
   /**
-   * The state of the cached hints.
+   * The index of the state of the {@link #angularEntry}.
    */
-  private CacheState hintsState = CacheState.INVALID;
+  private static final int ANGULAR_ENTRY_STATE_INDEX = 9;
 
   /**
-   * The hints produced while auditing the compilation unit, or an empty array if the hints are not
-   * currently cached.
+   * The index of the state of the {@link #angularComponent}.
    */
-  private AnalysisError[] hints = AnalysisError.NO_ERRORS;
+  private static final int ANGULAR_COMPONENT_STATE_INDEX = 10;
 
   /**
-   * The state of the Polymer elements.
+   * The index of the state of the Angular resolution errors.
    */
-  private CacheState polymerBuildErrorsState = CacheState.INVALID;
+  private static final int ANGULAR_ERRORS_STATE_INDEX = 11;
 
   /**
-   * The hints produced while performing Polymer HTML elements building, or an empty array if the
-   * error are not currently cached.
+   * The index of the state of the cached hints.
    */
-  private AnalysisError[] polymerBuildErrors = AnalysisError.NO_ERRORS;
+  private static final int HINTS_STATE_INDEX = 12;
 
   /**
-   * The state of the Polymer resolution errors.
+   * The index of the state of the Polymer elements.
    */
-  private CacheState polymerResolutionErrorsState = CacheState.INVALID;
+  private static final int POLYMER_BUILD_ERRORS_STATE_INDEX = 13;
 
   /**
-   * The hints produced while performing Polymer resolution, or an empty array if the error are not
-   * currently cached.
+   * The index of the state of the Polymer resolution errors.
    */
-  private AnalysisError[] polymerResolutionErrors = AnalysisError.NO_ERRORS;
+  private static final int POLYMER_RESOLUTION_ERRORS_STATE_INDEX = 14;
 
   /**
    * Initialize a newly created cache entry to be empty.
    */
   public HtmlEntryImpl() {
     super();
+    setStateAt(ANGULAR_APPLICATION_STATE_INDEX, CacheState.VALID);
+    setStateAt(ANGULAR_COMPONENT_STATE_INDEX, CacheState.VALID);
   }
 
   /**
    * Flush any AST structures being maintained by this entry.
    */
   public void flushAstStructures() {
-    if (parsedUnitState == CacheState.VALID) {
-      parsedUnitState = CacheState.FLUSHED;
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.VALID) {
+      setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.FLUSHED);
       parsedUnit = null;
     }
-    if (resolvedUnitState == CacheState.VALID) {
-      resolvedUnitState = CacheState.FLUSHED;
+    if (getStateAt(RESOLVED_UNIT_STATE_INDEX) == CacheState.VALID) {
+      setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.FLUSHED);
       resolvedUnit = null;
     }
-    if (angularEntryState == CacheState.VALID) {
-      angularEntryState = CacheState.FLUSHED;
+    if (getStateAt(ANGULAR_ENTRY_STATE_INDEX) == CacheState.VALID) {
+      setStateAt(ANGULAR_ENTRY_STATE_INDEX, CacheState.FLUSHED);
     }
-    if (angularErrorsState == CacheState.VALID) {
-      angularErrorsState = CacheState.FLUSHED;
+    if (getStateAt(ANGULAR_ERRORS_STATE_INDEX) == CacheState.VALID) {
+      setStateAt(ANGULAR_ERRORS_STATE_INDEX, CacheState.FLUSHED);
     }
   }
 
@@ -235,11 +237,11 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
 
   @Override
   public HtmlUnit getAnyParsedUnit() {
-    if (parsedUnitState == CacheState.VALID) {
+    if (getStateAt(PARSED_UNIT_STATE_INDEX) == CacheState.VALID) {
 //      parsedUnitAccessed = true;
       return parsedUnit;
     }
-    if (resolvedUnitState == CacheState.VALID) {
+    if (getStateAt(RESOLVED_UNIT_STATE_INDEX) == CacheState.VALID) {
 //      resovledUnitAccessed = true;
       return resolvedUnit;
     }
@@ -254,31 +256,31 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
   @Override
   public CacheState getState(DataDescriptor<?> descriptor) {
     if (descriptor == ANGULAR_APPLICATION) {
-      return angularApplicationState;
+      return getStateAt(ANGULAR_APPLICATION_STATE_INDEX);
     } else if (descriptor == ANGULAR_COMPONENT) {
-      return angularComponentState;
+      return getStateAt(ANGULAR_COMPONENT_STATE_INDEX);
     } else if (descriptor == ANGULAR_ENTRY) {
-      return angularEntryState;
+      return getStateAt(ANGULAR_ENTRY_STATE_INDEX);
     } else if (descriptor == ANGULAR_ERRORS) {
-      return angularErrorsState;
+      return getStateAt(ANGULAR_ERRORS_STATE_INDEX);
     } else if (descriptor == ELEMENT) {
-      return elementState;
+      return getStateAt(ELEMENT_STATE_INDEX);
     } else if (descriptor == PARSE_ERRORS) {
-      return parseErrorsState;
+      return getStateAt(PARSE_ERRORS_STATE_INDEX);
     } else if (descriptor == PARSED_UNIT) {
-      return parsedUnitState;
+      return getStateAt(PARSED_UNIT_STATE_INDEX);
     } else if (descriptor == RESOLVED_UNIT) {
-      return resolvedUnitState;
+      return getStateAt(RESOLVED_UNIT_STATE_INDEX);
     } else if (descriptor == REFERENCED_LIBRARIES) {
-      return referencedLibrariesState;
+      return getStateAt(REFERENCED_LIBRARIES_STATE_INDEX);
     } else if (descriptor == RESOLUTION_ERRORS) {
-      return resolutionErrorsState;
+      return getStateAt(RESOLUTION_ERRORS_STATE_INDEX);
     } else if (descriptor == HINTS) {
-      return hintsState;
+      return getStateAt(HINTS_STATE_INDEX);
     } else if (descriptor == POLYMER_BUILD_ERRORS) {
-      return polymerBuildErrorsState;
+      return getStateAt(POLYMER_BUILD_ERRORS_STATE_INDEX);
     } else if (descriptor == POLYMER_RESOLUTION_ERRORS) {
-      return polymerResolutionErrorsState;
+      return getStateAt(POLYMER_RESOLUTION_ERRORS_STATE_INDEX);
     }
     return super.getState(descriptor);
   }
@@ -328,11 +330,11 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
     super.invalidateAllInformation();
 
     parseErrors = AnalysisError.NO_ERRORS;
-    parseErrorsState = CacheState.INVALID;
+    setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.INVALID);
     parsedUnit = null;
-    parsedUnitState = CacheState.INVALID;
+    setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.INVALID);
     resolvedUnit = null;
-    resolvedUnitState = CacheState.INVALID;
+    setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.INVALID);
 
     invalidateAllResolutionInformation(true);
   }
@@ -345,29 +347,29 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
    */
   public void invalidateAllResolutionInformation(boolean invalidateUris) {
     angularEntry = null;
-    angularEntryState = CacheState.INVALID;
+    setStateAt(ANGULAR_ENTRY_STATE_INDEX, CacheState.INVALID);
 
     angularErrors = AnalysisError.NO_ERRORS;
-    angularErrorsState = CacheState.INVALID;
+    setStateAt(ANGULAR_ERRORS_STATE_INDEX, CacheState.INVALID);
 
     polymerBuildErrors = AnalysisError.NO_ERRORS;
-    polymerBuildErrorsState = CacheState.INVALID;
+    setStateAt(POLYMER_BUILD_ERRORS_STATE_INDEX, CacheState.INVALID);
 
     polymerResolutionErrors = AnalysisError.NO_ERRORS;
-    polymerResolutionErrorsState = CacheState.INVALID;
+    setStateAt(POLYMER_RESOLUTION_ERRORS_STATE_INDEX, CacheState.INVALID);
 
     element = null;
-    elementState = CacheState.INVALID;
+    setStateAt(ELEMENT_STATE_INDEX, CacheState.INVALID);
 
     resolutionErrors = AnalysisError.NO_ERRORS;
-    resolutionErrorsState = CacheState.INVALID;
+    setStateAt(RESOLUTION_ERRORS_STATE_INDEX, CacheState.INVALID);
 
     hints = AnalysisError.NO_ERRORS;
-    hintsState = CacheState.INVALID;
+    setStateAt(HINTS_STATE_INDEX, CacheState.INVALID);
 
     if (invalidateUris) {
       referencedLibraries = Source.EMPTY_ARRAY;
-      referencedLibrariesState = CacheState.INVALID;
+      setStateAt(REFERENCED_LIBRARIES_STATE_INDEX, CacheState.INVALID);
     }
   }
 
@@ -388,13 +390,13 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
     recordScanError(exception);
 
     parseErrors = AnalysisError.NO_ERRORS;
-    parseErrorsState = CacheState.ERROR;
+    setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.ERROR);
 
     parsedUnit = null;
-    parsedUnitState = CacheState.ERROR;
+    setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.ERROR);
 
     referencedLibraries = Source.EMPTY_ARRAY;
-    referencedLibrariesState = CacheState.ERROR;
+    setStateAt(REFERENCED_LIBRARIES_STATE_INDEX, CacheState.ERROR);
 
     recordResolutionError(exception);
   }
@@ -409,68 +411,68 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
     setException(exception);
 
     angularErrors = AnalysisError.NO_ERRORS;
-    angularErrorsState = CacheState.ERROR;
+    setStateAt(ANGULAR_ERRORS_STATE_INDEX, CacheState.ERROR);
 
     resolvedUnit = null;
-    resolvedUnitState = CacheState.ERROR;
+    setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.ERROR);
 
     element = null;
-    elementState = CacheState.ERROR;
+    setStateAt(ELEMENT_STATE_INDEX, CacheState.ERROR);
 
     resolutionErrors = AnalysisError.NO_ERRORS;
-    resolutionErrorsState = CacheState.ERROR;
+    setStateAt(RESOLUTION_ERRORS_STATE_INDEX, CacheState.ERROR);
 
     hints = AnalysisError.NO_ERRORS;
-    hintsState = CacheState.ERROR;
+    setStateAt(HINTS_STATE_INDEX, CacheState.ERROR);
 
     polymerBuildErrors = AnalysisError.NO_ERRORS;
-    polymerBuildErrorsState = CacheState.ERROR;
+    setStateAt(POLYMER_BUILD_ERRORS_STATE_INDEX, CacheState.ERROR);
 
     polymerResolutionErrors = AnalysisError.NO_ERRORS;
-    polymerResolutionErrorsState = CacheState.ERROR;
+    setStateAt(POLYMER_RESOLUTION_ERRORS_STATE_INDEX, CacheState.ERROR);
   }
 
   @Override
   public void setState(DataDescriptor<?> descriptor, CacheState state) {
     if (descriptor == ANGULAR_APPLICATION) {
       angularApplication = updatedValue(state, angularApplication, null);
-      angularApplicationState = state;
+      setStateAt(ANGULAR_APPLICATION_STATE_INDEX, state);
     } else if (descriptor == ANGULAR_COMPONENT) {
       angularComponent = updatedValue(state, angularComponent, null);
-      angularComponentState = state;
+      setStateAt(ANGULAR_COMPONENT_STATE_INDEX, state);
     } else if (descriptor == ANGULAR_ENTRY) {
       angularEntry = updatedValue(state, angularEntry, null);
-      angularEntryState = state;
+      setStateAt(ANGULAR_ENTRY_STATE_INDEX, state);
     } else if (descriptor == ANGULAR_ERRORS) {
       angularErrors = updatedValue(state, angularErrors, null);
-      angularErrorsState = state;
+      setStateAt(ANGULAR_ERRORS_STATE_INDEX, state);
     } else if (descriptor == ELEMENT) {
       element = updatedValue(state, element, null);
-      elementState = state;
+      setStateAt(ELEMENT_STATE_INDEX, state);
     } else if (descriptor == PARSE_ERRORS) {
       parseErrors = updatedValue(state, parseErrors, null);
-      parseErrorsState = state;
+      setStateAt(PARSE_ERRORS_STATE_INDEX, state);
     } else if (descriptor == PARSED_UNIT) {
       parsedUnit = updatedValue(state, parsedUnit, null);
-      parsedUnitState = state;
+      setStateAt(PARSED_UNIT_STATE_INDEX, state);
     } else if (descriptor == RESOLVED_UNIT) {
       resolvedUnit = updatedValue(state, resolvedUnit, null);
-      resolvedUnitState = state;
+      setStateAt(RESOLVED_UNIT_STATE_INDEX, state);
     } else if (descriptor == REFERENCED_LIBRARIES) {
       referencedLibraries = updatedValue(state, referencedLibraries, Source.EMPTY_ARRAY);
-      referencedLibrariesState = state;
+      setStateAt(REFERENCED_LIBRARIES_STATE_INDEX, state);
     } else if (descriptor == RESOLUTION_ERRORS) {
       resolutionErrors = updatedValue(state, resolutionErrors, AnalysisError.NO_ERRORS);
-      resolutionErrorsState = state;
+      setStateAt(RESOLUTION_ERRORS_STATE_INDEX, state);
     } else if (descriptor == HINTS) {
       hints = updatedValue(state, hints, AnalysisError.NO_ERRORS);
-      hintsState = state;
+      setStateAt(HINTS_STATE_INDEX, state);
     } else if (descriptor == POLYMER_BUILD_ERRORS) {
       polymerBuildErrors = updatedValue(state, polymerBuildErrors, null);
-      polymerBuildErrorsState = state;
+      setStateAt(POLYMER_BUILD_ERRORS_STATE_INDEX, state);
     } else if (descriptor == POLYMER_RESOLUTION_ERRORS) {
       polymerResolutionErrors = updatedValue(state, polymerResolutionErrors, null);
-      polymerResolutionErrorsState = state;
+      setStateAt(POLYMER_RESOLUTION_ERRORS_STATE_INDEX, state);
     } else {
       super.setState(descriptor, state);
     }
@@ -479,57 +481,57 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
   @Override
   public <E> void setValue(DataDescriptor<E> descriptor, E value) {
     if (descriptor == ANGULAR_APPLICATION) {
-      countTransitionToValid(descriptor, angularApplicationState);
+      countTransitionToValid(descriptor, getStateAt(ANGULAR_APPLICATION_STATE_INDEX));
       angularApplication = (AngularApplication) value;
-      angularApplicationState = CacheState.VALID;
+      setStateAt(ANGULAR_APPLICATION_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == ANGULAR_COMPONENT) {
-      countTransitionToValid(descriptor, angularComponentState);
+      countTransitionToValid(descriptor, getStateAt(ANGULAR_COMPONENT_STATE_INDEX));
       angularComponent = (AngularComponentElement) value;
-      angularComponentState = CacheState.VALID;
+      setStateAt(ANGULAR_COMPONENT_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == ANGULAR_ENTRY) {
-      countTransitionToValid(descriptor, angularEntryState);
+      countTransitionToValid(descriptor, getStateAt(ANGULAR_ENTRY_STATE_INDEX));
       angularEntry = (AngularApplication) value;
-      angularEntryState = CacheState.VALID;
+      setStateAt(ANGULAR_ENTRY_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == ANGULAR_ERRORS) {
-      countTransitionToValid(descriptor, angularErrorsState);
+      countTransitionToValid(descriptor, getStateAt(ANGULAR_ERRORS_STATE_INDEX));
       angularErrors = (AnalysisError[]) value;
-      angularErrorsState = CacheState.VALID;
+      setStateAt(ANGULAR_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == ELEMENT) {
-      countTransitionToValid(descriptor, elementState);
+      countTransitionToValid(descriptor, getStateAt(ELEMENT_STATE_INDEX));
       element = (HtmlElement) value;
-      elementState = CacheState.VALID;
+      setStateAt(ELEMENT_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == PARSE_ERRORS) {
-      countTransitionToValid(descriptor, parseErrorsState);
+      countTransitionToValid(descriptor, getStateAt(PARSE_ERRORS_STATE_INDEX));
       parseErrors = (AnalysisError[]) value;
-      parseErrorsState = CacheState.VALID;
+      setStateAt(PARSE_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == PARSED_UNIT) {
-      countTransitionToValid(descriptor, parsedUnitState);
+      countTransitionToValid(descriptor, getStateAt(PARSED_UNIT_STATE_INDEX));
       parsedUnit = (HtmlUnit) value;
-      parsedUnitState = CacheState.VALID;
+      setStateAt(PARSED_UNIT_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == RESOLVED_UNIT) {
-      countTransitionToValid(descriptor, resolvedUnitState);
+      countTransitionToValid(descriptor, getStateAt(RESOLVED_UNIT_STATE_INDEX));
       resolvedUnit = (HtmlUnit) value;
-      resolvedUnitState = CacheState.VALID;
+      setStateAt(RESOLVED_UNIT_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == REFERENCED_LIBRARIES) {
-      countTransitionToValid(descriptor, referencedLibrariesState);
+      countTransitionToValid(descriptor, getStateAt(REFERENCED_LIBRARIES_STATE_INDEX));
       referencedLibraries = value == null ? Source.EMPTY_ARRAY : (Source[]) value;
-      referencedLibrariesState = CacheState.VALID;
+      setStateAt(REFERENCED_LIBRARIES_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == RESOLUTION_ERRORS) {
-      countTransitionToValid(descriptor, resolutionErrorsState);
+      countTransitionToValid(descriptor, getStateAt(RESOLUTION_ERRORS_STATE_INDEX));
       resolutionErrors = (AnalysisError[]) value;
-      resolutionErrorsState = CacheState.VALID;
+      setStateAt(RESOLUTION_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == HINTS) {
-      countTransitionToValid(descriptor, hintsState);
+      countTransitionToValid(descriptor, getStateAt(HINTS_STATE_INDEX));
       hints = (AnalysisError[]) value;
-      hintsState = CacheState.VALID;
+      setStateAt(HINTS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == POLYMER_BUILD_ERRORS) {
-      countTransitionToValid(descriptor, polymerBuildErrorsState);
+      countTransitionToValid(descriptor, getStateAt(POLYMER_BUILD_ERRORS_STATE_INDEX));
       polymerBuildErrors = (AnalysisError[]) value;
-      polymerBuildErrorsState = CacheState.VALID;
+      setStateAt(POLYMER_BUILD_ERRORS_STATE_INDEX, CacheState.VALID);
     } else if (descriptor == POLYMER_RESOLUTION_ERRORS) {
-      countTransitionToValid(descriptor, polymerResolutionErrorsState);
+      countTransitionToValid(descriptor, getStateAt(POLYMER_RESOLUTION_ERRORS_STATE_INDEX));
       polymerResolutionErrors = (AnalysisError[]) value;
-      polymerResolutionErrorsState = CacheState.VALID;
+      setStateAt(POLYMER_RESOLUTION_ERRORS_STATE_INDEX, CacheState.VALID);
     } else {
       super.setValue(descriptor, value);
     }
@@ -539,44 +541,21 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
   protected void copyFrom(SourceEntryImpl entry) {
     super.copyFrom(entry);
     HtmlEntryImpl other = (HtmlEntryImpl) entry;
-    angularApplicationState = other.angularApplicationState;
     angularApplication = other.angularApplication;
-    angularComponentState = other.angularComponentState;
     angularComponent = other.angularComponent;
-    angularEntryState = other.angularEntryState;
     angularEntry = other.angularEntry;
-    angularErrorsState = other.angularErrorsState;
     angularErrors = other.angularErrors;
-    parseErrorsState = other.parseErrorsState;
     parseErrors = other.parseErrors;
-    parsedUnitState = other.parsedUnitState;
     parsedUnit = other.parsedUnit;
-    resolvedUnitState = other.resolvedUnitState;
     resolvedUnit = other.resolvedUnit;
-    referencedLibrariesState = other.referencedLibrariesState;
     referencedLibraries = other.referencedLibraries;
-    resolutionErrorsState = other.resolutionErrorsState;
     resolutionErrors = other.resolutionErrors;
-    elementState = other.elementState;
     element = other.element;
-    hintsState = other.hintsState;
     hints = other.hints;
-    polymerBuildErrorsState = other.polymerBuildErrorsState;
     polymerBuildErrors = other.polymerBuildErrors;
-    polymerResolutionErrorsState = other.polymerResolutionErrorsState;
     polymerResolutionErrors = other.polymerResolutionErrors;
   }
 
-  @Override
-  protected boolean hasErrorState() {
-    return super.hasErrorState() || parsedUnitState == CacheState.ERROR
-        || resolvedUnitState == CacheState.ERROR || parseErrorsState == CacheState.ERROR
-        || resolutionErrorsState == CacheState.ERROR
-        || referencedLibrariesState == CacheState.ERROR || elementState == CacheState.ERROR
-        || angularErrorsState == CacheState.ERROR || hintsState == CacheState.ERROR
-        || polymerBuildErrorsState == CacheState.ERROR
-        || polymerResolutionErrorsState == CacheState.ERROR;
-  }
 
   @Override
   protected boolean writeDiffOn(StringBuilder builder, SourceEntry oldEntry) {
@@ -658,28 +637,28 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
     builder.append("Html: ");
     super.writeOn(builder);
     builder.append("; parseErrors = ");
-    builder.append(parseErrorsState);
+    builder.append(getStateAt(PARSE_ERRORS_STATE_INDEX));
     builder.append("; parsedUnit = ");
-    builder.append(parsedUnitState);
+    builder.append(getStateAt(PARSED_UNIT_STATE_INDEX));
     builder.append("; resolvedUnit = ");
-    builder.append(resolvedUnitState);
+    builder.append(getStateAt(RESOLVED_UNIT_STATE_INDEX));
     builder.append("; resolutionErrors = ");
-    builder.append(resolutionErrorsState);
+    builder.append(getStateAt(RESOLUTION_ERRORS_STATE_INDEX));
     builder.append("; referencedLibraries = ");
-    builder.append(referencedLibrariesState);
+    builder.append(getStateAt(REFERENCED_LIBRARIES_STATE_INDEX));
     builder.append("; element = ");
-    builder.append(elementState);
+    builder.append(getStateAt(ELEMENT_STATE_INDEX));
     builder.append("; angularApplication = ");
-    builder.append(angularApplicationState);
+    builder.append(getStateAt(ANGULAR_APPLICATION_STATE_INDEX));
     builder.append("; angularComponent = ");
-    builder.append(angularComponentState);
+    builder.append(getStateAt(ANGULAR_COMPONENT_STATE_INDEX));
     builder.append("; angularEntry = ");
-    builder.append(angularEntryState);
+    builder.append(getStateAt(ANGULAR_ENTRY_STATE_INDEX));
     builder.append("; angularErrors = ");
-    builder.append(angularErrorsState);
+    builder.append(getStateAt(ANGULAR_ERRORS_STATE_INDEX));
     builder.append("; polymerBuildErrors = ");
-    builder.append(polymerBuildErrorsState);
+    builder.append(getStateAt(POLYMER_BUILD_ERRORS_STATE_INDEX));
     builder.append("; polymerResolutionErrors = ");
-    builder.append(polymerResolutionErrorsState);
+    builder.append(getStateAt(POLYMER_RESOLUTION_ERRORS_STATE_INDEX));
   }
 }
@@ -41,25 +41,22 @@ public abstract class SourceEntryImpl implements SourceEntry {
   private int flags;
 
   /**
-   * The exception that caused one or more values to have a state of {@link CacheState#ERROR}.
+   * A bit-encoding of the states of the data values associated with this entry, in the form used by
+   * {@link CacheStateArray}. Subclasses record the states of their own data values in the same
+   * encoding, using indexes that follow the ones used by this class.
    */
-  private AnalysisException exception;
+  private long states;
 
   /**
-   * The state of the cached content.
+   * The exception that caused one or more values to have a state of {@link CacheState#ERROR}.
    */
-  private CacheState contentState = CacheState.INVALID;
+  private AnalysisException exception;
 
   /**
    * The content of the source, or {@code null} if the content is not currently cached.
    */
   private CharSequence content;
 
-  /**
-   * The state of the cached line information.
-   */
-  private CacheState lineInfoState = CacheState.INVALID;
-
   /**
    * The line information computed for the source, or {@code null} if the line information is not
    * currently cached.
@@ -78,6 +75,16 @@ public abstract class SourceEntryImpl implements SourceEntry {
    */
   private static final int EXPLICITLY_ADDED_FLAG = 0;
 
+  /**
+   * The index in {@link #states} of the state of the cached content.
+   */
+  private static final int CONTENT_STATE_INDEX = 0;
+
+  /**
+   * The index in {@link #states} of the state of the cached line information.
+   */
+  private static final int LINE_INFO_STATE_INDEX = 1;
+
   /**
    * Initialize a newly created cache entry to be empty.
    */
@@ -146,9 +153,9 @@ public abstract class SourceEntryImpl implements SourceEntry {
   @Override
   public CacheState getState(DataDescriptor<?> descriptor) {
     if (descriptor == CONTENT) {
-      return contentState;
+      return getStateAt(CONTENT_STATE_INDEX);
     } else if (descriptor == LINE_INFO) {
-      return lineInfoState;
+      return getStateAt(LINE_INFO_STATE_INDEX);
     } else {
       throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
     }
@@ -171,9 +178,9 @@ public abstract class SourceEntryImpl implements SourceEntry {
    */
   public void invalidateAllInformation() {
     content = null;
-    contentState = checkContentState(CacheState.INVALID);
+    setStateAt(CONTENT_STATE_INDEX, checkContentState(CacheState.INVALID));
     lineInfo = null;
-    lineInfoState = CacheState.INVALID;
+    setStateAt(LINE_INFO_STATE_INDEX, CacheState.INVALID);
   }
 
   /**
@@ -185,7 +192,7 @@ public abstract class SourceEntryImpl implements SourceEntry {
    */
   public void recordContentError(AnalysisException exception) {
     content = null;
-    contentState = CacheState.ERROR;
+    setStateAt(CONTENT_STATE_INDEX, CacheState.ERROR);
 
     recordScanError(exception);
   }
@@ -201,7 +208,7 @@ public abstract class SourceEntryImpl implements SourceEntry {
     setException(exception);
 
     lineInfo = null;
-    lineInfoState = CacheState.ERROR;
+    setStateAt(LINE_INFO_STATE_INDEX, CacheState.ERROR);
   }
 
   /**
@@ -232,10 +239,10 @@ public abstract class SourceEntryImpl implements SourceEntry {
   public void setState(DataDescriptor<?> descriptor, CacheState state) {
     if (descriptor == CONTENT) {
       content = updatedValue(state, content, null);
-      contentState = checkContentState(state);
+      setStateAt(CONTENT_STATE_INDEX, checkContentState(state));
     } else if (descriptor == LINE_INFO) {
       lineInfo = updatedValue(state, lineInfo, null);
-      lineInfoState = state;
+      setStateAt(LINE_INFO_STATE_INDEX, state);
     } else {
       throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
     }
@@ -249,13 +256,13 @@ public abstract class SourceEntryImpl implements SourceEntry {
    */
   public <E> void setValue(DataDescriptor<E> descriptor, E value) {
     if (descriptor == CONTENT) {
-      countTransitionToValid(descriptor, contentState);
+      countTransitionToValid(descriptor, getStateAt(CONTENT_STATE_INDEX));
       content = (CharSequence) value;
-      contentState = checkContentState(CacheState.VALID);
+      setStateAt(CONTENT_STATE_INDEX, checkContentState(CacheState.VALID));
     } else if (descriptor == LINE_INFO) {
-      countTransitionToValid(descriptor, lineInfoState);
+      countTransitionToValid(descriptor, getStateAt(LINE_INFO_STATE_INDEX));
       lineInfo = (LineInfo) value;
-      lineInfoState = CacheState.VALID;
+      setStateAt(LINE_INFO_STATE_INDEX, CacheState.VALID);
     } else {
       throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
     }
@@ -287,10 +294,9 @@ public abstract class SourceEntryImpl implements SourceEntry {
   protected void copyFrom(SourceEntryImpl entry) {
     modificationTime = entry.modificationTime;
     flags = entry.flags;
+    states = entry.states;
     exception = entry.exception;
-    contentState = entry.contentState;
     content = entry.content;
-    lineInfoState = entry.lineInfoState;
     lineInfo = entry.lineInfo;
   }
 
@@ -319,12 +325,24 @@ public abstract class SourceEntryImpl implements SourceEntry {
   }
 
   /**
-   * Return {@code true} if the state of any data value is {@link CacheState#ERROR}.
+   * Return the state of the data value whose state is recorded at the given index.
+   * 
+   * @param index the index of the state to be returned
+   * @return the state of the data value whose state is recorded at the given index
+   */
+  protected CacheState getStateAt(int index) {
+    return CacheStateArray.get(states, index);
+  }
+
+  /**
+   * Return {@code true} if the state of any data value is {@link CacheState#ERROR}. This includes
+   * the data values whose states have been recorded by subclasses using
+   * {@link #setStateAt(int, CacheState)}.
    * 
    * @return {@code true} if the state of any data value is {@link CacheState#ERROR}
    */
   protected boolean hasErrorState() {
-    return contentState == CacheState.ERROR || lineInfoState == CacheState.ERROR;
+    return CacheStateArray.contains(states, CacheState.ERROR);
   }
 
   /**
@@ -350,6 +368,16 @@ public abstract class SourceEntryImpl implements SourceEntry {
     flags = BooleanArray.set(flags, index, value);
   }
 
+  /**
+   * Set the state of the data value whose state is recorded at the given index to the given state.
+   * 
+   * @param index the index of the state to be set
+   * @param state the new state of the data value
+   */
+  protected void setStateAt(int index, CacheState state) {
+    states = CacheStateArray.set(states, index, state);
+  }
+
   /**
    * Given that some data is being transitioned to the given state, return the value that should be
    * kept in the cache.
@@ -415,9 +443,9 @@ public abstract class SourceEntryImpl implements SourceEntry {
     builder.append("time = ");
     builder.append(modificationTime);
     builder.append("; content = ");
-    builder.append(contentState);
+    builder.append(getStateAt(CONTENT_STATE_INDEX));
     builder.append("; lineInfo = ");
-    builder.append(lineInfoState);
+    builder.append(getStateAt(LINE_INFO_STATE_INDEX));
   }
 
   /**
@@ -457,9 +485,10 @@ public abstract class SourceEntryImpl implements SourceEntry {
    * @return the new state of the content
    */
   private CacheState checkContentState(CacheState newState) {
-    if (contentState == CacheState.ERROR) {
+    if (getStateAt(CONTENT_STATE_INDEX) == CacheState.ERROR) {
       InstrumentationBuilder builder = Instrumentation.builder("SourceEntryImpl-checkContentState");
-      builder.data("message", "contentState changing from " + contentState + " to " + newState);
+      builder.data("message", "contentState changing from " + getStateAt(CONTENT_STATE_INDEX)
+          + " to " + newState);
       //builder.data("source", source.getFullName());
       builder.record(new AnalysisException());
       builder.log();
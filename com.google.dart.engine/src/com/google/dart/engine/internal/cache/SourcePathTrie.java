@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Instances of the class {@code SourcePathTrie} index a set of sources by the directories in their
+ * full names, so that the sources whose full name starts with a given directory path can be found
+ * without testing every source in the set.
+ * <p>
+ * Full names are split at each {@link File#separatorChar}. Every segment except the last names a
+ * directory, and the source is recorded in the node reached by following those segments from the
+ * root.
+ */
+public class SourcePathTrie {
+  /**
+   * Instances of the class {@code Node} represent a single directory.
+   */
+  private static class Node {
+    /**
+     * A table mapping the names of the subdirectories of this directory to their nodes, or
+     * {@code null} if there are no subdirectories.
+     */
+    private HashMap<String, Node> children;
+
+    /**
+     * The sources directly in this directory, or {@code null} if there are no such sources.
+     */
+    private HashSet<Source> sources;
+
+    /**
+     * Add all of the sources in this directory and its subdirectories to the given list.
+     * 
+     * @param result the list to which the sources are to be added
+     */
+    private void addAllSources(List<Source> result) {
+      if (sources != null) {
+        result.addAll(sources);
+      }
+      if (children != null) {
+        for (Node child : children.values()) {
+          child.addAllSources(result);
+        }
+      }
+    }
+
+    /**
+     * Return {@code true} if this node does not contain any sources or subdirectories.
+     * 
+     * @return {@code true} if this node is empty
+     */
+    private boolean isEmpty() {
+      return (sources == null || sources.isEmpty()) && (children == null || children.isEmpty());
+    }
+  }
+
+  /**
+   * The node representing the root of the file system.
+   */
+  private Node root = new Node();
+
+  /**
+   * Initialize a newly created trie to be empty.
+   */
+  public SourcePathTrie() {
+    super();
+  }
+
+  /**
+   * Add the given source to this trie.
+   * 
+   * @param source the source to be added
+   */
+  public void add(Source source) {
+    String fullName = source.getFullName();
+    Node node = root;
+    int start = 0;
+    int end = fullName.indexOf(File.separatorChar);
+    while (end >= 0) {
+      String segment = fullName.substring(start, end);
+      if (node.children == null) {
+        node.children = new HashMap<String, Node>();
+      }
+      Node child = node.children.get(segment);
+      if (child == null) {
+        child = new Node();
+        node.children.put(segment, child);
+      }
+      node = child;
+      start = end + 1;
+      end = fullName.indexOf(File.separatorChar, start);
+    }
+    if (node.sources == null) {
+      node.sources = new HashSet<Source>();
+    }
+    node.sources.add(source);
+  }
+
+  /**
+   * Add the sources in this trie whose full name starts with the given path to the given list. The
+   * path must end with {@link File#separatorChar}.
+   * 
+   * @param path the path of the directory containing the sources to be added
+   * @param result the list to which the sources are to be added
+   */
+  public void addSourcesInDirectory(String path, List<Source> result) {
+    Node node = root;
+    int start = 0;
+    int end = path.indexOf(File.separatorChar);
+    while (end >= 0) {
+      if (node.children == null) {
+        return;
+      }
+      node = node.children.get(path.substring(start, end));
+      if (node == null) {
+        return;
+      }
+      start = end + 1;
+      end = path.indexOf(File.separatorChar, start);
+    }
+    node.addAllSources(result);
+  }
+
+  /**
+   * Remove the given source from this trie.
+   * 
+   * @param source the source to be removed
+   */
+  public void remove(Source source) {
+    remove(root, source, source.getFullName(), 0);
+  }
+
+  /**
+   * Remove the given source from the subtree rooted at the given node, removing any nodes that
+   * become empty as a result.
+   * 
+   * @param node the node representing the directory whose path ends at the given index
+   * @param source the source to be removed
+   * @param fullName the full name of the source
+   * @param start the index in the full name of the first character after the directory's path
+   */
+  private void remove(Node node, Source source, String fullName, int start) {
+    int end = fullName.indexOf(File.separatorChar, start);
+    if (end < 0) {
+      if (node.sources != null) {
+        node.sources.remove(source);
+      }
+      return;
+    }
+    if (node.children == null) {
+      return;
+    }
+    String segment = fullName.substring(start, end);
+    Node child = node.children.get(segment);
+    if (child != null) {
+      remove(child, source, fullName, end + 1);
+      if (child.isEmpty()) {
+        node.children.remove(segment);
+      }
+    }
+  }
+}
@@ -61,9 +61,11 @@ import com.google.dart.engine.internal.cache.UniversalCachePartition;
 import com.google.dart.engine.internal.element.ElementImpl;
 import com.google.dart.engine.internal.element.LibraryElementImpl;
 import com.google.dart.engine.internal.element.angular.AngularApplication;
+import com.google.dart.engine.internal.html.angular.AngularModelCache;
 import com.google.dart.engine.internal.resolver.Library;
 import com.google.dart.engine.internal.resolver.LibraryResolver;
 import com.google.dart.engine.internal.resolver.LibraryResolver2;
+import com.google.dart.engine.internal.resolver.MemberMapCache;
 import com.google.dart.engine.internal.resolver.ResolvableLibrary;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.internal.resolver.TypeProviderImpl;
@@ -87,6 +89,7 @@ import com.google.dart.engine.internal.task.ResolveDartUnitTask;
 import com.google.dart.engine.internal.task.ResolveHtmlTask;
 import com.google.dart.engine.internal.task.ScanDartTask;
 import com.google.dart.engine.internal.task.WaitForAsyncTask;
+import com.google.dart.engine.scanner.IdentifierTable;
 import com.google.dart.engine.scanner.Token;
 import com.google.dart.engine.sdk.DartSdk;
 import com.google.dart.engine.source.ContentCache;
@@ -109,6 +112,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -963,6 +967,60 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    */
   private final Set<AngularApplication> angularApplications = Sets.newHashSet();
 
+  /**
+   * The cache used to share member lookup maps between the inheritance managers in this context.
+   */
+  private MemberMapCache memberMapCache = new MemberMapCache();
+
+  /**
+   * The cache used to share the Angular elements found in libraries between the resolutions of the
+   * Angular applications in this context.
+   */
+  private AngularModelCache angularModelCache = new AngularModelCache();
+
+  /**
+   * The cache of the elements found for element locations in this context.
+   */
+  private ElementLocationCache elementLocationCache = new ElementLocationCache();
+
+  /**
+   * The index of the sources that reference sources that do not exist.
+   */
+  private MissingSourceIndex missingSourceIndex = new MissingSourceIndex();
+
+  /**
+   * The table used to map the identifiers in the Dart sources in this context to canonical strings,
+   * shared by all of the scans so that each distinct identifier is only created once. The table is
+   * bounded, and is cleared when the source factory is replaced and when the context is disposed.
+   */
+  private IdentifierTable identifierTable = new IdentifierTable();
+
+  /**
+   * A table mapping the sources of Dart files to the signature of the declarations in the most
+   * recent successful parse of the file.
+   */
+  private HashMap<Source, UnitApiSignature> apiSignatures = new HashMap<Source, UnitApiSignature>();
+
+  /**
+   * A table mapping the sources of changed Dart files that have not yet been parsed again to the
+   * elements representing them in the element models of their libraries before the change. The
+   * libraries depending on the libraries containing such a file are only invalidated once the new
+   * parse shows that the declarations in the file were changed.
+   */
+  private HashMap<Source, CompilationUnitElement[]> unitsAwaitingApiCheck = new HashMap<Source, CompilationUnitElement[]>();
+
+  /**
+   * The sources of the Dart files whose current AST structure was parsed without parsing the
+   * function bodies even though function bodies are analyzed, because the bodies were not needed.
+   */
+  private HashSet<Source> sourcesWithoutFunctionBodies = new HashSet<Source>();
+
+  /**
+   * The sources of the Dart files whose function bodies were requested by a client, and which are
+   * therefore always parsed with their function bodies.
+   */
+  private HashSet<Source> sourcesNeedingFunctionBodies = new HashSet<Source>();
+
   /**
    * The listeners that are to be notified when various analysis results are produced in this
    * context.
@@ -1023,6 +1081,12 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       for (SourceContainer container : changeSet.getRemovedContainers()) {
         addSourcesInContainer(removedSources, container);
       }
+      boolean addedOrRemovedFiles = !changeSet.getAddedSources().isEmpty()
+          || !changeSet.getDeletedSources().isEmpty() || !removedSources.isEmpty();
+      if (addedOrRemovedFiles && sourceFactory != null) {
+        // Files were added or removed, so URI's might now resolve to different sources.
+        sourceFactory.clearCache();
+      }
       //
       // Then determine which cached results are no longer valid.
       //
@@ -1059,38 +1123,10 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         sourceRemoved(source);
       }
       if (addedDartSource) {
-        // TODO(brianwilkerson) This is hugely inefficient, but we need to re-analyze any libraries
-        // that might have been referencing the not-yet-existing source that was just added. Longer
-        // term we need to keep track of which libraries are referencing non-existing sources and
-        // only re-analyze those libraries.
-//        logInformation("Added Dart sources, invalidating all resolution information");
-        ArrayList<Source> sourcesToInvalidate = new ArrayList<Source>();
-        MapIterator<Source, SourceEntry> iterator = cache.iterator();
-        while (iterator.moveNext()) {
-          Source source = iterator.getKey();
-          SourceEntry sourceEntry = iterator.getValue();
-          if (!source.isInSystemLibrary()
-              && (sourceEntry instanceof DartEntry || sourceEntry instanceof HtmlEntry)) {
-            sourcesToInvalidate.add(source);
-          }
-        }
-        int count = sourcesToInvalidate.size();
-        for (int i = 0; i < count; i++) {
-          Source source = sourcesToInvalidate.get(i);
-          SourceEntry entry = getReadableSourceEntry(source);
-          if (entry instanceof DartEntry) {
-            DartEntry dartEntry = (DartEntry) entry;
-            DartEntryImpl dartCopy = dartEntry.getWritableCopy();
-            dartCopy.invalidateAllResolutionInformation(false);
-            cache.put(source, dartCopy);
-            workManager.add(source, computePriority(dartCopy));
-          } else if (entry instanceof HtmlEntry) {
-            HtmlEntry htmlEntry = (HtmlEntry) entry;
-            HtmlEntryImpl htmlCopy = htmlEntry.getWritableCopy();
-            htmlCopy.invalidateAllResolutionInformation(false);
-            cache.put(source, htmlCopy);
-            workManager.add(source, SourcePriority.HTML);
-          }
+        // Re-analyze the libraries that were referencing the not-yet-existing sources that were
+        // just added.
+        for (Source source : changeSet.getAddedSources()) {
+          invalidateReferencesToMissingSource(source);
         }
       }
     }
@@ -1134,6 +1170,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
 
   @Override
   public AnalysisError[] computeErrors(Source source) throws AnalysisException {
+    requestFunctionBodies(source);
     boolean enableHints = options.getHint();
     SourceEntry sourceEntry = getReadableSourceEntry(source);
     if (sourceEntry instanceof DartEntry) {
@@ -1280,6 +1317,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
   @Override
   public void dispose() {
     disposed = true;
+    identifierTable.clear();
   }
 
   @Override
@@ -1308,14 +1346,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     ArrayList<Source> sourcesToRemove = new ArrayList<Source>();
     synchronized (cacheLock) {
       // Move sources in the specified directory to the new context
-      MapIterator<Source, SourceEntry> iterator = cache.iterator();
-      while (iterator.moveNext()) {
-        Source source = iterator.getKey();
-        SourceEntry sourceEntry = iterator.getValue();
-        if (container.contains(source)) {
-          sourcesToRemove.add(source);
-          newContext.addSourceInfo(source, sourceEntry.getWritableCopy());
-        }
+      addSourcesInContainer(sourcesToRemove, container);
+      for (Source source : sourcesToRemove) {
+        newContext.addSourceInfo(source, cache.get(source).getWritableCopy());
       }
 
       // TODO (danrubel): Either remove sources or adjust contract described in AnalysisContext.
@@ -1354,6 +1387,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public AngularModelCache getAngularModelCache() {
+    return angularModelCache;
+  }
+
   @Override
   public CompilationUnitElement getCompilationUnitElement(Source unitSource, Source librarySource) {
     LibraryElement libraryElement = getLibraryElement(librarySource);
@@ -1421,13 +1459,24 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       Source source = computeSourceFromEncoding(components[0]);
       String sourceName = source.getShortName();
       if (AnalysisEngine.isDartFileName(sourceName)) {
-        ElementImpl element = (ElementImpl) computeLibraryElement(source);
+        LibraryElement library = computeLibraryElement(source);
+        if (library == null) {
+          return null;
+        }
+        Element cachedElement = elementLocationCache.get(source, library, location);
+        if (cachedElement != null) {
+          return cachedElement;
+        }
+        ElementImpl element = (ElementImpl) library;
         for (int i = 1; i < components.length; i++) {
           if (element == null) {
             return null;
           }
           element = element.getChild(components[i]);
         }
+        if (element != null) {
+          elementLocationCache.put(source, library, location, element);
+        }
         return element;
       }
       if (AnalysisEngine.isHtmlFileName(sourceName)) {
@@ -1632,6 +1681,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public MemberMapCache getMemberMapCache() {
+    return memberMapCache;
+  }
+
   @Override
   public long getModificationStamp(Source source) {
     synchronized (cacheLock) {
@@ -1709,6 +1763,10 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
 
   @Override
   public CompilationUnit getResolvedCompilationUnit(Source unitSource, Source librarySource) {
+    if (requestFunctionBodies(unitSource)) {
+      // the unit will be available once it has been parsed and resolved again
+      return null;
+    }
     SourceEntry sourceEntry = getReadableSourceEntryOrNull(unitSource);
     if (sourceEntry instanceof DartEntry) {
       return ((DartEntry) sourceEntry).getValueInLibrary(DartEntry.RESOLVED_UNIT, librarySource);
@@ -1953,6 +2011,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       for (Map.Entry<Source, LibraryElement> entry : elementMap.entrySet()) {
         Source librarySource = entry.getKey();
         LibraryElement library = entry.getValue();
+        memberMapCache.invalidateLibrary(librarySource);
+        elementLocationCache.invalidateLibrary(librarySource);
+        angularModelCache.invalidateLibrary(librarySource);
         //
         // Cache the element in the library's info.
         //
@@ -2009,6 +2070,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
   @Override
   public CompilationUnit resolveCompilationUnit(Source unitSource, Source librarySource)
       throws AnalysisException {
+    requestFunctionBodies(unitSource);
     return getDartResolutionData(unitSource, librarySource, DartEntry.RESOLVED_UNIT, null);
   }
 
@@ -2057,6 +2119,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       this.options.setDart2jsHint(options.getDart2jsHint());
       this.options.setHint(options.getHint());
       this.options.setIncremental(options.getIncremental());
+      this.options.setLazyFunctionBodies(options.getLazyFunctionBodies());
       this.options.setPreserveComments(options.getPreserveComments());
 
       generateSdkErrors = options.getGenerateSdkErrors();
@@ -2064,6 +2127,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       if (needsRecompute) {
         invalidateAllLocalResolutionInformation(false);
       }
+      for (Source source : new ArrayList<Source>(sourcesWithoutFunctionBodies)) {
+        if (needsFunctionBodies(source)) {
+          reparseWithFunctionBodies(source);
+        }
+      }
     }
   }
 
@@ -2090,6 +2158,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
           priorityOrder[i] = sources.get(i);
         }
       }
+      for (Source source : priorityOrder) {
+        if (sourcesWithoutFunctionBodies.contains(source) && needsFunctionBodies(source)) {
+          reparseWithFunctionBodies(source);
+        }
+      }
     }
   }
 
@@ -2168,6 +2241,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       coreLibrarySource = sourceFactory.forUri(DartSdk.DART_CORE);
 
       cache = createCacheFromSourceFactory(factory);
+      identifierTable.clear();
 
       invalidateAllLocalResolutionInformation(true);
     }
@@ -2500,13 +2574,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    * @param container the source container containing the sources to be added to the list
    */
   private void addSourcesInContainer(ArrayList<Source> sources, SourceContainer container) {
-    MapIterator<Source, SourceEntry> iterator = cache.iterator();
-    while (iterator.moveNext()) {
-      Source source = iterator.getKey();
-      if (container.contains(source)) {
-        sources.add(source);
-      }
-    }
+    cache.addSourcesInContainer(sources, container);
   }
 
   /**
@@ -2674,7 +2742,8 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
           source,
           dartEntry.getModificationTime(),
           dartEntry.getValue(DartEntry.TOKEN_STREAM),
-          dartEntry.getValue(SourceEntry.LINE_INFO)).perform(resultRecorder);
+          dartEntry.getValue(SourceEntry.LINE_INFO),
+          !needsFunctionBodies(source)).perform(resultRecorder);
       state = dartEntry.getState(descriptor);
     }
     return dartEntry;
@@ -2749,7 +2818,8 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
             this,
             source,
             dartEntry.getModificationTime(),
-            dartEntry.getValue(SourceEntry.CONTENT)).perform(resultRecorder);
+            dartEntry.getValue(SourceEntry.CONTENT),
+            identifierTable).perform(resultRecorder);
       } catch (AnalysisException exception) {
         throw exception;
       } catch (Exception exception) {
@@ -2843,7 +2913,8 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
             this,
             source,
             htmlEntry.getModificationTime(),
-            htmlEntry.getValue(SourceEntry.CONTENT)).perform(resultRecorder);
+            htmlEntry.getValue(SourceEntry.CONTENT),
+            !isLargeHtmlSource(source)).perform(resultRecorder);
       } catch (AnalysisException exception) {
         throw exception;
       } catch (Exception exception) {
@@ -2906,6 +2977,25 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Return the sources of all of the libraries that depend, directly or indirectly, on the
+   * libraries containing the given source, other than the containing libraries themselves.
+   * 
+   * @param source the source contained in the libraries on which the other libraries depend
+   * @return the sources of the libraries that depend on the libraries containing the source
+   */
+  private HashSet<Source> computeDependentLibraries(Source source) {
+    Source[] containingLibraries = getLibrariesContaining(source);
+    HashSet<Source> dependentLibraries = new HashSet<Source>();
+    for (Source containingLibrary : containingLibraries) {
+      computeAllLibrariesDependingOn(containingLibrary, dependentLibraries);
+    }
+    for (Source containingLibrary : containingLibraries) {
+      dependentLibraries.remove(containingLibrary);
+    }
+    return dependentLibraries;
+  }
+
   /**
    * Compute the priority that should be used when the source associated with the given entry is
    * added to the work manager.
@@ -3085,7 +3175,8 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         source,
         dartCopy.getModificationTime(),
         tokenStream,
-        dartEntry.getValue(SourceEntry.LINE_INFO)), false);
+        dartEntry.getValue(SourceEntry.LINE_INFO),
+        !needsFunctionBodies(source)), false);
   }
 
   /**
@@ -3106,7 +3197,12 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     htmlCopy.setState(HtmlEntry.PARSE_ERRORS, CacheState.IN_PROCESS);
     cache.put(source, htmlCopy);
     return new TaskData(
-        new ParseHtmlTask(this, source, htmlCopy.getModificationTime(), content),
+        new ParseHtmlTask(
+            this,
+            source,
+            htmlCopy.getModificationTime(),
+            content,
+            !isLargeHtmlSource(source)),
         false);
   }
 
@@ -3275,7 +3371,12 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     dartCopy.setState(DartEntry.SCAN_ERRORS, CacheState.IN_PROCESS);
     cache.put(source, dartCopy);
     return new TaskData(
-        new ScanDartTask(this, source, dartCopy.getModificationTime(), content),
+        new ScanDartTask(
+            this,
+            source,
+            dartCopy.getModificationTime(),
+            content,
+            identifierTable),
         false);
   }
 
@@ -3315,6 +3416,40 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return "'" + source.getFullName() + "' [" + getModificationStamp(source) + "]";
   }
 
+  /**
+   * In response to a change to the given Dart source, defer the invalidation of the libraries that
+   * depend on the libraries containing the source until the source has been parsed again and the
+   * signature of its declarations can be compared with the signature before the change. Return
+   * {@code true} if the invalidation was deferred, or {@code false} if the libraries depending on
+   * the containing libraries need to be invalidated now because either the signature or the
+   * element model from before the change is not available.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source that was changed
+   * @param containingLibraries the sources of the libraries containing the changed source
+   * @return {@code true} if the invalidation of the depending libraries was deferred
+   */
+  private boolean deferDependentLibraryInvalidation(Source source, Source[] containingLibraries) {
+    if (unitsAwaitingApiCheck.containsKey(source)) {
+      // The source was changed again before it could be parsed.
+      return true;
+    }
+    if (!apiSignatures.containsKey(source) || containingLibraries.length == 0) {
+      return false;
+    }
+    int libraryCount = containingLibraries.length;
+    CompilationUnitElement[] unitElements = new CompilationUnitElement[libraryCount];
+    for (int i = 0; i < libraryCount; i++) {
+      unitElements[i] = getCompilationUnitElement(source, containingLibraries[i]);
+      if (unitElements[i] == null) {
+        return false;
+      }
+    }
+    unitsAwaitingApiCheck.put(source, unitElements);
+    return true;
+  }
+
   /**
    * Return an array containing all of the change notices that are waiting to be returned. If there
    * are no notices, then return either {@code null} or an empty array, depending on the value of
@@ -3662,14 +3797,15 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         }
       }
       if (neededForResolution != null) {
-        ArrayList<Source> sourcesToRemove = new ArrayList<Source>();
-        for (Source source : neededForResolution) {
+        Iterator<Source> neededSources = neededForResolution.iterator();
+        while (neededSources.hasNext()) {
+          Source source = neededSources.next();
           SourceEntry sourceEntry = cache.get(source);
           if (sourceEntry instanceof DartEntry) {
             DartEntry dartEntry = (DartEntry) sourceEntry;
             if (!dartEntry.hasResolvableCompilationUnit()) {
               if (dartEntry.getState(DartEntry.PARSED_UNIT) == CacheState.ERROR) {
-                sourcesToRemove.add(source);
+                neededSources.remove();
               } else {
                 TaskData taskData = createParseDartTask(source, dartEntry);
                 AnalysisTask task = taskData.getTask();
@@ -3682,37 +3818,27 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
             }
           }
         }
-        int count = sourcesToRemove.size();
-        for (int i = 0; i < count; i++) {
-          neededForResolution.remove(sourcesToRemove.get(i));
-        }
       }
       //
-      // Look for a non-priority source that needs to be analyzed.
+      // Look for a non-priority source that needs to be analyzed. Sources with no remaining work
+      // are dropped from the work manager so that they are not examined again until a change to
+      // their cache entry causes them to be re-added.
       //
-      ArrayList<Source> sourcesToRemove = new ArrayList<Source>();
       WorkManager.WorkIterator sources = workManager.iterator();
-      try {
-        while (sources.hasNext()) {
-          Source source = sources.next();
-          TaskData taskData = getNextAnalysisTaskForSource(
-              source,
-              cache.get(source),
-              false,
-              hintsEnabled);
-          AnalysisTask task = taskData.getTask();
-          if (task != null) {
-            return task;
-          } else if (taskData.isBlocked()) {
-            hasBlockedTask = true;
-          } else {
-            sourcesToRemove.add(source);
-          }
-        }
-      } finally {
-        int count = sourcesToRemove.size();
-        for (int i = 0; i < count; i++) {
-          workManager.remove(sourcesToRemove.get(i));
+      while (sources.hasNext()) {
+        Source source = sources.next();
+        TaskData taskData = getNextAnalysisTaskForSource(
+            source,
+            cache.get(source),
+            false,
+            hintsEnabled);
+        AnalysisTask task = taskData.getTask();
+        if (task != null) {
+          return task;
+        } else if (taskData.isBlocked()) {
+          hasBlockedTask = true;
+        } else {
+          sources.remove();
         }
       }
       if (hasBlockedTask) {
@@ -3738,11 +3864,6 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    */
   private TaskData getNextAnalysisTaskForSource(Source source, SourceEntry sourceEntry,
       boolean isPriority, boolean hintsEnabled) {
-    // Refuse to generate tasks for html based files that are above 1500 KB
-    if (isTooBigHtmlSourceEntry(source, sourceEntry)) {
-      // TODO (jwren) we still need to report an error of some kind back to the client.
-      return new TaskData(null, false);
-    }
     if (sourceEntry == null) {
       return new TaskData(null, false);
     }
@@ -4171,6 +4292,13 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    *          should also be invalidated.
    */
   private void invalidateAllLocalResolutionInformation(boolean invalidateUris) {
+    memberMapCache.clear();
+    elementLocationCache.clear();
+    angularModelCache.clear();
+    unitsAwaitingApiCheck.clear();
+    if (invalidateUris) {
+      missingSourceIndex.clear();
+    }
     HashMap<Source, Source[]> oldPartMap = new HashMap<Source, Source[]>();
     MapIterator<Source, SourceEntry> iterator = privatePartition.iterator();
     while (iterator.moveNext()) {
@@ -4242,6 +4370,56 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Invalidate all of the information associated with the given Dart source, which needs to be
+   * scanned and parsed again, and the resolution of the libraries containing it. The libraries
+   * depending on those libraries are invalidated when the source is parsed again if its
+   * declarations changed, or now if they cannot be compared.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source to be invalidated
+   */
+  private void invalidateDartSource(Source source) {
+    Source[] containingLibraries = getLibrariesContaining(source);
+    HashSet<Source> librariesToInvalidate = new HashSet<Source>();
+    if (deferDependentLibraryInvalidation(source, containingLibraries)) {
+      for (Source containingLibrary : containingLibraries) {
+        librariesToInvalidate.add(containingLibrary);
+      }
+    } else {
+      for (Source containingLibrary : containingLibraries) {
+        computeAllLibrariesDependingOn(containingLibrary, librariesToInvalidate);
+      }
+    }
+
+    for (Source library : librariesToInvalidate) {
+      invalidateLibraryResolution(library);
+    }
+
+    removeFromParts(source, ((DartEntry) cache.get(source)));
+    DartEntryImpl dartCopy = ((DartEntry) cache.get(source)).getWritableCopy();
+    dartCopy.setModificationTime(getModificationStamp(source));
+    dartCopy.invalidateAllInformation();
+    cache.put(source, dartCopy);
+    cache.removedAst(source);
+    workManager.add(source, SourcePriority.UNKNOWN);
+  }
+
+  /**
+   * Invalidate the resolution of all of the libraries that depend, directly or indirectly, on the
+   * libraries containing the given source, other than the containing libraries themselves.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source whose declarations were changed
+   */
+  private void invalidateLibrariesDependingOn(Source source) {
+    for (Source library : computeDependentLibraries(source)) {
+      invalidateLibraryResolution(library);
+    }
+  }
+
   /**
    * In response to a change to at least one of the compilation units in the given library,
    * invalidate any results that are dependent on the result of resolving that library.
@@ -4257,6 +4435,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     // TODO(brianwilkerson) This could be optimized. There's no need to flush all of these entries
     // if the public namespace hasn't changed, which will be a fairly common case. The question is
     // whether we can afford the time to compute the namespace to look for differences.
+    memberMapCache.invalidateLibrary(librarySource);
+    elementLocationCache.invalidateLibrary(librarySource);
+    angularModelCache.invalidateLibrary(librarySource);
     DartEntry libraryEntry = getReadableDartEntry(librarySource);
     if (libraryEntry != null) {
       Source[] includedParts = libraryEntry.getValue(DartEntry.INCLUDED_PARTS);
@@ -4287,6 +4468,36 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * In response to the addition of the given source, invalidate the resolution of the sources that
+   * were referencing it while it did not exist, and of the libraries that depend on them.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source that was added
+   */
+  private void invalidateReferencesToMissingSource(Source source) {
+    Source[] referencingSources = missingSourceIndex.removeMissingSource(source);
+    if (referencingSources.length == 0) {
+      return;
+    }
+    HashSet<Source> librariesToInvalidate = new HashSet<Source>();
+    for (Source referencingSource : referencingSources) {
+      SourceEntry sourceEntry = cache.get(referencingSource);
+      if (sourceEntry instanceof DartEntry) {
+        computeAllLibrariesDependingOn(referencingSource, librariesToInvalidate);
+      } else if (sourceEntry instanceof HtmlEntry) {
+        HtmlEntryImpl htmlCopy = ((HtmlEntry) sourceEntry).getWritableCopy();
+        htmlCopy.invalidateAllResolutionInformation(false);
+        cache.put(referencingSource, htmlCopy);
+        workManager.add(referencingSource, SourcePriority.HTML);
+      }
+    }
+    for (Source library : librariesToInvalidate) {
+      invalidateLibraryResolution(library);
+    }
+  }
+
   /**
    * Return {@code true} if this library is, or depends on, dart:html.
    * 
@@ -4317,9 +4528,16 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return false;
   }
 
+  /**
+   * Return {@code true} if the given HTML source is so large that only the text that can affect
+   * analysis should be retained when it is parsed.
+   * 
+   * @param source the HTML source being tested
+   * @return {@code true} if the given HTML source is larger than 1500 KB
+   */
   @DartExpressionBody("false")
-  private boolean isTooBigHtmlSourceEntry(Source source, SourceEntry sourceEntry) {
-    if (sourceEntry instanceof HtmlEntryImpl && source instanceof FileBasedSource) {
+  private boolean isLargeHtmlSource(Source source) {
+    if (source instanceof FileBasedSource) {
       File file = ((FileBasedSource) source).getFile();
       return file.length() > 1500 * 1024;
     }
@@ -4349,6 +4567,33 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Return {@code true} if the function bodies of the given Dart source need to be parsed. They
+   * are not needed if function bodies are not analyzed, or if they are parsed lazily and the
+   * source is neither a priority source, nor a source for which errors are generated, nor a source
+   * whose bodies were requested by a client.
+   * 
+   * @param source the source being tested
+   * @return {@code true} if the function bodies of the given source need to be parsed
+   */
+  private boolean needsFunctionBodies(Source source) {
+    if (!options.getAnalyzeFunctionBodies()) {
+      return false;
+    }
+    if (!options.getLazyFunctionBodies() || generateSdkErrors || !source.isInSystemLibrary()) {
+      return true;
+    }
+    if (sourcesNeedingFunctionBodies.contains(source)) {
+      return true;
+    }
+    for (Source prioritySource : priorityOrder) {
+      if (prioritySource.equals(source)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Notify all of the analysis listeners that a task is about to be performed.
    * 
@@ -4501,6 +4746,54 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     entry.setValue(HtmlEntry.ANGULAR_ENTRY, application);
   }
 
+  /**
+   * Record the signature of the declarations produced by parsing the given Dart source. If the
+   * source was changed since its previous parse, compare the signatures: if they match, the
+   * libraries depending on the source keep their resolution and the offsets of the elements in
+   * their element model are updated to the new content, otherwise those libraries are invalidated.
+   * <p>
+   * When the libraries depending on the source keep their resolution, they continue to refer to the
+   * elements of the element model of the containing libraries from before the change, while the
+   * containing libraries are resolved again and get a new element model. The elements of the two
+   * models are equal, because they have the same locations, but they are not identical. Any cache
+   * that is keyed by element identity must therefore be invalidated for the depending libraries, so
+   * that it does not return results computed from the elements of the previous model to a client
+   * holding the elements of the new model.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * <p>
+   * <b>Note:</b> Any cache entries that were accessed before this method was invoked must be
+   * re-accessed after this method returns.
+   * 
+   * @param source the source that was parsed
+   * @param newSignature the signature of the declarations in the source, or {@code null} if the
+   *          source could not be parsed
+   */
+  private void recordApiSignature(Source source, UnitApiSignature newSignature) {
+    UnitApiSignature oldSignature;
+    if (newSignature == null) {
+      oldSignature = apiSignatures.remove(source);
+    } else {
+      oldSignature = apiSignatures.put(source, newSignature);
+    }
+    CompilationUnitElement[] unitElements = unitsAwaitingApiCheck.remove(source);
+    if (unitElements == null) {
+      return;
+    }
+    if (oldSignature != null && oldSignature.matches(newSignature)) {
+      for (CompilationUnitElement unitElement : unitElements) {
+        oldSignature.updateOffsets(unitElement, newSignature);
+      }
+      for (Source library : computeDependentLibraries(source)) {
+        memberMapCache.invalidateLibrary(library);
+        elementLocationCache.invalidateLibrary(library);
+        angularModelCache.invalidateLibrary(library);
+      }
+    } else {
+      invalidateLibrariesDependingOn(source);
+    }
+  }
+
   /**
    * Given a cache entry and a library element, record the library element and other information
    * gleaned from the element in the cache entry.
@@ -4771,6 +5064,26 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return null;
   }
 
+  /**
+   * Record in the {@link #missingSourceIndex} which of the sources referenced by the given source
+   * do not exist, replacing the references that were recorded for it before.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param referencingSource the source containing the references
+   * @param referencedSources the sources referenced by the given source
+   */
+  private void recordMissingSources(Source referencingSource, Source[]... referencedSources) {
+    missingSourceIndex.removeReferencingSource(referencingSource);
+    for (Source[] sources : referencedSources) {
+      for (Source source : sources) {
+        if (!exists(source)) {
+          missingSourceIndex.addReference(referencingSource, source);
+        }
+      }
+    }
+  }
+
   /**
    * Record the results produced by performing a {@link ParseDartTask}. If the results were computed
    * from data that is now out-of-date, then the results will not be recorded.
@@ -4846,9 +5159,19 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
           }
           dartCopy.setValue(DartEntry.PARSED_UNIT, task.getCompilationUnit());
           dartCopy.setValue(DartEntry.PARSE_ERRORS, task.getErrors());
+          if (!task.getSkipFunctionBodies() || !options.getAnalyzeFunctionBodies()) {
+            sourcesWithoutFunctionBodies.remove(source);
+          } else {
+            sourcesWithoutFunctionBodies.add(source);
+          }
           dartCopy.setValue(DartEntry.EXPORTED_LIBRARIES, task.getExportedSources());
           dartCopy.setValue(DartEntry.IMPORTED_LIBRARIES, task.getImportedSources());
           dartCopy.setValue(DartEntry.INCLUDED_PARTS, newParts);
+          recordMissingSources(
+              source,
+              task.getExportedSources(),
+              task.getImportedSources(),
+              newParts);
           cache.storedAst(source);
 
           ChangeNoticeImpl notice = getNotice(source);
@@ -4867,6 +5190,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         }
         cache.put(source, dartCopy);
         dartEntry = dartCopy;
+        recordApiSignature(source, task.getApiSignature());
       } else {
         logInformation(
             "Parse results discarded for " + debuggingString(source) + "; sourceTime = "
@@ -4947,6 +5271,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
           htmlCopy.setValue(HtmlEntry.PARSED_UNIT, unit);
           htmlCopy.setValue(HtmlEntry.PARSE_ERRORS, task.getErrors());
           htmlCopy.setValue(HtmlEntry.REFERENCED_LIBRARIES, task.getReferencedLibraries());
+          recordMissingSources(source, task.getReferencedLibraries());
           cache.storedAst(source);
 
           ChangeNoticeImpl notice = getNotice(source);
@@ -5149,6 +5474,27 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return htmlEntry;
   }
 
+  /**
+   * Record in the {@link #missingSourceIndex} that the given source, which was deleted or removed,
+   * is referenced by the given libraries and by the HTML files that reference it, so that they are
+   * re-analyzed if the source is added again.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source that no longer exists
+   * @param libraries the libraries that depend on the source
+   */
+  private void recordReferencesToMissingSource(Source source, HashSet<Source> libraries) {
+    for (Source librarySource : libraries) {
+      if (!librarySource.equals(source)) {
+        missingSourceIndex.addReference(librarySource, source);
+      }
+    }
+    for (Source htmlSource : getHtmlFilesReferencing(source)) {
+      missingSourceIndex.addReference(htmlSource, source);
+    }
+  }
+
   /**
    * Record the results produced by performing a {@link ResolveAngularComponentTemplateTask}. If the
    * results were computed from data that is now out-of-date, then the results will not be recorded.
@@ -5659,6 +6005,42 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Invalidate the AST structure of the given Dart source, which was parsed without parsing the
+   * function bodies, so that it is parsed again, this time including the bodies. Because the
+   * declarations do not change, the libraries depending on the source keep their resolution.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source whose function bodies are needed
+   */
+  private void reparseWithFunctionBodies(Source source) {
+    sourcesWithoutFunctionBodies.remove(source);
+    if (cache.get(source) instanceof DartEntry) {
+      invalidateDartSource(source);
+    }
+  }
+
+  /**
+   * Record that a client needs the function bodies of the given Dart source. If the current AST
+   * structure of the source was parsed without its function bodies, it is invalidated so that it
+   * will be parsed again with its bodies, and from then on the source is always parsed with its
+   * bodies. Return {@code true} if the AST structure was invalidated.
+   * 
+   * @param source the source whose function bodies are needed
+   * @return {@code true} if the source needs to be parsed again
+   */
+  private boolean requestFunctionBodies(Source source) {
+    synchronized (cacheLock) {
+      if (!sourcesWithoutFunctionBodies.contains(source)) {
+        return false;
+      }
+      sourcesNeedingFunctionBodies.add(source);
+      reparseWithFunctionBodies(source);
+      return true;
+    }
+  }
+
   /**
    * Create an entry for the newly added source. Return {@code true} if the new source is a Dart
    * file.
@@ -5705,23 +6087,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       cache.removedAst(source);
       workManager.add(source, SourcePriority.HTML);
     } else if (sourceEntry instanceof DartEntry) {
-      Source[] containingLibraries = getLibrariesContaining(source);
-      HashSet<Source> librariesToInvalidate = new HashSet<Source>();
-      for (Source containingLibrary : containingLibraries) {
-        computeAllLibrariesDependingOn(containingLibrary, librariesToInvalidate);
-      }
-
-      for (Source library : librariesToInvalidate) {
-        invalidateLibraryResolution(library);
-      }
-
-      removeFromParts(source, ((DartEntry) cache.get(source)));
-      DartEntryImpl dartCopy = ((DartEntry) cache.get(source)).getWritableCopy();
-      dartCopy.setModificationTime(getModificationStamp(source));
-      dartCopy.invalidateAllInformation();
-      cache.put(source, dartCopy);
-      cache.removedAst(source);
-      workManager.add(source, SourcePriority.UNKNOWN);
+      invalidateDartSource(source);
     }
   }
 
@@ -5748,6 +6114,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       for (Source librarySource : libraries) {
         invalidateLibraryResolution(librarySource);
       }
+      recordReferencesToMissingSource(source, libraries);
+      apiSignatures.remove(source);
+      unitsAwaitingApiCheck.remove(source);
+      sourcesWithoutFunctionBodies.remove(source);
+      sourcesNeedingFunctionBodies.remove(source);
       DartEntryImpl dartCopy = ((DartEntry) sourceEntry).getWritableCopy();
       dartCopy.recordContentError(new AnalysisException("This source was marked as being deleted"));
       cache.put(source, dartCopy);
@@ -5777,7 +6148,13 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       for (Source librarySource : libraries) {
         invalidateLibraryResolution(librarySource);
       }
+      recordReferencesToMissingSource(source, libraries);
+      apiSignatures.remove(source);
+      unitsAwaitingApiCheck.remove(source);
+      sourcesWithoutFunctionBodies.remove(source);
+      sourcesNeedingFunctionBodies.remove(source);
     }
+    missingSourceIndex.removeReferencingSource(source);
     cache.remove(source);
     workManager.remove(source);
     removeFromPriorityOrder(source);
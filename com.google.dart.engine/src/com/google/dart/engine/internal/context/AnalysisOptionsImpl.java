@@ -101,6 +101,11 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
    */
   private boolean incremental = false;
 
+  /**
+   * A flag indicating whether function bodies are only parsed when they are needed.
+   */
+  private boolean lazyFunctionBodies = false;
+
   /**
    * A flag indicating whether analysis is to parse comments.
    */
@@ -130,6 +135,7 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     generateSdkErrors = options.getGenerateSdkErrors();
     hint = options.getHint();
     incremental = options.getIncremental();
+    lazyFunctionBodies = options.getLazyFunctionBodies();
     preserveComments = options.getPreserveComments();
   }
 
@@ -191,6 +197,11 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     return incremental;
   }
 
+  @Override
+  public boolean getLazyFunctionBodies() {
+    return lazyFunctionBodies;
+  }
+
   @Override
   public boolean getPreserveComments() {
     return preserveComments;
@@ -303,6 +314,15 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     this.incremental = incremental;
   }
 
+  /**
+   * Set whether function bodies are only parsed when they are needed.
+   * 
+   * @param lazyFunctionBodies {@code true} if function bodies are only parsed when they are needed
+   */
+  public void setLazyFunctionBodies(boolean lazyFunctionBodies) {
+    this.lazyFunctionBodies = lazyFunctionBodies;
+  }
+
   /**
    * Set whether analysis is to parse comments.
    * 
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.common.collect.Maps;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.ElementLocation;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.source.Source;
+
+import java.util.HashMap;
+
+/**
+ * Instances of the class {@code ElementLocationCache} hold the elements found by
+ * {@link AnalysisContextImpl#getElement(ElementLocation)} so that a location does not have to be
+ * resolved one component at a time every time it is decoded.
+ * <p>
+ * The elements are recorded separately for each library. An element is only returned if the library
+ * element from which it was found is still the element of its library, and all of the elements of a
+ * library are discarded as soon as the library is {@link #invalidateLibrary(Source) invalidated}.
+ * 
+ * @coverage dart.engine
+ */
+public class ElementLocationCache {
+  /**
+   * Instances of the class {@code LibraryEntry} hold the elements found in a single library.
+   */
+  private static class LibraryEntry {
+    /**
+     * The library element in which the elements were found.
+     */
+    private final LibraryElement library;
+
+    /**
+     * A table mapping locations to the elements found for them.
+     */
+    private final HashMap<ElementLocation, Element> elements = Maps.newHashMap();
+
+    /**
+     * Initialize a newly created entry to hold the elements found in the given library.
+     * 
+     * @param library the library element in which the elements were found
+     */
+    public LibraryEntry(LibraryElement library) {
+      this.library = library;
+    }
+  }
+
+  /**
+   * A table mapping the sources of libraries to the elements found in them.
+   */
+  private HashMap<Source, LibraryEntry> entries = Maps.newHashMap();
+
+  /**
+   * Initialize a newly created cache to be empty.
+   */
+  public ElementLocationCache() {
+    super();
+  }
+
+  /**
+   * Remove all of the information from this cache.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Return the element that was found for the given location in the given library, or
+   * {@code null} if there is no such element in this cache.
+   * 
+   * @param librarySource the source of the library containing the element
+   * @param library the current element of the library containing the element
+   * @param location the location of the element
+   * @return the element found for the given location
+   */
+  public synchronized Element get(Source librarySource, LibraryElement library,
+      ElementLocation location) {
+    LibraryEntry entry = entries.get(librarySource);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.library != library) {
+      entries.remove(librarySource);
+      return null;
+    }
+    return entry.elements.get(location);
+  }
+
+  /**
+   * Discard the elements found in the library with the given source.
+   * 
+   * @param librarySource the source of the library that was modified
+   */
+  public synchronized void invalidateLibrary(Source librarySource) {
+    entries.remove(librarySource);
+  }
+
+  /**
+   * Record that the given element was found for the given location in the given library.
+   * 
+   * @param librarySource the source of the library containing the element
+   * @param library the element of the library containing the element
+   * @param location the location of the element
+   * @param element the element found for the given location
+   */
+  public synchronized void put(Source librarySource, LibraryElement library,
+      ElementLocation location, Element element) {
+    LibraryEntry entry = entries.get(librarySource);
+    if (entry == null || entry.library != library) {
+      entry = new LibraryEntry(library);
+      entries.put(librarySource, entry);
+    }
+    entry.elements.put(location, element);
+  }
+}
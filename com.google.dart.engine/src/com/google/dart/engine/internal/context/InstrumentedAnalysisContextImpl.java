@@ -21,6 +21,8 @@ import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.internal.cache.SourceEntry;
 import com.google.dart.engine.internal.element.angular.AngularApplication;
+import com.google.dart.engine.internal.html.angular.AngularModelCache;
+import com.google.dart.engine.internal.resolver.MemberMapCache;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.internal.scope.Namespace;
 import com.google.dart.engine.source.Source;
@@ -321,6 +323,11 @@ public class InstrumentedAnalysisContextImpl implements InternalAnalysisContext
     }
   }
 
+  @Override
+  public AngularModelCache getAngularModelCache() {
+    return basis.getAngularModelCache();
+  }
+
   /**
    * @return the underlying {@link AnalysisContext}.
    */
@@ -569,6 +576,11 @@ public class InstrumentedAnalysisContextImpl implements InternalAnalysisContext
     }
   }
 
+  @Override
+  public MemberMapCache getMemberMapCache() {
+    return basis.getMemberMapCache();
+  }
+
   @Override
   public long getModificationStamp(Source source) {
     InstrumentationBuilder instrumentation = Instrumentation.builder("Analysis-getModificationStamp");
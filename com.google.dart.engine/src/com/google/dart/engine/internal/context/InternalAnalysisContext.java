@@ -18,6 +18,8 @@ import com.google.dart.engine.context.AnalysisContextStatistics;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.internal.cache.SourceEntry;
+import com.google.dart.engine.internal.html.angular.AngularModelCache;
+import com.google.dart.engine.internal.resolver.MemberMapCache;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.internal.scope.Namespace;
 import com.google.dart.engine.source.Source;
@@ -86,6 +88,14 @@ public interface InternalAnalysisContext extends AnalysisContext {
   public InternalAnalysisContext extractContextInto(SourceContainer container,
       InternalAnalysisContext newContext);
 
+  /**
+   * Return the cache used to share the Angular elements found in the libraries of this context
+   * between the resolutions of Angular applications.
+   * 
+   * @return the Angular model cache for this context
+   */
+  public AngularModelCache getAngularModelCache();
+
   /**
    * Return context that owns the given source.
    * 
@@ -94,6 +104,14 @@ public interface InternalAnalysisContext extends AnalysisContext {
    */
   public InternalAnalysisContext getContextFor(Source source);
 
+  /**
+   * Return the cache used to share the member lookup maps computed by inheritance managers within
+   * this context.
+   * 
+   * @return the member map cache for this context
+   */
+  public MemberMapCache getMemberMapCache();
+
   /**
    * Return an array containing all of the sources that have been marked as priority sources.
    * Clients must not modify the returned array.
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.dart.engine.source.Source;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Instances of the class {@code MissingSourceIndex} record which sources reference sources that do
+ * not exist, through an import, export or part directive or through a script tag, so that the
+ * referencing sources can be re-resolved when a missing source is added.
+ * <p>
+ * Instances of this class are not thread safe. They are only accessed while holding the lock of
+ * the cache of the context that owns them.
+ * 
+ * @coverage dart.engine
+ */
+public class MissingSourceIndex {
+  /**
+   * A table mapping missing sources to the sources that reference them.
+   */
+  private HashMap<Source, HashSet<Source>> missingToReferencing = Maps.newHashMap();
+
+  /**
+   * A table mapping referencing sources to the missing sources they reference.
+   */
+  private HashMap<Source, HashSet<Source>> referencingToMissing = Maps.newHashMap();
+
+  /**
+   * Initialize a newly created index to be empty.
+   */
+  public MissingSourceIndex() {
+    super();
+  }
+
+  /**
+   * Record that the given source references the given missing source, in addition to any missing
+   * sources that were recorded for it before.
+   * 
+   * @param referencingSource the source containing the reference
+   * @param missingSource the source that does not exist
+   */
+  public void addReference(Source referencingSource, Source missingSource) {
+    getOrCreate(missingToReferencing, missingSource).add(referencingSource);
+    getOrCreate(referencingToMissing, referencingSource).add(missingSource);
+  }
+
+  /**
+   * Remove all of the information from this index.
+   */
+  public void clear() {
+    missingToReferencing.clear();
+    referencingToMissing.clear();
+  }
+
+  /**
+   * Record that the given source now exists and return the sources that referenced it while it was
+   * missing.
+   * 
+   * @param missingSource the source that was added
+   * @return the sources that referenced the source while it was missing
+   */
+  public Source[] removeMissingSource(Source missingSource) {
+    HashSet<Source> referencingSources = missingToReferencing.remove(missingSource);
+    if (referencingSources == null) {
+      return Source.EMPTY_ARRAY;
+    }
+    for (Source referencingSource : referencingSources) {
+      HashSet<Source> missingSources = referencingToMissing.get(referencingSource);
+      if (missingSources != null) {
+        missingSources.remove(missingSource);
+        if (missingSources.isEmpty()) {
+          referencingToMissing.remove(referencingSource);
+        }
+      }
+    }
+    return referencingSources.toArray(new Source[referencingSources.size()]);
+  }
+
+  /**
+   * Remove the references recorded for the given source.
+   * 
+   * @param referencingSource the source whose references are to be removed
+   */
+  public void removeReferencingSource(Source referencingSource) {
+    HashSet<Source> missingSources = referencingToMissing.remove(referencingSource);
+    if (missingSources == null) {
+      return;
+    }
+    for (Source missingSource : missingSources) {
+      HashSet<Source> referencingSources = missingToReferencing.get(missingSource);
+      if (referencingSources != null) {
+        referencingSources.remove(referencingSource);
+        if (referencingSources.isEmpty()) {
+          missingToReferencing.remove(missingSource);
+        }
+      }
+    }
+  }
+
+  /**
+   * Return the set associated with the given key in the given table, creating it if necessary.
+   */
+  private HashSet<Source> getOrCreate(HashMap<Source, HashSet<Source>> table, Source key) {
+    HashSet<Source> sources = table.get(key);
+    if (sources == null) {
+      sources = Sets.newHashSet();
+      table.put(key, sources);
+    }
+    return sources;
+  }
+}
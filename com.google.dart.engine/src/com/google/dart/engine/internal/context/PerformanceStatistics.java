@@ -67,9 +67,63 @@ public class PerformanceStatistics {
   public static TimeCounter pubList = new TimeCounter();
 
   /**
-   * Reset all of the time counters to zero.
+   * The number of edits for which incremental analysis was attempted.
    */
-  public static void reset() {
+  private static int incrementalAnalysisAttempts = 0;
+
+  /**
+   * The number of edits that were handled by incremental analysis without falling back to a full
+   * analysis of the library.
+   */
+  private static int incrementalAnalysisSuccesses = 0;
+
+  /**
+   * Return the number of edits for which incremental analysis was attempted.
+   * 
+   * @return the number of edits for which incremental analysis was attempted
+   */
+  public static synchronized int getIncrementalAnalysisAttempts() {
+    return incrementalAnalysisAttempts;
+  }
+
+  /**
+   * Return the fraction of the edits for which incremental analysis was attempted that were
+   * handled without falling back to a full analysis, or {@code 0} if there were no such edits.
+   * 
+   * @return the fraction of the edits that took the incremental fast path
+   */
+  public static synchronized double getIncrementalAnalysisHitRate() {
+    if (incrementalAnalysisAttempts == 0) {
+      return 0.0;
+    }
+    return (double) incrementalAnalysisSuccesses / incrementalAnalysisAttempts;
+  }
+
+  /**
+   * Return the number of edits that were handled by incremental analysis.
+   * 
+   * @return the number of edits that were handled by incremental analysis
+   */
+  public static synchronized int getIncrementalAnalysisSuccesses() {
+    return incrementalAnalysisSuccesses;
+  }
+
+  /**
+   * Record that incremental analysis was attempted for an edit.
+   * 
+   * @param succeeded {@code true} if the edit was handled without falling back to a full analysis
+   */
+  public static synchronized void recordIncrementalAnalysis(boolean succeeded) {
+    incrementalAnalysisAttempts++;
+    if (succeeded) {
+      incrementalAnalysisSuccesses++;
+    }
+  }
+
+  /**
+   * Reset all of the time counters and incremental analysis counts to zero.
+   */
+  public static synchronized void reset() {
     io = new TimeCounter();
     scan = new TimeCounter();
     parse = new TimeCounter();
@@ -79,5 +133,7 @@ public class PerformanceStatistics {
     errors = new TimeCounter();
     hints = new TimeCounter();
     pubList = new TimeCounter();
+    incrementalAnalysisAttempts = 0;
+    incrementalAnalysisSuccesses = 0;
   }
 }
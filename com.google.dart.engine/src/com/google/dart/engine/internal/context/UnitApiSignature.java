@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.dart.engine.ast.AstNode;
+import com.google.dart.engine.ast.BlockFunctionBody;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.ConstructorDeclaration;
+import com.google.dart.engine.ast.ExpressionFunctionBody;
+import com.google.dart.engine.ast.FunctionBody;
+import com.google.dart.engine.ast.FunctionDeclaration;
+import com.google.dart.engine.ast.MethodDeclaration;
+import com.google.dart.engine.ast.visitor.GeneralizingAstVisitor;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.FunctionElement;
+import com.google.dart.engine.element.LabelElement;
+import com.google.dart.engine.element.LocalVariableElement;
+import com.google.dart.engine.element.visitor.GeneralizingElementVisitor;
+import com.google.dart.engine.internal.element.ElementImpl;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.scanner.TokenType;
+
+import java.util.ArrayList;
+
+/**
+ * Instances of the class {@code UnitApiSignature} summarize the part of a compilation unit that can
+ * affect the resolution of other libraries: everything except the bodies of the functions, methods
+ * and constructors declared in the unit. Two units with the same signature declare the same
+ * elements with the same types, constant values and documentation, so when a unit is changed and
+ * its signature did not change, the libraries depending on it do not need to be re-resolved. Those
+ * libraries keep referring to the elements of the unit from before the change, which are equal to,
+ * but not the same objects as, the elements created when the library containing the unit is
+ * resolved again.
+ * <p>
+ * The signature is a pair of hashes of the lexemes of the tokens and comments outside of the
+ * bodies, together with their offsets in the text from which the bodies have been removed, so
+ * changing the white space between declarations also changes the signature. Each hash is a 32-bit
+ * FNV-1a hash, the two hashes starting from different initial values. The hashes are reduced to 32
+ * bits after every step rather than relying on overflow, so that the same values are computed when
+ * this class is translated to Dart, whose integers do not overflow. The offsets and lengths of the
+ * bodies are retained so that the offsets of the elements declared by the unit can be mapped to the
+ * offsets in a changed version of the unit with the same signature.
+ * 
+ * @coverage dart.engine
+ */
+public class UnitApiSignature {
+  /**
+   * Instances of the class {@code BodyCollector} collect the bodies that are excluded from the
+   * signature, in the order in which they appear in the unit.
+   */
+  private static class BodyCollector extends GeneralizingAstVisitor<Void> {
+    /**
+     * The bodies that were found.
+     */
+    private ArrayList<FunctionBody> bodies = new ArrayList<FunctionBody>();
+
+    @Override
+    public Void visitConstructorDeclaration(ConstructorDeclaration node) {
+      addBody(node.getBody());
+      return null;
+    }
+
+    @Override
+    public Void visitFunctionDeclaration(FunctionDeclaration node) {
+      addBody(node.getFunctionExpression().getBody());
+      return null;
+    }
+
+    @Override
+    public Void visitMethodDeclaration(MethodDeclaration node) {
+      addBody(node.getBody());
+      return null;
+    }
+
+    @Override
+    public Void visitNode(AstNode node) {
+      // Only declarations that are directly contained in the unit or in a class can have a body.
+      if (node instanceof CompilationUnit || node.getParent() instanceof CompilationUnit) {
+        return super.visitNode(node);
+      }
+      return null;
+    }
+
+    /**
+     * Add the given body if it has any content that could change without changing the declaration
+     * containing it.
+     * 
+     * @param body the body of the declaration being visited
+     */
+    private void addBody(FunctionBody body) {
+      if (body instanceof BlockFunctionBody || body instanceof ExpressionFunctionBody) {
+        bodies.add(body);
+      }
+    }
+  }
+
+  /**
+   * Instances of the class {@code OffsetUpdater} map the name offsets of the elements declared in
+   * the declarations of a compilation unit, but not in the bodies.
+   */
+  private class OffsetUpdater extends GeneralizingElementVisitor<Void> {
+    /**
+     * The signature of the changed version of the unit.
+     */
+    private UnitApiSignature newSignature;
+
+    /**
+     * Initialize a newly created updater to map offsets to the given version of the unit.
+     * 
+     * @param newSignature the signature of the changed version of the unit
+     */
+    public OffsetUpdater(UnitApiSignature newSignature) {
+      this.newSignature = newSignature;
+    }
+
+    @Override
+    public Void visitElement(Element element) {
+      if (element instanceof LocalVariableElement || element instanceof LabelElement
+          || (element instanceof FunctionElement && !((FunctionElement) element).isStatic())) {
+        // Local elements are defined by the bodies, which are being re-resolved, and the identity
+        // of some of them depends on their offset.
+        return null;
+      }
+      int offset = element.getNameOffset();
+      if (offset > 0 && element instanceof ElementImpl) {
+        int newOffset = mapOffset(newSignature, offset);
+        if (newOffset >= 0) {
+          ((ElementImpl) element).setNameOffset(newOffset);
+        }
+      }
+      return super.visitElement(element);
+    }
+  }
+
+  /**
+   * The initial value of the first hash, which is the offset basis of the FNV-1a hash function.
+   */
+  private static final long FNV_OFFSET_BASIS = 0x811C9DC5L;
+
+  /**
+   * The initial value of the second hash.
+   */
+  private static final long SECOND_OFFSET_BASIS = 0x050C5D1FL;
+
+  /**
+   * The multiplier of the FNV-1a hash function.
+   */
+  private static final long FNV_PRIME = 0x01000193L;
+
+  /**
+   * The mask used to reduce the hashes to 32 bits.
+   */
+  private static final long HASH_MASK = 0xFFFFFFFFL;
+
+  /**
+   * Compute the signature of the given compilation unit.
+   * 
+   * @param unit the compilation unit whose signature is to be computed
+   * @return the signature of the given compilation unit
+   */
+  public static UnitApiSignature compute(CompilationUnit unit) {
+    BodyCollector collector = new BodyCollector();
+    unit.accept(collector);
+    ArrayList<FunctionBody> bodies = collector.bodies;
+    int bodyCount = bodies.size();
+    int[] bodyOffsets = new int[bodyCount];
+    int[] bodyLengths = new int[bodyCount];
+    long hash = FNV_OFFSET_BASIS;
+    long secondHash = SECOND_OFFSET_BASIS;
+    int bodyIndex = 0;
+    int removedLength = 0;
+    Token token = unit.getBeginToken();
+    while (token != null && token.getType() != TokenType.EOF) {
+      Token comment = token.getPrecedingComments();
+      while (comment != null) {
+        hash = hashToken(hash, comment, removedLength);
+        secondHash = hashToken(secondHash, comment, removedLength);
+        comment = comment.getNext();
+      }
+      if (bodyIndex < bodyCount && token == bodies.get(bodyIndex).getBeginToken()) {
+        FunctionBody body = bodies.get(bodyIndex);
+        bodyOffsets[bodyIndex] = body.getOffset();
+        bodyLengths[bodyIndex] = body.getLength();
+        // Record the kind of the body so that making a method abstract changes the signature.
+        hash = hashToken(hash, token, removedLength);
+        secondHash = hashToken(secondHash, token, removedLength);
+        removedLength += body.getLength();
+        bodyIndex++;
+        token = body.getEndToken().getNext();
+      } else {
+        hash = hashToken(hash, token, removedLength);
+        secondHash = hashToken(secondHash, token, removedLength);
+        token = token.getNext();
+      }
+    }
+    return new UnitApiSignature(hash, secondHash, bodyOffsets, bodyLengths);
+  }
+
+  /**
+   * Return the hash obtained by adding the lexeme and the adjusted offset of the given token to
+   * the given hash.
+   * 
+   * @param hash the hash of the tokens preceding the given token
+   * @param token the token being added to the hash
+   * @param removedLength the number of characters in the bodies preceding the token
+   * @return the hash including the given token
+   */
+  private static long hashToken(long hash, Token token, int removedLength) {
+    String lexeme = token.getLexeme();
+    int length = lexeme.length();
+    for (int i = 0; i < length; i++) {
+      hash = ((hash ^ lexeme.charAt(i)) * FNV_PRIME) & HASH_MASK;
+    }
+    return ((hash ^ (token.getOffset() - removedLength)) * FNV_PRIME) & HASH_MASK;
+  }
+
+  /**
+   * The first hash of the content of the unit outside of the bodies.
+   */
+  private final long hash;
+
+  /**
+   * The second hash of the content of the unit outside of the bodies.
+   */
+  private final long secondHash;
+
+  /**
+   * The offsets of the bodies that were excluded from the hash, in increasing order.
+   */
+  private final int[] bodyOffsets;
+
+  /**
+   * The lengths of the bodies that were excluded from the hash, parallel to {@link #bodyOffsets}.
+   */
+  private final int[] bodyLengths;
+
+  /**
+   * Initialize a newly created signature.
+   * 
+   * @param hash the first hash of the content of the unit outside of the bodies
+   * @param secondHash the second hash of the content of the unit outside of the bodies
+   * @param bodyOffsets the offsets of the bodies that were excluded from the hash
+   * @param bodyLengths the lengths of the bodies that were excluded from the hash
+   */
+  private UnitApiSignature(long hash, long secondHash, int[] bodyOffsets, int[] bodyLengths) {
+    this.hash = hash;
+    this.secondHash = secondHash;
+    this.bodyOffsets = bodyOffsets;
+    this.bodyLengths = bodyLengths;
+  }
+
+  /**
+   * Return the offset in the version of the unit with the given signature corresponding to the
+   * given offset in the version of the unit with this signature, or {@code -1} if the offset is
+   * within one of the bodies. The signatures are assumed to match.
+   * 
+   * @param newSignature the signature of the version of the unit to which the offset is mapped
+   * @param offset the offset in the version of the unit with this signature
+   * @return the corresponding offset in the version of the unit with the given signature
+   */
+  public int mapOffset(UnitApiSignature newSignature, int offset) {
+    int delta = 0;
+    for (int i = 0; i < bodyOffsets.length; i++) {
+      int bodyOffset = bodyOffsets[i];
+      if (offset < bodyOffset) {
+        break;
+      } else if (offset < bodyOffset + bodyLengths[i]) {
+        return -1;
+      }
+      delta += newSignature.bodyLengths[i] - bodyLengths[i];
+    }
+    return offset + delta;
+  }
+
+  /**
+   * Return {@code true} if this signature is the same as the given signature, meaning that the
+   * declarations of both versions of the unit are the same.
+   * 
+   * @param signature the signature being compared to this signature
+   * @return {@code true} if this signature is the same as the given signature
+   */
+  public boolean matches(UnitApiSignature signature) {
+    return signature != null && hash == signature.hash && secondHash == signature.secondHash
+        && bodyOffsets.length == signature.bodyOffsets.length;
+  }
+
+  /**
+   * Update the name offsets of the elements declared by the version of the unit with this signature
+   * so that they are the offsets in the version of the unit with the given signature. The
+   * signatures are assumed to match.
+   * 
+   * @param unitElement the element representing the version of the unit with this signature
+   * @param newSignature the signature of the version of the unit to which the offsets are mapped
+   */
+  public void updateOffsets(CompilationUnitElement unitElement, UnitApiSignature newSignature) {
+    unitElement.accept(new OffsetUpdater(newSignature));
+  }
+}
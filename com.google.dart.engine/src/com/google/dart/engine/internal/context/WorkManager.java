@@ -15,14 +15,56 @@ package com.google.dart.engine.internal.context;
 
 import com.google.dart.engine.source.Source;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.NoSuchElementException;
 
 /**
  * Instances of the class {@code WorkManager} manage a list of sources that need to have analysis
  * work performed on them.
+ * <p>
+ * Each priority level is represented by a doubly linked list of work items, and a table maps each
+ * source to its item, so that sources can be added, moved between priority levels and removed in
+ * constant time. Sources are expected to be added only when a change to their cache entry makes new
+ * work possible, and to be removed (typically through {@link WorkIterator#remove()}) as soon as
+ * they are found to have no work remaining, so the cost of finding the next source to be analyzed
+ * does not depend on the number of sources that are already fully analyzed.
  */
 public class WorkManager {
+  /**
+   * Instances of the class {@code WorkItem} represent the position of a single source within one
+   * of the work queues.
+   */
+  private static class WorkItem {
+    /**
+     * The source that needs to be analyzed.
+     */
+    private final Source source;
+
+    /**
+     * The index of the work queue containing this item.
+     */
+    private int queueIndex;
+
+    /**
+     * The item preceding this item in its work queue, or {@code null} if this is the first item.
+     */
+    private WorkItem previous;
+
+    /**
+     * The item following this item in its work queue, or {@code null} if this is the last item.
+     */
+    private WorkItem next;
+
+    /**
+     * Initialize a newly created item to represent the given source.
+     * 
+     * @param source the source that needs to be analyzed
+     */
+    public WorkItem(Source source) {
+      this.source = source;
+    }
+  }
+
   /**
    * Instances of the class {@code WorkIterator} implement an iterator that returns the sources in a
    * work manager in the order in which they are to be analyzed.
@@ -34,15 +76,23 @@ public class WorkManager {
     private int queueIndex = 0;
 
     /**
-     * The index of the next element of the work queue to be returned.
+     * The item containing the next source to be returned, or {@code null} if there are no more
+     * sources to be returned.
      */
-    private int index = -1;
+    private WorkItem nextItem;
+
+    /**
+     * The item containing the source that was most recently returned, or {@code null} if either no
+     * source has been returned or the most recently returned source has been removed.
+     */
+    private WorkItem lastItem;
 
     /**
      * Initialize a newly created iterator to be ready to return the first element in the iteration.
      */
     public WorkIterator() {
-      advance();
+      nextItem = queueHeads[0];
+      advanceQueue();
     }
 
     /**
@@ -51,7 +101,7 @@ public class WorkManager {
      * @return {@code true} if there is another {@link Source} available for processing
      */
     public boolean hasNext() {
-      return queueIndex < workQueues.length;
+      return nextItem != null;
     }
 
     /**
@@ -64,42 +114,63 @@ public class WorkManager {
       if (!hasNext()) {
         throw new NoSuchElementException();
       }
-      Source source = workQueues[queueIndex].get(index);
-      advance();
-      return source;
+      lastItem = nextItem;
+      nextItem = nextItem.next;
+      advanceQueue();
+      return lastItem.source;
     }
 
     /**
-     * Increment the {@link #index} and {@link #queueIndex} so that they are either indicating the
-     * next source to be returned or are indicating that there are no more sources to be returned.
+     * Remove the source that was most recently returned by {@link #next()} from the work manager.
+     * This is the only modification that can safely be made to the work manager while the iterator
+     * is being used.
+     * 
+     * @throws IllegalStateException if {@link #next()} has not been invoked or if the most recently
+     *           returned source has already been removed
      */
-    private void advance() {
-      index++;
-      if (index >= workQueues[queueIndex].size()) {
-        index = 0;
+    public void remove() {
+      if (lastItem == null) {
+        throw new IllegalStateException();
+      }
+      WorkManager.this.remove(lastItem.source);
+      lastItem = null;
+    }
+
+    /**
+     * If the end of the current work queue has been reached, advance the {@link #queueIndex} to the
+     * next non-empty work queue, leaving {@link #nextItem} either indicating the next source to be
+     * returned or {@code null} if there are no more sources to be returned.
+     */
+    private void advanceQueue() {
+      while (nextItem == null && queueIndex < queueHeads.length - 1) {
         queueIndex++;
-        while (queueIndex < workQueues.length && workQueues[queueIndex].isEmpty()) {
-          queueIndex++;
-        }
+        nextItem = queueHeads[queueIndex];
       }
     }
   }
 
   /**
-   * An array containing the various queues is priority order.
+   * An array containing the first item in each of the various queues, in priority order.
    */
-  private ArrayList<Source>[] workQueues;
+  private WorkItem[] queueHeads;
+
+  /**
+   * An array containing the last item in each of the various queues, in priority order.
+   */
+  private WorkItem[] queueTails;
+
+  /**
+   * A table mapping the sources that are queued to the items representing them.
+   */
+  private HashMap<Source, WorkItem> itemMap = new HashMap<Source, WorkItem>();
 
   /**
    * Initialize a newly created manager to have no work queued up.
    */
-  @SuppressWarnings("unchecked")
   public WorkManager() {
     int queueCount = SourcePriority.values().length;
-    workQueues = new ArrayList[queueCount];
-    for (int i = 0; i < queueCount; i++) {
-      workQueues[i] = new ArrayList<Source>();
-    }
+    queueHeads = new WorkItem[queueCount];
+    queueTails = new WorkItem[queueCount];
   }
 
   /**
@@ -112,18 +183,25 @@ public class WorkManager {
    * @param priority the priority level of the source
    */
   public void add(Source source, SourcePriority priority) {
-    int queueCount = workQueues.length;
     int ordinal = priority.ordinal();
-    for (int i = 0; i < queueCount; i++) {
-      ArrayList<Source> queue = workQueues[i];
-      if (i == ordinal) {
-        if (!queue.contains(source)) {
-          queue.add(source);
-        }
-      } else {
-        queue.remove(source);
-      }
+    WorkItem item = itemMap.get(source);
+    if (item == null) {
+      item = new WorkItem(source);
+      itemMap.put(source, item);
+    } else if (item.queueIndex == ordinal) {
+      return;
+    } else {
+      unlink(item);
+    }
+    item.queueIndex = ordinal;
+    item.previous = queueTails[ordinal];
+    item.next = null;
+    if (item.previous == null) {
+      queueHeads[ordinal] = item;
+    } else {
+      item.previous.next = item;
     }
+    queueTails[ordinal] = item;
   }
 
   /**
@@ -136,17 +214,23 @@ public class WorkManager {
    * @param priority the priority level of the source
    */
   public void addFirst(Source source, SourcePriority priority) {
-    int queueCount = workQueues.length;
     int ordinal = priority.ordinal();
-    for (int i = 0; i < queueCount; i++) {
-      ArrayList<Source> queue = workQueues[i];
-      if (i == ordinal) {
-        queue.remove(source);
-        queue.add(0, source);
-      } else {
-        queue.remove(source);
-      }
+    WorkItem item = itemMap.get(source);
+    if (item == null) {
+      item = new WorkItem(source);
+      itemMap.put(source, item);
+    } else {
+      unlink(item);
     }
+    item.queueIndex = ordinal;
+    item.previous = null;
+    item.next = queueHeads[ordinal];
+    if (item.next == null) {
+      queueTails[ordinal] = item;
+    } else {
+      item.next.previous = item;
+    }
+    queueHeads[ordinal] = item;
   }
 
   /**
@@ -154,9 +238,10 @@ public class WorkManager {
    * they should be analyzed.
    * <p>
    * <b>Note:</b> As with other iterators, no sources can be added or removed from this work manager
-   * while the iterator is being used. Unlike some implementations, however, the iterator will not
-   * detect when this requirement has been violated; it might work correctly, it might return the
-   * wrong source, or it might throw an exception.
+   * while the iterator is being used, other than by using {@link WorkIterator#remove()}. Unlike
+   * some implementations, however, the iterator will not detect when this requirement has been
+   * violated; it might work correctly, it might return the wrong source, or it might throw an
+   * exception.
    * 
    * @return an iterator that can be used to access the next source to be analyzed
    */
@@ -170,9 +255,9 @@ public class WorkManager {
    * @param source the source that is fully analyzed
    */
   public void remove(Source source) {
-    int queueCount = workQueues.length;
-    for (int i = 0; i < queueCount; i++) {
-      workQueues[i].remove(source);
+    WorkItem item = itemMap.remove(source);
+    if (item != null) {
+      unlink(item);
     }
   }
 
@@ -181,25 +266,45 @@ public class WorkManager {
     StringBuilder builder = new StringBuilder();
     SourcePriority[] priorities = SourcePriority.values();
     boolean needsSeparator = false;
-    int queueCount = workQueues.length;
+    int queueCount = queueHeads.length;
     for (int i = 0; i < queueCount; i++) {
-      ArrayList<Source> queue = workQueues[i];
-      if (!queue.isEmpty()) {
+      WorkItem item = queueHeads[i];
+      if (item != null) {
         if (needsSeparator) {
           builder.append("; ");
         }
         builder.append(priorities[i]);
         builder.append(": ");
-        int queueSize = queue.size();
-        for (int j = 0; j < queueSize; j++) {
-          if (j > 0) {
+        while (item != null) {
+          if (item != queueHeads[i]) {
             builder.append(", ");
           }
-          builder.append(queue.get(j).getFullName());
+          builder.append(item.source.getFullName());
+          item = item.next;
         }
         needsSeparator = true;
       }
     }
     return builder.toString();
   }
+
+  /**
+   * Remove the given item from the work queue that contains it. The links of the item itself are
+   * left unchanged so that an iterator positioned on the item can still advance past it.
+   * 
+   * @param item the item to be removed from its work queue
+   */
+  private void unlink(WorkItem item) {
+    int index = item.queueIndex;
+    if (item.previous == null) {
+      queueHeads[index] = item.next;
+    } else {
+      item.previous.next = item.next;
+    }
+    if (item.next == null) {
+      queueTails[index] = item.previous;
+    } else {
+      item.next.previous = item.previous;
+    }
+  }
 }
@@ -28,6 +28,7 @@ import com.google.dart.engine.element.MethodElement;
 import com.google.dart.engine.element.PropertyAccessorElement;
 import com.google.dart.engine.element.ToolkitObjectElement;
 import com.google.dart.engine.element.TypeParameterElement;
+import com.google.dart.engine.internal.type.SupertypeClosure;
 import com.google.dart.engine.type.InterfaceType;
 import com.google.dart.engine.utilities.general.StringUtilities;
 import com.google.dart.engine.utilities.translation.DartName;
@@ -35,6 +36,7 @@ import com.google.dart.engine.utilities.translation.DartName;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 
 /**
@@ -79,6 +81,12 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   private InterfaceType supertype;
 
+  /**
+   * The closure of the superinterfaces of this class, or {@code null} if it has not yet been
+   * computed.
+   */
+  private SupertypeClosure supertypeClosure;
+
   /**
    * An array containing all of the toolkit objects attached to this class.
    */
@@ -94,11 +102,34 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   private TypeParameterElement[] typeParameters = TypeParameterElementImpl.EMPTY_ARRAY;
 
+  /**
+   * A table mapping the identifiers of the children of this class to the children, or
+   * {@code null} if the table has not yet been built. The table is built by
+   * {@link #getChild(String)} and discarded whenever the children are changed.
+   */
+  private HashMap<String, ElementImpl> childMap;
+
   /**
    * An empty array of class elements.
    */
   public static final ClassElement[] EMPTY_ARRAY = new ClassElement[0];
 
+  /**
+   * A counter that is incremented whenever the supertype, interfaces or type of any class are
+   * changed, used to detect that cached {@link SupertypeClosure closures} might be out of date.
+   */
+  private static int hierarchyVersion = 0;
+
+  /**
+   * Return a number that changes whenever the supertype, interfaces or type of any class are
+   * changed.
+   * 
+   * @return the current version of the class hierarchy
+   */
+  public static int getHierarchyVersion() {
+    return hierarchyVersion;
+  }
+
   /**
    * Initialize a newly created class element to have the given name.
    * 
@@ -149,36 +180,17 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
 
   @Override
   public ElementImpl getChild(String identifier) {
-    //
-    // The casts in this method are safe because the set methods would have thrown a CCE if any of
-    // the elements in the arrays were not of the expected types.
-    //
-    for (PropertyAccessorElement accessor : accessors) {
-      if (((PropertyAccessorElementImpl) accessor).getIdentifier().equals(identifier)) {
-        return (PropertyAccessorElementImpl) accessor;
-      }
+    HashMap<String, ElementImpl> childMap = this.childMap;
+    if (childMap == null) {
+      childMap = new HashMap<String, ElementImpl>();
+      addChildren(childMap, accessors);
+      addChildren(childMap, constructors);
+      addChildren(childMap, fields);
+      addChildren(childMap, methods);
+      addChildren(childMap, typeParameters);
+      this.childMap = childMap;
     }
-    for (ConstructorElement constructor : constructors) {
-      if (((ConstructorElementImpl) constructor).getIdentifier().equals(identifier)) {
-        return (ConstructorElementImpl) constructor;
-      }
-    }
-    for (FieldElement field : fields) {
-      if (((FieldElementImpl) field).getIdentifier().equals(identifier)) {
-        return (FieldElementImpl) field;
-      }
-    }
-    for (MethodElement method : methods) {
-      if (((MethodElementImpl) method).getIdentifier().equals(identifier)) {
-        return (MethodElementImpl) method;
-      }
-    }
-    for (TypeParameterElement typeParameter : typeParameters) {
-      if (((TypeParameterElementImpl) typeParameter).getIdentifier().equals(identifier)) {
-        return (TypeParameterElementImpl) typeParameter;
-      }
-    }
-    return null;
+    return childMap.get(identifier);
   }
 
   @Override
@@ -277,6 +289,16 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
     return supertype;
   }
 
+  /**
+   * Return the closure of the superinterfaces of this class, or {@code null} if it has not yet been
+   * computed.
+   * 
+   * @return the closure of the superinterfaces of this class
+   */
+  public SupertypeClosure getSupertypeClosure() {
+    return supertypeClosure;
+  }
+
   @Override
   public ToolkitObjectElement[] getToolkitObjects() {
     return toolkitObjects;
@@ -452,6 +474,7 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((PropertyAccessorElementImpl) accessor).setEnclosingElement(this);
     }
     this.accessors = accessors;
+    childMap = null;
   }
 
   /**
@@ -464,6 +487,7 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((ConstructorElementImpl) constructor).setEnclosingElement(this);
     }
     this.constructors = constructors;
+    childMap = null;
   }
 
   /**
@@ -485,6 +509,7 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((FieldElementImpl) field).setEnclosingElement(this);
     }
     this.fields = fields;
+    childMap = null;
   }
 
   /**
@@ -503,6 +528,8 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   public void setInterfaces(InterfaceType[] interfaces) {
     this.interfaces = interfaces;
+    supertypeClosure = null;
+    hierarchyVersion++;
   }
 
   /**
@@ -515,6 +542,7 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((MethodElementImpl) method).setEnclosingElement(this);
     }
     this.methods = methods;
+    childMap = null;
   }
 
   /**
@@ -534,6 +562,17 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   public void setSupertype(InterfaceType supertype) {
     this.supertype = supertype;
+    supertypeClosure = null;
+    hierarchyVersion++;
+  }
+
+  /**
+   * Set the closure of the superinterfaces of this class to the given closure.
+   * 
+   * @param supertypeClosure the closure of the superinterfaces of this class
+   */
+  public void setSupertypeClosure(SupertypeClosure supertypeClosure) {
+    this.supertypeClosure = supertypeClosure;
   }
 
   /**
@@ -543,6 +582,8 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   public void setType(InterfaceType type) {
     this.type = type;
+    supertypeClosure = null;
+    hierarchyVersion++;
   }
 
   /**
@@ -564,6 +605,7 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((TypeParameterElementImpl) typeParameter).setEnclosingElement(this);
     }
     this.typeParameters = typeParameters;
+    childMap = null;
   }
 
   /**
@@ -21,18 +21,17 @@ import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.ElementKind;
 import com.google.dart.engine.element.ElementVisitor;
-import com.google.dart.engine.element.ExecutableElement;
 import com.google.dart.engine.element.FunctionElement;
 import com.google.dart.engine.element.FunctionTypeAliasElement;
 import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.element.PropertyAccessorElement;
 import com.google.dart.engine.element.ToolkitObjectElement;
 import com.google.dart.engine.element.TopLevelVariableElement;
-import com.google.dart.engine.element.VariableElement;
 import com.google.dart.engine.element.angular.AngularViewElement;
 import com.google.dart.engine.internal.element.angular.AngularViewElementImpl;
 import com.google.dart.engine.source.Source;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -94,6 +93,13 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
    */
   private AngularViewElement[] angularViews = AngularViewElement.EMPTY_ARRAY;
 
+  /**
+   * A table mapping the identifiers of the children of this compilation unit to the children, or
+   * {@code null} if the table has not yet been built. The table is built by
+   * {@link #getChild(String)} and discarded whenever the children are changed.
+   */
+  private HashMap<String, ElementImpl> childMap;
+
   /**
    * Initialize a newly created compilation unit element to have the given name.
    * 
@@ -127,41 +133,18 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
 
   @Override
   public ElementImpl getChild(String identifier) {
-    //
-    // The casts in this method are safe because the set methods would have thrown a CCE if any of
-    // the elements in the arrays were not of the expected types.
-    //
-    for (PropertyAccessorElement accessor : accessors) {
-      if (((PropertyAccessorElementImpl) accessor).getIdentifier().equals(identifier)) {
-        return (PropertyAccessorElementImpl) accessor;
-      }
-    }
-    for (VariableElement variable : variables) {
-      if (((VariableElementImpl) variable).getIdentifier().equals(identifier)) {
-        return (VariableElementImpl) variable;
-      }
-    }
-    for (ExecutableElement function : functions) {
-      if (((ExecutableElementImpl) function).getIdentifier().equals(identifier)) {
-        return (ExecutableElementImpl) function;
-      }
+    HashMap<String, ElementImpl> childMap = this.childMap;
+    if (childMap == null) {
+      childMap = new HashMap<String, ElementImpl>();
+      addChildren(childMap, accessors);
+      addChildren(childMap, variables);
+      addChildren(childMap, functions);
+      addChildren(childMap, typeAliases);
+      addChildren(childMap, types);
+      addChildren(childMap, enums);
+      this.childMap = childMap;
     }
-    for (FunctionTypeAliasElement typeAlias : typeAliases) {
-      if (((FunctionTypeAliasElementImpl) typeAlias).getIdentifier().equals(identifier)) {
-        return (FunctionTypeAliasElementImpl) typeAlias;
-      }
-    }
-    for (ClassElement type : types) {
-      if (((ClassElementImpl) type).getIdentifier().equals(identifier)) {
-        return (ClassElementImpl) type;
-      }
-    }
-    for (ClassElement type : enums) {
-      if (((ClassElementImpl) type).getIdentifier().equals(identifier)) {
-        return (ClassElementImpl) type;
-      }
-    }
-    return null;
+    return childMap.get(identifier);
   }
 
   @Override
@@ -255,6 +238,7 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
       ((PropertyAccessorElementImpl) accessor).setEnclosingElement(this);
     }
     this.accessors = accessors;
+    childMap = null;
   }
 
   /**
@@ -279,6 +263,7 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
       ((ClassElementImpl) enumDeclaration).setEnclosingElement(this);
     }
     this.enums = enums;
+    childMap = null;
   }
 
   /**
@@ -291,6 +276,7 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
       ((FunctionElementImpl) function).setEnclosingElement(this);
     }
     this.functions = functions;
+    childMap = null;
   }
 
   /**
@@ -312,6 +298,7 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
       ((TopLevelVariableElementImpl) field).setEnclosingElement(this);
     }
     this.variables = variables;
+    childMap = null;
   }
 
   /**
@@ -324,6 +311,7 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
       ((FunctionTypeAliasElementImpl) typeAlias).setEnclosingElement(this);
     }
     this.typeAliases = typeAliases;
+    childMap = null;
   }
 
   /**
@@ -336,6 +324,7 @@ public class CompilationUnitElementImpl extends UriReferencedElementImpl impleme
       ((ClassElementImpl) type).setEnclosingElement(this);
     }
     this.types = types;
+    childMap = null;
   }
 
   @Override
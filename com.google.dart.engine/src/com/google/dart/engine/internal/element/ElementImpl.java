@@ -29,6 +29,8 @@ import com.google.dart.engine.utilities.collection.BooleanArray;
 import com.google.dart.engine.utilities.general.StringUtilities;
 import com.google.dart.engine.utilities.translation.DartName;
 
+import java.util.HashMap;
+
 /**
  * The abstract class {@code ElementImpl} implements the behavior common to objects that implement
  * an {@link Element}.
@@ -318,6 +320,24 @@ public abstract class ElementImpl implements Element {
     // There are no children to visit
   }
 
+  /**
+   * Add the given children to the given table mapping identifiers to children. A child is not added
+   * if a child with the same identifier was added before, so that a lookup in the table finds the
+   * same child as a search of the children in the order in which they were added.
+   * 
+   * @param childMap the table to which the children are to be added
+   * @param children the children to be added
+   */
+  protected void addChildren(HashMap<String, ElementImpl> childMap, Element[] children) {
+    for (Element child : children) {
+      ElementImpl childImpl = (ElementImpl) child;
+      String identifier = childImpl.getIdentifier();
+      if (!childMap.containsKey(identifier)) {
+        childMap.put(identifier, childImpl);
+      }
+    }
+  }
+
   /**
    * Append a textual representation of this type to the given builder.
    * 
@@ -38,6 +38,7 @@ import com.google.dart.engine.utilities.general.StringUtilities;
 import com.google.dart.engine.utilities.translation.DartName;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -127,6 +128,13 @@ public class LibraryElementImpl extends ElementImpl implements LibraryElement {
    */
   private CompilationUnitElement[] parts = CompilationUnitElementImpl.EMPTY_ARRAY;
 
+  /**
+   * A table mapping the identifiers of the children of this library to the children, or
+   * {@code null} if the table has not yet been built. The table is built by
+   * {@link #getChild(String)} and discarded whenever the children are changed.
+   */
+  private HashMap<String, ElementImpl> childMap;
+
   /**
    * Is {@code true} if this library is created for Angular analysis.
    */
@@ -177,25 +185,18 @@ public class LibraryElementImpl extends ElementImpl implements LibraryElement {
 
   @Override
   public ElementImpl getChild(String identifier) {
-    if (((CompilationUnitElementImpl) definingCompilationUnit).getIdentifier().equals(identifier)) {
-      return (CompilationUnitElementImpl) definingCompilationUnit;
+    HashMap<String, ElementImpl> childMap = this.childMap;
+    if (childMap == null) {
+      childMap = new HashMap<String, ElementImpl>();
+      childMap.put(
+          ((CompilationUnitElementImpl) definingCompilationUnit).getIdentifier(),
+          (CompilationUnitElementImpl) definingCompilationUnit);
+      addChildren(childMap, parts);
+      addChildren(childMap, imports);
+      addChildren(childMap, exports);
+      this.childMap = childMap;
     }
-    for (CompilationUnitElement part : parts) {
-      if (((CompilationUnitElementImpl) part).getIdentifier().equals(identifier)) {
-        return (CompilationUnitElementImpl) part;
-      }
-    }
-    for (ImportElement importElement : imports) {
-      if (((ImportElementImpl) importElement).getIdentifier().equals(identifier)) {
-        return (ImportElementImpl) importElement;
-      }
-    }
-    for (ExportElement exportElement : exports) {
-      if (((ExportElementImpl) exportElement).getIdentifier().equals(identifier)) {
-        return (ExportElementImpl) exportElement;
-      }
-    }
-    return null;
+    return childMap.get(identifier);
   }
 
   @Override
@@ -402,6 +403,7 @@ public class LibraryElementImpl extends ElementImpl implements LibraryElement {
   public void setDefiningCompilationUnit(CompilationUnitElement definingCompilationUnit) {
     ((CompilationUnitElementImpl) definingCompilationUnit).setEnclosingElement(this);
     this.definingCompilationUnit = definingCompilationUnit;
+    childMap = null;
   }
 
   /**
@@ -423,6 +425,7 @@ public class LibraryElementImpl extends ElementImpl implements LibraryElement {
       ((ExportElementImpl) exportElement).setEnclosingElement(this);
     }
     this.exports = exports;
+    childMap = null;
   }
 
   /**
@@ -448,6 +451,7 @@ public class LibraryElementImpl extends ElementImpl implements LibraryElement {
       }
     }
     this.imports = imports;
+    childMap = null;
   }
 
   /**
@@ -461,6 +465,7 @@ public class LibraryElementImpl extends ElementImpl implements LibraryElement {
       ((CompilationUnitElementImpl) compilationUnit).setEnclosingElement(this);
     }
     this.parts = parts;
+    childMap = null;
   }
 
   @Override
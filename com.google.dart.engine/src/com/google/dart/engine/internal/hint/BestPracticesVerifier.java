@@ -592,8 +592,8 @@ public class BestPracticesVerifier extends RecursiveAstVisitor<Void> {
       return false;
     }
 
-    // Check that the body is a BlockFunctionBody
-    if (!(body instanceof BlockFunctionBody)) {
+    // Check that the body is a BlockFunctionBody whose statements were parsed
+    if (!(body instanceof BlockFunctionBody) || ((BlockFunctionBody) body).isSkipped()) {
       return false;
     }
 
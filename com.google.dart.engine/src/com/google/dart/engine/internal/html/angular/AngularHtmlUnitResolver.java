@@ -24,7 +24,6 @@ import com.google.dart.engine.ast.SimpleIdentifier;
 import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.ClassElement;
-import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.ExternalHtmlScriptElement;
 import com.google.dart.engine.element.FunctionElement;
@@ -84,7 +83,6 @@ import static com.google.dart.engine.internal.html.angular.AngularMoustacheXmlEx
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -158,67 +156,11 @@ public class AngularHtmlUnitResolver extends RecursiveXmlVisitor<Void> {
     return new SimpleIdentifier(token);
   }
 
-  /**
-   * Adds {@link AngularElement} declared by the given top-level {@link Element}.
-   * 
-   * @param angularElements the list to fill with top-level {@link AngularElement}s
-   * @param classElement the {@link ClassElement} to get {@link AngularElement}s from
-   */
-  private static void addAngularElementsFromClass(Set<AngularElement> angularElements,
-      ClassElement classElement) {
-    for (ToolkitObjectElement toolkitObject : classElement.getToolkitObjects()) {
-      if (toolkitObject instanceof AngularElement) {
-        angularElements.add((AngularElement) toolkitObject);
-      }
-    }
-  }
-
-  /**
-   * Returns the array of all top-level Angular elements that could be used in this library.
-   * 
-   * @param libraryElement the {@link LibraryElement} to analyze
-   * @return the array of all top-level Angular elements that could be used in this library
-   */
-  private static void addAngularElementsFromLibrary(Set<AngularElement> angularElements,
-      LibraryElement library, Set<LibraryElement> visited) {
-    if (library == null) {
-      return;
-    }
-    if (!visited.add(library)) {
-      return;
-    }
-    // add Angular elements from current library
-    for (CompilationUnitElement unit : library.getUnits()) {
-      Collections.addAll(angularElements, unit.getAngularViews());
-      for (ClassElement type : unit.getTypes()) {
-        addAngularElementsFromClass(angularElements, type);
-      }
-    }
-    // handle imports
-    for (ImportElement importElement : library.getImports()) {
-      LibraryElement importedLibrary = importElement.getImportedLibrary();
-      addAngularElementsFromLibrary(angularElements, importedLibrary, visited);
-    }
-  }
-
   // TODO(scheglov) rename to: createIdentifierToken
   private static StringToken createStringToken(String name, int offset) {
     return new StringToken(TokenType.IDENTIFIER, name, offset);
   }
 
-  /**
-   * Returns the array of all top-level Angular elements that could be used in this library.
-   * 
-   * @param libraryElement the {@link LibraryElement} to analyze
-   * @return the array of all top-level Angular elements that could be used in this library
-   */
-  private static AngularElement[] getAngularElements(Set<LibraryElement> libraries,
-      LibraryElement libraryElement) {
-    Set<AngularElement> angularElements = Sets.newHashSet();
-    addAngularElementsFromLibrary(angularElements, libraryElement, libraries);
-    return angularElements.toArray(new AngularElement[angularElements.size()]);
-  }
-
   /**
    * Returns the external Dart {@link CompilationUnit} referenced by the given {@link HtmlUnit}.
    */
@@ -295,7 +237,9 @@ public class AngularHtmlUnitResolver extends RecursiveXmlVisitor<Void> {
     // prepare accessible Angular elements
     LibraryElement libraryElement = dartUnit.getElement().getLibrary();
     Set<LibraryElement> libraries = Sets.newHashSet();
-    AngularElement[] angularElements = getAngularElements(libraries, libraryElement);
+    AngularElement[] angularElements = context.getAngularModelCache().getAccessibleElements(
+        libraryElement,
+        libraries);
     // resolve AngularComponentElement template URIs
     // TODO(scheglov) resolve to HtmlElement to allow F3 ?
     Set<Source> angularElementsSources = Sets.newHashSet();
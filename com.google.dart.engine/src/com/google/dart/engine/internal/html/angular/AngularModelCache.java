@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.html.angular;
+
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.ImportElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.ToolkitObjectElement;
+import com.google.dart.engine.element.angular.AngularElement;
+import com.google.dart.engine.source.Source;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Instances of the class {@code AngularModelCache} hold the {@link AngularElement}s found in the
+ * libraries of a single analysis context, so that they are not collected again each time an
+ * Angular entry point is resolved.
+ * <p>
+ * Two tables are maintained: the Angular elements declared by each library, and the Angular
+ * elements accessible from each library through its imports. Each entry remembers the library
+ * element for which it was computed and the modification stamps of the libraries it was computed
+ * from, and is discarded as soon as any of those libraries is
+ * {@link #invalidateLibrary(Source) invalidated} or the library element is replaced.
+ * <p>
+ * Arrays returned by this cache are shared and must not be modified.
+ * 
+ * @coverage dart.engine.html
+ */
+public class AngularModelCache {
+  /**
+   * Instances of the class {@code LibraryEntry} hold the Angular elements computed for a single
+   * library.
+   */
+  private static class LibraryEntry {
+    /**
+     * The library element for which the information was computed.
+     */
+    private LibraryElement library;
+
+    /**
+     * The sources of the libraries from which the information was computed.
+     */
+    private Source[] librarySources;
+
+    /**
+     * The modification stamps of the libraries in {@link #librarySources} at the time this entry
+     * was created.
+     */
+    private int[] libraryStamps;
+
+    /**
+     * The libraries from which the information was computed.
+     */
+    private LibraryElement[] libraries;
+
+    /**
+     * The Angular elements that were found.
+     */
+    private AngularElement[] elements;
+  }
+
+  /**
+   * An empty array of Angular elements.
+   */
+  private static final AngularElement[] NO_ELEMENTS = new AngularElement[0];
+
+  /**
+   * Add the Angular elements declared by the given class to the given set.
+   * 
+   * @param angularElements the set to which the elements are to be added
+   * @param classElement the class whose elements are to be added
+   */
+  private static void addAngularElementsFromClass(Set<AngularElement> angularElements,
+      ClassElement classElement) {
+    for (ToolkitObjectElement toolkitObject : classElement.getToolkitObjects()) {
+      if (toolkitObject instanceof AngularElement) {
+        angularElements.add((AngularElement) toolkitObject);
+      }
+    }
+  }
+
+  /**
+   * A table mapping the sources of libraries to the Angular elements declared by the libraries.
+   */
+  private HashMap<Source, LibraryEntry> declaredEntries = new HashMap<Source, LibraryEntry>();
+
+  /**
+   * A table mapping the sources of libraries to the Angular elements accessible from the libraries.
+   */
+  private HashMap<Source, LibraryEntry> accessibleEntries = new HashMap<Source, LibraryEntry>();
+
+  /**
+   * A table mapping the sources of libraries to their modification stamps. Libraries that are not
+   * in the table have a modification stamp of zero.
+   */
+  private HashMap<Source, Integer> modificationStamps = new HashMap<Source, Integer>();
+
+  /**
+   * Initialize a newly created cache to be empty.
+   */
+  public AngularModelCache() {
+    super();
+  }
+
+  /**
+   * Remove all of the information from this cache.
+   */
+  public synchronized void clear() {
+    declaredEntries.clear();
+    accessibleEntries.clear();
+    modificationStamps.clear();
+  }
+
+  /**
+   * Return the Angular elements that are accessible from the given library, which are the elements
+   * declared in the library and in the libraries it imports, directly or indirectly. The libraries
+   * that were visited are added to the given set.
+   * 
+   * @param library the library whose accessible elements are to be returned
+   * @param libraries the set to which the visited libraries are to be added
+   * @return the Angular elements accessible from the given library
+   */
+  public synchronized AngularElement[] getAccessibleElements(LibraryElement library,
+      Set<LibraryElement> libraries) {
+    if (library == null) {
+      return NO_ELEMENTS;
+    }
+    Source librarySource = library.getSource();
+    LibraryEntry entry = librarySource == null ? null : accessibleEntries.get(librarySource);
+    if (entry == null || entry.library != library || !isCurrent(entry)) {
+      LinkedHashSet<LibraryElement> visited = new LinkedHashSet<LibraryElement>();
+      LinkedHashSet<AngularElement> angularElements = new LinkedHashSet<AngularElement>();
+      addAccessibleElements(angularElements, library, visited);
+      entry = createEntry(
+          library,
+          visited.toArray(new LibraryElement[visited.size()]),
+          angularElements);
+      if (entry == null) {
+        libraries.addAll(visited);
+        return angularElements.toArray(new AngularElement[angularElements.size()]);
+      }
+      accessibleEntries.put(librarySource, entry);
+    }
+    Collections.addAll(libraries, entry.libraries);
+    return entry.elements;
+  }
+
+  /**
+   * Discard any information that depends on the library with the given source.
+   * 
+   * @param librarySource the source of the library that was modified
+   */
+  public synchronized void invalidateLibrary(Source librarySource) {
+    Integer stamp = modificationStamps.get(librarySource);
+    modificationStamps.put(librarySource, stamp == null ? 1 : stamp.intValue() + 1);
+    declaredEntries.remove(librarySource);
+    accessibleEntries.remove(librarySource);
+  }
+
+  /**
+   * Add the Angular elements accessible from the given library to the given set, unless the library
+   * has already been visited.
+   * 
+   * @param angularElements the set to which the elements are to be added
+   * @param library the library whose accessible elements are to be added
+   * @param visited the libraries that have already been visited
+   */
+  private void addAccessibleElements(Set<AngularElement> angularElements, LibraryElement library,
+      Set<LibraryElement> visited) {
+    if (library == null || !visited.add(library)) {
+      return;
+    }
+    Collections.addAll(angularElements, getDeclaredElements(library));
+    for (ImportElement importElement : library.getImports()) {
+      addAccessibleElements(angularElements, importElement.getImportedLibrary(), visited);
+    }
+  }
+
+  /**
+   * Return a newly created entry for the given library, or {@code null} if one of the libraries
+   * does not have a source and the information therefore cannot be cached.
+   * 
+   * @param library the library for which the entry is being created
+   * @param libraries the libraries from which the information was computed
+   * @param angularElements the Angular elements that were found
+   * @return the entry that was created
+   */
+  private LibraryEntry createEntry(LibraryElement library, LibraryElement[] libraries,
+      Set<AngularElement> angularElements) {
+    int libraryCount = libraries.length;
+    Source[] librarySources = new Source[libraryCount];
+    int[] libraryStamps = new int[libraryCount];
+    for (int i = 0; i < libraryCount; i++) {
+      librarySources[i] = libraries[i].getSource();
+      if (librarySources[i] == null) {
+        return null;
+      }
+      libraryStamps[i] = getModificationStamp(librarySources[i]);
+    }
+    LibraryEntry entry = new LibraryEntry();
+    entry.library = library;
+    entry.librarySources = librarySources;
+    entry.libraryStamps = libraryStamps;
+    entry.libraries = libraries;
+    entry.elements = angularElements.isEmpty() ? NO_ELEMENTS
+        : angularElements.toArray(new AngularElement[angularElements.size()]);
+    return entry;
+  }
+
+  /**
+   * Return the Angular elements declared in the units of the given library.
+   * 
+   * @param library the library whose elements are to be returned
+   * @return the Angular elements declared in the given library
+   */
+  private AngularElement[] getDeclaredElements(LibraryElement library) {
+    Source librarySource = library.getSource();
+    LibraryEntry entry = librarySource == null ? null : declaredEntries.get(librarySource);
+    if (entry != null && entry.library == library && isCurrent(entry)) {
+      return entry.elements;
+    }
+    LinkedHashSet<AngularElement> angularElements = new LinkedHashSet<AngularElement>();
+    for (CompilationUnitElement unit : library.getUnits()) {
+      Collections.addAll(angularElements, unit.getAngularViews());
+      for (ClassElement type : unit.getTypes()) {
+        addAngularElementsFromClass(angularElements, type);
+      }
+    }
+    entry = createEntry(library, new LibraryElement[] {library}, angularElements);
+    if (entry == null) {
+      return angularElements.toArray(new AngularElement[angularElements.size()]);
+    }
+    declaredEntries.put(librarySource, entry);
+    return entry.elements;
+  }
+
+  /**
+   * Return the modification stamp of the library with the given source.
+   */
+  private int getModificationStamp(Source librarySource) {
+    Integer stamp = modificationStamps.get(librarySource);
+    return stamp == null ? 0 : stamp.intValue();
+  }
+
+  /**
+   * Return {@code true} if none of the libraries from which the given entry was computed have been
+   * invalidated since the entry was created.
+   */
+  private boolean isCurrent(LibraryEntry entry) {
+    Source[] librarySources = entry.librarySources;
+    int[] libraryStamps = entry.libraryStamps;
+    for (int i = 0; i < librarySources.length; i++) {
+      if (getModificationStamp(librarySources[i]) != libraryStamps[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
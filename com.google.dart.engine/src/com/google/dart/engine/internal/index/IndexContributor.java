@@ -883,12 +883,19 @@ public class IndexContributor extends GeneralizingAstVisitor<Void> {
   }
 
   /**
-   * Records the {@link Element} definition in the library and universe.
+   * Records the {@link Element} definition in the library, universe and {@link NameIndexKeys}.
    */
   private void recordElementDefinition(Element element, Relationship relationship) {
     Location location = createLocation(element);
     recordRelationship(libraryElement, relationship, location);
     recordRelationship(IndexConstants.UNIVERSE, relationship, location);
+    // record under the name keys, for pattern searches
+    String name = element.getDisplayName();
+    if (name != null && name.length() != 0) {
+      for (Element key : NameIndexKeys.getDefinitionKeys(name)) {
+        recordRelationship(key, relationship, location);
+      }
+    }
   }
 
   /**
@@ -46,12 +46,25 @@ public class IndexImpl implements Index {
   private final OperationQueue queue;
   private final OperationProcessor processor;
 
+  /**
+   * A flag indicating whether {@link #run()} has been invoked, in which case the store is closed by
+   * the thread running this index once the processor has stopped.
+   */
+  private boolean running = false;
+
   public IndexImpl(IndexStore store, OperationQueue queue, OperationProcessor processor) {
     this.store = store;
     this.queue = queue;
     this.processor = processor;
   }
 
+  @Override
+  public void bindContext(AnalysisContext context, String key) {
+    synchronized (store) {
+      store.bindContext(context, key);
+    }
+  }
+
   @Override
   public void clear() {
     queue.enqueue(new ClearOperation(store));
@@ -115,11 +128,35 @@ public class IndexImpl implements Index {
 
   @Override
   public void run() {
-    processor.run();
+    synchronized (this) {
+      running = true;
+    }
+    try {
+      processor.run();
+      // wait for the operations still being performed by other threads
+      processor.stop(true);
+    } finally {
+      closeStore();
+    }
   }
 
   @Override
   public void stop() {
     processor.stop(false);
+    synchronized (this) {
+      if (running) {
+        return;
+      }
+    }
+    closeStore();
+  }
+
+  /**
+   * Closes the store, which must no longer be used by the processor.
+   */
+  private void closeStore() {
+    synchronized (store) {
+      store.close();
+    }
   }
 }
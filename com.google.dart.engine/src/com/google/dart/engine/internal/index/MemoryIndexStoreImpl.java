@@ -276,6 +276,10 @@ public class MemoryIndexStoreImpl implements MemoryIndexStore {
     return true;
   }
 
+  @Override
+  public void bindContext(AnalysisContext context, String key) {
+  }
+
   @Override
   public void clear() {
     canonicalKeys.clear();
@@ -286,12 +290,16 @@ public class MemoryIndexStoreImpl implements MemoryIndexStore {
     contextToUnitToLibraries.clear();
   }
 
+  @Override
+  public void close() {
+  }
+
   @Override
   public void doneIndex() {
   }
 
   @Override
-  public Location[] getRelationships(Element element, Relationship relationship) {
+  public synchronized Location[] getRelationships(Element element, Relationship relationship) {
     ElementRelationKey key = new ElementRelationKey(element, relationship);
     Set<Location> locations = keyToLocations.get(key);
     if (locations != null) {
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.common.collect.Sets;
+import com.google.dart.engine.element.Element;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The class {@code NameIndexKeys} defines the keys under which top-level declarations are
+ * additionally indexed, so that pattern searches don't have to enumerate all declarations.
+ * <p>
+ * Every declared name is indexed under:
+ * <ul>
+ * <li>its case-insensitive prefixes of up to {@link #MAX_PREFIX_LENGTH} characters;</li>
+ * <li>all of its case-insensitive trigrams;</li>
+ * <li>the prefixes of up to {@link #MAX_HUMP_COUNT} characters of its camel-case humps, i.e. its
+ * first character followed by its uppercase characters.</li>
+ * </ul>
+ * Every name that matches a pattern is indexed under the key of this pattern, so the matching
+ * declarations can be found by checking only the declarations recorded for this key. Keys are
+ * lowercased using {@link Locale#ENGLISH}, so that they don't depend on the default locale of the
+ * process that wrote the index.
+ * 
+ * @coverage dart.engine.index
+ */
+public class NameIndexKeys {
+  /**
+   * The maximum number of characters in a prefix key.
+   */
+  private static final int MAX_PREFIX_LENGTH = 3;
+
+  /**
+   * The maximum number of camel-case humps in a hump key.
+   */
+  private static final int MAX_HUMP_COUNT = 4;
+
+  /**
+   * Return the keys under which a declaration with the given name should be indexed.
+   * 
+   * @param name the name of the declared element
+   * @return the keys under which the declaration should be indexed
+   */
+  public static Element[] getDefinitionKeys(String name) {
+    Set<String> keys = Sets.newLinkedHashSet();
+    String lowerName = name.toLowerCase(Locale.ENGLISH);
+    int length = lowerName.length();
+    for (int i = 1; i <= MAX_PREFIX_LENGTH && i <= length; i++) {
+      keys.add(prefixKey(lowerName.substring(0, i)));
+    }
+    for (int i = 0; i + 3 <= length; i++) {
+      keys.add(trigramKey(lowerName.substring(i, i + 3)));
+    }
+    String humps = getHumps(name.toCharArray());
+    for (int i = 1; i <= humps.length(); i++) {
+      keys.add(humpKey(humps.substring(0, i)));
+    }
+    Element[] elements = new Element[keys.size()];
+    int index = 0;
+    for (String key : keys) {
+      elements[index++] = new NameElementImpl(key);
+    }
+    return elements;
+  }
+
+  /**
+   * Return the key of every name that matches the given camel-case pattern, or {@code null} if
+   * there is no such key.
+   * 
+   * @param pattern the camel-case pattern, as used by {@code CharOperation.camelCaseMatch}
+   * @return the key of every matching name, may be {@code null}
+   */
+  public static Element getCamelCaseKey(char[] pattern) {
+    if (pattern.length == 0) {
+      return null;
+    }
+    return new NameElementImpl(humpKey(getHumps(pattern)));
+  }
+
+  /**
+   * Return the key of every name that starts with the given string, ignoring case, or {@code null}
+   * if there is no such key.
+   * 
+   * @param prefix the string that matching names start with
+   * @return the key of every matching name, may be {@code null}
+   */
+  public static Element getPrefixKey(String prefix) {
+    if (prefix.length() == 0) {
+      return null;
+    }
+    prefix = prefix.toLowerCase(Locale.ENGLISH);
+    prefix = prefix.substring(0, Math.min(prefix.length(), MAX_PREFIX_LENGTH));
+    return new NameElementImpl(prefixKey(prefix));
+  }
+
+  /**
+   * Return the key of every name that matches the given wildcard pattern, ignoring case, or
+   * {@code null} if there is no such key.
+   * 
+   * @param pattern the pattern with '*' and '?' wildcards, as used by {@code CharOperation.match}
+   * @return the key of every matching name, may be {@code null}
+   */
+  public static Element getWildcardKey(char[] pattern) {
+    String string = new String(pattern);
+    String[] segments = string.split("[*?]", -1);
+    // a long enough leading literal is the most selective key
+    String leading = segments[0];
+    if (leading.length() >= MAX_PREFIX_LENGTH) {
+      return getPrefixKey(leading);
+    }
+    // use a trigram from the longest literal
+    String longest = "";
+    for (String segment : segments) {
+      if (segment.length() > longest.length()) {
+        longest = segment;
+      }
+    }
+    if (longest.length() >= 3) {
+      return new NameElementImpl(trigramKey(longest.substring(0, 3).toLowerCase(Locale.ENGLISH)));
+    }
+    // only a short leading literal
+    return getPrefixKey(leading);
+  }
+
+  /**
+   * Return the first character of the given name followed by its uppercase characters, up to
+   * {@link #MAX_HUMP_COUNT} characters.
+   */
+  private static String getHumps(char[] name) {
+    StringBuilder builder = new StringBuilder(MAX_HUMP_COUNT);
+    for (int i = 0; i < name.length && builder.length() < MAX_HUMP_COUNT; i++) {
+      char c = name[i];
+      if (i == 0 || Character.isUpperCase(c)) {
+        builder.append(c);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static String humpKey(String humps) {
+    return "hump:" + humps;
+  }
+
+  private static String prefixKey(String prefix) {
+    return "prefix:" + prefix;
+  }
+
+  private static String trigramKey(String trigram) {
+    return "trigram:" + trigram;
+  }
+}
@@ -16,10 +16,17 @@ package com.google.dart.engine.internal.index.file;
 import com.google.common.collect.Maps;
 import com.google.dart.engine.context.AnalysisContext;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Map;
 
 /**
  * A helper that encodes/decodes {@link AnalysisContext}s from/to integers.
+ * <p>
+ * Contexts have no identity that survives a restart, so a persisted codec only ever allocates ids
+ * that were not used in earlier sessions, and a context whose index nodes should be reused must be
+ * associated with a stable key using {@link #bindContext(AnalysisContext, String)}.
  * 
  * @coverage dart.engine.index
  */
@@ -34,11 +41,91 @@ public class ContextCodec {
    */
   private final Map<Integer, AnalysisContext> indexToContext = Maps.newHashMap();
 
+  /**
+   * A table mapping the keys of bound contexts to their indices, including those whose indices
+   * were restored from the journal but which have not been bound to a context in this session.
+   */
+  private final Map<String, Integer> keyToIndex = Maps.newHashMap();
+
+  /**
+   * The journal to which new ids are written, or {@code null} if the ids are not persisted.
+   */
+  private final IndexJournal journal;
+
   /**
    * The next id to assign.
    */
   private int nextId;
 
+  /**
+   * The journal record kind used for an id being assigned.
+   */
+  private static final byte ASSIGN_RECORD = 0;
+
+  /**
+   * The journal record kind used for an id being removed.
+   */
+  private static final byte REMOVE_RECORD = 1;
+
+  public ContextCodec() {
+    journal = null;
+  }
+
+  /**
+   * Initializes a codec that restores the ids of bound contexts from the given journal and writes
+   * new ids to it.
+   * 
+   * @throws IOException if the journal cannot be read
+   */
+  public ContextCodec(IndexJournal journal) throws IOException {
+    this.journal = journal;
+    journal.replay(new IndexJournal.RecordReader() {
+      @Override
+      public void readRecord(DataInputStream stream) throws IOException {
+        byte kind = stream.readByte();
+        int index = stream.readInt();
+        if (kind == ASSIGN_RECORD) {
+          nextId = Math.max(nextId, index + 1);
+          if (stream.readBoolean()) {
+            keyToIndex.put(stream.readUTF(), index);
+          }
+        } else {
+          keyToIndex.values().remove(index);
+        }
+      }
+    });
+  }
+
+  /**
+   * Associates the given {@link AnalysisContext} with the given key, which must identify the same
+   * context across sessions (for example, the path of the folder that the context analyzes). If
+   * the key was bound in an earlier session, then the context is given the same id as before so
+   * that the index nodes recorded for it can be used. This must be invoked before the context is
+   * first encoded in this session.
+   */
+  public void bindContext(AnalysisContext context, String key) {
+    if (contextToIndex.containsKey(context)) {
+      return;
+    }
+    Integer index = keyToIndex.get(key);
+    if (index == null || indexToContext.containsKey(index)) {
+      index = nextId++;
+      keyToIndex.put(key, index);
+      writeRecord(ASSIGN_RECORD, index, key);
+    }
+    contextToIndex.put(context, index);
+    indexToContext.put(index, context);
+  }
+
+  /**
+   * Closes the journal, if there is one, writing any new ids to it.
+   */
+  public void close() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
   /**
    * Returns the {@link AnalysisContext} that corresponds to the given index.
    */
@@ -55,10 +142,28 @@ public class ContextCodec {
       index = nextId++;
       contextToIndex.put(context, index);
       indexToContext.put(index, context);
+      writeRecord(ASSIGN_RECORD, index, null);
     }
     return index;
   }
 
+  /**
+   * Writes any new ids to the journal, if there is one.
+   */
+  public void flush() {
+    if (journal != null) {
+      journal.flush();
+    }
+  }
+
+  /**
+   * Returns {@code true} if the given index is used by a context in this session, or may be given
+   * to a context that is bound to the key with which the index was bound in an earlier session.
+   */
+  public boolean isBindable(int index) {
+    return indexToContext.containsKey(index) || keyToIndex.containsValue(index);
+  }
+
   /**
    * Removes the given {@link AnalysisContext}.
    */
@@ -66,6 +171,32 @@ public class ContextCodec {
     Integer id = contextToIndex.remove(context);
     if (id != null) {
       indexToContext.remove(id);
+      keyToIndex.values().remove(id);
+      writeRecord(REMOVE_RECORD, id, null);
+    }
+  }
+
+  /**
+   * Writes a record of the given kind to the journal, if there is one.
+   */
+  private void writeRecord(byte kind, int index, String key) {
+    if (journal == null) {
+      return;
+    }
+    DataOutputStream stream = journal.beginRecord();
+    if (stream != null) {
+      try {
+        stream.writeByte(kind);
+        stream.writeInt(index);
+        if (kind == ASSIGN_RECORD) {
+          stream.writeBoolean(key != null);
+          if (key != null) {
+            stream.writeUTF(key);
+          }
+        }
+      } catch (IOException exception) {
+        journal.writeFailed(exception);
+      }
     }
   }
 }
@@ -24,10 +24,14 @@ import com.google.dart.engine.source.Source;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.List;
 
 /**
- * A helper that encodes/decodes {@link Element}s to/from integers.
+ * A helper that encodes/decodes {@link Element}s to/from integers. It may be used by several
+ * threads at once.
  * 
  * @coverage dart.engine.index
  */
@@ -44,8 +48,55 @@ public class ElementCodec {
    */
   private final List<int[]> indexToPath = Lists.newArrayList();
 
+  /**
+   * The journal to which new element encodings are written, or {@code null} if the encodings are
+   * not persisted.
+   */
+  private final IndexJournal journal;
+
   public ElementCodec(StringCodec stringCodec) {
     this.stringCodec = stringCodec;
+    this.journal = null;
+  }
+
+  /**
+   * Initializes a codec that restores its element encodings from the given journal and writes new
+   * encodings to it, so that element ids remain the same across sessions. The given
+   * {@link StringCodec} must also be persisted. An encoding that refers to a string that was not
+   * restored is discarded, but its id is not reused.
+   * 
+   * @throws IOException if the journal cannot be read
+   */
+  public ElementCodec(StringCodec stringCodec, IndexJournal journal) throws IOException {
+    this.stringCodec = stringCodec;
+    this.journal = journal;
+    journal.replay(new IndexJournal.RecordReader() {
+      @Override
+      public void readRecord(DataInputStream stream) throws IOException {
+        int length = stream.readInt();
+        int[] path = new int[length];
+        for (int i = 0; i < length; i++) {
+          path[i] = stream.readInt();
+        }
+        for (int component : path) {
+          if (component >= 0 && !stringCodec.hasIndex(component)) {
+            indexToPath.add(null);
+            return;
+          }
+        }
+        pathToIndex.put(path, indexToPath.size());
+        indexToPath.add(path);
+      }
+    });
+  }
+
+  /**
+   * Closes the journal, if there is one, writing any new element encodings to it.
+   */
+  public void close() {
+    if (journal != null) {
+      journal.close();
+    }
   }
 
   /**
@@ -56,7 +107,13 @@ public class ElementCodec {
    * @return the {@link Element} or {@code null}
    */
   public Element decode(AnalysisContext context, int id) {
-    int[] path = indexToPath.get(id);
+    int[] path;
+    synchronized (this) {
+      path = indexToPath.get(id);
+    }
+    if (path == null) {
+      return null;
+    }
     String[] components = getLocationComponents(path);
     ElementLocation location = new ElementLocationImpl(components);
     return context.getElement(location);
@@ -70,13 +127,7 @@ public class ElementCodec {
    */
   public int encode(Element element, boolean forKey) {
     int[] path = getLocationPath(element, forKey);
-    int index = pathToIndex.get(path, -1);
-    if (index == -1) {
-      index = indexToPath.size();
-      pathToIndex.put(path, index);
-      indexToPath.add(path);
-    }
-    return index;
+    return encodePath(path);
   }
 
   /**
@@ -84,11 +135,47 @@ public class ElementCodec {
    */
   public int encodeHash(Element element) {
     int[] path = getLocationPathLimited(element);
+    return encodePath(path);
+  }
+
+  /**
+   * Writes any new element encodings to the journal, if there is one.
+   */
+  public void flush() {
+    if (journal != null) {
+      journal.flush();
+    }
+  }
+
+  /**
+   * Returns {@code true} if the given id corresponds to an {@link Element} encoding.
+   */
+  public synchronized boolean hasId(int id) {
+    return id >= 0 && id < indexToPath.size() && indexToPath.get(id) != null;
+  }
+
+  /**
+   * Returns a unique integer that corresponds to the given location path.
+   */
+  private synchronized int encodePath(int[] path) {
     int index = pathToIndex.get(path, -1);
     if (index == -1) {
       index = indexToPath.size();
       pathToIndex.put(path, index);
       indexToPath.add(path);
+      if (journal != null) {
+        DataOutputStream stream = journal.beginRecord();
+        if (stream != null) {
+          try {
+            stream.writeInt(path.length);
+            for (int component : path) {
+              stream.writeInt(component);
+            }
+          } catch (IOException exception) {
+            journal.writeFailed(exception);
+          }
+        }
+      }
     }
     return index;
   }
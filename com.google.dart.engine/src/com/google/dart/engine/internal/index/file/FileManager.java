@@ -15,6 +15,8 @@ package com.google.dart.engine.internal.index.file;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Set;
 
 /**
  * A manager for files content.
@@ -32,6 +34,13 @@ public interface FileManager {
    */
   void delete(String name);
 
+  /**
+   * Returns a read-only {@link ByteBuffer} with the content of the file with the given name, or
+   * {@code null} if there is no such file. The buffer may be mapped to the file, so it must not be
+   * used after the file is rewritten using {@link #openOutputStream(String)} or deleted.
+   */
+  ByteBuffer openBuffer(String name) throws Exception;
+
   /**
    * Returns an {@link InputStream} to read the content of the file with the given name.
    */
@@ -41,4 +50,9 @@ public interface FileManager {
    * Returns an {@link OutputStream} to write the content of the file with the given name.
    */
   OutputStream openOutputStream(String name) throws Exception;
+
+  /**
+   * Removes all files except those with the given names.
+   */
+  void retainAll(Set<String> names);
 }
@@ -18,14 +18,10 @@ import com.google.common.collect.Maps;
 import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.utilities.logging.Logger;
 
-import java.io.DataInputStream;
 import java.io.DataOutputStream;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * A {@link FileManager} based {@link NodeManager}.
@@ -33,7 +29,7 @@ import java.util.Map.Entry;
  * @coverage dart.engine.index
  */
 public class FileNodeManager implements NodeManager {
-  private static int VERSION = 1;
+  private static int VERSION = 2;
 
   private final FileManager fileManager;
   private final Logger logger;
@@ -77,43 +73,26 @@ public class FileNodeManager implements NodeManager {
   @Override
   public IndexNode getNode(String name) {
     try {
-      InputStream inputStream = fileManager.openInputStream(name);
-      if (inputStream != null) {
-        try {
-          DataInputStream stream = new DataInputStream(inputStream);
-          // check version
-          {
-            int version = stream.readInt();
-            if (version != VERSION) {
-              throw new IllegalStateException("Version " + VERSION + " expected, but " + version
-                  + " found.");
-            }
+      ByteBuffer buffer = fileManager.openBuffer(name);
+      if (buffer != null) {
+        // check version
+        {
+          int version = buffer.getInt();
+          if (version != VERSION) {
+            throw new IllegalStateException("Version " + VERSION + " expected, but " + version
+                + " found.");
           }
-          // context
-          int contextId = stream.readInt();
-          AnalysisContext context = contextCodec.decode(contextId);
-          if (context == null) {
-            return null;
-          }
-          // relations
-          Map<RelationKeyData, List<LocationData>> relations = Maps.newHashMap();
-          int numRelations = stream.readInt();
-          for (int i = 0; i < numRelations; i++) {
-            RelationKeyData key = readElementRelationKey(stream);
-            int numLocations = stream.readInt();
-            List<LocationData> locations = new ArrayList<LocationData>(numLocations);
-            for (int j = 0; j < numLocations; j++) {
-              locations.add(readLocationData(stream));
-            }
-            relations.put(key, locations);
-          }
-          // create IndexNode
-          IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
-          node.setRelations(relations);
-          return node;
-        } finally {
-          inputStream.close();
         }
+        // context
+        int contextId = buffer.getInt();
+        AnalysisContext context = contextCodec.decode(contextId);
+        if (context == null) {
+          return null;
+        }
+        // create IndexNode, relations are searched in place
+        IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
+        node.setRelations(new RelationsBuffer(buffer));
+        return node;
       }
     } catch (Throwable e) {
       logger.logError("Exception during reading index file " + name, e);
@@ -133,6 +112,7 @@ public class FileNodeManager implements NodeManager {
 
   @Override
   public void putNode(String name, IndexNode node) {
+    node.trimToSize();
     // update location count
     {
       locationCount -= getLocationCount(name);
@@ -140,6 +120,10 @@ public class FileNodeManager implements NodeManager {
       nodeLocationCounts.put(name, nodeLocationCount);
       locationCount += nodeLocationCount;
     }
+    // make sure that the codec entries used by the node are persisted first
+    stringCodec.flush();
+    contextCodec.flush();
+    elementCodec.flush();
     // write the node
     try {
       OutputStream stream = fileManager.openOutputStream(name);
@@ -167,25 +151,6 @@ public class FileNodeManager implements NodeManager {
     return locationCount != null ? locationCount : 0;
   }
 
-  private RelationKeyData readElementRelationKey(DataInputStream stream) throws Exception {
-    int elementId = stream.readInt();
-    int relationshipId = stream.readInt();
-    return new RelationKeyData(elementId, relationshipId);
-  }
-
-  private LocationData readLocationData(DataInputStream stream) throws Exception {
-    int elementId = stream.readInt();
-    int offset = stream.readInt();
-    int length = stream.readInt();
-    return new LocationData(elementId, offset, length);
-  }
-
-  private void writeElementRelationKey(DataOutputStream stream, RelationKeyData key)
-      throws Exception {
-    stream.writeInt(key.elementId);
-    stream.writeInt(key.relationshipId);
-  }
-
   private void writeNode(IndexNode node, OutputStream outputStream) throws Exception {
     DataOutputStream stream = new DataOutputStream(outputStream);
     // version
@@ -197,18 +162,6 @@ public class FileNodeManager implements NodeManager {
       stream.writeInt(contextId);
     }
     // relations
-    Map<RelationKeyData, List<LocationData>> relations = node.getRelations();
-    stream.writeInt(relations.size());
-    for (Entry<RelationKeyData, List<LocationData>> entry : relations.entrySet()) {
-      RelationKeyData key = entry.getKey();
-      List<LocationData> locations = entry.getValue();
-      writeElementRelationKey(stream, key);
-      stream.writeInt(locations.size());
-      for (LocationData location : locations) {
-        stream.writeInt(location.elementId);
-        stream.writeInt(location.offset);
-        stream.writeInt(location.length);
-      }
-    }
+    RelationsBuffer.write(stream, node.getRelations());
   }
 }
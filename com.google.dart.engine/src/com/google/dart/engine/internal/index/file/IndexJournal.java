@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.common.io.CountingInputStream;
+import com.google.dart.engine.utilities.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * An append-only file of records used to persist the state of the codecs and of the
+ * {@link SplitIndexStoreImpl} between sessions, so that existing index files can be used after a
+ * restart.
+ * <p>
+ * Records are appended as the state changes and are replayed, in order, when the journal is
+ * opened. A record that was only partially written (for example, because the process was killed)
+ * is discarded during replay. A journal can be compacted by rewriting it with a minimal sequence
+ * of records describing the current state.
+ * <p>
+ * A journal can depend on other journals whose records its own records refer to. The records of
+ * the dependencies are written to their files before any of the records of the dependent journal,
+ * both when a buffer fills up and when the journal is flushed, so that after a crash a journal
+ * never contains records that refer to records its dependencies lost.
+ * <p>
+ * If a journal cannot be written, it is deleted. A missing journal is detected when the index is
+ * next opened, causing the whole index to be discarded rather than used in an inconsistent state.
+ * 
+ * @coverage dart.engine.index
+ */
+public class IndexJournal {
+  /**
+   * The interface {@code RecordReader} defines the behavior of objects that read the records of a
+   * journal when it is replayed.
+   */
+  public interface RecordReader {
+    /**
+     * Read a single record from the given stream.
+     * 
+     * @param stream the stream from which the record is to be read
+     * @throws IOException if the record cannot be read
+     */
+    void readRecord(DataInputStream stream) throws IOException;
+  }
+
+  /**
+   * The interface {@code RecordWriter} defines the behavior of objects that write the records
+   * describing the current state when a journal is compacted.
+   */
+  public interface RecordWriter {
+    /**
+     * Write the records describing the current state to the given stream.
+     * 
+     * @param journal the journal being compacted, to which each record must be reported using
+     *          {@link IndexJournal#recordWritten()}
+     * @param stream the stream to which the records are to be written
+     * @throws IOException if the records cannot be written
+     */
+    void writeRecords(IndexJournal journal, DataOutputStream stream) throws IOException;
+  }
+
+  /**
+   * A buffered stream that writes the buffered records of the dependencies of the journal to their
+   * files before writing its own buffer to the journal file.
+   */
+  private class JournalOutputStream extends BufferedOutputStream {
+    public JournalOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+      flushDependencies();
+      super.flush();
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+      if (count + length > buf.length) {
+        flushDependencies();
+      }
+      super.write(bytes, offset, length);
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+      if (count >= buf.length) {
+        flushDependencies();
+      }
+      super.write(b);
+    }
+  }
+
+  /**
+   * The version of the journal format, written at the start of every journal.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * The file containing the records.
+   */
+  private final File file;
+
+  /**
+   * The logger to which write failures are reported.
+   */
+  private final Logger logger;
+
+  /**
+   * The journals whose records must be written before the records of this journal.
+   */
+  private final IndexJournal[] dependencies;
+
+  /**
+   * The stream used to append records, or {@code null} if the journal has not yet been opened for
+   * writing or has failed.
+   */
+  private DataOutputStream output;
+
+  /**
+   * The number of records in the journal.
+   */
+  private int recordCount;
+
+  /**
+   * A flag indicating whether writing to the journal has failed.
+   */
+  private boolean failed;
+
+  /**
+   * Initialize a newly created journal to store its records in the given file.
+   * 
+   * @param file the file containing the records
+   * @param logger the logger to which write failures are reported
+   * @param dependencies the journals whose records are referred to by the records of this journal,
+   *          and which must therefore be written first
+   */
+  public IndexJournal(File file, Logger logger, IndexJournal... dependencies) {
+    this.file = file;
+    this.logger = logger;
+    this.dependencies = dependencies;
+  }
+
+  /**
+   * Return the stream to which the next record should be written, or {@code null} if the journal
+   * has failed and records should no longer be written.
+   * 
+   * @return the stream to which the next record should be written
+   */
+  public synchronized DataOutputStream beginRecord() {
+    if (failed) {
+      return null;
+    }
+    if (output == null) {
+      try {
+        boolean isNew = !file.isFile() || file.length() == 0;
+        output = new DataOutputStream(new JournalOutputStream(new FileOutputStream(file, true)));
+        if (isNew) {
+          output.writeInt(VERSION);
+        }
+      } catch (IOException exception) {
+        writeFailed(exception);
+        return null;
+      }
+    }
+    recordCount++;
+    return output;
+  }
+
+  /**
+   * Remove all of the records from this journal.
+   */
+  public synchronized void clear() {
+    closeOutput();
+    file.delete();
+    recordCount = 0;
+    failed = false;
+  }
+
+  /**
+   * Close this journal, flushing any records that have been written.
+   */
+  public synchronized void close() {
+    flush();
+    closeOutput();
+  }
+
+  /**
+   * Replace the records in this journal with the records written by the given writer. The new
+   * records are written to a temporary file that then replaces the journal, so that a failure
+   * while compacting leaves the original records intact.
+   * 
+   * @param writer the writer used to write the records describing the current state
+   */
+  public synchronized void compact(RecordWriter writer) {
+    if (failed) {
+      return;
+    }
+    closeOutput();
+    flushDependencies();
+    File tempFile = new File(file.getPath() + ".tmp");
+    try {
+      DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+          tempFile)));
+      try {
+        stream.writeInt(VERSION);
+        recordCount = 0;
+        writer.writeRecords(this, stream);
+      } finally {
+        stream.close();
+      }
+      if (!file.delete() && file.exists() || !tempFile.renameTo(file)) {
+        throw new IOException("Could not replace " + file + " with " + tempFile);
+      }
+    } catch (IOException exception) {
+      tempFile.delete();
+      writeFailed(exception);
+    }
+  }
+
+  /**
+   * Return {@code true} if this journal exists and was written using the current format.
+   * 
+   * @return {@code true} if this journal can be replayed
+   */
+  public boolean exists() {
+    if (!file.isFile()) {
+      return false;
+    }
+    try {
+      DataInputStream stream = new DataInputStream(new FileInputStream(file));
+      try {
+        return stream.readInt() == VERSION;
+      } finally {
+        stream.close();
+      }
+    } catch (IOException exception) {
+      return false;
+    }
+  }
+
+  /**
+   * Write any buffered records to the file, after the buffered records of the dependencies of this
+   * journal. This must be done before writing any index file that depends on those records.
+   */
+  public synchronized void flush() {
+    flushDependencies();
+    if (output != null) {
+      try {
+        output.flush();
+      } catch (IOException exception) {
+        writeFailed(exception);
+      }
+    }
+  }
+
+  /**
+   * Return the number of records in this journal.
+   * 
+   * @return the number of records in this journal
+   */
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * Record that a record was written to the stream passed to a {@link RecordWriter}.
+   */
+  public void recordWritten() {
+    recordCount++;
+  }
+
+  /**
+   * Read each of the records in this journal using the given reader. A partially written record at
+   * the end of the journal is removed.
+   * 
+   * @param reader the reader used to read each record
+   * @throws IOException if the journal cannot be read
+   */
+  public void replay(RecordReader reader) throws IOException {
+    recordCount = 0;
+    if (!file.isFile()) {
+      return;
+    }
+    long validLength = 0;
+    CountingInputStream countingStream = new CountingInputStream(new BufferedInputStream(
+        new FileInputStream(file)));
+    DataInputStream stream = new DataInputStream(countingStream);
+    try {
+      if (stream.readInt() != VERSION) {
+        throw new IOException("Unsupported journal version in " + file);
+      }
+      validLength = countingStream.getCount();
+      while (true) {
+        reader.readRecord(stream);
+        recordCount++;
+        validLength = countingStream.getCount();
+      }
+    } catch (EOFException exception) {
+      // The end of the journal, possibly in the middle of a partially written record.
+    } finally {
+      stream.close();
+    }
+    if (validLength < file.length()) {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+      try {
+        randomAccessFile.setLength(validLength);
+      } finally {
+        randomAccessFile.close();
+      }
+    }
+  }
+
+  /**
+   * Record that writing to this journal failed with the given exception. The journal is deleted so
+   * that the index will be discarded rather than restored from incomplete records, and no further
+   * records are written.
+   * 
+   * @param exception the exception that caused the failure
+   */
+  public synchronized void writeFailed(IOException exception) {
+    logger.logError("Exception during writing index journal " + file, exception);
+    failed = true;
+    if (output != null) {
+      try {
+        output.close();
+      } catch (IOException closeException) {
+        // Ignored, the journal is being deleted.
+      }
+      output = null;
+    }
+    file.delete();
+  }
+
+  /**
+   * Write the buffered records of the dependencies of this journal to their files.
+   */
+  private void flushDependencies() {
+    for (IndexJournal dependency : dependencies) {
+      dependency.flush();
+    }
+  }
+
+  /**
+   * Close the output stream, if it is open.
+   */
+  private void closeOutput() {
+    if (output != null) {
+      try {
+        output.close();
+      } catch (IOException exception) {
+        writeFailed(exception);
+      }
+      output = null;
+    }
+  }
+}
@@ -14,14 +14,12 @@
 package com.google.dart.engine.internal.index.file;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.index.Location;
 import com.google.dart.engine.index.Relationship;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * A single index file in-memory presentation.
@@ -32,7 +30,18 @@ public class IndexNode {
   private final AnalysisContext context;
   private final ElementCodec elementCodec;
   private final RelationshipCodec relationshipCodec;
-  private final Map<RelationKeyData, List<LocationData>> relations = Maps.newHashMap();
+  /**
+   * The relations of this node. The keys are packed by {@link RelationKeyData}, and the values are
+   * runs of three ints - element id, offset and length - for each location.
+   */
+  private final LongToIntArrayMap relations = new LongToIntArrayMap(16, 0.75f);
+
+  /**
+   * The relations of this node in their stored form, or {@code null} if the relations are kept in
+   * {@link #relations}. Stored relations are searched in place and are only decoded if this node
+   * is modified.
+   */
+  private RelationsBuffer relationsBuffer;
 
   public IndexNode(AnalysisContext context, ElementCodec elementCodec,
       RelationshipCodec relationshipCodec) {
@@ -52,17 +61,17 @@ public class IndexNode {
    * Returns number of locations in this node.
    */
   public int getLocationCount() {
-    int locationCount = 0;
-    for (List<LocationData> locations : relations.values()) {
-      locationCount += locations.size();
+    if (relationsBuffer != null) {
+      return relationsBuffer.getLocationCount();
     }
-    return locationCount;
+    return relations.getValueCount() / 3;
   }
 
   /**
    * Returns the recorded relations.
    */
-  public Map<RelationKeyData, List<LocationData>> getRelations() {
+  public LongToIntArrayMap getRelations() {
+    decodeRelations();
     return relations;
   }
 
@@ -75,22 +84,22 @@ public class IndexNode {
    */
   public Location[] getRelationships(Element element, Relationship relationship) {
     // prepare key
-    RelationKeyData key = new RelationKeyData(
-        elementCodec,
-        relationshipCodec,
-        element,
-        relationship);
-    // find LocationData(s)
-    List<LocationData> locationDatas = relations.get(key);
-    if (locationDatas == null) {
+    long key = RelationKeyData.encode(elementCodec, relationshipCodec, element, relationship);
+    // search stored relations in place
+    if (relationsBuffer != null) {
+      return relationsBuffer.getLocations(key, context, elementCodec);
+    }
+    // find location data
+    int[] locationData = relations.get(key);
+    if (locationData.length == 0) {
       return Location.EMPTY_ARRAY;
     }
     // convert to Location(s)
-    List<Location> locations = Lists.newArrayList();
-    for (LocationData locationData : locationDatas) {
-      Location location = locationData.getLocation(context, elementCodec);
-      if (location != null) {
-        locations.add(location);
+    List<Location> locations = Lists.newArrayListWithCapacity(locationData.length / 3);
+    for (int i = 0; i < locationData.length; i += 3) {
+      Element locationElement = elementCodec.decode(context, locationData[i]);
+      if (locationElement != null) {
+        locations.add(new Location(locationElement, locationData[i + 1], locationData[i + 2]));
       }
     }
     return locations.toArray(new Location[locations.size()]);
@@ -104,26 +113,38 @@ public class IndexNode {
    * @param location the {@link Location} where relationship happens
    */
   public void recordRelationship(Element element, Relationship relationship, Location location) {
-    RelationKeyData key = new RelationKeyData(
-        elementCodec,
-        relationshipCodec,
-        element,
-        relationship);
-    // prepare LocationData(s)
-    List<LocationData> locationDatas = relations.get(key);
-    if (locationDatas == null) {
-      locationDatas = Lists.newArrayList();
-      relations.put(key, locationDatas);
-    }
-    // add new LocationData
-    locationDatas.add(new LocationData(elementCodec, location));
+    decodeRelations();
+    long key = RelationKeyData.encode(elementCodec, relationshipCodec, element, relationship);
+    int locationElementId = elementCodec.encode(location.getElement(), false);
+    relations.addAll(
+        key,
+        new int[] {locationElementId, location.getOffset(), location.getLength()});
   }
 
   /**
-   * Sets relations data. This method is used during loading data from a storage.
+   * Sets relations data in the stored form. This method is used during loading data from a
+   * storage, the relations are decoded only if this node is modified.
    */
-  public void setRelations(Map<RelationKeyData, List<LocationData>> relations) {
+  public void setRelations(RelationsBuffer relationsBuffer) {
     this.relations.clear();
-    this.relations.putAll(relations);
+    this.relationsBuffer = relationsBuffer;
+  }
+
+  /**
+   * Releases the spare capacity of the recorded relations, so that they can be read without
+   * copying. This is done when the node is stored.
+   */
+  public void trimToSize() {
+    relations.trimToSize();
+  }
+
+  /**
+   * Decodes the stored relations, if any, so that they can be modified.
+   */
+  private void decodeRelations() {
+    if (relationsBuffer != null) {
+      relationsBuffer.decodeInto(relations);
+      relationsBuffer = null;
+    }
   }
 }
@@ -5,11 +5,11 @@ import org.apache.commons.lang3.ArrayUtils;
 import java.util.Arrays;
 
 /**
- * A table mapping {@code int} keys to sets of {@code int}s.
+ * An {@link IntToIntSetTable} that keeps the sets in memory.
  * 
  * @coverage dart.engine.index
  */
-public class IntToIntSetMap {
+public class IntToIntSetMap implements IntToIntSetTable {
   private static class Entry {
     private final int key;
     private int[] value;
@@ -41,9 +41,7 @@ public class IntToIntSetMap {
     Arrays.fill(keys, -1);
   }
 
-  /**
-   * Adds the given value into the set associated with the given key in this map.
-   */
+  @Override
   public void add(int key, int value) {
     if (key < 0) {
       throw new IllegalArgumentException("Key must be a positive integer or null, but " + key
@@ -91,9 +89,7 @@ public class IntToIntSetMap {
     size++;
   }
 
-  /**
-   * Removes all of the mappings from this map.
-   */
+  @Override
   public void clear() {
     size = 0;
     Arrays.fill(keys, -1);
@@ -101,14 +97,11 @@ public class IntToIntSetMap {
     Arrays.fill(entries, null);
   }
 
-  /**
-   * Returns the values to which the specified key is mapped, or an empty {@code int[]} array if
-   * this map contains no mapping for the key.
-   * 
-   * @param key the key whose associated value is to be returned
-   * @return the values associated with {@code key}, or an empty {@code int[]} array if there is no
-   *         mapping for {@code key}
-   */
+  @Override
+  public void close() {
+  }
+
+  @Override
   public int[] get(int key) {
     int hash = hash(key);
     int index = hash % capacity;
@@ -132,9 +125,49 @@ public class IntToIntSetMap {
     return ArrayUtils.EMPTY_INT_ARRAY;
   }
 
-  /**
-   * Returns the number of key-value mappings in this map.
-   */
+  @Override
+  public int[] getKeys() {
+    int[] result = new int[size];
+    int count = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != -1) {
+        result[count++] = keys[i];
+      }
+    }
+    for (int i = 0; i < entries.length; i++) {
+      Entry entry = entries[i];
+      while (entry != null) {
+        result[count++] = entry.key;
+        entry = entry.next;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean remove(int key, int value) {
+    int hash = hash(key);
+    int index = hash % capacity;
+    // try "keys"
+    if (keys[index] == key) {
+      int[] set = values[index];
+      values[index] = ArrayUtils.removeElement(set, value);
+      return values[index].length != set.length;
+    }
+    // try "entries"
+    Entry entry = entries[index];
+    while (entry != null) {
+      if (entry.key == key) {
+        int[] set = entry.value;
+        entry.value = ArrayUtils.removeElement(set, value);
+        return entry.value.length != set.length;
+      }
+      entry = entry.next;
+    }
+    return false;
+  }
+
+  @Override
   public int size() {
     return size;
   }
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+/**
+ * A table mapping {@code int} keys to sets of {@code int}s.
+ * 
+ * @coverage dart.engine.index
+ */
+public interface IntToIntSetTable {
+  /**
+   * Adds the given value into the set associated with the given key in this table.
+   */
+  void add(int key, int value);
+
+  /**
+   * Removes all of the mappings from this table.
+   */
+  void clear();
+
+  /**
+   * Releases the resources used by this table. The table cannot be used after this.
+   */
+  void close();
+
+  /**
+   * Returns the values to which the specified key is mapped, or an empty {@code int[]} array if
+   * this table contains no mapping for the key. The returned array is not changed when the table
+   * is changed.
+   * 
+   * @param key the key whose associated value is to be returned
+   * @return the values associated with {@code key}, or an empty {@code int[]} array if there is no
+   *         mapping for {@code key}
+   */
+  int[] get(int key);
+
+  /**
+   * Returns the keys that are mapped to at least one value in this table. The keys of sets that
+   * became empty may also be returned.
+   */
+  int[] getKeys();
+
+  /**
+   * Removes the given value from the set associated with the given key in this table.
+   * 
+   * @return {@code true} if the value was in the set associated with the key
+   */
+  boolean remove(int key, int value);
+
+  /**
+   * Returns the number of keys in this table.
+   */
+  int size();
+}
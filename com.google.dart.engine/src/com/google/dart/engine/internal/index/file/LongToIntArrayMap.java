@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map with {@code long} keys and growable {@code int[]} values, to which
+ * ints are appended. Values are stored in arrays with spare capacity, which are trimmed by
+ * {@link #trimToSize()}.
+ * <p>
+ * Only the methods that add or remove values change the storage of the map, so it may be read by
+ * several threads at once as long as it is not modified at the same time.
+ * 
+ * @coverage dart.engine.index
+ */
+public class LongToIntArrayMap {
+  private final float loadFactor;
+  private int capacity;
+  private int threshold;
+  private int size;
+  private int valueCount;
+  private long[] keys;
+  private int[][] values;
+  private int[] valueLengths;
+
+  public LongToIntArrayMap(int initialCapacity, float loadFactor) {
+    this.loadFactor = loadFactor;
+    capacity = Math.max(initialCapacity, 2);
+    threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    size = 0;
+    keys = new long[capacity];
+    values = new int[capacity][];
+    valueLengths = new int[capacity];
+  }
+
+  /**
+   * Appends the given values to the values associated with the given key in this map.
+   */
+  public void addAll(long key, int[] newValues) {
+    if (size >= threshold) {
+      rehash();
+    }
+    int index = findIndex(key);
+    int[] existingValues = values[index];
+    if (existingValues == null) {
+      keys[index] = key;
+      values[index] = newValues.clone();
+      valueLengths[index] = newValues.length;
+      size++;
+    } else {
+      int length = valueLengths[index];
+      int newLength = length + newValues.length;
+      if (newLength > existingValues.length) {
+        existingValues = Arrays.copyOf(existingValues, Math.max(newLength, length * 2));
+        values[index] = existingValues;
+      }
+      System.arraycopy(newValues, 0, existingValues, length, newValues.length);
+      valueLengths[index] = newLength;
+    }
+    valueCount += newValues.length;
+  }
+
+  /**
+   * Removes all of the mappings from this map.
+   */
+  public void clear() {
+    size = 0;
+    valueCount = 0;
+    Arrays.fill(values, null);
+    Arrays.fill(valueLengths, 0);
+  }
+
+  /**
+   * Returns the values to which the specified key is mapped, or an empty {@code int[]} array if
+   * this map contains no mapping for the key. The returned array must not be modified. If the
+   * values have spare capacity, because {@link #trimToSize()} has not been invoked since they were
+   * added, a trimmed copy is returned.
+   * 
+   * @param key the key whose associated values are to be returned
+   * @return the values associated with {@code key}, or an empty {@code int[]} array if there is no
+   *         mapping for {@code key}
+   */
+  public int[] get(long key) {
+    int index = findIndex(key);
+    int[] result = values[index];
+    if (result == null) {
+      return ArrayUtils.EMPTY_INT_ARRAY;
+    }
+    int length = valueLengths[index];
+    if (result.length != length) {
+      return Arrays.copyOf(result, length);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the keys that are mapped to values in this map.
+   */
+  public long[] getKeys() {
+    long[] result = new long[size];
+    int count = 0;
+    for (int i = 0; i < capacity; i++) {
+      if (values[i] != null) {
+        result[count++] = keys[i];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the total number of values associated with all of the keys in this map.
+   */
+  public int getValueCount() {
+    return valueCount;
+  }
+
+  /**
+   * Returns the number of keys in this map.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Trims the arrays of values to their lengths, so that {@link #get(long)} can return them without
+   * copying. This should be invoked once no more values are expected to be added.
+   */
+  public void trimToSize() {
+    for (int i = 0; i < capacity; i++) {
+      int[] array = values[i];
+      if (array != null && array.length != valueLengths[i]) {
+        values[i] = Arrays.copyOf(array, valueLengths[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the slot that contains the given key, or of the empty slot where it
+   * should be added.
+   */
+  private int findIndex(long key) {
+    int index = hash(key) % capacity;
+    while (values[index] != null && keys[index] != key) {
+      index++;
+      if (index == capacity) {
+        index = 0;
+      }
+    }
+    return index;
+  }
+
+  private int hash(long key) {
+    int h = (int) (key ^ (key >>> 32));
+    h ^= (h >>> 20) ^ (h >>> 12);
+    h = h ^ (h >>> 7) ^ (h >>> 4);
+    return h & 0x7FFFFFFF;
+  }
+
+  private void rehash() {
+    long[] oldKeys = keys;
+    int[][] oldValues = values;
+    int[] oldValueLengths = valueLengths;
+    capacity = capacity * 2 + 1;
+    threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    keys = new long[capacity];
+    values = new int[capacity][];
+    valueLengths = new int[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != null) {
+        int index = findIndex(oldKeys[i]);
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+        valueLengths[index] = oldValueLengths[i];
+      }
+    }
+  }
+}
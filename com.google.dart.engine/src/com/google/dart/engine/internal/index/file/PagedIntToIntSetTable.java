@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.dart.engine.internal.index.structure.btree.BPlusTree;
+import com.google.dart.engine.internal.index.structure.btree.CachingPageManager;
+import com.google.dart.engine.internal.index.structure.btree.FilePageManager;
+import com.google.dart.engine.internal.index.structure.btree.PageCodec;
+import com.google.dart.engine.internal.index.structure.btree.PageNodeManager;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.io.File;
+import java.util.Comparator;
+
+/**
+ * An {@link IntToIntSetTable} that keeps the key/value pairs in a {@link BPlusTree} stored in a
+ * file, so that the heap it uses is bounded by the number of pages kept in memory.
+ * <p>
+ * Each pair is a single key of the tree, the key in the upper half and the value in the lower half
+ * of a {@code long}, so the values of a key are found by a range scan. Keys must not be negative.
+ * The file only holds the pages of this session, it is cleared when the table is created.
+ * <p>
+ * This table may be used by several threads at once.
+ * 
+ * @coverage dart.engine.index
+ */
+public class PagedIntToIntSetTable implements IntToIntSetTable {
+  /**
+   * The size of the pages of the file.
+   */
+  private static final int PAGE_SIZE = 4096;
+
+  private static final Comparator<Long> COMPARATOR = new Comparator<Long>() {
+    @Override
+    public int compare(Long o1, Long o2) {
+      return o1.compareTo(o2);
+    }
+  };
+
+  /**
+   * Returns the key of the tree for the given pair.
+   */
+  private static long getPair(int key, int value) {
+    return ((long) key << 32) | (value & 0xFFFFFFFFL);
+  }
+
+  private final FilePageManager filePageManager;
+  private final CachingPageManager pageManager;
+  private final PageNodeManager<Long, Integer> nodeManager;
+  private BPlusTree<Long, Integer, Integer> tree;
+
+  /**
+   * The number of keys that are mapped to at least one value.
+   */
+  private int size;
+
+  /**
+   * Initializes a table that keeps its pairs in the given file, with at most the given number of
+   * pages in memory.
+   */
+  public PagedIntToIntSetTable(File file, int maxPages) {
+    filePageManager = new FilePageManager(file, PAGE_SIZE);
+    filePageManager.clear();
+    pageManager = new CachingPageManager(filePageManager, maxPages);
+    nodeManager = new PageNodeManager<Long, Integer>(pageManager, PageCodec.LONG, PageCodec.INT);
+    tree = new BPlusTree<Long, Integer, Integer>(COMPARATOR, nodeManager);
+  }
+
+  @Override
+  public synchronized void add(int key, int value) {
+    if (key < 0) {
+      throw new IllegalArgumentException("Key must be a positive integer or null, but " + key
+          + " is given.");
+    }
+    long pair = getPair(key, value);
+    if (tree.find(pair) != null) {
+      return;
+    }
+    if (!hasValues(key)) {
+      size++;
+    }
+    tree.insert(pair, value);
+  }
+
+  @Override
+  public synchronized void clear() {
+    pageManager.clear();
+    filePageManager.clear();
+    tree = new BPlusTree<Long, Integer, Integer>(COMPARATOR, nodeManager);
+    size = 0;
+  }
+
+  @Override
+  public synchronized void close() {
+    filePageManager.close();
+  }
+
+  @Override
+  public synchronized int[] get(int key) {
+    final int[][] values = {ArrayUtils.EMPTY_INT_ARRAY};
+    tree.visitRange(
+        getPair(key, 0),
+        getUpperBound(key),
+        new BPlusTree.EntryVisitor<Long, Integer>() {
+          @Override
+          public boolean visit(Long pair, Integer value) {
+            values[0] = ArrayUtils.add(values[0], value);
+            return true;
+          }
+        });
+    return values[0];
+  }
+
+  @Override
+  public synchronized int[] getKeys() {
+    final int[][] keys = {new int[size]};
+    final int[] count = {0};
+    tree.visitRange(null, null, new BPlusTree.EntryVisitor<Long, Integer>() {
+      @Override
+      public boolean visit(Long pair, Integer value) {
+        int key = (int) (pair >> 32);
+        // the pairs of a key are next to each other
+        if (count[0] == 0 || keys[0][count[0] - 1] != key) {
+          keys[0][count[0]++] = key;
+        }
+        return true;
+      }
+    });
+    return keys[0];
+  }
+
+  @Override
+  public synchronized boolean remove(int key, int value) {
+    if (tree.remove(getPair(key, value)) == null) {
+      return false;
+    }
+    if (!hasValues(key)) {
+      size--;
+    }
+    return true;
+  }
+
+  @Override
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the exclusive upper bound of the pairs of the given key, or {@code null} if there is no
+   * such bound.
+   */
+  private Long getUpperBound(int key) {
+    return key != Integer.MAX_VALUE ? getPair(key + 1, 0) : null;
+  }
+
+  /**
+   * Returns {@code true} if the given key is mapped to at least one value.
+   */
+  private boolean hasValues(int key) {
+    final boolean[] result = {false};
+    tree.visitRange(
+        getPair(key, 0),
+        getUpperBound(key),
+        new BPlusTree.EntryVisitor<Long, Integer>() {
+          @Override
+          public boolean visit(Long pair, Integer value) {
+            result[0] = true;
+            return false;
+          }
+        });
+    return result[0];
+  }
+}
@@ -18,36 +18,45 @@ import com.google.dart.engine.index.Location;
 import com.google.dart.engine.index.Relationship;
 
 /**
- * An {@link Element} to {@link Location} relation key.
+ * Helpers for {@link Element} to {@link Location} relation keys, which are packed into a
+ * {@code long} so that they can be used without allocating objects. Packed keys are ordered by
+ * element id and then by relationship id.
  * 
  * @coverage dart.engine.index
  */
-public class RelationKeyData {
-  final int elementId;
-  final int relationshipId;
-
-  public RelationKeyData(ElementCodec elementCodec, RelationshipCodec relationshipCodec,
+public final class RelationKeyData {
+  /**
+   * Returns the key of the given {@link Element} and {@link Relationship}.
+   */
+  public static long encode(ElementCodec elementCodec, RelationshipCodec relationshipCodec,
       Element element, Relationship relationship) {
-    this.elementId = elementCodec.encode(element, true);
-    this.relationshipId = relationshipCodec.encode(relationship);
+    int elementId = elementCodec.encode(element, true);
+    int relationshipId = relationshipCodec.encode(relationship);
+    return pack(elementId, relationshipId);
+  }
+
+  /**
+   * Returns the element id of the given key.
+   */
+  public static int getElementId(long key) {
+    return (int) (key >> 32);
   }
 
-  public RelationKeyData(int elementId, int relationshipId) {
-    this.elementId = elementId;
-    this.relationshipId = relationshipId;
+  /**
+   * Returns the relationship id of the given key.
+   */
+  public static int getRelationshipId(long key) {
+    return (int) key ^ Integer.MIN_VALUE;
   }
 
-  @Override
-  public boolean equals(Object obj) {
-    if (!(obj instanceof RelationKeyData)) {
-      return false;
-    }
-    RelationKeyData other = (RelationKeyData) obj;
-    return other.elementId == elementId && other.relationshipId == relationshipId;
+  /**
+   * Returns the key with the given element and relationship ids.
+   */
+  public static long pack(int elementId, int relationshipId) {
+    // flip the sign bit of the lower half, so that signed keys are ordered like their ids
+    return ((long) elementId << 32) | ((relationshipId ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
   }
 
-  @Override
-  public int hashCode() {
-    return 31 * elementId + relationshipId;
+  private RelationKeyData() {
   }
 }
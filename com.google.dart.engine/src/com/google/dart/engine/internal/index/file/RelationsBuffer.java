@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.common.collect.Lists;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.index.Location;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The relations of an {@link IndexNode} in the binary form in which they are stored, which allows
+ * locations to be found without decoding the whole node.
+ * <p>
+ * The relations are stored as two tables of fixed-width records. The key table is sorted by
+ * element id and then relationship id, and each key records the element id, the relationship id
+ * and the index of its first location. The location table follows, and each location records the
+ * element id, offset and length. The locations of a key extend to the first location of the next
+ * key, so a lookup is a binary search of the key table followed by a scan of adjacent locations.
+ * 
+ * @coverage dart.engine.index
+ */
+public class RelationsBuffer {
+  /**
+   * The number of bytes in a single record of the key table.
+   */
+  private static final int KEY_SIZE = 12;
+
+  /**
+   * The number of bytes in a single record of the location table.
+   */
+  private static final int LOCATION_SIZE = 12;
+
+  /**
+   * Writes the given relations to the given stream in the form read by this class.
+   */
+  public static void write(DataOutputStream stream, LongToIntArrayMap relations)
+      throws IOException {
+    long[] keys = relations.getKeys();
+    Arrays.sort(keys);
+    stream.writeInt(keys.length);
+    stream.writeInt(relations.getValueCount() / 3);
+    // keys
+    int locationIndex = 0;
+    for (long key : keys) {
+      stream.writeInt(RelationKeyData.getElementId(key));
+      stream.writeInt(RelationKeyData.getRelationshipId(key));
+      stream.writeInt(locationIndex);
+      locationIndex += relations.get(key).length / 3;
+    }
+    // locations
+    for (long key : keys) {
+      for (int value : relations.get(key)) {
+        stream.writeInt(value);
+      }
+    }
+  }
+
+  private static int compareKeys(int elementId1, int relationshipId1, int elementId2,
+      int relationshipId2) {
+    if (elementId1 != elementId2) {
+      return elementId1 < elementId2 ? -1 : 1;
+    }
+    if (relationshipId1 != relationshipId2) {
+      return relationshipId1 < relationshipId2 ? -1 : 1;
+    }
+    return 0;
+  }
+
+  private final ByteBuffer buffer;
+  private final int keyCount;
+  private final int locationCount;
+  private final int keysOffset;
+  private final int locationsOffset;
+
+  /**
+   * Initializes relations stored in the given buffer, starting at its current position.
+   * 
+   * @throws IllegalStateException if the buffer is too short to hold the relations
+   */
+  public RelationsBuffer(ByteBuffer buffer) {
+    this.buffer = buffer;
+    int base = buffer.position();
+    keyCount = buffer.getInt(base);
+    locationCount = buffer.getInt(base + 4);
+    keysOffset = base + 8;
+    locationsOffset = keysOffset + keyCount * KEY_SIZE;
+    if (keyCount < 0 || locationCount < 0
+        || (long) locationsOffset + (long) locationCount * LOCATION_SIZE > buffer.limit()) {
+      throw new IllegalStateException("Relations are truncated or corrupt.");
+    }
+  }
+
+  /**
+   * Returns the number of locations in these relations.
+   */
+  public int getLocationCount() {
+    return locationCount;
+  }
+
+  /**
+   * Returns the {@link Location}s recorded for the given key, skipping locations whose elements
+   * cannot be decoded.
+   */
+  public Location[] getLocations(long key, AnalysisContext context, ElementCodec elementCodec) {
+    int keyIndex = findKey(
+        RelationKeyData.getElementId(key),
+        RelationKeyData.getRelationshipId(key));
+    if (keyIndex < 0) {
+      return Location.EMPTY_ARRAY;
+    }
+    int start = getLocationStart(keyIndex);
+    int end = getLocationStart(keyIndex + 1);
+    List<Location> locations = Lists.newArrayListWithCapacity(end - start);
+    for (int i = start; i < end; i++) {
+      int offset = locationsOffset + i * LOCATION_SIZE;
+      Element element = elementCodec.decode(context, buffer.getInt(offset));
+      if (element != null) {
+        locations.add(new Location(element, buffer.getInt(offset + 4), buffer.getInt(offset + 8)));
+      }
+    }
+    return locations.toArray(new Location[locations.size()]);
+  }
+
+  /**
+   * Adds these relations to the given map, in the form used by an {@link IndexNode} that is being
+   * modified.
+   */
+  public void decodeInto(LongToIntArrayMap relations) {
+    for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+      int keyOffset = keysOffset + keyIndex * KEY_SIZE;
+      long key = RelationKeyData.pack(buffer.getInt(keyOffset), buffer.getInt(keyOffset + 4));
+      int start = getLocationStart(keyIndex);
+      int end = getLocationStart(keyIndex + 1);
+      int[] values = new int[(end - start) * 3];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = buffer.getInt(locationsOffset + start * LOCATION_SIZE + i * 4);
+      }
+      relations.addAll(key, values);
+    }
+  }
+
+  /**
+   * Returns the index of the key with the given ids, or {@code -1} if there is no such key.
+   */
+  private int findKey(int elementId, int relationshipId) {
+    int low = 0;
+    int high = keyCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int keyOffset = keysOffset + middle * KEY_SIZE;
+      int comparison = compareKeys(
+          buffer.getInt(keyOffset),
+          buffer.getInt(keyOffset + 4),
+          elementId,
+          relationshipId);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the first location of the key with the given index. The given index may
+   * be equal to the number of keys, in which case the number of locations is returned.
+   */
+  private int getLocationStart(int keyIndex) {
+    if (keyIndex == keyCount) {
+      return locationCount;
+    }
+    return buffer.getInt(keysOffset + keyIndex * KEY_SIZE + 8);
+  }
+}
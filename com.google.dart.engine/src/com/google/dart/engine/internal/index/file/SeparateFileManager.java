@@ -14,23 +14,92 @@
 
 package com.google.dart.engine.internal.index.file;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * An implementation of {@link FileManager} that keeps each file in a separate file system file.
+ * <p>
+ * Files are read using memory mapped buffers. A file is written to a temporary file that then
+ * replaces it, and the buffers mapped to a file are released when it is replaced or deleted, so
+ * that a mapped file is never changed in place.
  */
 public class SeparateFileManager implements FileManager {
+  /**
+   * The suffix of the temporary file to which the content of a file is written.
+   */
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /**
+   * Releases the memory mapping of the given buffer, rather than waiting for the buffer to be
+   * garbage collected. If the mapping cannot be released explicitly, it is released when the
+   * buffer is garbage collected.
+   */
+  private static void release(MappedByteBuffer buffer) {
+    try {
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+        unsafeField.setAccessible(true);
+        invokeCleaner.invoke(unsafeField.get(null), buffer);
+      } catch (NoSuchMethodException exception) {
+        // before Java 9 the cleaner is accessed through the buffer
+        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      }
+    } catch (Throwable exception) {
+      // the mapping is released when the buffer is garbage collected
+    }
+  }
+
   private final File base;
 
+  /**
+   * The buffers mapped to each of the files, which are released when the file is replaced or
+   * deleted. Buffers that are no longer used are released when they are garbage collected.
+   */
+  private final Map<String, List<WeakReference<MappedByteBuffer>>> mappings = Maps.newHashMap();
+
   public SeparateFileManager(File base) {
+    this(base, true);
+  }
+
+  /**
+   * Initializes a manager for the files in the given directory, removing any existing files if
+   * {@code clear} is {@code true}. Existing files should only be kept if the codecs used to write
+   * them have been restored.
+   */
+  public SeparateFileManager(File base, boolean clear) {
     this.base = base;
-    clear();
+    if (clear) {
+      clear();
+    }
   }
 
   @Override
@@ -38,16 +107,65 @@ public class SeparateFileManager implements FileManager {
     File[] files = base.listFiles();
     if (files != null) {
       for (File file : files) {
-        file.delete();
+        // keep directories, such as the one containing the journals
+        if (file.isFile()) {
+          delete(file.getName());
+        }
       }
     }
   }
 
   @Override
   public void delete(String name) {
+    releaseMappings(name);
     getFile(name).delete();
   }
 
+  @VisibleForTesting
+  public int getMappingCount() {
+    synchronized (mappings) {
+      int count = 0;
+      for (List<WeakReference<MappedByteBuffer>> buffers : mappings.values()) {
+        for (WeakReference<MappedByteBuffer> reference : buffers) {
+          if (reference.get() != null) {
+            count++;
+          }
+        }
+      }
+      return count;
+    }
+  }
+
+  @Override
+  public ByteBuffer openBuffer(String name) throws Exception {
+    File file = getFile(name);
+    if (!file.isFile()) {
+      return null;
+    }
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      synchronized (mappings) {
+        List<WeakReference<MappedByteBuffer>> buffers = mappings.get(name);
+        if (buffers == null) {
+          buffers = Lists.newArrayList();
+          mappings.put(name, buffers);
+        }
+        // forget the buffers that have been garbage collected
+        for (Iterator<WeakReference<MappedByteBuffer>> iter = buffers.iterator(); iter.hasNext();) {
+          if (iter.next().get() == null) {
+            iter.remove();
+          }
+        }
+        buffers.add(new WeakReference<MappedByteBuffer>(buffer));
+      }
+      return buffer;
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
   @Override
   public InputStream openInputStream(String name) throws Exception {
     File file = getFile(name);
@@ -59,13 +177,67 @@ public class SeparateFileManager implements FileManager {
   }
 
   @Override
-  public OutputStream openOutputStream(String name) throws Exception {
-    File file = getFile(name);
-    OutputStream stream = new FileOutputStream(file);
-    return new BufferedOutputStream(stream);
+  public OutputStream openOutputStream(final String name) throws Exception {
+    final File tempFile = getFile(name + TEMP_SUFFIX);
+    return new BufferedOutputStream(new FileOutputStream(tempFile)) {
+      private boolean closed = false;
+
+      @Override
+      public void close() throws IOException {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        super.close();
+        replace(name, tempFile);
+      }
+    };
+  }
+
+  @Override
+  public void retainAll(Set<String> names) {
+    File[] files = base.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isFile() && !names.contains(file.getName())) {
+          delete(file.getName());
+        }
+      }
+    }
   }
 
   private File getFile(String name) {
     return new File(base, name);
   }
+
+  /**
+   * Releases the buffers mapped to the file with the given name.
+   */
+  private void releaseMappings(String name) {
+    List<WeakReference<MappedByteBuffer>> buffers;
+    synchronized (mappings) {
+      buffers = mappings.remove(name);
+    }
+    if (buffers != null) {
+      for (WeakReference<MappedByteBuffer> reference : buffers) {
+        MappedByteBuffer buffer = reference.get();
+        if (buffer != null) {
+          release(buffer);
+        }
+      }
+    }
+  }
+
+  /**
+   * Replaces the file with the given name with the given temporary file.
+   */
+  private void replace(String name, File tempFile) throws IOException {
+    File file = getFile(name);
+    releaseMappings(name);
+    // a file cannot be renamed over an existing file on all platforms
+    if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+      tempFile.delete();
+      throw new IOException("Could not replace " + file + " with " + tempFile);
+    }
+  }
 }
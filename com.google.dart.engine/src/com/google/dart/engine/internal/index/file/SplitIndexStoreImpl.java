@@ -32,17 +32,33 @@ import com.google.dart.engine.internal.context.AnalysisContextImpl;
 import com.google.dart.engine.internal.context.InstrumentedAnalysisContextImpl;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.source.SourceFactory;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * An {@link IndexStore} which keeps index information in separate nodes for each unit.
+ * <p>
+ * {@link #getRelationships(Element, Relationship)} may be invoked by several threads at once, and
+ * without synchronizing on the store, so queries don't wait for index operations that hold the
+ * store's monitor. A query holds the store's lock only while it copies the names of the nodes to
+ * read, and reads the nodes after releasing it. Nodes are never changed once they are put: an
+ * index operation builds a new node, and a node that is replaced or removed while queries read
+ * nodes is kept in {@link #pendingNodes} until no query does. So a query sees each node either as
+ * it was before or after it was indexed, and index operations don't wait for queries.
  * 
  * @coverage dart.engine.index
  */
@@ -70,7 +86,49 @@ public class SplitIndexStoreImpl implements IndexStore {
   /**
    * A table mapping elements to the node names that may have relations with these elements.
    */
-  private final IntToIntSetMap elementToNodeNames = new IntToIntSetMap(10000, 0.75f);
+  private final IntToIntSetTable elementToNodeNames;
+
+  /**
+   * The journal to which changes to {@link #elementToNodeNames} are written, or {@code null} if
+   * the table is not persisted.
+   */
+  private final IndexJournal elementToNodeNamesJournal;
+
+  /**
+   * The number of element/node name pairs in {@link #elementToNodeNames}.
+   */
+  private int elementToNodeNamesCount;
+
+  /**
+   * The ids of the names of the nodes that have been removed and not recreated. References to these
+   * nodes are removed from {@link #elementToNodeNames} as they are encountered.
+   */
+  private final Set<Integer> removedNodeNameIds = Sets.newHashSet();
+
+  /**
+   * The element/node name pairs, packed into longs, that readers found to refer to removed nodes.
+   * They are removed from {@link #elementToNodeNames} by the next writer.
+   */
+  private final Queue<Long> staleNodeNames = new ConcurrentLinkedQueue<Long>();
+
+  /**
+   * The lock that allows {@link #getRelationships(Element, Relationship)} to be invoked by several
+   * threads at once. The methods that change the store hold the write lock.
+   */
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * The lock that {@link #getRelationships(Element, Relationship)} holds for reading while it reads
+   * nodes. The relations of a node may be mapped to its file, so nodes are only put into or removed
+   * from the {@link NodeManager} while this lock is held for writing.
+   */
+  private final ReadWriteLock nodeLock = new ReentrantReadWriteLock();
+
+  /**
+   * The nodes that have been put or removed, but not yet in the {@link NodeManager}, because
+   * queries were reading nodes. A removed node is mapped to {@code null}. Guarded by itself.
+   */
+  private final Map<String, IndexNode> pendingNodes = Maps.newHashMap();
 
   /**
    * Information about "universe" elements. We need to keep them together to avoid loading of all
@@ -90,6 +148,27 @@ public class SplitIndexStoreImpl implements IndexStore {
    */
   final Map<AnalysisContext, Map<Source, Set<Source>>> contextToUnitToLibraries = Maps.newHashMap();
 
+  /**
+   * The journal to which the library/unit pairs of the nodes are written, or {@code null} if the
+   * pairs are not persisted. The pairs are needed to find the nodes of a source that is removed in
+   * a later session.
+   */
+  private final IndexJournal unitsJournal;
+
+  /**
+   * The library/unit pairs of the nodes, as the encodings of the library (or {@code null} for an
+   * HTML unit) and the unit, keyed by context id and node name id. Only maintained if there is a
+   * {@link #unitsJournal}. The pairs of a context restored from the journal are added to
+   * {@link #contextToLibraryToUnits} and {@link #contextToUnitToLibraries} when the context is
+   * bound.
+   */
+  private final Map<Integer, Map<Integer, String[]>> contextToUnitRecords = Maps.newHashMap();
+
+  /**
+   * The number of library/unit pairs in {@link #contextToUnitRecords}.
+   */
+  private int unitRecordCount;
+
   /**
    * The set of known {@link Source}s.
    */
@@ -100,116 +179,322 @@ public class SplitIndexStoreImpl implements IndexStore {
   private int currentNodeNameId;
   private IndexNode currentNode;
 
+  /**
+   * The journal record kind used for a node name being added to the names of an element.
+   */
+  private static final byte ADD_RECORD = 0;
+
+  /**
+   * The journal record kind used for a node name being removed from the names of an element.
+   */
+  private static final byte REMOVE_RECORD = 1;
+
   public SplitIndexStoreImpl(NodeManager nodeManager) {
     this.nodeManager = nodeManager;
     this.contextCodec = nodeManager.getContextCodec();
     this.elementCodec = nodeManager.getElementCodec();
     this.stringCodec = nodeManager.getStringCodec();
+    this.elementToNodeNames = new IntToIntSetMap(10000, 0.75f);
+    this.elementToNodeNamesJournal = null;
+    this.unitsJournal = null;
+  }
+
+  /**
+   * Initializes a store that restores the mapping of elements to node names into the given empty
+   * table and the library/unit pairs of the nodes from the given journals, and records changes to
+   * them. The codecs of the given
+   * {@link NodeManager} must also be persisted, so that the restored mapping and the existing nodes
+   * can be used immediately. Records that refer to ids the codecs did not restore are discarded.
+   * <p>
+   * The pairs of contexts that can never be bound again are discarded, and their nodes are treated
+   * as removed. The nodes that are still used are returned by {@link #getNodeNames()}.
+   * 
+   * @throws IOException if a journal cannot be read
+   */
+  public SplitIndexStoreImpl(NodeManager nodeManager, IntToIntSetTable elementToNodeNames,
+      IndexJournal elementToNodeNamesJournal, IndexJournal unitsJournal) throws IOException {
+    this.nodeManager = nodeManager;
+    this.contextCodec = nodeManager.getContextCodec();
+    this.elementCodec = nodeManager.getElementCodec();
+    this.stringCodec = nodeManager.getStringCodec();
+    this.elementToNodeNames = elementToNodeNames;
+    this.elementToNodeNamesJournal = elementToNodeNamesJournal;
+    this.unitsJournal = unitsJournal;
+    elementToNodeNamesJournal.replay(new IndexJournal.RecordReader() {
+      @Override
+      public void readRecord(DataInputStream stream) throws IOException {
+        byte kind = stream.readByte();
+        int elementId = stream.readInt();
+        int nodeNameId = stream.readInt();
+        if (!elementCodec.hasId(elementId) || !stringCodec.hasIndex(nodeNameId)) {
+          return;
+        }
+        if (kind == ADD_RECORD) {
+          addNodeNameForElement(elementId, nodeNameId);
+        } else if (elementToNodeNames.remove(elementId, nodeNameId)) {
+          elementToNodeNamesCount--;
+        }
+      }
+    });
+    compactElementToNodeNamesJournal();
+    unitsJournal.replay(new IndexJournal.RecordReader() {
+      @Override
+      public void readRecord(DataInputStream stream) throws IOException {
+        byte kind = stream.readByte();
+        int contextId = stream.readInt();
+        int nodeNameId = stream.readInt();
+        if (kind == ADD_RECORD) {
+          String library = stream.readBoolean() ? stream.readUTF() : null;
+          String unit = stream.readUTF();
+          if (stringCodec.hasIndex(nodeNameId)) {
+            addUnitRecord(contextId, nodeNameId, new String[] {library, unit});
+          }
+        } else {
+          removeUnitRecord(contextId, nodeNameId);
+        }
+      }
+    });
+    for (Integer contextId : Lists.newArrayList(contextToUnitRecords.keySet())) {
+      if (!contextCodec.isBindable(contextId)) {
+        Map<Integer, String[]> unitRecords = contextToUnitRecords.remove(contextId);
+        unitRecordCount -= unitRecords.size();
+        removedNodeNameIds.addAll(unitRecords.keySet());
+      }
+    }
+    compactUnitsJournal();
   }
 
   @Override
   public boolean aboutToIndexDart(AnalysisContext context, CompilationUnitElement unitElement) {
-    context = unwrapContext(context);
-    // may be already disposed in other thread
-    if (context.isDisposed()) {
-      return false;
-    }
-    // validate unit
-    if (unitElement == null) {
-      return false;
-    }
-    LibraryElement libraryElement = unitElement.getLibrary();
-    if (libraryElement == null) {
-      return false;
-    }
-    CompilationUnitElement definingUnitElement = libraryElement.getDefiningCompilationUnit();
-    if (definingUnitElement == null) {
-      return false;
-    }
-    // prepare sources
-    Source library = definingUnitElement.getSource();
-    Source unit = unitElement.getSource();
-    // special handling for the defining library unit
-    if (unit.equals(library)) {
-      // prepare new parts
-      Set<Source> newParts = Sets.newHashSet();
-      for (CompilationUnitElement part : libraryElement.getParts()) {
-        newParts.add(part.getSource());
-      }
-      // prepare old parts
-      Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
-      if (libraryToUnits == null) {
-        libraryToUnits = Maps.newHashMap();
-        contextToLibraryToUnits.put(context, libraryToUnits);
-      }
-      Set<Source> oldParts = libraryToUnits.get(library);
-      // check if some parts are not in the library now
-      if (oldParts != null) {
-        Set<Source> noParts = Sets.difference(oldParts, newParts);
-        for (Source noPart : noParts) {
-          removeLocations(context, library, noPart);
+    lockForWrite();
+    try {
+      context = unwrapContext(context);
+      // may be already disposed in other thread
+      if (context.isDisposed()) {
+        return false;
+      }
+      // validate unit
+      if (unitElement == null) {
+        return false;
+      }
+      LibraryElement libraryElement = unitElement.getLibrary();
+      if (libraryElement == null) {
+        return false;
+      }
+      CompilationUnitElement definingUnitElement = libraryElement.getDefiningCompilationUnit();
+      if (definingUnitElement == null) {
+        return false;
+      }
+      // prepare sources
+      Source library = definingUnitElement.getSource();
+      Source unit = unitElement.getSource();
+      // special handling for the defining library unit
+      if (unit.equals(library)) {
+        // prepare new parts
+        Set<Source> newParts = Sets.newHashSet();
+        for (CompilationUnitElement part : libraryElement.getParts()) {
+          newParts.add(part.getSource());
         }
+        // prepare old parts
+        Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
+        if (libraryToUnits == null) {
+          libraryToUnits = Maps.newHashMap();
+          contextToLibraryToUnits.put(context, libraryToUnits);
+        }
+        Set<Source> oldParts = libraryToUnits.get(library);
+        // check if some parts are not in the library now
+        if (oldParts != null) {
+          Set<Source> noParts = Sets.difference(oldParts, newParts);
+          for (Source noPart : noParts) {
+            removeLocations(context, library, noPart);
+          }
+        }
+        // remember new parts
+        libraryToUnits.put(library, newParts);
       }
-      // remember new parts
-      libraryToUnits.put(library, newParts);
-    }
-    // remember library/unit relations
-    recordUnitInLibrary(context, library, unit);
-    recordLibraryWithUnit(context, library, unit);
-    sources.add(library);
-    sources.add(unit);
-    // prepare node
-    String libraryName = library.getFullName();
-    String unitName = unit.getFullName();
-    int libraryNameIndex = stringCodec.encode(libraryName);
-    int unitNameIndex = stringCodec.encode(unitName);
-    currentNodeName = libraryNameIndex + "_" + unitNameIndex + ".index";
-    currentNodeNameId = stringCodec.encode(currentNodeName);
-    currentNode = nodeManager.newNode(context);
-    currentContextId = contextCodec.encode(context);
-    // remove Universe information for the current node
-    for (Map<Integer, ?> nodeRelations : contextNodeRelations.values()) {
-      nodeRelations.remove(currentNodeNameId);
+      // remember library/unit relations
+      recordUnitInLibrary(context, library, unit);
+      recordLibraryWithUnit(context, library, unit);
+      sources.add(library);
+      sources.add(unit);
+      // prepare node
+      currentNodeName = getNodeName(library, unit);
+      currentNodeNameId = stringCodec.encode(currentNodeName);
+      currentNode = nodeManager.newNode(context);
+      currentContextId = contextCodec.encode(context);
+      removedNodeNameIds.remove(currentNodeNameId);
+      recordUnitRecord(library, unit);
+      // remove Universe information for the current node
+      for (Map<Integer, ?> nodeRelations : contextNodeRelations.values()) {
+        nodeRelations.remove(currentNodeNameId);
+      }
+      // done
+      return true;
+    } finally {
+      lock.writeLock().unlock();
     }
-    // done
-    return true;
   }
 
   @Override
   public boolean aboutToIndexHtml(AnalysisContext context, HtmlElement htmlElement) {
-    context = unwrapContext(context);
-    // may be already disposed in other thread
-    if (context.isDisposed()) {
-      return false;
+    lockForWrite();
+    try {
+      context = unwrapContext(context);
+      // may be already disposed in other thread
+      if (context.isDisposed()) {
+        return false;
+      }
+      // remove locations
+      Source source = htmlElement.getSource();
+      removeLocations(context, null, source);
+      // remember library/unit relations
+      recordUnitInLibrary(context, null, source);
+      // prepare node
+      currentNodeName = getNodeName(null, source);
+      currentNodeNameId = stringCodec.encode(currentNodeName);
+      currentNode = nodeManager.newNode(context);
+      currentContextId = contextCodec.encode(context);
+      removedNodeNameIds.remove(currentNodeNameId);
+      recordUnitRecord(null, source);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void bindContext(AnalysisContext context, String key) {
+    lockForWrite();
+    try {
+      context = unwrapContext(context);
+      contextCodec.bindContext(context, key);
+      // restore the library/unit pairs recorded for the context in an earlier session
+      Map<Integer, String[]> unitRecords = contextToUnitRecords.get(contextCodec.encode(context));
+      if (unitRecords == null) {
+        return;
+      }
+      SourceFactory sourceFactory = context.getSourceFactory();
+      for (Entry<Integer, String[]> entry : Lists.newArrayList(unitRecords.entrySet())) {
+        String[] encodings = entry.getValue();
+        try {
+          Source library = encodings[0] != null ? sourceFactory.fromEncoding(encodings[0]) : null;
+          Source unit = sourceFactory.fromEncoding(encodings[1]);
+          recordUnitInLibrary(context, library, unit);
+          if (library != null) {
+            recordLibraryWithUnit(context, library, unit);
+            sources.add(library);
+          }
+          sources.add(unit);
+        } catch (IllegalArgumentException exception) {
+          // the source can no longer be found, so its node cannot be removed later
+          int nodeNameId = entry.getKey();
+          removeNode(stringCodec.decode(nodeNameId));
+          removedNodeNameIds.add(nodeNameId);
+          int contextId = contextCodec.encode(context);
+          if (removeUnitRecord(contextId, nodeNameId)) {
+            writeUnitsRecord(REMOVE_RECORD, contextId, nodeNameId, null);
+          }
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
     }
-    // remove locations
-    Source source = htmlElement.getSource();
-    removeLocations(context, null, source);
-    // remember library/unit relations
-    recordUnitInLibrary(context, null, source);
-    // prepare node
-    String sourceName = source.getFullName();
-    int sourceNameIndex = stringCodec.encode(sourceName);
-    currentNodeName = sourceNameIndex + ".index";
-    currentNodeNameId = stringCodec.encode(currentNodeName);
-    currentNode = nodeManager.newNode(context);
-    return true;
   }
 
   @Override
   public void clear() {
-    nodeManager.clear();
-    elementToNodeNames.clear();
+    lockForWrite();
+    try {
+      nodeLock.writeLock().lock();
+      try {
+        synchronized (pendingNodes) {
+          pendingNodes.clear();
+        }
+        nodeManager.clear();
+      } finally {
+        nodeLock.writeLock().unlock();
+      }
+      elementToNodeNames.clear();
+      elementToNodeNamesCount = 0;
+      removedNodeNameIds.clear();
+      contextToUnitRecords.clear();
+      unitRecordCount = 0;
+      if (elementToNodeNamesJournal != null) {
+        elementToNodeNamesJournal.clear();
+      }
+      if (unitsJournal != null) {
+        unitsJournal.clear();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    lockForWrite();
+    try {
+      nodeLock.writeLock().lock();
+      try {
+        writePendingNodes();
+      } finally {
+        nodeLock.writeLock().unlock();
+      }
+      stringCodec.close();
+      contextCodec.close();
+      elementCodec.close();
+      if (elementToNodeNamesJournal != null) {
+        elementToNodeNamesJournal.close();
+      }
+      if (unitsJournal != null) {
+        unitsJournal.close();
+      }
+      elementToNodeNames.close();
+    } finally {
+      lock.writeLock().unlock();
+    }
   }
 
   @Override
   public void doneIndex() {
-    if (currentNode != null) {
-      nodeManager.putNode(currentNodeName, currentNode);
-      currentNodeName = null;
-      currentNodeNameId = -1;
-      currentNode = null;
-      currentContextId = -1;
+    lockForWrite();
+    try {
+      if (currentNode != null) {
+        putNode(currentNodeName, currentNode);
+        if (elementToNodeNamesJournal != null) {
+          compactElementToNodeNamesJournal();
+          elementToNodeNamesJournal.flush();
+        }
+        if (unitsJournal != null) {
+          compactUnitsJournal();
+          unitsJournal.flush();
+        }
+        currentNodeName = null;
+        currentNodeNameId = -1;
+        currentNode = null;
+        currentContextId = -1;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the names of the nodes of all of the library/unit pairs that are persisted, including
+   * those of contexts that have not been bound in this session. Any other node is not used.
+   */
+  public Set<String> getNodeNames() {
+    lock.readLock().lock();
+    try {
+      Set<String> nodeNames = Sets.newHashSet();
+      for (Map<Integer, String[]> unitRecords : contextToUnitRecords.values()) {
+        for (int nodeNameId : unitRecords.keySet()) {
+          nodeNames.add(stringCodec.decode(nodeNameId));
+        }
+      }
+      return nodeNames;
+    } finally {
+      lock.readLock().unlock();
     }
   }
 
@@ -219,20 +504,43 @@ public class SplitIndexStoreImpl implements IndexStore {
     if (element == UniverseElement.INSTANCE) {
       return getRelationshipsUniverse(relationship);
     }
-    // prepare node names
+    // prepare node names, the array is replaced rather than changed when the store changes
     int elementId = elementCodec.encodeHash(element);
-    int[] nodeNameIds = elementToNodeNames.get(elementId);
+    int[] nodeNameIds;
+    lock.readLock().lock();
+    try {
+      nodeNameIds = elementToNodeNames.get(elementId);
+    } finally {
+      lock.readLock().unlock();
+    }
     // check each node
     List<Location> locations = Lists.newArrayList();
-    for (int i = 0; i < nodeNameIds.length; i++) {
-      int nodeNameId = nodeNameIds[i];
-      String nodeName = stringCodec.decode(nodeNameId);
-      IndexNode node = nodeManager.getNode(nodeName);
-      if (node != null) {
-        Collections.addAll(locations, node.getRelationships(element, relationship));
-      } else {
-        nodeNameIds = ArrayUtils.removeElement(nodeNameIds, nodeNameId);
-        i--;
+    List<Integer> missingNodeNameIds = Lists.newArrayList();
+    nodeLock.readLock().lock();
+    try {
+      for (int nodeNameId : nodeNameIds) {
+        IndexNode node = getNode(stringCodec.decode(nodeNameId));
+        if (node != null) {
+          Collections.addAll(locations, node.getRelationships(element, relationship));
+        } else {
+          missingNodeNameIds.add(nodeNameId);
+        }
+      }
+    } finally {
+      nodeLock.readLock().unlock();
+    }
+    applyPendingNodes();
+    // forget the nodes that have been removed
+    if (!missingNodeNameIds.isEmpty()) {
+      lock.readLock().lock();
+      try {
+        for (int nodeNameId : missingNodeNameIds) {
+          if (removedNodeNameIds.contains(nodeNameId)) {
+            staleNodeNames.add(((long) elementId << 32) | (nodeNameId & 0xFFFFFFFFL));
+          }
+        }
+      } finally {
+        lock.readLock().unlock();
       }
     }
     // done
@@ -241,122 +549,315 @@ public class SplitIndexStoreImpl implements IndexStore {
 
   @Override
   public String getStatistics() {
-    return "[" + nodeManager.getLocationCount() + " locations, " + sources.size() + " sources, "
-        + elementToNodeNames.size() + " elements]";
+    int locationCount;
+    nodeLock.readLock().lock();
+    try {
+      locationCount = nodeManager.getLocationCount();
+    } finally {
+      nodeLock.readLock().unlock();
+    }
+    lock.readLock().lock();
+    try {
+      return "[" + locationCount + " locations, " + sources.size() + " sources, "
+          + elementToNodeNames.size() + " elements]";
+    } finally {
+      lock.readLock().unlock();
+    }
   }
 
   @Override
   public void recordRelationship(Element element, Relationship relationship, Location location) {
-    if (element == null || element.getKind() == ElementKind.ERROR) {
-      return;
-    }
-    if (location == null) {
-      return;
-    }
-    // special support for UniverseElement
-    if (element == UniverseElement.INSTANCE) {
-      recordRelationshipUniverse(relationship, location);
-      return;
+    lockForWrite();
+    try {
+      if (element == null || element.getKind() == ElementKind.ERROR) {
+        return;
+      }
+      if (location == null) {
+        return;
+      }
+      // special support for UniverseElement
+      if (element == UniverseElement.INSTANCE) {
+        recordRelationshipUniverse(relationship, location);
+        return;
+      }
+      // other elements
+      recordNodeNameForElement(element);
+      currentNode.recordRelationship(element, relationship, location);
+    } finally {
+      lock.writeLock().unlock();
     }
-    // other elements
-    recordNodeNameForElement(element);
-    currentNode.recordRelationship(element, relationship, location);
   }
 
   @Override
   public void removeContext(AnalysisContext context) {
-    context = unwrapContext(context);
-    if (context == null) {
-      return;
+    lockForWrite();
+    try {
+      context = unwrapContext(context);
+      if (context == null) {
+        return;
+      }
+      // remove sources
+      removeSources(context, null);
+      // remove context information
+      int contextId = contextCodec.encode(context);
+      contextToLibraryToUnits.remove(context);
+      contextToUnitToLibraries.remove(context);
+      contextNodeRelations.remove(contextId);
+      Map<Integer, String[]> unitRecords = contextToUnitRecords.remove(contextId);
+      if (unitRecords != null) {
+        unitRecordCount -= unitRecords.size();
+      }
+      // remove context from codec
+      contextCodec.removeContext(context);
+    } finally {
+      lock.writeLock().unlock();
     }
-    // remove sources
-    removeSources(context, null);
-    // remove context information
-    contextToLibraryToUnits.remove(context);
-    contextToUnitToLibraries.remove(context);
-    contextNodeRelations.remove(contextCodec.encode(context));
-    // remove context from codec
-    contextCodec.removeContext(context);
   }
 
   @Override
   public void removeSource(AnalysisContext context, Source source) {
-    context = unwrapContext(context);
-    if (context == null) {
-      return;
-    }
-    // remove nodes for unit/library pairs
-    Map<Source, Set<Source>> unitToLibraries = contextToUnitToLibraries.get(context);
-    if (unitToLibraries != null) {
-      Set<Source> libraries = unitToLibraries.remove(source);
-      if (libraries != null) {
-        for (Source library : libraries) {
-          removeLocations(context, library, source);
+    lockForWrite();
+    try {
+      context = unwrapContext(context);
+      if (context == null) {
+        return;
+      }
+      // remove nodes for unit/library pairs
+      Map<Source, Set<Source>> unitToLibraries = contextToUnitToLibraries.get(context);
+      if (unitToLibraries != null) {
+        Set<Source> libraries = unitToLibraries.remove(source);
+        if (libraries != null) {
+          for (Source library : libraries) {
+            removeLocations(context, library, source);
+          }
         }
       }
-    }
-    // remove nodes for library/unit pairs
-    Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
-    if (libraryToUnits != null) {
-      Set<Source> units = libraryToUnits.remove(source);
-      if (units != null) {
-        for (Source unit : units) {
-          removeLocations(context, source, unit);
+      // remove nodes for library/unit pairs
+      Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
+      if (libraryToUnits != null) {
+        Set<Source> units = libraryToUnits.remove(source);
+        if (units != null) {
+          for (Source unit : units) {
+            removeLocations(context, source, unit);
+          }
         }
       }
+    } finally {
+      lock.writeLock().unlock();
     }
   }
 
   @Override
   public void removeSources(AnalysisContext context, SourceContainer container) {
-    context = unwrapContext(context);
-    if (context == null) {
+    lockForWrite();
+    try {
+      context = unwrapContext(context);
+      if (context == null) {
+        return;
+      }
+      // remove nodes for unit/library pairs
+      Map<Source, Set<Source>> unitToLibraries = contextToUnitToLibraries.get(context);
+      if (unitToLibraries != null) {
+        List<Source> units = Lists.newArrayList(unitToLibraries.keySet());
+        for (Source source : units) {
+          if (container == null || container.contains(source)) {
+            removeSource(context, source);
+          }
+        }
+      }
+      // remove nodes for library/unit pairs
+      Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
+      if (libraryToUnits != null) {
+        List<Source> libraries = Lists.newArrayList(libraryToUnits.keySet());
+        for (Source source : libraries) {
+          if (container == null || container.contains(source)) {
+            removeSource(context, source);
+          }
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds the given node name to the names associated with the given element.
+   * 
+   * @return {@code true} if the node name was not already associated with the element
+   */
+  /**
+   * Puts the {@link #pendingNodes} into the {@link NodeManager}, unless queries are reading nodes.
+   * In that case they are put by the query or index operation that comes next.
+   */
+  private void applyPendingNodes() {
+    synchronized (pendingNodes) {
+      if (pendingNodes.isEmpty()) {
+        return;
+      }
+    }
+    if (nodeLock.writeLock().tryLock()) {
+      try {
+        writePendingNodes();
+      } finally {
+        nodeLock.writeLock().unlock();
+      }
+    }
+  }
+
+  private boolean addNodeNameForElement(int elementId, int nodeNameId) {
+    if (ArrayUtils.contains(elementToNodeNames.get(elementId), nodeNameId)) {
+      return false;
+    }
+    elementToNodeNames.add(elementId, nodeNameId);
+    elementToNodeNamesCount++;
+    return true;
+  }
+
+  /**
+   * Adds the given library/unit pair of the node with the given name.
+   * 
+   * @return {@code true} if the pair was not already known
+   */
+  private boolean addUnitRecord(int contextId, int nodeNameId, String[] encodings) {
+    Map<Integer, String[]> unitRecords = contextToUnitRecords.get(contextId);
+    if (unitRecords == null) {
+      unitRecords = Maps.newHashMap();
+      contextToUnitRecords.put(contextId, unitRecords);
+    }
+    if (unitRecords.put(nodeNameId, encodings) != null) {
+      return false;
+    }
+    unitRecordCount++;
+    return true;
+  }
+
+  /**
+   * Rewrites {@link #elementToNodeNamesJournal} if it contains many more records than are needed
+   * to describe the current state, which happens as nodes are removed.
+   */
+  private void compactElementToNodeNamesJournal() {
+    if (elementToNodeNamesJournal.getRecordCount() <= 2 * elementToNodeNamesCount + 1000) {
       return;
     }
-    // remove nodes for unit/library pairs
-    Map<Source, Set<Source>> unitToLibraries = contextToUnitToLibraries.get(context);
-    if (unitToLibraries != null) {
-      List<Source> units = Lists.newArrayList(unitToLibraries.keySet());
-      for (Source source : units) {
-        if (container == null || container.contains(source)) {
-          removeSource(context, source);
+    elementToNodeNamesJournal.compact(new IndexJournal.RecordWriter() {
+      @Override
+      public void writeRecords(IndexJournal journal, DataOutputStream stream) throws IOException {
+        for (int elementId : elementToNodeNames.getKeys()) {
+          for (int nodeNameId : elementToNodeNames.get(elementId)) {
+            stream.writeByte(ADD_RECORD);
+            stream.writeInt(elementId);
+            stream.writeInt(nodeNameId);
+            journal.recordWritten();
+          }
         }
       }
+    });
+  }
+
+  /**
+   * Rewrites {@link #unitsJournal} if it contains many more records than are needed to describe
+   * the current state.
+   */
+  private void compactUnitsJournal() {
+    if (unitsJournal.getRecordCount() <= 2 * unitRecordCount + 1000) {
+      return;
     }
-    // remove nodes for library/unit pairs
-    Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
-    if (libraryToUnits != null) {
-      List<Source> libraries = Lists.newArrayList(libraryToUnits.keySet());
-      for (Source source : libraries) {
-        if (container == null || container.contains(source)) {
-          removeSource(context, source);
+    unitsJournal.compact(new IndexJournal.RecordWriter() {
+      @Override
+      public void writeRecords(IndexJournal journal, DataOutputStream stream) throws IOException {
+        for (Entry<Integer, Map<Integer, String[]>> contextEntry : contextToUnitRecords.entrySet()) {
+          int contextId = contextEntry.getKey();
+          for (Entry<Integer, String[]> entry : contextEntry.getValue().entrySet()) {
+            writeUnitRecord(stream, ADD_RECORD, contextId, entry.getKey(), entry.getValue());
+            journal.recordWritten();
+          }
         }
       }
+    });
+  }
+
+  /**
+   * Returns the node with the given name, or {@code null} if there is no such node. The caller
+   * must hold the read lock of {@link #nodeLock}.
+   */
+  private IndexNode getNode(String name) {
+    synchronized (pendingNodes) {
+      if (pendingNodes.containsKey(name)) {
+        return pendingNodes.get(name);
+      }
+    }
+    return nodeManager.getNode(name);
+  }
+
+  /**
+   * Returns the name of the node for the given library/unit pair, where the library is
+   * {@code null} for an HTML unit.
+   */
+  private String getNodeName(Source library, Source unit) {
+    int unitNameIndex = stringCodec.encode(unit.getFullName());
+    if (library == null) {
+      return unitNameIndex + ".index";
     }
+    int libraryNameIndex = stringCodec.encode(library.getFullName());
+    return libraryNameIndex + "_" + unitNameIndex + ".index";
   }
 
   private Location[] getRelationshipsUniverse(Relationship relationship) {
-    List<Location> locations = Lists.newArrayList();
-    for (Entry<Integer, Map<Integer, Map<Relationship, List<LocationData>>>> contextEntry : contextNodeRelations.entrySet()) {
-      int contextId = contextEntry.getKey();
-      AnalysisContext context = contextCodec.decode(contextId);
-      if (context != null) {
-        for (Map<Relationship, List<LocationData>> nodeRelations : contextEntry.getValue().values()) {
-          List<LocationData> nodeLocations = nodeRelations.get(relationship);
-          if (nodeLocations != null) {
-            for (LocationData locationData : nodeLocations) {
-              Location location = locationData.getLocation(context, elementCodec);
-              if (location != null) {
-                locations.add(location);
+    // copy the location data, which is never changed once recorded
+    List<AnalysisContext> contexts = Lists.newArrayList();
+    List<LocationData> locationDatas = Lists.newArrayList();
+    lock.readLock().lock();
+    try {
+      for (Entry<Integer, Map<Integer, Map<Relationship, List<LocationData>>>> contextEntry : contextNodeRelations.entrySet()) {
+        int contextId = contextEntry.getKey();
+        AnalysisContext context = contextCodec.decode(contextId);
+        if (context != null) {
+          for (Map<Relationship, List<LocationData>> nodeRelations : contextEntry.getValue().values()) {
+            List<LocationData> nodeLocations = nodeRelations.get(relationship);
+            if (nodeLocations != null) {
+              for (LocationData locationData : nodeLocations) {
+                contexts.add(context);
+                locationDatas.add(locationData);
               }
             }
           }
         }
       }
+    } finally {
+      lock.readLock().unlock();
+    }
+    // decode the locations without holding the lock
+    List<Location> locations = Lists.newArrayList();
+    for (int i = 0; i < locationDatas.size(); i++) {
+      Location location = locationDatas.get(i).getLocation(contexts.get(i), elementCodec);
+      if (location != null) {
+        locations.add(location);
+      }
     }
     return locations.toArray(new Location[locations.size()]);
   }
 
+  /**
+   * Acquires the write lock, and then removes the {@link #staleNodeNames} found by readers.
+   */
+  private void lockForWrite() {
+    lock.writeLock().lock();
+    Long pair;
+    while ((pair = staleNodeNames.poll()) != null) {
+      removeNodeNameForElement((int) (pair >> 32), (int) pair.longValue());
+    }
+  }
+
+  /**
+   * Puts the given node, which must not be changed after this.
+   */
+  private void putNode(String name, IndexNode node) {
+    synchronized (pendingNodes) {
+      pendingNodes.put(name, node);
+    }
+    applyPendingNodes();
+  }
+
   private void recordLibraryWithUnit(AnalysisContext context, Source library, Source unit) {
     Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
     if (libraryToUnits == null) {
@@ -373,7 +874,9 @@ public class SplitIndexStoreImpl implements IndexStore {
 
   private void recordNodeNameForElement(Element element) {
     int elementId = elementCodec.encodeHash(element);
-    elementToNodeNames.add(elementId, currentNodeNameId);
+    if (addNodeNameForElement(elementId, currentNodeNameId)) {
+      writeElementToNodeNamesRecord(ADD_RECORD, elementId, currentNodeNameId);
+    }
   }
 
   private void recordRelationshipUniverse(Relationship relationship, Location location) {
@@ -413,22 +916,71 @@ public class SplitIndexStoreImpl implements IndexStore {
     libraries.add(library);
   }
 
+  /**
+   * Records the library/unit pair of the current node, if the pairs are persisted.
+   */
+  private void recordUnitRecord(Source library, Source unit) {
+    if (unitsJournal == null) {
+      return;
+    }
+    String[] encodings = {library != null ? library.getEncoding() : null, unit.getEncoding()};
+    if (addUnitRecord(currentContextId, currentNodeNameId, encodings)) {
+      writeUnitsRecord(ADD_RECORD, currentContextId, currentNodeNameId, encodings);
+    }
+  }
+
   /**
    * Removes locations recorded in the given library/unit pair.
    */
   private void removeLocations(AnalysisContext context, Source library, Source unit) {
     // remove node
-    String libraryName = library != null ? library.getFullName() : null;
-    String unitName = unit.getFullName();
-    int libraryNameIndex = stringCodec.encode(libraryName);
-    int unitNameIndex = stringCodec.encode(unitName);
-    String nodeName = libraryNameIndex + "_" + unitNameIndex + ".index";
-    nodeManager.removeNode(nodeName);
+    String nodeName = getNodeName(library, unit);
+    int nodeNameId = stringCodec.encode(nodeName);
+    removeNode(nodeName);
+    removedNodeNameIds.add(nodeNameId);
+    if (unitsJournal != null) {
+      int contextId = contextCodec.encode(context);
+      if (removeUnitRecord(contextId, nodeNameId)) {
+        writeUnitsRecord(REMOVE_RECORD, contextId, nodeNameId, null);
+      }
+    }
     // remove source
     sources.remove(library);
     sources.remove(unit);
   }
 
+  private void removeNode(String name) {
+    synchronized (pendingNodes) {
+      pendingNodes.put(name, null);
+    }
+    applyPendingNodes();
+  }
+
+  /**
+   * Removes the given node name from the names associated with the given element, because the
+   * node no longer exists.
+   */
+  private void removeNodeNameForElement(int elementId, int nodeNameId) {
+    if (elementToNodeNames.remove(elementId, nodeNameId)) {
+      elementToNodeNamesCount--;
+      writeElementToNodeNamesRecord(REMOVE_RECORD, elementId, nodeNameId);
+    }
+  }
+
+  /**
+   * Removes the library/unit pair of the node with the given name.
+   * 
+   * @return {@code true} if the pair was known
+   */
+  private boolean removeUnitRecord(int contextId, int nodeNameId) {
+    Map<Integer, String[]> unitRecords = contextToUnitRecords.get(contextId);
+    if (unitRecords == null || unitRecords.remove(nodeNameId) == null) {
+      return false;
+    }
+    unitRecordCount--;
+    return true;
+  }
+
   /**
    * When logging is on, {@link AnalysisEngine} actually creates
    * {@link InstrumentedAnalysisContextImpl}, which wraps {@link AnalysisContextImpl} used to create
@@ -441,4 +993,84 @@ public class SplitIndexStoreImpl implements IndexStore {
     }
     return context;
   }
+
+  /**
+   * Writes a record of the given kind to {@link #elementToNodeNamesJournal}, if there is one.
+   */
+  private void writeElementToNodeNamesRecord(byte kind, int elementId, int nodeNameId) {
+    if (elementToNodeNamesJournal == null) {
+      return;
+    }
+    DataOutputStream stream = elementToNodeNamesJournal.beginRecord();
+    if (stream != null) {
+      try {
+        stream.writeByte(kind);
+        stream.writeInt(elementId);
+        stream.writeInt(nodeNameId);
+      } catch (IOException exception) {
+        elementToNodeNamesJournal.writeFailed(exception);
+      }
+    }
+  }
+
+  /**
+   * Writes a library/unit pair record of the given kind to the given stream.
+   */
+  /**
+   * Puts the {@link #pendingNodes} into the {@link NodeManager}. The caller must hold the write
+   * lock of {@link #nodeLock}.
+   */
+  private void writePendingNodes() {
+    Map<String, IndexNode> nodes;
+    synchronized (pendingNodes) {
+      nodes = Maps.newHashMap(pendingNodes);
+    }
+    for (Entry<String, IndexNode> entry : nodes.entrySet()) {
+      if (entry.getValue() != null) {
+        nodeManager.putNode(entry.getKey(), entry.getValue());
+      } else {
+        nodeManager.removeNode(entry.getKey());
+      }
+    }
+    // keep the nodes that have been put or removed again in the meantime
+    synchronized (pendingNodes) {
+      for (Entry<String, IndexNode> entry : nodes.entrySet()) {
+        String name = entry.getKey();
+        if (pendingNodes.containsKey(name) && pendingNodes.get(name) == entry.getValue()) {
+          pendingNodes.remove(name);
+        }
+      }
+    }
+  }
+
+  private void writeUnitRecord(DataOutputStream stream, byte kind, int contextId, int nodeNameId,
+      String[] encodings) throws IOException {
+    stream.writeByte(kind);
+    stream.writeInt(contextId);
+    stream.writeInt(nodeNameId);
+    if (kind == ADD_RECORD) {
+      stream.writeBoolean(encodings[0] != null);
+      if (encodings[0] != null) {
+        stream.writeUTF(encodings[0]);
+      }
+      stream.writeUTF(encodings[1]);
+    }
+  }
+
+  /**
+   * Writes a library/unit pair record of the given kind to {@link #unitsJournal}, if there is one.
+   */
+  private void writeUnitsRecord(byte kind, int contextId, int nodeNameId, String[] encodings) {
+    if (unitsJournal == null) {
+      return;
+    }
+    DataOutputStream stream = unitsJournal.beginRecord();
+    if (stream != null) {
+      try {
+        writeUnitRecord(stream, kind, contextId, nodeNameId, encodings);
+      } catch (IOException exception) {
+        unitsJournal.writeFailed(exception);
+      }
+    }
+  }
 }
@@ -17,11 +17,15 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 /**
- * A helper that encodes/decodes {@link String}s from/to integers.
+ * A helper that encodes/decodes {@link String}s from/to integers. It may be used by several threads
+ * at once.
  * 
  * @coverage dart.engine.index
  */
@@ -36,28 +40,96 @@ public class StringCodec {
    */
   private final List<String> indexToName = Lists.newArrayList();
 
+  /**
+   * The journal to which new strings are written, or {@code null} if the strings are not persisted.
+   */
+  private final IndexJournal journal;
+
+  /**
+   * Initializes a codec that keeps its strings only in memory.
+   */
+  public StringCodec() {
+    journal = null;
+  }
+
+  /**
+   * Initializes a codec that restores its strings from the given journal and writes new strings to
+   * it, so that indices remain the same across sessions.
+   * 
+   * @throws IOException if the journal cannot be read
+   */
+  public StringCodec(IndexJournal journal) throws IOException {
+    this.journal = journal;
+    journal.replay(new IndexJournal.RecordReader() {
+      @Override
+      public void readRecord(DataInputStream stream) throws IOException {
+        String name = stream.readBoolean() ? stream.readUTF() : null;
+        nameToIndex.put(name, indexToName.size());
+        indexToName.add(name);
+      }
+    });
+  }
+
+  /**
+   * Closes the journal, if there is one, writing any new strings to it.
+   */
+  public void close() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
   /**
    * Returns the {@link String} that corresponds to the given index.
    */
-  public String decode(int index) {
+  public synchronized String decode(int index) {
     return indexToName.get(index);
   }
 
   /**
    * Returns an unique index for the given {@link String}.
    */
-  public int encode(String name) {
+  public synchronized int encode(String name) {
     Integer index = nameToIndex.get(name);
     if (index == null) {
       index = indexToName.size();
       nameToIndex.put(name, index);
       indexToName.add(name);
+      if (journal != null) {
+        DataOutputStream stream = journal.beginRecord();
+        if (stream != null) {
+          try {
+            stream.writeBoolean(name != null);
+            if (name != null) {
+              stream.writeUTF(name);
+            }
+          } catch (IOException exception) {
+            journal.writeFailed(exception);
+          }
+        }
+      }
     }
     return index;
   }
 
+  /**
+   * Writes any new strings to the journal, if there is one.
+   */
+  public void flush() {
+    if (journal != null) {
+      journal.flush();
+    }
+  }
+
   @VisibleForTesting
   public Map<String, Integer> getNameToIndex() {
     return nameToIndex;
   }
+
+  /**
+   * Returns {@code true} if the given index has been given to a {@link String}.
+   */
+  public synchronized boolean hasIndex(int index) {
+    return index >= 0 && index < indexToName.size();
+  }
 }
@@ -67,10 +67,8 @@ public class GetRelationshipsOperation implements IndexOperation {
 
   @Override
   public void performOperation() {
-    Location[] locations;
-    synchronized (indexStore) {
-      locations = indexStore.getRelationships(element, relationship);
-    }
+    // the store synchronizes queries itself, see IndexStore.getRelationships()
+    Location[] locations = indexStore.getRelationships(element, relationship);
     callback.hasRelationships(element, relationship, locations);
   }
 
@@ -92,20 +92,24 @@ public class IndexHtmlUnitOperation implements IndexOperation {
 
   @Override
   public void performOperation() {
-    synchronized (indexStore) {
-      try {
+    try {
+      // visit the unit without holding the lock, so that several units can be visited at once
+      RecordingIndexStore recordingStore = new RecordingIndexStore();
+      AngularHtmlIndexContributor contributor = new AngularHtmlIndexContributor(recordingStore);
+      unit.accept(contributor);
+      // update the index store
+      synchronized (indexStore) {
         boolean mayIndex = indexStore.aboutToIndexHtml(context, htmlElement);
         if (!mayIndex) {
           return;
         }
-        AngularHtmlIndexContributor contributor = new AngularHtmlIndexContributor(indexStore);
-        unit.accept(contributor);
+        recordingStore.replay(indexStore);
         indexStore.doneIndex();
-      } catch (Throwable exception) {
-        AnalysisEngine.getInstance().getLogger().logError(
-            "Could not index " + unit.getElement().getLocation(),
-            exception);
       }
+    } catch (Throwable exception) {
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Could not index " + unit.getElement().getLocation(),
+          exception);
     }
   }
 
@@ -93,20 +93,24 @@ public class IndexUnitOperation implements IndexOperation {
 
   @Override
   public void performOperation() {
-    synchronized (indexStore) {
-      try {
+    try {
+      // visit the unit without holding the lock, so that several units can be visited at once
+      RecordingIndexStore recordingStore = new RecordingIndexStore();
+      unit.accept(new IndexContributor(recordingStore));
+      unit.accept(new AngularDartIndexContributor(recordingStore));
+      // update the index store
+      synchronized (indexStore) {
         boolean mayIndex = indexStore.aboutToIndexDart(context, unitElement);
         if (!mayIndex) {
           return;
         }
-        unit.accept(new IndexContributor(indexStore));
-        unit.accept(new AngularDartIndexContributor(indexStore));
+        recordingStore.replay(indexStore);
         indexStore.doneIndex();
-      } catch (Throwable exception) {
-        AnalysisEngine.getInstance().getLogger().logError(
-            "Could not index " + unit.getElement().getLocation(),
-            exception);
       }
+    } catch (Throwable exception) {
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Could not index " + unit.getElement().getLocation(),
+          exception);
     }
   }
 
@@ -24,7 +24,8 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Instances of the {@link OperationProcessor} process the operations on a single
- * {@link OperationQueue operation queue}. Each processor can be run one time on a single thread.
+ * {@link OperationQueue operation queue}. Each processor can be run one time on a single thread,
+ * and uses that thread and, if requested, additional worker threads to perform operations.
  * 
  * @coverage dart.engine.index
  */
@@ -56,11 +57,36 @@ public class OperationProcessor {
     STOPPED;
   }
 
+  /**
+   * A {@link Thread} that performs operations in addition to the thread that runs the processor.
+   */
+  private class WorkerThread extends Thread {
+    public WorkerThread(int index) {
+      super("Index worker " + index);
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      processOperations();
+    }
+  }
+
   /**
    * The queue containing the operations to be processed.
    */
   private OperationQueue queue;
 
+  /**
+   * The number of threads that perform operations.
+   */
+  private final int workerCount;
+
+  /**
+   * The number of threads that are still performing operations.
+   */
+  private int runningWorkerCount = 0;
+
   /**
    * The current state of the processor.
    */
@@ -78,7 +104,20 @@ public class OperationProcessor {
    * @param queue the queue containing the operations to be processed
    */
   public OperationProcessor(OperationQueue queue) {
+    this(queue, 1);
+  }
+
+  /**
+   * Initialize a newly created operation processor to process the operations on the given queue
+   * using the given number of threads.
+   * 
+   * @param queue the queue containing the operations to be processed
+   * @param workerCount the number of threads used to perform operations, including the thread
+   *          that runs the processor
+   */
+  public OperationProcessor(OperationQueue queue, int workerCount) {
     this.queue = queue;
+    this.workerCount = Math.max(workerCount, 1);
   }
 
   /**
@@ -95,31 +134,12 @@ public class OperationProcessor {
       }
       // OK, run.
       state = ProcessorState.RUNNING;
+      runningWorkerCount = workerCount;
     }
-    try {
-      while (isRunning()) {
-        // wait for operation
-        IndexOperation operation = null;
-        try {
-          operation = queue.dequeue(WAIT_DURATION);
-        } catch (InterruptedException exception) {
-          // ignore
-        }
-        // perform operation
-        if (operation != null) {
-          try {
-            operation.performOperation();
-          } catch (Throwable exception) {
-            AnalysisEngine.getInstance().getLogger().logError(
-                "Exception in indexing operation: " + operation, exception); //$NON-NLS-1$
-          }
-        }
-      }
-    } finally {
-      synchronized (this) {
-        state = ProcessorState.STOPPED;
-      }
+    for (int i = 1; i < workerCount; i++) {
+      new WorkerThread(i).start();
     }
+    processOperations();
   }
 
   /**
@@ -192,6 +212,42 @@ public class OperationProcessor {
     }
   }
 
+  /**
+   * Perform operations until this processor is stopped. The processor is stopped when the last
+   * thread performing operations returns from this method.
+   */
+  private void processOperations() {
+    try {
+      while (isRunning()) {
+        // wait for operation
+        IndexOperation operation = null;
+        try {
+          operation = queue.dequeue(WAIT_DURATION);
+        } catch (InterruptedException exception) {
+          // ignore
+        }
+        // perform operation
+        if (operation != null) {
+          try {
+            operation.performOperation();
+          } catch (Throwable exception) {
+            AnalysisEngine.getInstance().getLogger().logError(
+                "Exception in indexing operation: " + operation, exception); //$NON-NLS-1$
+          } finally {
+            queue.operationDone(operation);
+          }
+        }
+      }
+    } finally {
+      synchronized (this) {
+        runningWorkerCount--;
+        if (runningWorkerCount == 0) {
+          state = ProcessorState.STOPPED;
+        }
+      }
+    }
+  }
+
   private void threadYield() {
     Thread.yield();
   }
@@ -14,16 +14,25 @@
 package com.google.dart.engine.internal.index.operation;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.utilities.translation.DartOmit;
 
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Instances of the {@link OperationQueue} represent a queue of operations against the index that
  * are waiting to be performed.
+ * <p>
+ * Operations can be performed by several processors at the same time. Operations that index a
+ * source are only returned while no other operation on the same source is being performed, and all
+ * other non-query operations are only returned when no other non-query operation is being
+ * performed, so the effect is the same as if the operations were performed one at a time. Every
+ * operation returned by {@link #dequeue(long)} must be reported to
+ * {@link #operationDone(IndexOperation)} once it has been performed.
  * 
  * @coverage dart.engine.index
  */
@@ -39,6 +48,30 @@ public class OperationQueue {
    */
   private final LinkedList<IndexOperation> queryOperations = Lists.newLinkedList();
 
+  /**
+   * The sources that are being indexed by operations that have been returned by
+   * {@link #dequeue(long)} but are not yet done.
+   */
+  private final Set<Source> sourcesInProgress = Sets.newHashSet();
+
+  /**
+   * The number of non-query operations that have been returned by {@link #dequeue(long)} but are
+   * not yet done.
+   */
+  private int nonQueryOperationsInProgress = 0;
+
+  /**
+   * The number of query operations that have been returned by {@link #dequeue(long)} but are not
+   * yet done.
+   */
+  private int queryOperationsInProgress = 0;
+
+  /**
+   * {@code true} if a non-query operation that does not index a single source is being performed,
+   * in which case no other non-query operation can be returned by {@link #dequeue(long)}.
+   */
+  private boolean exclusiveOperationInProgress = false;
+
   /**
    * {@code true} if query operations should be returned by {@link #dequeue(long)} or {code false}
    * if not.
@@ -62,7 +95,8 @@ public class OperationQueue {
    * queue is empty, then {@code null} will be returned. If this queue is not empty, then the first
    * operation will be removed and returned.
    * <p>
-   * Note that {@code null} can be returned, even if a positive timeout is given.
+   * Note that {@code null} can be returned, even if a positive timeout is given. Operations that
+   * cannot be performed until other operations are done are not considered to be available.
    * <p>
    * Note too that this method's timeout is not treated the same way as the timeout value used for
    * {@link Object#wait(long)}. In particular, it is not possible to cause this method to wait for
@@ -76,19 +110,12 @@ public class OperationQueue {
    */
   public IndexOperation dequeue(long timeout) throws InterruptedException {
     synchronized (nonQueryOperations) {
-      if (nonQueryOperations.isEmpty() && (!processQueries || queryOperations.isEmpty())) {
-        if (timeout <= 0L) {
-          return null;
-        }
+      IndexOperation operation = takeAvailableOperation();
+      if (operation == null && timeout > 0L) {
         waitForOperationAvailable(timeout);
+        operation = takeAvailableOperation();
       }
-      if (!nonQueryOperations.isEmpty()) {
-        return nonQueryOperations.removeFirst();
-      }
-      if (processQueries && !queryOperations.isEmpty()) {
-        return queryOperations.removeFirst();
-      }
-      return null;
+      return operation;
     }
   }
 
@@ -132,6 +159,29 @@ public class OperationQueue {
     return operations;
   }
 
+  /**
+   * Record that the given operation, which was returned by {@link #dequeue(long)}, has been
+   * performed, so that operations waiting for it can be returned.
+   * 
+   * @param operation the operation that has been performed
+   */
+  public void operationDone(IndexOperation operation) {
+    synchronized (nonQueryOperations) {
+      if (operation.isQuery()) {
+        queryOperationsInProgress--;
+      } else {
+        nonQueryOperationsInProgress--;
+        Source source = getIndexedSource(operation);
+        if (source != null) {
+          sourcesInProgress.remove(source);
+        } else {
+          exclusiveOperationInProgress = false;
+        }
+        notifyOperationAvailable();
+      }
+    }
+  }
+
   /**
    * Set whether the receiver's {@link #dequeue(long)} method should return query operations.
    * 
@@ -152,14 +202,30 @@ public class OperationQueue {
   }
 
   /**
-   * Return the number of operations on the queue.
+   * Return the number of operations on the queue, including the operations that have been
+   * returned by {@link #dequeue(long)} but are not yet done.
    * 
    * @return the number of operations on the queue
    */
   public int size() {
     synchronized (nonQueryOperations) {
-      return nonQueryOperations.size() + queryOperations.size();
+      return nonQueryOperations.size() + queryOperations.size() + nonQueryOperationsInProgress
+          + queryOperationsInProgress;
+    }
+  }
+
+  /**
+   * Return the source indexed by the given operation, or {@code null} if the given operation does
+   * not index a single source.
+   */
+  private Source getIndexedSource(IndexOperation operation) {
+    if (operation instanceof IndexUnitOperation) {
+      return ((IndexUnitOperation) operation).getSource();
     }
+    if (operation instanceof IndexHtmlUnitOperation) {
+      return ((IndexHtmlUnitOperation) operation).getSource();
+    }
+    return null;
   }
 
   private void notifyOperationAvailable() {
@@ -178,6 +244,40 @@ public class OperationQueue {
     }
   }
 
+  /**
+   * Remove and return the first operation that can be performed now, or {@code null} if there is
+   * no such operation. Non-query operations are returned before query operations, and a non-query
+   * operation is never returned before an earlier operation that it could conflict with.
+   */
+  private IndexOperation takeAvailableOperation() {
+    if (!exclusiveOperationInProgress) {
+      for (Iterator<IndexOperation> iter = nonQueryOperations.iterator(); iter.hasNext();) {
+        IndexOperation operation = iter.next();
+        Source source = getIndexedSource(operation);
+        if (source == null) {
+          // exclusive operations wait for all of the earlier operations to be done
+          if (nonQueryOperationsInProgress == 0) {
+            iter.remove();
+            nonQueryOperationsInProgress++;
+            exclusiveOperationInProgress = true;
+            return operation;
+          }
+          break;
+        }
+        if (sourcesInProgress.add(source)) {
+          iter.remove();
+          nonQueryOperationsInProgress++;
+          return operation;
+        }
+      }
+    }
+    if (processQueries && !queryOperations.isEmpty()) {
+      queryOperationsInProgress++;
+      return queryOperations.removeFirst();
+    }
+    return null;
+  }
+
   private void waitForOperationAvailable(long timeout) throws InterruptedException {
     nonQueryOperations.wait(timeout);
   }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.operation;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.HtmlElement;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.translation.DartOmit;
+
+import java.util.List;
+
+/**
+ * Instances of the class {@code RecordingIndexStore} collect the relationships reported by index
+ * contributors so that a unit can be visited without holding the lock of the real
+ * {@link IndexStore}. The collected relationships are then added to the real store, while holding
+ * its lock, using {@link #replay(IndexStore)}.
+ * <p>
+ * This store only keeps the collected relationships, in the order in which they were recorded.
+ * It is not thread-safe, each unit is visited into its own store.
+ * 
+ * @coverage dart.engine.index
+ */
+@DartOmit
+public class RecordingIndexStore implements IndexStore {
+  /**
+   * The elements of the recorded relationships.
+   */
+  private final List<Element> elements = Lists.newArrayList();
+
+  /**
+   * The relationships that were recorded, parallel to {@link #elements}.
+   */
+  private final List<Relationship> relationships = Lists.newArrayList();
+
+  /**
+   * The locations of the recorded relationships, parallel to {@link #elements}.
+   */
+  private final List<Location> locations = Lists.newArrayList();
+
+  @Override
+  public boolean aboutToIndexDart(AnalysisContext context, CompilationUnitElement unitElement) {
+    return !context.isDisposed();
+  }
+
+  @Override
+  public boolean aboutToIndexHtml(AnalysisContext context, HtmlElement htmlElement) {
+    return !context.isDisposed();
+  }
+
+  @Override
+  public void bindContext(AnalysisContext context, String key) {
+  }
+
+  @Override
+  public void clear() {
+    elements.clear();
+    relationships.clear();
+    locations.clear();
+  }
+
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public void doneIndex() {
+  }
+
+  @Override
+  public Location[] getRelationships(Element element, Relationship relationship) {
+    List<Location> result = Lists.newArrayList();
+    int count = relationships.size();
+    for (int i = 0; i < count; i++) {
+      if (relationships.get(i) == relationship && Objects.equal(elements.get(i), element)) {
+        result.add(locations.get(i));
+      }
+    }
+    return result.toArray(new Location[result.size()]);
+  }
+
+  @Override
+  public String getStatistics() {
+    return relationships.size() + " relationships";
+  }
+
+  @Override
+  public void recordRelationship(Element element, Relationship relationship, Location location) {
+    elements.add(element);
+    relationships.add(relationship);
+    locations.add(location);
+  }
+
+  @Override
+  public void removeContext(AnalysisContext context) {
+    removeSources(context, null);
+  }
+
+  @Override
+  public void removeSource(AnalysisContext context, final Source source) {
+    removeSources(context, new SourceContainer() {
+      @Override
+      public boolean contains(Source containedSource) {
+        return source.equals(containedSource);
+      }
+    });
+  }
+
+  @Override
+  public void removeSources(AnalysisContext context, SourceContainer container) {
+    for (int i = relationships.size() - 1; i >= 0; i--) {
+      if (isInSources(elements.get(i), context, container)
+          || isInSources(locations.get(i).getElement(), context, container)) {
+        elements.remove(i);
+        relationships.remove(i);
+        locations.remove(i);
+      }
+    }
+  }
+
+  /**
+   * Record all of the collected relationships in the given store, in the order in which they were
+   * collected.
+   * 
+   * @param store the store in which the relationships are to be recorded
+   */
+  public void replay(IndexStore store) {
+    int count = relationships.size();
+    for (int i = 0; i < count; i++) {
+      store.recordRelationship(elements.get(i), relationships.get(i), locations.get(i));
+    }
+  }
+
+  /**
+   * Return {@code true} if the given element is in the given context and in one of the sources of
+   * the given container, or in any source if the container is {@code null}.
+   */
+  private boolean isInSources(Element element, AnalysisContext context, SourceContainer container) {
+    if (element == null || element.getContext() != context) {
+      return false;
+    }
+    Source source = element.getSource();
+    return source != null && (container == null || container.contains(source));
+  }
+}
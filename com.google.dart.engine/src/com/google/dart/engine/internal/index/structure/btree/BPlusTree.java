@@ -29,6 +29,17 @@ import java.util.List;
  * @coverage dart.engine.index.structure
  */
 public class BPlusTree<K, V, N> {
+  /**
+   * The interface [EntryVisitor] defines the behavior of objects that are notified about the
+   * entries of a key range in ascending order of keys.
+   */
+  public interface EntryVisitor<K, V> {
+    /**
+     * Visits the given entry. Returns `false` if no more entries should be visited.
+     */
+    boolean visit(K key, V value);
+  }
+
   /**
    * An internal node with keys and children references.
    */
@@ -193,6 +204,22 @@ public class BPlusTree<K, V, N> {
       return new Remove(value);
     }
 
+    @Override
+    boolean visitRange(K from, K to, EntryVisitor<K, V> visitor) {
+      int index = from != null ? findChildIndex(from) : 0;
+      for (int i = index; i < children.size(); i++) {
+        // all keys of the child are greater than or equal to the key before it
+        if (i > index && to != null && comparator.compare(keys.get(i - 1), to) >= 0) {
+          return true;
+        }
+        Node child = readNode(children.get(i));
+        if (!child.visitRange(from, to, visitor)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
     @Override
     void writeOn(StringBuilder buffer, String indent) {
       buffer.append(indent);
@@ -362,6 +389,21 @@ public class BPlusTree<K, V, N> {
       return new Remove(value);
     }
 
+    @Override
+    boolean visitRange(K from, K to, EntryVisitor<K, V> visitor) {
+      int index = from != null ? findKeyIndex(from) : 0;
+      for (int i = index; i < keys.size(); i++) {
+        K key = keys.get(i);
+        if (to != null && comparator.compare(key, to) >= 0) {
+          return false;
+        }
+        if (!visitor.visit(key, values.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
     @Override
     void writeOn(StringBuilder buffer, String indent) {
       buffer.append(indent);
@@ -443,6 +485,12 @@ public class BPlusTree<K, V, N> {
      */
     abstract Remove remove(K key, Node left, K anchor, Node right);
 
+    /**
+     * Visits the entries of this [Node] with keys in the range [from] (inclusive) to [to]
+     * (exclusive). Returns `false` if the visiting should stop.
+     */
+    abstract boolean visitRange(K from, K to, EntryVisitor<K, V> visitor);
+
     /**
      * Writes a textual presentation of the tree into [buffer].
      */
@@ -537,6 +585,18 @@ public class BPlusTree<K, V, N> {
     writeLeafNode((LeafNode) root);
   }
 
+  /**
+   * Opens an existing [BPlusTree] with the root node [rootId], for example one that was stored
+   * using a [PageNodeManager].
+   */
+  public BPlusTree(Comparator<K> comparator, NodeManager<K, V, N> manager, N rootId) {
+    this.comparator = comparator;
+    this.manager = manager;
+    this.maxInternalKeys = manager.getMaxInternalKeys();
+    this.maxLeafKeys = manager.getMaxLeafKeys();
+    root = readNode(rootId);
+  }
+
   /**
    * Returns the value for [key] or `null` if [key] is not in the
    */
@@ -544,6 +604,13 @@ public class BPlusTree<K, V, N> {
     return root.find(key);
   }
 
+  /**
+   * Returns the identifier of the root node, which should be recorded to open this tree again.
+   */
+  public N getRootId() {
+    return root.id;
+  }
+
   /**
    * Associates the [key] with the given [value]. If the key was already in the tree, its associated
    * value is changed. Otherwise the key-value pair is added to the
@@ -577,6 +644,14 @@ public class BPlusTree<K, V, N> {
     return result.value;
   }
 
+  /**
+   * Visits the entries with keys in the range [from] (inclusive) to [to] (exclusive) in ascending
+   * order of keys. A `null` bound means that the range is not bounded on that side.
+   */
+  public void visitRange(K from, K to, EntryVisitor<K, V> visitor) {
+    root.visitRange(from, to, visitor);
+  }
+
   /**
    * Writes a textual presentation of the tree into [buffer].
    */
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import com.google.common.collect.Sets;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A [PageManager] that keeps a bounded number of recently used pages of another [PageManager] in
+ * memory. Written pages are kept in memory until they are evicted or [flush] is invoked.
+ * 
+ * @coverage dart.engine.index.structure
+ */
+public class CachingPageManager implements PageManager {
+  private final PageManager delegate;
+  private final int maxPages;
+  private final Map<Integer, ByteBuffer> pages;
+  private final Set<Integer> dirtyPages = Sets.newHashSet();
+
+  /**
+   * Creates a new [CachingPageManager] that keeps at most [maxPages] pages of [delegate] in memory.
+   */
+  @SuppressWarnings("serial")
+  public CachingPageManager(PageManager delegate, int maxPages) {
+    this.delegate = delegate;
+    this.maxPages = maxPages;
+    this.pages = new LinkedHashMap<Integer, ByteBuffer>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest) {
+        if (size() > CachingPageManager.this.maxPages) {
+          Integer id = eldest.getKey();
+          if (dirtyPages.remove(id)) {
+            CachingPageManager.this.delegate.write(id, eldest.getValue());
+          }
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  @Override
+  public int alloc() {
+    return delegate.alloc();
+  }
+
+  /**
+   * Forgets all the pages in memory, including the modified ones. This should be done when the
+   * pages of the underlying [PageManager] are cleared.
+   */
+  public void clear() {
+    pages.clear();
+    dirtyPages.clear();
+  }
+
+  /**
+   * Writes all the modified pages to the underlying [PageManager].
+   */
+  public void flush() {
+    for (Integer id : dirtyPages) {
+      delegate.write(id, pages.get(id));
+    }
+    dirtyPages.clear();
+  }
+
+  @Override
+  public void free(int id) {
+    pages.remove(id);
+    dirtyPages.remove(id);
+    delegate.free(id);
+  }
+
+  @Override
+  public int getPageSizeInBytes() {
+    return delegate.getPageSizeInBytes();
+  }
+
+  @Override
+  public ByteBuffer read(int id) {
+    ByteBuffer page = pages.get(id);
+    if (page == null) {
+      page = delegate.read(id);
+      pages.put(id, page);
+    }
+    return page;
+  }
+
+  @Override
+  public void write(int id, ByteBuffer page) {
+    pages.put(id, page);
+    dirtyPages.add(id);
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A [PageManager] that keeps pages in a file.
+ * <p>
+ * The first page of the file is a header that records the page size, the number of pages, the
+ * head of the list of free pages and the root page of the structure stored in the file. Freed
+ * pages are linked through their first four bytes, so the heap used by this manager does not
+ * depend on the size of the file.
+ * <p>
+ * Failures to access the file are reported as [IllegalStateException]s.
+ * 
+ * @coverage dart.engine.index.structure
+ */
+public class FilePageManager implements PageManager {
+  /**
+   * The value written at the start of the header to identify files written by this manager.
+   */
+  private static final int MAGIC = 0x44504D31;
+
+  private static final int HEADER_MAGIC_OFFSET = 0;
+  private static final int HEADER_PAGE_SIZE_OFFSET = 4;
+  private static final int HEADER_PAGE_COUNT_OFFSET = 8;
+  private static final int HEADER_FREE_PAGE_OFFSET = 12;
+  private static final int HEADER_ROOT_PAGE_OFFSET = 16;
+  private static final int HEADER_SIZE = 20;
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final int pageSizeInBytes;
+  private int pageCount;
+  private int freePage;
+  private int rootPage;
+
+  /**
+   * Opens the pages in the given file, creating the file if it does not exist or if it was written
+   * with a different page size.
+   */
+  public FilePageManager(File file, int pageSizeInBytes) {
+    if (pageSizeInBytes < HEADER_SIZE) {
+      throw new IllegalArgumentException("Page size is too small: " + pageSizeInBytes);
+    }
+    this.pageSizeInBytes = pageSizeInBytes;
+    try {
+      this.file = new RandomAccessFile(file, "rw");
+      this.channel = this.file.getChannel();
+      if (!readHeader()) {
+        channel.truncate(0);
+        pageCount = 1;
+        freePage = 0;
+        rootPage = 0;
+        writeHeader();
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot open " + file, e);
+    }
+  }
+
+  @Override
+  public int alloc() {
+    if (freePage != 0) {
+      int id = freePage;
+      freePage = read(id).getInt(0);
+      return id;
+    }
+    return pageCount++;
+  }
+
+  /**
+   * Frees all the pages and forgets the root page.
+   */
+  public void clear() {
+    try {
+      channel.truncate(0);
+      pageCount = 1;
+      freePage = 0;
+      rootPage = 0;
+      writeHeader();
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot clear index pages", e);
+    }
+  }
+
+  /**
+   * Writes the header and closes the file.
+   */
+  public void close() {
+    flush();
+    try {
+      file.close();
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot close index pages", e);
+    }
+  }
+
+  /**
+   * Writes the header and forces all the pages to the storage device.
+   */
+  public void flush() {
+    try {
+      writeHeader();
+      channel.force(false);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot flush index pages", e);
+    }
+  }
+
+  @Override
+  public void free(int id) {
+    checkId(id);
+    ByteBuffer page = ByteBuffer.allocate(pageSizeInBytes);
+    page.putInt(0, freePage);
+    write(id, page);
+    freePage = id;
+  }
+
+  @Override
+  public int getPageSizeInBytes() {
+    return pageSizeInBytes;
+  }
+
+  /**
+   * Returns the identifier of the root page recorded using [setRootPage], or `0` if no root page
+   * has been recorded.
+   */
+  public int getRootPage() {
+    return rootPage;
+  }
+
+  @Override
+  public ByteBuffer read(int id) {
+    checkId(id);
+    ByteBuffer page = ByteBuffer.allocate(pageSizeInBytes);
+    try {
+      long position = (long) id * pageSizeInBytes;
+      while (page.hasRemaining()) {
+        int count = channel.read(page, position + page.position());
+        if (count < 0) {
+          // the page was allocated, but never written
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot read index page " + id, e);
+    }
+    page.clear();
+    return page;
+  }
+
+  /**
+   * Records the identifier of the root page of the structure stored in the file, so that it can be
+   * opened again.
+   */
+  public void setRootPage(int rootPage) {
+    this.rootPage = rootPage;
+  }
+
+  @Override
+  public void write(int id, ByteBuffer page) {
+    checkId(id);
+    ByteBuffer source = page.duplicate();
+    source.clear();
+    try {
+      long position = (long) id * pageSizeInBytes;
+      while (source.hasRemaining()) {
+        channel.write(source, position + source.position());
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot write index page " + id, e);
+    }
+  }
+
+  private void checkId(int id) {
+    if (id <= 0 || id >= pageCount) {
+      throw new IllegalArgumentException("Invalid page identifier: " + id);
+    }
+  }
+
+  /**
+   * Reads the header, returning `false` if the file does not have a valid header.
+   */
+  private boolean readHeader() throws IOException {
+    if (channel.size() < pageSizeInBytes) {
+      return false;
+    }
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        return false;
+      }
+    }
+    if (header.getInt(HEADER_MAGIC_OFFSET) != MAGIC
+        || header.getInt(HEADER_PAGE_SIZE_OFFSET) != pageSizeInBytes) {
+      return false;
+    }
+    pageCount = header.getInt(HEADER_PAGE_COUNT_OFFSET);
+    freePage = header.getInt(HEADER_FREE_PAGE_OFFSET);
+    rootPage = header.getInt(HEADER_ROOT_PAGE_OFFSET);
+    return pageCount > 0;
+  }
+
+  private void writeHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(HEADER_MAGIC_OFFSET, MAGIC);
+    header.putInt(HEADER_PAGE_SIZE_OFFSET, pageSizeInBytes);
+    header.putInt(HEADER_PAGE_COUNT_OFFSET, pageCount);
+    header.putInt(HEADER_FREE_PAGE_OFFSET, freePage);
+    header.putInt(HEADER_ROOT_PAGE_OFFSET, rootPage);
+    while (header.hasRemaining()) {
+      channel.write(header, header.position());
+    }
+    // make sure that the whole header page exists
+    if (channel.size() < pageSizeInBytes) {
+      channel.write(ByteBuffer.allocate(1), pageSizeInBytes - 1);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * [PageCodec] encodes keys or values of a [PageNodeManager] into a fixed number of bytes.
+ * 
+ * @coverage dart.engine.index.structure
+ */
+public interface PageCodec<T> {
+  /**
+   * A [PageCodec] for integers.
+   */
+  PageCodec<Integer> INT = new PageCodec<Integer>() {
+    @Override
+    public Integer decode(ByteBuffer buffer, int offset) {
+      return buffer.getInt(offset);
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer, int offset, Integer value) {
+      buffer.putInt(offset, value);
+    }
+
+    @Override
+    public int getSizeInBytes() {
+      return 4;
+    }
+  };
+
+  /**
+   * A [PageCodec] for long integers.
+   */
+  PageCodec<Long> LONG = new PageCodec<Long>() {
+    @Override
+    public Long decode(ByteBuffer buffer, int offset) {
+      return buffer.getLong(offset);
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer, int offset, Long value) {
+      buffer.putLong(offset, value);
+    }
+
+    @Override
+    public int getSizeInBytes() {
+      return 8;
+    }
+  };
+
+  /**
+   * Returns the object encoded in [buffer] at [offset].
+   */
+  T decode(ByteBuffer buffer, int offset);
+
+  /**
+   * Encodes [value] into [buffer] at [offset], using exactly [getSizeInBytes] bytes.
+   */
+  void encode(ByteBuffer buffer, int offset, T value);
+
+  /**
+   * The number of bytes used to encode a single object.
+   */
+  int getSizeInBytes();
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A [NodeManager] that stores each node in a page of a [PageManager].
+ * <p>
+ * Each page starts with the kind of the node and the number of keys, followed by the keys and then
+ * by the children or values. Keys and values are encoded using [PageCodec]s, so the maximum number
+ * of keys in a node is determined by the page size.
+ * 
+ * @coverage dart.engine.index.structure
+ */
+public class PageNodeManager<K, V> implements NodeManager<K, V, Integer> {
+  private static final int KIND_INTERNAL = 0;
+  private static final int KIND_LEAF = 1;
+  private static final int KIND_OFFSET = 0;
+  private static final int KEY_COUNT_OFFSET = 4;
+  private static final int KEYS_OFFSET = 8;
+
+  private final PageManager pageManager;
+  private final PageCodec<K> keyCodec;
+  private final PageCodec<V> valueCodec;
+  private final int maxInternalKeys;
+  private final int maxLeafKeys;
+
+  public PageNodeManager(PageManager pageManager, PageCodec<K> keyCodec, PageCodec<V> valueCodec) {
+    this.pageManager = pageManager;
+    this.keyCodec = keyCodec;
+    this.valueCodec = valueCodec;
+    int space = pageManager.getPageSizeInBytes() - KEYS_OFFSET;
+    int keySize = keyCodec.getSizeInBytes();
+    // an internal node has one more child than keys
+    maxInternalKeys = (space - 4) / (keySize + 4);
+    maxLeafKeys = space / (keySize + valueCodec.getSizeInBytes());
+    if (maxInternalKeys < 3 || maxLeafKeys < 2) {
+      throw new IllegalArgumentException("Page size is too small for the keys and values.");
+    }
+  }
+
+  @Override
+  public Integer createInternal() {
+    return createPage(KIND_INTERNAL);
+  }
+
+  @Override
+  public Integer createLeaf() {
+    return createPage(KIND_LEAF);
+  }
+
+  @Override
+  public void delete(Integer id) {
+    pageManager.free(id);
+  }
+
+  @Override
+  public int getMaxInternalKeys() {
+    return maxInternalKeys;
+  }
+
+  @Override
+  public int getMaxLeafKeys() {
+    return maxLeafKeys;
+  }
+
+  @Override
+  public boolean isInternal(Integer id) {
+    return pageManager.read(id).getInt(KIND_OFFSET) == KIND_INTERNAL;
+  }
+
+  @Override
+  public InternalNodeData<K, Integer> readInternal(Integer id) {
+    ByteBuffer page = pageManager.read(id);
+    int keyCount = page.getInt(KEY_COUNT_OFFSET);
+    List<K> keys = readKeys(page, keyCount);
+    List<Integer> children = new ArrayList<Integer>(keyCount + 1);
+    int offset = KEYS_OFFSET + keyCount * keyCodec.getSizeInBytes();
+    for (int i = 0; i <= keyCount; i++) {
+      children.add(page.getInt(offset));
+      offset += 4;
+    }
+    return new InternalNodeData<K, Integer>(keys, children);
+  }
+
+  @Override
+  public LeafNodeData<K, V> readLeaf(Integer id) {
+    ByteBuffer page = pageManager.read(id);
+    int keyCount = page.getInt(KEY_COUNT_OFFSET);
+    List<K> keys = readKeys(page, keyCount);
+    List<V> values = new ArrayList<V>(keyCount);
+    int valueSize = valueCodec.getSizeInBytes();
+    int offset = KEYS_OFFSET + keyCount * keyCodec.getSizeInBytes();
+    for (int i = 0; i < keyCount; i++) {
+      values.add(valueCodec.decode(page, offset));
+      offset += valueSize;
+    }
+    return new LeafNodeData<K, V>(keys, values);
+  }
+
+  @Override
+  public void writeInternal(Integer id, InternalNodeData<K, Integer> data) {
+    ByteBuffer page = newPage(KIND_INTERNAL);
+    int offset = writeKeys(page, data.keys);
+    for (Integer child : data.children) {
+      page.putInt(offset, child);
+      offset += 4;
+    }
+    pageManager.write(id, page);
+  }
+
+  @Override
+  public void writeLeaf(Integer id, LeafNodeData<K, V> data) {
+    ByteBuffer page = newPage(KIND_LEAF);
+    int offset = writeKeys(page, data.keys);
+    int valueSize = valueCodec.getSizeInBytes();
+    for (V value : data.values) {
+      valueCodec.encode(page, offset, value);
+      offset += valueSize;
+    }
+    pageManager.write(id, page);
+  }
+
+  /**
+   * Allocates a new page for an empty node of the given kind.
+   */
+  private int createPage(int kind) {
+    int id = pageManager.alloc();
+    pageManager.write(id, newPage(kind));
+    return id;
+  }
+
+  /**
+   * Returns a new page for a node of the given kind.
+   */
+  private ByteBuffer newPage(int kind) {
+    ByteBuffer page = ByteBuffer.allocate(pageManager.getPageSizeInBytes());
+    page.putInt(KIND_OFFSET, kind);
+    return page;
+  }
+
+  private List<K> readKeys(ByteBuffer page, int keyCount) {
+    List<K> keys = new ArrayList<K>(keyCount);
+    int keySize = keyCodec.getSizeInBytes();
+    int offset = KEYS_OFFSET;
+    for (int i = 0; i < keyCount; i++) {
+      keys.add(keyCodec.decode(page, offset));
+      offset += keySize;
+    }
+    return keys;
+  }
+
+  /**
+   * Writes the given keys and returns the offset of the first byte after them.
+   */
+  private int writeKeys(ByteBuffer page, List<K> keys) {
+    page.putInt(KEY_COUNT_OFFSET, keys.size());
+    int keySize = keyCodec.getSizeInBytes();
+    int offset = KEYS_OFFSET;
+    for (K key : keys) {
+      keyCodec.encode(page, offset, key);
+      offset += keySize;
+    }
+    return offset;
+  }
+}
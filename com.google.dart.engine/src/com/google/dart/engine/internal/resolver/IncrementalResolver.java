@@ -167,7 +167,21 @@ public class IncrementalResolver {
         typeProvider,
         scope,
         errorListener);
-    node.accept(visitor);
+    //
+    // The node is not visited from the function body containing it, so the scopes in which the
+    // body records type overrides and promotions need to be entered here.
+    //
+    visitor.getOverrideManager().enterScope();
+    try {
+      visitor.getPromoteManager().enterScope();
+      try {
+        node.accept(visitor);
+      } finally {
+        visitor.getPromoteManager().exitScope();
+      }
+    } finally {
+      visitor.getOverrideManager().exitScope();
+    }
   }
 
   private void resolveTypes(AstNode node, Scope scope) {
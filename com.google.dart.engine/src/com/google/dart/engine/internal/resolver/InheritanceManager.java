@@ -14,6 +14,7 @@
 package com.google.dart.engine.internal.resolver;
 
 import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.ExecutableElement;
 import com.google.dart.engine.element.LibraryElement;
@@ -25,6 +26,7 @@ import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.error.ErrorCode;
 import com.google.dart.engine.error.StaticTypeWarningCode;
 import com.google.dart.engine.error.StaticWarningCode;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
 import com.google.dart.engine.internal.element.ExecutableElementImpl;
 import com.google.dart.engine.internal.element.MultiplyInheritedMethodElementImpl;
 import com.google.dart.engine.internal.element.MultiplyInheritedPropertyAccessorElementImpl;
@@ -171,6 +173,24 @@ public class InheritanceManager {
     return executable;
   }
 
+  /**
+   * Return the member map cache shared by the inheritance managers in the context of the given
+   * library, or {@code null} if there is no such cache.
+   * 
+   * @param library the library whose context is to be used
+   * @return the member map cache shared within the context of the library
+   */
+  private static MemberMapCache getMemberMapCache(LibraryElement library) {
+    if (library == null) {
+      return null;
+    }
+    AnalysisContext context = library.getContext();
+    if (context instanceof InternalAnalysisContext) {
+      return ((InternalAnalysisContext) context).getMemberMapCache();
+    }
+    return null;
+  }
+
   /**
    * Given some {@link ExecutableElement}, return the list of named parameters.
    */
@@ -254,6 +274,12 @@ public class InheritanceManager {
    */
   private HashMap<ClassElement, MemberMap> interfaceLookup;
 
+  /**
+   * The cache used to share lookup maps with the other inheritance managers in the same context, or
+   * {@code null} if the maps are not being shared.
+   */
+  private MemberMapCache memberMapCache;
+
   /**
    * A map between each visited {@link ClassElement} and the set of {@link AnalysisError}s found on
    * the class element.
@@ -266,7 +292,19 @@ public class InheritanceManager {
    * @param library the library element context that the inheritance mappings are being generated
    */
   public InheritanceManager(LibraryElement library) {
+    this(library, getMemberMapCache(library));
+  }
+
+  /**
+   * Initialize a newly created inheritance manager.
+   * 
+   * @param library the library element context that the inheritance mappings are being generated
+   * @param memberMapCache the cache used to share lookup maps with other inheritance managers, or
+   *          {@code null} if the maps should not be shared
+   */
+  public InheritanceManager(LibraryElement library, MemberMapCache memberMapCache) {
     this.library = library;
+    this.memberMapCache = memberMapCache;
     classLookup = new HashMap<ClassElement, MemberMap>();
     interfaceLookup = new HashMap<ClassElement, MemberMap>();
   }
@@ -467,16 +505,22 @@ public class InheritanceManager {
     MemberMap resultMap = classLookup.get(classElt);
     if (resultMap != null) {
       return resultMap;
-    } else {
-      resultMap = new MemberMap();
     }
+    if (memberMapCache != null) {
+      resultMap = memberMapCache.getClassChainMap(classElt, library);
+      if (resultMap != null) {
+        classLookup.put(classElt, resultMap);
+        return resultMap;
+      }
+    }
+    resultMap = new MemberMap();
     ClassElement superclassElt = null;
     InterfaceType supertype = classElt.getSupertype();
     if (supertype != null) {
       superclassElt = supertype.getElement();
     } else {
       // classElt is Object
-      classLookup.put(classElt, resultMap);
+      recordClassChainLookupMap(classElt, resultMap);
       return resultMap;
     }
     if (superclassElt != null) {
@@ -553,7 +597,7 @@ public class InheritanceManager {
       }
     }
 
-    classLookup.put(classElt, resultMap);
+    recordClassChainLookupMap(classElt, resultMap);
     return resultMap;
   }
 
@@ -642,6 +686,21 @@ public class InheritanceManager {
     if (resultMap != null) {
       return resultMap;
     }
+    if (memberMapCache != null) {
+      resultMap = memberMapCache.getInterfaceMap(classElt, library);
+      if (resultMap != null) {
+        AnalysisError[] errors = memberMapCache.getInterfaceErrors(classElt, library);
+        if (errors != null) {
+          HashSet<AnalysisError> errorSet = new HashSet<AnalysisError>(errors.length);
+          for (AnalysisError error : errors) {
+            errorSet.add(error);
+          }
+          errorsInClassElement.put(classElt, errorSet);
+        }
+        interfaceLookup.put(classElt, resultMap);
+        return resultMap;
+      }
+    }
     ArrayList<MemberMap> lookupMaps = gatherInterfaceLookupMaps(classElt, visitedInterfaces);
     if (lookupMaps == null) {
       resultMap = new MemberMap();
@@ -650,6 +709,14 @@ public class InheritanceManager {
       resultMap = resolveInheritanceLookup(classElt, unionMap);
     }
     interfaceLookup.put(classElt, resultMap);
+    if (memberMapCache != null) {
+      HashSet<AnalysisError> errorSet = errorsInClassElement.get(classElt);
+      memberMapCache.putInterfaceMap(
+          classElt,
+          library,
+          resultMap,
+          errorSet == null ? null : errorSet.toArray(new AnalysisError[errorSet.size()]));
+    }
     return resultMap;
   }
 
@@ -816,6 +883,20 @@ public class InheritanceManager {
     return null;
   }
 
+  /**
+   * Record the class chain lookup map computed for the given class, sharing it with the other
+   * inheritance managers in the same context if possible.
+   * 
+   * @param classElt the class element whose map was computed
+   * @param map the map that was computed
+   */
+  private void recordClassChainLookupMap(ClassElement classElt, MemberMap map) {
+    classLookup.put(classElt, map);
+    if (memberMapCache != null) {
+      memberMapCache.putClassChainMap(classElt, library, map);
+    }
+  }
+
   /**
    * Record the passed map with the set of all members (methods, getters and setters) in the type
    * into the passed map.
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.resolver;
+
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.error.AnalysisError;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.type.InterfaceType;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+
+/**
+ * Instances of the class {@code MemberMapCache} hold the {@link MemberMap}s computed by
+ * {@link InheritanceManager}s so that they can be shared between all of the inheritance managers
+ * created within a single analysis context.
+ * <p>
+ * The members inherited by a class depend on the library from which they are being viewed only
+ * through the accessibility of private members, and a private member is only accessible within the
+ * library that declares it. Maps are therefore recorded once for each library in the supertype
+ * closure of the class, plus once for every other library. Each entry is removed as soon as any of
+ * the libraries in that closure is {@link #invalidateLibrary(Source) invalidated}, so the cache
+ * never keeps an element model that has been replaced reachable.
+ * <p>
+ * Maps returned by this cache are shared and must not be modified.
+ * 
+ * @coverage dart.engine.resolver
+ */
+public class MemberMapCache {
+  /**
+   * Instances of the class {@code ClassEntry} hold the cached information about a single class.
+   */
+  private static class ClassEntry {
+    /**
+     * The class element for which the information was computed.
+     */
+    private ClassElement element;
+
+    /**
+     * The libraries that declare the class and each of its (transitive) supertypes.
+     */
+    private LibraryElement[] libraries;
+
+    /**
+     * The sources of the libraries in {@link #libraries}.
+     */
+    private Source[] librarySources;
+
+    /**
+     * The class chain lookup maps, indexed by view (see {@link MemberMapCache#getView}).
+     */
+    private MemberMap[] classMaps;
+
+    /**
+     * The interface lookup maps, indexed by view.
+     */
+    private MemberMap[] interfaceMaps;
+
+    /**
+     * The errors found while computing the interface lookup maps, indexed by view.
+     */
+    private AnalysisError[][] interfaceErrors;
+
+    /**
+     * Initialize a newly created entry.
+     * 
+     * @param element the class element for which the information is being cached
+     * @param libraries the libraries that declare the class and its supertypes
+     * @param librarySources the sources of the given libraries
+     */
+    public ClassEntry(ClassElement element, LibraryElement[] libraries, Source[] librarySources) {
+      this.element = element;
+      this.libraries = libraries;
+      this.librarySources = librarySources;
+      int viewCount = libraries.length + 1;
+      classMaps = new MemberMap[viewCount];
+      interfaceMaps = new MemberMap[viewCount];
+      interfaceErrors = new AnalysisError[viewCount][];
+    }
+  }
+
+  /**
+   * An entry used to mark classes whose information cannot be cached, either because the class is
+   * part of a cycle in the class hierarchy or because one of the libraries in its hierarchy does
+   * not have a source.
+   */
+  private static final ClassEntry NOT_CACHEABLE = new ClassEntry(
+      null,
+      new LibraryElement[0],
+      new Source[0]);
+
+  /**
+   * A table mapping classes to the information cached for them.
+   */
+  private HashMap<ClassElement, ClassEntry> entries = new HashMap<ClassElement, ClassEntry>();
+
+  /**
+   * Initialize a newly created cache to be empty.
+   */
+  public MemberMapCache() {
+    super();
+  }
+
+  /**
+   * Remove all of the information from this cache.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Return the class chain lookup map for the given class as viewed from the given library, or
+   * {@code null} if the map has not been cached.
+   * 
+   * @param classElt the class whose map is to be returned
+   * @param library the library from which the class is being viewed
+   * @return the cached class chain lookup map
+   */
+  public synchronized MemberMap getClassChainMap(ClassElement classElt, LibraryElement library) {
+    ClassEntry entry = getEntry(classElt, null);
+    if (entry == NOT_CACHEABLE) {
+      return null;
+    }
+    return entry.classMaps[getView(entry, library)];
+  }
+
+  /**
+   * Return the errors that were found while computing the interface lookup map for the given class
+   * as viewed from the given library, or {@code null} if there were no errors or if the map has not
+   * been cached.
+   * 
+   * @param classElt the class whose errors are to be returned
+   * @param library the library from which the class is being viewed
+   * @return the errors associated with the cached interface lookup map
+   */
+  public synchronized AnalysisError[] getInterfaceErrors(ClassElement classElt,
+      LibraryElement library) {
+    ClassEntry entry = getEntry(classElt, null);
+    if (entry == NOT_CACHEABLE) {
+      return null;
+    }
+    return entry.interfaceErrors[getView(entry, library)];
+  }
+
+  /**
+   * Return the interface lookup map for the given class as viewed from the given library, or
+   * {@code null} if the map has not been cached.
+   * 
+   * @param classElt the class whose map is to be returned
+   * @param library the library from which the class is being viewed
+   * @return the cached interface lookup map
+   */
+  public synchronized MemberMap getInterfaceMap(ClassElement classElt, LibraryElement library) {
+    ClassEntry entry = getEntry(classElt, null);
+    if (entry == NOT_CACHEABLE) {
+      return null;
+    }
+    return entry.interfaceMaps[getView(entry, library)];
+  }
+
+  /**
+   * Discard any information that depends on the library with the given source.
+   * 
+   * @param librarySource the source of the library that was modified
+   */
+  public synchronized void invalidateLibrary(Source librarySource) {
+    Iterator<ClassEntry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      if (ArrayUtils.contains(iterator.next().librarySources, librarySource)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Return the number of classes for which information is currently cached.
+   * 
+   * @return the number of classes in this cache
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Record the class chain lookup map for the given class as viewed from the given library. The map
+   * must not be modified after it has been recorded.
+   * 
+   * @param classElt the class whose map is being recorded
+   * @param library the library from which the class is being viewed
+   * @param map the map being recorded
+   */
+  public synchronized void putClassChainMap(ClassElement classElt, LibraryElement library,
+      MemberMap map) {
+    ClassEntry entry = getEntry(classElt, null);
+    if (entry != NOT_CACHEABLE) {
+      entry.classMaps[getView(entry, library)] = map;
+    }
+  }
+
+  /**
+   * Record the interface lookup map for the given class as viewed from the given library, along
+   * with the errors that were found while computing it. The map must not be modified after it has
+   * been recorded.
+   * 
+   * @param classElt the class whose map is being recorded
+   * @param library the library from which the class is being viewed
+   * @param map the map being recorded
+   * @param errors the errors found while computing the map, or {@code null} if there were none
+   */
+  public synchronized void putInterfaceMap(ClassElement classElt, LibraryElement library,
+      MemberMap map, AnalysisError[] errors) {
+    ClassEntry entry = getEntry(classElt, null);
+    if (entry != NOT_CACHEABLE) {
+      int view = getView(entry, library);
+      entry.interfaceMaps[view] = map;
+      entry.interfaceErrors[view] = errors;
+    }
+  }
+
+  /**
+   * Add the elements of the given class and its direct supertypes to the given list, ignoring any
+   * supertypes whose element is {@code null}.
+   */
+  private void addDirectSupertypes(ClassElement classElt, ArrayList<ClassElement> supertypes) {
+    InterfaceType supertype = classElt.getSupertype();
+    if (supertype != null && supertype.getElement() != null) {
+      supertypes.add(supertype.getElement());
+    }
+    for (InterfaceType mixin : classElt.getMixins()) {
+      if (mixin.getElement() != null) {
+        supertypes.add(mixin.getElement());
+      }
+    }
+    for (InterfaceType interfaceType : classElt.getInterfaces()) {
+      if (interfaceType.getElement() != null) {
+        supertypes.add(interfaceType.getElement());
+      }
+    }
+  }
+
+  /**
+   * Return the entry for the given class, creating it if necessary. An existing entry is only used
+   * if it was created for the same element object.
+   * 
+   * @param classElt the class whose entry is to be returned
+   * @param visitedClasses the classes whose entries are currently being created, used to detect
+   *          cycles in the class hierarchy, or {@code null} if this is not a recursive invocation
+   * @return the entry for the class, or {@link #NOT_CACHEABLE} if the class cannot be cached
+   */
+  private ClassEntry getEntry(ClassElement classElt, HashSet<ClassElement> visitedClasses) {
+    ClassEntry entry = entries.get(classElt);
+    if (entry != null && entry.element == classElt) {
+      return entry;
+    }
+    if (visitedClasses == null) {
+      visitedClasses = new HashSet<ClassElement>();
+    }
+    if (!visitedClasses.add(classElt)) {
+      return NOT_CACHEABLE;
+    }
+    try {
+      LibraryElement library = classElt.getLibrary();
+      if (library == null || library.getSource() == null) {
+        return NOT_CACHEABLE;
+      }
+      ArrayList<LibraryElement> libraries = new ArrayList<LibraryElement>();
+      libraries.add(library);
+      ArrayList<ClassElement> supertypes = new ArrayList<ClassElement>();
+      addDirectSupertypes(classElt, supertypes);
+      for (ClassElement supertype : supertypes) {
+        ClassEntry supertypeEntry = getEntry(supertype, visitedClasses);
+        if (supertypeEntry == NOT_CACHEABLE) {
+          entries.remove(classElt);
+          return NOT_CACHEABLE;
+        }
+        for (LibraryElement supertypeLibrary : supertypeEntry.libraries) {
+          if (!libraries.contains(supertypeLibrary)) {
+            libraries.add(supertypeLibrary);
+          }
+        }
+      }
+      int libraryCount = libraries.size();
+      Source[] librarySources = new Source[libraryCount];
+      for (int i = 0; i < libraryCount; i++) {
+        librarySources[i] = libraries.get(i).getSource();
+      }
+      entry = new ClassEntry(
+          classElt,
+          libraries.toArray(new LibraryElement[libraryCount]),
+          librarySources);
+      entries.put(classElt, entry);
+      return entry;
+    } finally {
+      visitedClasses.remove(classElt);
+    }
+  }
+
+  /**
+   * Return the index of the maps in the given entry that are visible from the given library.
+   */
+  private int getView(ClassEntry entry, LibraryElement library) {
+    LibraryElement[] libraries = entry.libraries;
+    for (int i = 0; i < libraries.length; i++) {
+      if (libraries[i].equals(library)) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+}
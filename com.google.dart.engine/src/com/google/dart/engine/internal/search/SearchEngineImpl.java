@@ -15,6 +15,7 @@ package com.google.dart.engine.internal.search;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.CompilationUnitElement;
@@ -43,7 +44,9 @@ import com.google.dart.engine.internal.index.NameElementImpl;
 import com.google.dart.engine.internal.search.listener.CountingSearchListener;
 import com.google.dart.engine.internal.search.listener.FilteredSearchListener;
 import com.google.dart.engine.internal.search.listener.GatheringSearchListener;
+import com.google.dart.engine.internal.search.listener.LimitingSearchListener;
 import com.google.dart.engine.internal.search.listener.NameMatchingSearchListener;
+import com.google.dart.engine.internal.search.pattern.NameIndexedSearchPattern;
 import com.google.dart.engine.internal.search.scope.LibrarySearchScope;
 import com.google.dart.engine.search.MatchKind;
 import com.google.dart.engine.search.MatchQuality;
@@ -175,6 +178,24 @@ public class SearchEngineImpl implements SearchEngine {
     return new Element[] {IndexConstants.UNIVERSE};
   }
 
+  /**
+   * Return the elements whose declarations should be checked to find the declarations that match
+   * the given pattern in the given scope.
+   * 
+   * @param scope the scope of the search
+   * @param pattern the pattern that matching declarations must match, may be {@code null}
+   * @return the elements whose declarations should be checked
+   */
+  private static Element[] createElements(SearchScope scope, SearchPattern pattern) {
+    if (pattern instanceof NameIndexedSearchPattern) {
+      Element key = ((NameIndexedSearchPattern) pattern).getNameIndexKey();
+      if (key != null) {
+        return new Element[] {key};
+      }
+    }
+    return createElements(scope);
+  }
+
   private static RelationshipCallback newCallback(MatchKind matchKind, SearchScope scope,
       SearchListener listener) {
     return new RelationshipCallbackImpl(scope, matchKind, listener);
@@ -263,6 +284,17 @@ public class SearchEngineImpl implements SearchEngine {
         newCallback(MatchKind.NAME_DECLARATION, scope, listener));
   }
 
+  @Override
+  public ListenableFuture<List<SearchMatch>> searchDeclarations(final String name,
+      final SearchScope scope, final SearchFilter filter, int limit) {
+    return gatherResults(new SearchRunner() {
+      @Override
+      public void performSearch(SearchListener listener) {
+        searchDeclarations(name, scope, filter, listener);
+      }
+    }, limit);
+  }
+
   @Override
   public List<SearchMatch> searchFunctionDeclarations(final SearchScope scope,
       final SearchPattern pattern, final SearchFilter filter) {
@@ -278,7 +310,7 @@ public class SearchEngineImpl implements SearchEngine {
   public void searchFunctionDeclarations(SearchScope scope, SearchPattern pattern,
       SearchFilter filter, SearchListener listener) {
     assert listener != null;
-    Element[] elements = createElements(scope);
+    Element[] elements = createElements(scope, pattern);
     listener = applyPattern(pattern, listener);
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(elements.length, listener);
@@ -428,6 +460,17 @@ public class SearchEngineImpl implements SearchEngine {
     }
   }
 
+  @Override
+  public ListenableFuture<List<SearchMatch>> searchReferences(final Element element,
+      final SearchScope scope, final SearchFilter filter, int limit) {
+    return gatherResults(new SearchRunner() {
+      @Override
+      public void performSearch(SearchListener listener) {
+        searchReferences(element, scope, filter, listener);
+      }
+    }, limit);
+  }
+
   @Override
   public List<SearchMatch> searchSubtypes(final ClassElement type, final SearchScope scope,
       final SearchFilter filter) {
@@ -474,7 +517,7 @@ public class SearchEngineImpl implements SearchEngine {
   public void searchTypeDeclarations(SearchScope scope, SearchPattern pattern, SearchFilter filter,
       SearchListener listener) {
     assert listener != null;
-    Element[] elements = createElements(scope);
+    Element[] elements = createElements(scope, pattern);
     listener = applyPattern(pattern, listener);
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(elements.length * 3, listener);
@@ -509,7 +552,7 @@ public class SearchEngineImpl implements SearchEngine {
   public void searchVariableDeclarations(SearchScope scope, SearchPattern pattern,
       SearchFilter filter, SearchListener listener) {
     assert listener != null;
-    Element[] elements = createElements(scope);
+    Element[] elements = createElements(scope, pattern);
     listener = applyPattern(pattern, listener);
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(elements.length, listener);
@@ -532,12 +575,24 @@ public class SearchEngineImpl implements SearchEngine {
   private List<SearchMatch> gatherResults(SearchRunner runner) {
     GatheringSearchListener listener = new GatheringSearchListener();
     runner.performSearch(listener);
-    while (!listener.isComplete()) {
-      Thread.yield();
-    }
     return listener.getMatches();
   }
 
+  /**
+   * Use the given runner to perform an asynchronous search, and return a future that is completed
+   * with the first matches that are found, up to the given limit, without waiting for the search to
+   * complete.
+   * 
+   * @param runner the runner used to perform an asynchronous search
+   * @param limit the maximum number of matches to return, or {@code -1} if there is no limit
+   * @return the future that will be completed with the matches
+   */
+  private ListenableFuture<List<SearchMatch>> gatherResults(SearchRunner runner, int limit) {
+    GatheringSearchListener listener = new GatheringSearchListener();
+    runner.performSearch(new LimitingSearchListener(limit, listener));
+    return listener.getFuture();
+  }
+
   private void searchReferences(AngularElement element, SearchScope scope, SearchFilter filter,
       SearchListener listener) {
     assert listener != null;
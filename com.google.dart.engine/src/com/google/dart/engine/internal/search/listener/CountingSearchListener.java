@@ -20,6 +20,9 @@ import com.google.dart.engine.search.SearchMatch;
  * Instances of the class {@code CountingSearchListener} listen for search results, passing those
  * results on to a wrapped listener, but ensure that the wrapped search listener receives only one
  * notification that the search is complete.
+ * <p>
+ * The partial results may be reported on several threads. The notifications are passed on to the
+ * wrapped listener one at a time, so the wrapped listener does not need to be thread-safe.
  * 
  * @coverage dart.engine.search
  */
@@ -54,12 +57,12 @@ public class CountingSearchListener implements SearchListener {
   }
 
   @Override
-  public void matchFound(SearchMatch match) {
+  public synchronized void matchFound(SearchMatch match) {
     wrappedListener.matchFound(match);
   }
 
   @Override
-  public void searchComplete() {
+  public synchronized void searchComplete() {
     completionCount--;
     if (completionCount <= 0) {
       wrappedListener.searchComplete();
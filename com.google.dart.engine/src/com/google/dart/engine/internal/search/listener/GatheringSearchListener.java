@@ -14,16 +14,21 @@
 package com.google.dart.engine.internal.search.listener;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.dart.engine.internal.search.SearchEngineImpl;
 import com.google.dart.engine.search.SearchListener;
 import com.google.dart.engine.search.SearchMatch;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * {@link SearchListener} used by {@link SearchEngineImpl} internally to gather asynchronous results
- * and return them synchronously.
+ * and return them synchronously. The results can also be obtained as a {@link ListenableFuture}.
+ * Cancelling the future causes any matches that are found later to be ignored.
  * 
  * @coverage dart.engine.search
  */
@@ -34,16 +39,32 @@ public class GatheringSearchListener implements SearchListener {
   private final List<SearchMatch> matches = Lists.newArrayList();
 
   /**
-   * A flag indicating whether the search is complete.
+   * The future that is completed with the sorted matches when the search is complete.
    */
-  private volatile boolean isComplete = false;
+  private final SettableFuture<List<SearchMatch>> future = SettableFuture.create();
 
   /**
-   * @return the the matches that have been found.
+   * Return a future that will be completed with the matches, sorted by element name, when the
+   * search is complete.
+   * 
+   * @return the future that will be completed with the matches
+   */
+  public ListenableFuture<List<SearchMatch>> getFuture() {
+    return future;
+  }
+
+  /**
+   * Wait until the search is complete and return the matches that have been found.
+   * 
+   * @return the the matches that have been found, sorted by element name
    */
   public List<SearchMatch> getMatches() {
-    Collections.sort(matches, SearchMatch.SORT_BY_ELEMENT_NAME);
-    return matches;
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException exception) {
+      // cannot happen, the future is never completed with an exception
+      throw new IllegalStateException(exception.getCause());
+    }
   }
 
   /**
@@ -52,16 +73,26 @@ public class GatheringSearchListener implements SearchListener {
    * @return {@code true} if the search is complete
    */
   public boolean isComplete() {
-    return isComplete;
+    return future.isDone();
   }
 
   @Override
   public void matchFound(SearchMatch match) {
-    matches.add(match);
+    if (future.isDone()) {
+      return;
+    }
+    synchronized (matches) {
+      matches.add(match);
+    }
   }
 
   @Override
   public void searchComplete() {
-    isComplete = true;
+    List<SearchMatch> result;
+    synchronized (matches) {
+      result = Lists.newArrayList(matches);
+    }
+    Collections.sort(result, SearchMatch.SORT_BY_ELEMENT_NAME);
+    future.set(result);
   }
 }
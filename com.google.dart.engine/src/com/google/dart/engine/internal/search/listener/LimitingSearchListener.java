@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2013, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search.listener;
+
+import com.google.dart.engine.search.SearchListener;
+import com.google.dart.engine.search.SearchMatch;
+
+/**
+ * Instances of the class {@code LimitingSearchListener} pass search results on to a wrapped
+ * listener as they are found, until either a given number of matches has been passed on or the
+ * search is cancelled. At that point the wrapped listener is told that the search is complete, and
+ * any results that are found later are ignored.
+ * 
+ * @coverage dart.engine.search
+ */
+public class LimitingSearchListener implements SearchListener {
+  /**
+   * The maximum number of matches to pass on, or {@code -1} if there is no limit.
+   */
+  private final int limit;
+
+  /**
+   * The listener that will be notified as results are received.
+   */
+  private final SearchListener wrappedListener;
+
+  /**
+   * The number of matches that have been passed on.
+   */
+  private int matchCount;
+
+  /**
+   * A flag indicating whether the wrapped listener has been told that the search is complete.
+   */
+  private boolean isComplete;
+
+  /**
+   * Initialize a newly created search listener to pass at most the given number of search results
+   * on to the given listener.
+   * 
+   * @param limit the maximum number of matches to pass on, or {@code -1} if there is no limit
+   * @param wrappedListener the listener that will be notified as results are received
+   */
+  public LimitingSearchListener(int limit, SearchListener wrappedListener) {
+    this.limit = limit;
+    this.wrappedListener = wrappedListener;
+    if (limit == 0) {
+      complete();
+    }
+  }
+
+  /**
+   * Stop passing results on to the wrapped listener and tell it that the search is complete, if it
+   * has not already been told.
+   */
+  public synchronized void cancel() {
+    complete();
+  }
+
+  /**
+   * Return {@code true} if no more results will be passed on to the wrapped listener, either
+   * because the search is complete, the limit was reached or the search was cancelled.
+   * 
+   * @return {@code true} if no more results will be passed on
+   */
+  public synchronized boolean isComplete() {
+    return isComplete;
+  }
+
+  @Override
+  public synchronized void matchFound(SearchMatch match) {
+    if (isComplete) {
+      return;
+    }
+    wrappedListener.matchFound(match);
+    matchCount++;
+    if (matchCount == limit) {
+      complete();
+    }
+  }
+
+  @Override
+  public synchronized void searchComplete() {
+    complete();
+  }
+
+  /**
+   * Tell the wrapped listener that the search is complete, if it has not already been told.
+   */
+  private void complete() {
+    if (!isComplete) {
+      isComplete = true;
+      wrappedListener.searchComplete();
+    }
+  }
+}
@@ -23,7 +23,7 @@ import com.google.dart.engine.search.SearchPattern;
  * 
  * @coverage dart.engine.search
  */
-public class AndSearchPattern implements SearchPattern {
+public class AndSearchPattern implements NameIndexedSearchPattern {
   /**
    * The patterns used to determine whether this pattern matches an element.
    */
@@ -39,6 +39,19 @@ public class AndSearchPattern implements SearchPattern {
     this.patterns = patterns;
   }
 
+  @Override
+  public Element getNameIndexKey() {
+    for (SearchPattern pattern : patterns) {
+      if (pattern instanceof NameIndexedSearchPattern) {
+        Element key = ((NameIndexedSearchPattern) pattern).getNameIndexKey();
+        if (key != null) {
+          return key;
+        }
+      }
+    }
+    return null;
+  }
+
   @Override
   public MatchQuality matches(Element element) {
     MatchQuality highestQuality = null;
@@ -14,8 +14,8 @@
 package com.google.dart.engine.internal.search.pattern;
 
 import com.google.dart.engine.element.Element;
+import com.google.dart.engine.internal.index.NameIndexKeys;
 import com.google.dart.engine.search.MatchQuality;
-import com.google.dart.engine.search.SearchPattern;
 import com.google.dart.engine.utilities.general.CharOperation;
 
 /**
@@ -25,7 +25,7 @@ import com.google.dart.engine.utilities.general.CharOperation;
  * 
  * @coverage dart.engine.search
  */
-public class CamelCaseSearchPattern implements SearchPattern {
+public class CamelCaseSearchPattern implements NameIndexedSearchPattern {
   /**
    * The pattern that matching elements must match.
    */
@@ -50,6 +50,11 @@ public class CamelCaseSearchPattern implements SearchPattern {
     this.samePartCount = samePartCount;
   }
 
+  @Override
+  public Element getNameIndexKey() {
+    return NameIndexKeys.getCamelCaseKey(pattern);
+  }
+
   @Override
   public MatchQuality matches(Element element) {
     String name = element.getDisplayName();
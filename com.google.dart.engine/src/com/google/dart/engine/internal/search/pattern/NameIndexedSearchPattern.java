@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search.pattern;
+
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.internal.index.NameIndexKeys;
+import com.google.dart.engine.search.SearchPattern;
+
+/**
+ * The interface <code>NameIndexedSearchPattern</code> defines the behavior of search patterns that
+ * can limit declaration searches to the declarations recorded for a single {@link NameIndexKeys}
+ * key.
+ * 
+ * @coverage dart.engine.search
+ */
+public interface NameIndexedSearchPattern extends SearchPattern {
+  /**
+   * Return the key under which every declaration whose name matches this pattern is indexed, or
+   * {@code null} if all of the declarations have to be checked.
+   * 
+   * @return the key of every matching declaration, may be {@code null}
+   */
+  Element getNameIndexKey();
+}
@@ -14,8 +14,8 @@
 package com.google.dart.engine.internal.search.pattern;
 
 import com.google.dart.engine.element.Element;
+import com.google.dart.engine.internal.index.NameIndexKeys;
 import com.google.dart.engine.search.MatchQuality;
-import com.google.dart.engine.search.SearchPattern;
 
 import static org.apache.commons.lang3.StringUtils.startsWith;
 import static org.apache.commons.lang3.StringUtils.startsWithIgnoreCase;
@@ -26,7 +26,7 @@ import static org.apache.commons.lang3.StringUtils.startsWithIgnoreCase;
  * 
  * @coverage dart.engine.search
  */
-public class PrefixSearchPattern implements SearchPattern {
+public class PrefixSearchPattern implements NameIndexedSearchPattern {
   /**
    * The prefix that matching elements must start with.
    */
@@ -49,6 +49,11 @@ public class PrefixSearchPattern implements SearchPattern {
     this.caseSensitive = caseSensitive;
   }
 
+  @Override
+  public Element getNameIndexKey() {
+    return NameIndexKeys.getPrefixKey(prefix);
+  }
+
   @Override
   public MatchQuality matches(Element element) {
     if (element == null) {
@@ -14,10 +14,12 @@
 package com.google.dart.engine.internal.search.pattern;
 
 import com.google.dart.engine.element.Element;
+import com.google.dart.engine.internal.index.NameIndexKeys;
 import com.google.dart.engine.search.MatchQuality;
-import com.google.dart.engine.search.SearchPattern;
 import com.google.dart.engine.utilities.general.CharOperation;
 
+import java.util.Locale;
+
 /**
  * Instances of the class <code>WildcardSearchPattern</code> implement a search pattern that matches
  * elements whose name matches a pattern with wildcard characters. The wildcard characters that are
@@ -26,7 +28,7 @@ import com.google.dart.engine.utilities.general.CharOperation;
  * 
  * @coverage dart.engine.search
  */
-public class WildcardSearchPattern implements SearchPattern {
+public class WildcardSearchPattern implements NameIndexedSearchPattern {
   /**
    * The pattern that matching elements must match.
    */
@@ -45,10 +47,16 @@ public class WildcardSearchPattern implements SearchPattern {
    * @param caseSensitive {@code true} if a case sensitive match is to be performed
    */
   public WildcardSearchPattern(String pattern, boolean caseSensitive) {
-    this.pattern = caseSensitive ? pattern.toCharArray() : pattern.toLowerCase().toCharArray();
+    this.pattern = caseSensitive ? pattern.toCharArray()
+        : pattern.toLowerCase(Locale.ENGLISH).toCharArray();
     this.caseSensitive = caseSensitive;
   }
 
+  @Override
+  public Element getNameIndexKey() {
+    return NameIndexKeys.getWildcardKey(pattern);
+  }
+
   @Override
   public MatchQuality matches(Element element) {
     if (element == null) {
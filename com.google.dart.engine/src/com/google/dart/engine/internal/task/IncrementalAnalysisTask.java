@@ -13,7 +13,9 @@
  */
 package com.google.dart.engine.internal.task;
 
+import com.google.dart.engine.ast.AstNode;
 import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.FunctionBody;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.LibraryElement;
@@ -21,6 +23,7 @@ import com.google.dart.engine.error.AnalysisErrorListener;
 import com.google.dart.engine.error.BooleanErrorListener;
 import com.google.dart.engine.internal.context.IncrementalAnalysisCache;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.context.PerformanceStatistics;
 import com.google.dart.engine.internal.resolver.IncrementalResolver;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.parser.IncrementalParser;
@@ -99,11 +102,55 @@ public class IncrementalAnalysisTask extends AnalysisTask {
     if (cache == null) {
       return;
     }
+    CompilationUnit unit = updateUnit();
+    updatedUnit = unit;
+    PerformanceStatistics.recordIncrementalAnalysis(unit != null);
+  }
 
-    // Only handle small changes
-    if (cache.getOldLength() > 0 || cache.getNewLength() > 30) {
-      return;
+  /**
+   * Return the function body containing the given node, or {@code null} if the node is not
+   * contained in a function body. A node that is itself a function body is considered to be
+   * contained in it.
+   * 
+   * @param node the node whose enclosing function body is to be returned
+   * @return the function body containing the given node
+   */
+  private FunctionBody getEnclosingFunctionBody(AstNode node) {
+    while (node != null) {
+      if (node instanceof FunctionBody) {
+        return (FunctionBody) node;
+      }
+      node = node.getParent();
+    }
+    return null;
+  }
+
+  /**
+   * Return the type provider used for incremental resolution.
+   * 
+   * @return the type provider (or {@code null} if an exception occurs)
+   */
+  private TypeProvider getTypeProvider() {
+    try {
+      return getContext().getTypeProvider();
+    } catch (AnalysisException exception) {
+      return null;
     }
+  }
+
+  /**
+   * Incrementally scan, parse and resolve the edit described by the cache, returning the updated
+   * compilation unit, or {@code null} if the edit cannot be handled incrementally and the unit
+   * needs to be analyzed from scratch. Insertions, deletions and replacements of any size are
+   * supported as long as the re-parsed portion of the AST structure is contained in a single
+   * function body; edits that change a declaration fall back to full analysis.
+   * 
+   * @return the updated compilation unit
+   * @throws AnalysisException if the unit could not be updated
+   */
+  private CompilationUnit updateUnit() throws AnalysisException {
+    int offset = cache.getOffset();
+    int oldLength = cache.getOldLength();
 
     // Produce an updated token stream
     CharacterReader reader = new CharSequenceReader(cache.getNewContents());
@@ -111,29 +158,39 @@ public class IncrementalAnalysisTask extends AnalysisTask {
     IncrementalScanner scanner = new IncrementalScanner(cache.getSource(), reader, errorListener);
     scanner.rescan(
         cache.getResolvedUnit().getBeginToken(),
-        cache.getOffset(),
-        cache.getOldLength(),
+        offset,
+        oldLength,
         cache.getNewLength());
     if (errorListener.getErrorReported()) {
-      return;
+      return null;
     }
 
-    // Produce an updated AST
+    // Produce an updated AST, passing the offset of the last removed character (which, for an
+    // insertion, precedes the first modified offset)
     IncrementalParser parser = new IncrementalParser(
         cache.getSource(),
         scanner.getTokenMap(),
         AnalysisErrorListener.NULL_LISTENER);
-    updatedUnit = parser.reparse(
+    CompilationUnit unit = parser.reparse(
         cache.getResolvedUnit(),
         scanner.getLeftToken(),
         scanner.getRightToken(),
-        cache.getOffset(),
-        cache.getOffset() + cache.getOldLength());
+        offset,
+        offset + oldLength - 1);
+    if (unit == null) {
+      return null;
+    }
+
+    // Only edits within a single function body leave the declarations unchanged
+    AstNode updatedNode = parser.getUpdatedNode();
+    if (updatedNode == null || getEnclosingFunctionBody(updatedNode) == null) {
+      return null;
+    }
 
     // Update the resolution 
     TypeProvider typeProvider = getTypeProvider();
-    if (updatedUnit != null && typeProvider != null) {
-      CompilationUnitElement element = updatedUnit.getElement();
+    if (typeProvider != null) {
+      CompilationUnitElement element = unit.getElement();
       if (element != null) {
         LibraryElement library = element.getLibrary();
         if (library != null) {
@@ -142,22 +199,15 @@ public class IncrementalAnalysisTask extends AnalysisTask {
               cache.getSource(),
               typeProvider,
               errorListener);
-          resolver.resolve(parser.getUpdatedNode());
+          try {
+            resolver.resolve(updatedNode);
+          } catch (AnalysisException exception) {
+            // The element model changed, so the unit needs to be analyzed from scratch
+            return null;
+          }
         }
       }
     }
-  }
-
-  /**
-   * Return the type provider used for incremental resolution.
-   * 
-   * @return the type provider (or {@code null} if an exception occurs)
-   */
-  private TypeProvider getTypeProvider() {
-    try {
-      return getContext().getTypeProvider();
-    } catch (AnalysisException exception) {
-      return null;
-    }
+    return unit;
   }
 }
@@ -31,6 +31,7 @@ import com.google.dart.engine.error.CompileTimeErrorCode;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
 import com.google.dart.engine.internal.context.PerformanceStatistics;
 import com.google.dart.engine.internal.context.RecordingErrorListener;
+import com.google.dart.engine.internal.context.UnitApiSignature;
 import com.google.dart.engine.parser.Parser;
 import com.google.dart.engine.scanner.Token;
 import com.google.dart.engine.source.Source;
@@ -113,6 +114,11 @@ public class ParseDartTask extends AnalysisTask {
    */
   private LineInfo lineInfo;
 
+  /**
+   * A flag indicating whether the statements in block function bodies are to be skipped.
+   */
+  private boolean skipFunctionBodies;
+
   /**
    * The compilation unit that was produced by parsing the source.
    */
@@ -148,6 +154,12 @@ public class ParseDartTask extends AnalysisTask {
    */
   private AnalysisError[] errors = AnalysisError.NO_ERRORS;
 
+  /**
+   * The signature of the declarations in the compilation unit that was produced by parsing the
+   * source.
+   */
+  private UnitApiSignature apiSignature;
+
   /**
    * Initialize a newly created task to perform analysis within the given context.
    * 
@@ -156,14 +168,17 @@ public class ParseDartTask extends AnalysisTask {
    * @param modificationTime the time at which the contents of the source were last modified
    * @param tokenStream the head of the token stream used for parsing
    * @param lineInfo the line information associated with the source
+   * @param skipFunctionBodies {@code true} if the statements in block function bodies are to be
+   *          skipped
    */
   public ParseDartTask(InternalAnalysisContext context, Source source, long modificationTime,
-      Token tokenStream, LineInfo lineInfo) {
+      Token tokenStream, LineInfo lineInfo, boolean skipFunctionBodies) {
     super(context);
     this.source = source;
     this.modificationTime = modificationTime;
     this.tokenStream = tokenStream;
     this.lineInfo = lineInfo;
+    this.skipFunctionBodies = skipFunctionBodies;
   }
 
   @Override
@@ -171,6 +186,16 @@ public class ParseDartTask extends AnalysisTask {
     return visitor.visitParseDartTask(this);
   }
 
+  /**
+   * Return the signature of the declarations in the compilation unit that was produced by parsing
+   * the source, or {@code null} if the task has not yet been performed or if an exception occurred.
+   * 
+   * @return the signature of the declarations in the compilation unit
+   */
+  public UnitApiSignature getApiSignature() {
+    return apiSignature;
+  }
+
   /**
    * Return the compilation unit that was produced by parsing the source, or {@code null} if the
    * task has not yet been performed or if an exception occurred.
@@ -240,6 +265,15 @@ public class ParseDartTask extends AnalysisTask {
     return modificationTime;
   }
 
+  /**
+   * Return {@code true} if the statements in block function bodies are skipped by this task.
+   * 
+   * @return {@code true} if the statements in block function bodies are skipped by this task
+   */
+  public boolean getSkipFunctionBodies() {
+    return skipFunctionBodies;
+  }
+
   /**
    * Return the source that is to be parsed.
    * 
@@ -288,6 +322,7 @@ public class ParseDartTask extends AnalysisTask {
       Parser parser = new Parser(source, errorListener);
       AnalysisOptions options = getContext().getAnalysisOptions();
       parser.setParseFunctionBodies(options.getAnalyzeFunctionBodies());
+      parser.setSkipFunctionBodies(skipFunctionBodies);
       parser.setParseAsync(options.getEnableAsync());
       parser.setParseDeferredLibraries(options.getEnableDeferredLoading());
       parser.setParseEnum(options.getEnableEnum());
@@ -323,6 +358,7 @@ public class ParseDartTask extends AnalysisTask {
         }
       }
       errors = errorListener.getErrorsForSource(source);
+      apiSignature = UnitApiSignature.compute(unit);
     } finally {
       timeCounterParse.stop();
     }
@@ -56,6 +56,11 @@ public class ParseHtmlTask extends AnalysisTask {
    */
   private CharSequence content;
 
+  /**
+   * A flag indicating whether text that cannot affect analysis should be scanned.
+   */
+  private boolean preserveText;
+
   /**
    * The line information that was produced.
    */
@@ -93,13 +98,15 @@ public class ParseHtmlTask extends AnalysisTask {
    * @param source the source to be parsed
    * @param modificationTime the time at which the contents of the source were last modified
    * @param content the contents of the source
+   * @param preserveText {@code true} if text that cannot affect analysis should be scanned
    */
   public ParseHtmlTask(InternalAnalysisContext context, Source source, long modificationTime,
-      CharSequence content) {
+      CharSequence content, boolean preserveText) {
     super(context);
     this.source = source;
     this.modificationTime = modificationTime;
     this.content = content;
+    this.preserveText = preserveText;
   }
 
   @Override
@@ -177,6 +184,7 @@ public class ParseHtmlTask extends AnalysisTask {
     try {
       AbstractScanner scanner = new StringScanner(source, content);
       scanner.setPassThroughElements(new String[] {TAG_SCRIPT});
+      scanner.setPreserveText(preserveText);
       Token token = scanner.tokenize();
       lineInfo = new LineInfo(scanner.getLineStarts());
       final RecordingErrorListener errorListener = new RecordingErrorListener();
@@ -19,6 +19,7 @@ import com.google.dart.engine.internal.context.InternalAnalysisContext;
 import com.google.dart.engine.internal.context.PerformanceStatistics;
 import com.google.dart.engine.internal.context.RecordingErrorListener;
 import com.google.dart.engine.scanner.CharSequenceReader;
+import com.google.dart.engine.scanner.IdentifierTable;
 import com.google.dart.engine.scanner.Scanner;
 import com.google.dart.engine.scanner.Token;
 import com.google.dart.engine.source.Source;
@@ -44,6 +45,11 @@ public class ScanDartTask extends AnalysisTask {
    */
   private CharSequence content;
 
+  /**
+   * The table used to map the identifiers in the source to canonical strings.
+   */
+  private IdentifierTable identifierTable;
+
   /**
    * The token stream that was produced by scanning the source.
    */
@@ -66,13 +72,15 @@ public class ScanDartTask extends AnalysisTask {
    * @param source the source to be parsed
    * @param modificationTime the time at which the contents of the source were last modified
    * @param content the contents of the source
+   * @param identifierTable the table used to map the identifiers in the source to canonical strings
    */
   public ScanDartTask(InternalAnalysisContext context, Source source, long modificationTime,
-      CharSequence content) {
+      CharSequence content, IdentifierTable identifierTable) {
     super(context);
     this.source = source;
     this.modificationTime = modificationTime;
     this.content = content;
+    this.identifierTable = identifierTable;
   }
 
   @Override
@@ -144,6 +152,7 @@ public class ScanDartTask extends AnalysisTask {
     try {
       Scanner scanner = new Scanner(source, new CharSequenceReader(content), errorListener);
       scanner.setPreserveComments(getContext().getAnalysisOptions().getPreserveComments());
+      scanner.setIdentifierTable(identifierTable);
       tokenStream = scanner.tokenize();
       lineInfo = new LineInfo(scanner.getLineStarts());
       errors = errorListener.getErrorsForSource(source);
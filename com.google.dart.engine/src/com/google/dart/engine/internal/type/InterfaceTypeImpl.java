@@ -56,7 +56,7 @@ public class InterfaceTypeImpl extends TypeImpl implements InterfaceType {
    */
   @VisibleForTesting
   public static int computeLongestInheritancePathToObject(InterfaceType type) {
-    return computeLongestInheritancePathToObject(type, 0, new HashSet<ClassElement>());
+    return SupertypeClosure.forClass(type.getElement()).getDepth();
   }
 
   /**
@@ -68,102 +68,10 @@ public class InterfaceTypeImpl extends TypeImpl implements InterfaceType {
    */
   @VisibleForTesting
   public static Set<InterfaceType> computeSuperinterfaceSet(InterfaceType type) {
-    return computeSuperinterfaceSet(type, new HashSet<InterfaceType>());
-  }
-
-  /**
-   * This method computes the longest inheritance path from some passed {@link Type} to Object. This
-   * method calls itself recursively, callers should use the public method
-   * {@link #computeLongestInheritancePathToObject(Type)}.
-   * 
-   * @param type the {@link Type} to compute the longest inheritance path of from the passed
-   *          {@link Type} to Object
-   * @param depth a field used recursively
-   * @param visitedClasses the classes that have already been visited
-   * @return the computed longest inheritance path to Object
-   * @see #computeLongestInheritancePathToObject(Type)
-   * @see #getLeastUpperBound(Type)
-   */
-  private static int computeLongestInheritancePathToObject(InterfaceType type, int depth,
-      HashSet<ClassElement> visitedClasses) {
-    ClassElement classElement = type.getElement();
-    // Object case
-    if (classElement.getSupertype() == null || visitedClasses.contains(classElement)) {
-      return depth;
-    }
-    int longestPath = 1;
-    try {
-      visitedClasses.add(classElement);
-      InterfaceType[] superinterfaces = classElement.getInterfaces();
-      int pathLength;
-      if (superinterfaces.length > 0) {
-        // loop through each of the superinterfaces recursively calling this method and keeping track
-        // of the longest path to return
-        for (InterfaceType superinterface : superinterfaces) {
-          pathLength = computeLongestInheritancePathToObject(
-              superinterface,
-              depth + 1,
-              visitedClasses);
-          if (pathLength > longestPath) {
-            longestPath = pathLength;
-          }
-        }
-      }
-      // finally, perform this same check on the super type
-      // TODO(brianwilkerson) Does this also need to add in the number of mixin classes?
-      InterfaceType supertype = classElement.getSupertype();
-      pathLength = computeLongestInheritancePathToObject(supertype, depth + 1, visitedClasses);
-      if (pathLength > longestPath) {
-        longestPath = pathLength;
-      }
-    } finally {
-      visitedClasses.remove(classElement);
+    if (type.getElement() == null) {
+      return new HashSet<InterfaceType>();
     }
-    return longestPath;
-  }
-
-  /**
-   * Returns the set of all superinterfaces of the passed {@link Type}. This is a recursive method,
-   * callers should call the public {@link #computeSuperinterfaceSet(Type)}.
-   * 
-   * @param type the {@link Type} to compute the set of superinterfaces of
-   * @param set a {@link HashSet} used recursively by this method
-   * @return the {@link Set} of superinterfaces of the passed {@link Type}
-   * @see #computeSuperinterfaceSet(Type)
-   * @see #getLeastUpperBound(Type)
-   */
-  private static Set<InterfaceType> computeSuperinterfaceSet(InterfaceType type,
-      HashSet<InterfaceType> set) {
-    Element element = type.getElement();
-    if (element != null) {
-      InterfaceType[] superinterfaces = type.getInterfaces();
-      for (InterfaceType superinterface : superinterfaces) {
-        if (set.add(superinterface)) {
-          computeSuperinterfaceSet(superinterface, set);
-        }
-      }
-      InterfaceType supertype = type.getSuperclass();
-      if (supertype != null) {
-        if (set.add(supertype)) {
-          computeSuperinterfaceSet(supertype, set);
-        }
-      }
-    }
-    return set;
-  }
-
-  /**
-   * Return the intersection of the given sets of types, where intersection is based on the equality
-   * of the types themselves.
-   * 
-   * @param first the first set of types to be intersected
-   * @param second the second set of types to be intersected
-   * @return the intersection of the given sets of types
-   */
-  private static InterfaceType[] intersection(Set<InterfaceType> first, Set<InterfaceType> second) {
-    Set<InterfaceType> result = new HashSet<InterfaceType>(first);
-    result.retainAll(second);
-    return result.toArray(new InterfaceType[result.size()]);
+    return SupertypeClosure.forClass(type.getElement()).getSuperinterfaceSet(type);
   }
 
   /**
@@ -312,32 +220,44 @@ public class InterfaceTypeImpl extends TypeImpl implements InterfaceType {
     if (this == dynamicType || type == dynamicType) {
       return dynamicType;
     }
-    // TODO (jwren) opportunity here for a better, faster algorithm if this turns out to be a bottle-neck
     if (!(type instanceof InterfaceType)) {
       return null;
     }
     // new names to match up with the spec
     InterfaceType i = this;
     InterfaceType j = (InterfaceType) type;
+    if (i.getElement() == null || j.getElement() == null) {
+      return null;
+    }
 
-    // compute set of supertypes
-    Set<InterfaceType> si = computeSuperinterfaceSet(i);
-    Set<InterfaceType> sj = computeSuperinterfaceSet(j);
-
-    // union si with i and sj with j
-    si.add(i);
-    sj.add(j);
-
-    // compute intersection, reference as set 's'
-    InterfaceType[] s = intersection(si, sj);
+    // compute the arrays of supertypes, which include i and j themselves, and their depths
+    SupertypeClosure ci = SupertypeClosure.forClass(i.getElement());
+    SupertypeClosure cj = SupertypeClosure.forClass(j.getElement());
+    InterfaceType[] si = ci.getTypes(i);
+    InterfaceType[] sj = cj.getTypes(j);
+    int[] depthsI = ci.getDepths();
 
-    // for each element in Set s, compute the largest inheritance path to Object
+    // compute intersection, reference as array 's', along with the largest inheritance path from
+    // each of its elements to Object
+    InterfaceType[] s = new InterfaceType[Math.min(si.length, sj.length)];
     int[] depths = new int[s.length];
+    int count = 0;
     int maxDepth = 0;
-    for (int n = 0; n < s.length; n++) {
-      depths[n] = computeLongestInheritancePathToObject(s[n]);
-      if (depths[n] > maxDepth) {
-        maxDepth = depths[n];
+    for (int m = 0; m < si.length; m++) {
+      InterfaceType candidate = si[m];
+      if (candidate == null) {
+        continue;
+      }
+      for (int n = 0; n < sj.length; n++) {
+        if (SupertypeClosure.isSameType(candidate, sj[n])) {
+          s[count] = candidate;
+          depths[count] = depthsI[m];
+          if (depths[count] > maxDepth) {
+            maxDepth = depths[count];
+          }
+          count++;
+          break;
+        }
       }
     }
 
@@ -346,7 +266,7 @@ public class InterfaceTypeImpl extends TypeImpl implements InterfaceType {
     for (; maxDepth >= 0; maxDepth--) {
       int indexOfLeastUpperBound = -1;
       int numberOfTypesAtMaxDepth = 0;
-      for (int m = 0; m < depths.length; m++) {
+      for (int m = 0; m < count; m++) {
         if (depths[m] == maxDepth) {
           numberOfTypesAtMaxDepth++;
           indexOfLeastUpperBound = m;
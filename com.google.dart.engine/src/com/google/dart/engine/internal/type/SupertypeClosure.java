@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.type;
+
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.type.InterfaceType;
+import com.google.dart.engine.type.Type;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Instances of the class {@code SupertypeClosure} represent the set of all superinterfaces of a
+ * class, together with the length of the longest inheritance path from each of them to Object. The
+ * supertypes are expressed in terms of the type parameters of the class, so a single closure can be
+ * shared by every parameterization of the class.
+ * <p>
+ * Closures are cached on {@link ClassElementImpl}s. Each closure records the
+ * {@link ClassElementImpl#getHierarchyVersion() hierarchy version} at which it was computed and is
+ * recomputed once the supertypes of any class have changed, because the closure of a class depends
+ * on the supertypes of all of its superclasses.
+ * 
+ * @coverage dart.engine.type
+ */
+public class SupertypeClosure {
+  /**
+   * Return the closure for the given class, computing and caching it if necessary.
+   * 
+   * @param element the class whose closure is to be returned
+   * @return the closure for the given class
+   */
+  public static SupertypeClosure forClass(ClassElement element) {
+    return forClass(element, new HashMap<ClassElement, SupertypeClosure>());
+  }
+
+  /**
+   * Compute the longest inheritance path from some passed {@link Type} to Object without using any
+   * cached information.
+   * 
+   * @param type the {@link Type} to compute the longest inheritance path of from the passed
+   *          {@link Type} to Object
+   * @param depth a field used recursively
+   * @param visitedClasses the classes that have already been visited
+   * @return the computed longest inheritance path to Object
+   */
+  static int computeLongestInheritancePathToObject(InterfaceType type, int depth,
+      HashSet<ClassElement> visitedClasses) {
+    ClassElement classElement = type.getElement();
+    // Object case
+    if (classElement.getSupertype() == null || visitedClasses.contains(classElement)) {
+      return depth;
+    }
+    int longestPath = 1;
+    try {
+      visitedClasses.add(classElement);
+      InterfaceType[] superinterfaces = classElement.getInterfaces();
+      int pathLength;
+      if (superinterfaces.length > 0) {
+        // loop through each of the superinterfaces recursively calling this method and keeping track
+        // of the longest path to return
+        for (InterfaceType superinterface : superinterfaces) {
+          pathLength = computeLongestInheritancePathToObject(
+              superinterface,
+              depth + 1,
+              visitedClasses);
+          if (pathLength > longestPath) {
+            longestPath = pathLength;
+          }
+        }
+      }
+      // finally, perform this same check on the super type
+      // TODO(brianwilkerson) Does this also need to add in the number of mixin classes?
+      InterfaceType supertype = classElement.getSupertype();
+      pathLength = computeLongestInheritancePathToObject(supertype, depth + 1, visitedClasses);
+      if (pathLength > longestPath) {
+        longestPath = pathLength;
+      }
+    } finally {
+      visitedClasses.remove(classElement);
+    }
+    return longestPath;
+  }
+
+  /**
+   * Compute the set of all superinterfaces of the passed {@link Type} without using any cached
+   * information.
+   * 
+   * @param type the {@link Type} to compute the set of superinterfaces of
+   * @param set a {@link HashSet} used recursively by this method
+   * @return the {@link Set} of superinterfaces of the passed {@link Type}
+   */
+  static Set<InterfaceType> computeSuperinterfaceSet(InterfaceType type, HashSet<InterfaceType> set) {
+    if (type.getElement() != null) {
+      InterfaceType[] superinterfaces = type.getInterfaces();
+      for (InterfaceType superinterface : superinterfaces) {
+        if (set.add(superinterface)) {
+          computeSuperinterfaceSet(superinterface, set);
+        }
+      }
+      InterfaceType supertype = type.getSuperclass();
+      if (supertype != null) {
+        if (set.add(supertype)) {
+          computeSuperinterfaceSet(supertype, set);
+        }
+      }
+    }
+    return set;
+  }
+
+  /**
+   * Return the closure for the given class, computing it if necessary. Closures are cached on the
+   * class if it is a {@link ClassElementImpl}, and otherwise in the given table for the duration of
+   * the computation.
+   * 
+   * @param element the class whose closure is to be returned
+   * @param closures a table mapping classes that cannot cache their own closure to their closure
+   * @return the closure for the given class
+   */
+  private static SupertypeClosure forClass(ClassElement element,
+      HashMap<ClassElement, SupertypeClosure> closures) {
+    // the element of the type of a class is the class itself, even if the class is a handle
+    InterfaceType type = element.getType();
+    if (type != null && type.getElement() != null) {
+      element = type.getElement();
+    }
+    if (element instanceof ClassElementImpl) {
+      ClassElementImpl elementImpl = (ClassElementImpl) element;
+      SupertypeClosure closure = elementImpl.getSupertypeClosure();
+      if (closure == null || closure.hierarchyVersion != ClassElementImpl.getHierarchyVersion()) {
+        closure = new SupertypeClosure(element, closures);
+        elementImpl.setSupertypeClosure(closure);
+      }
+      return closure;
+    }
+    SupertypeClosure closure = closures.get(element);
+    if (closure == null) {
+      closure = new SupertypeClosure(element, closures);
+      closures.put(element, closure);
+    }
+    return closure;
+  }
+
+  /**
+   * Return {@code true} if the two given types are equal. The elements are compared first because
+   * comparing them is considerably cheaper than comparing the types.
+   */
+  static boolean isSameType(InterfaceType first, InterfaceType second) {
+    if (first == null || second == null) {
+      return false;
+    }
+    if (first == second) {
+      return true;
+    }
+    return first.getElement().equals(second.getElement()) && first.equals(second);
+  }
+
+  /**
+   * The hierarchy version at which this closure was computed.
+   */
+  private int hierarchyVersion;
+
+  /**
+   * The type defined by the class, whose type arguments are the type parameters of the class.
+   */
+  private InterfaceType declaredType;
+
+  /**
+   * The declared type of the class followed by all of its superinterfaces.
+   */
+  private InterfaceType[] types;
+
+  /**
+   * The length of the longest inheritance path to Object from each of the {@link #types}.
+   */
+  private int[] depths;
+
+  /**
+   * A flag indicating whether the class is part of, or inherits from, a cycle in the class
+   * hierarchy.
+   */
+  private boolean cyclic;
+
+  /**
+   * Initialize a newly created closure for the given class.
+   * 
+   * @param element the class whose closure is being computed
+   * @param closures a table mapping classes that cannot cache their own closure to their closure
+   */
+  private SupertypeClosure(ClassElement element, HashMap<ClassElement, SupertypeClosure> closures) {
+    hierarchyVersion = ClassElementImpl.getHierarchyVersion();
+    declaredType = element.getType();
+    Set<InterfaceType> superinterfaces = computeSuperinterfaceSet(
+        declaredType,
+        new HashSet<InterfaceType>());
+    cyclic = superinterfaces.remove(declaredType);
+    int count = superinterfaces.size() + 1;
+    types = new InterfaceType[count];
+    depths = new int[count];
+    types[0] = declaredType;
+    int index = 1;
+    for (InterfaceType superinterface : superinterfaces) {
+      types[index++] = superinterface;
+      if (superinterface.getElement().equals(element)) {
+        cyclic = true;
+      }
+    }
+    if (cyclic) {
+      //
+      // The class is part of a cycle, so the closures of its supertypes cannot be computed first.
+      //
+      for (int i = 0; i < count; i++) {
+        depths[i] = computeLongestInheritancePathToObject(
+            types[i],
+            0,
+            new HashSet<ClassElement>());
+      }
+      return;
+    }
+    for (int i = 1; i < count; i++) {
+      SupertypeClosure superClosure = forClass(types[i].getElement(), closures);
+      cyclic = cyclic || superClosure.cyclic;
+      depths[i] = superClosure.depths[0];
+    }
+    if (cyclic) {
+      depths[0] = computeLongestInheritancePathToObject(
+          declaredType,
+          0,
+          new HashSet<ClassElement>());
+    } else {
+      depths[0] = computeDepth(element, closures);
+    }
+  }
+
+  /**
+   * Return the length of the longest inheritance path from the class to Object.
+   * 
+   * @return the length of the longest inheritance path to Object
+   */
+  public int getDepth() {
+    return depths[0];
+  }
+
+  /**
+   * Return the lengths of the longest inheritance paths to Object from each of the types returned
+   * by {@link #getTypes(InterfaceType)}.
+   * 
+   * @return the lengths of the longest inheritance paths to Object
+   */
+  public int[] getDepths() {
+    return depths;
+  }
+
+  /**
+   * Return the given type followed by all of its superinterfaces. The given type must be a
+   * parameterization of the class for which this closure was computed. Any superinterface that is
+   * equal to an earlier one after the type arguments have been substituted is replaced by
+   * {@code null} so that the result stays aligned with {@link #getDepths()}.
+   * 
+   * @param type the type whose superinterfaces are to be returned
+   * @return the given type followed by its superinterfaces
+   */
+  public InterfaceType[] getTypes(InterfaceType type) {
+    Type[] argumentTypes = type.getTypeArguments();
+    Type[] parameterTypes = declaredType.getTypeArguments();
+    int count = types.length;
+    InterfaceType[] result = new InterfaceType[count];
+    result[0] = type;
+    if (argumentTypes.length == 0 || argumentTypes.length != parameterTypes.length) {
+      System.arraycopy(types, 1, result, 1, count - 1);
+      return result;
+    }
+    for (int i = 1; i < count; i++) {
+      InterfaceType substitutedType = types[i].substitute(argumentTypes, parameterTypes);
+      for (int j = 0; j < i; j++) {
+        if (isSameType(result[j], substitutedType)) {
+          substitutedType = null;
+          break;
+        }
+      }
+      result[i] = substitutedType;
+    }
+    return result;
+  }
+
+  /**
+   * Return the set of all superinterfaces of the given type, which must be a parameterization of
+   * the class for which this closure was computed.
+   * 
+   * @param type the type whose superinterfaces are to be returned
+   * @return the set of superinterfaces of the given type
+   */
+  public Set<InterfaceType> getSuperinterfaceSet(InterfaceType type) {
+    InterfaceType[] closure = getTypes(type);
+    HashSet<InterfaceType> set = new HashSet<InterfaceType>(closure.length);
+    for (int i = 1; i < closure.length; i++) {
+      if (closure[i] != null) {
+        set.add(closure[i]);
+      }
+    }
+    return set;
+  }
+
+  /**
+   * Compute the length of the longest inheritance path from the given class to Object, using the
+   * cached closures of its direct supertypes. This must only be used for classes whose hierarchy is
+   * acyclic.
+   */
+  private int computeDepth(ClassElement element, HashMap<ClassElement, SupertypeClosure> closures) {
+    InterfaceType supertype = element.getSupertype();
+    if (supertype == null) {
+      return 0;
+    }
+    int longestPath = forClass(supertype.getElement(), closures).getDepth();
+    for (InterfaceType superinterface : element.getInterfaces()) {
+      int pathLength = forClass(superinterface.getElement(), closures).getDepth();
+      if (pathLength > longestPath) {
+        longestPath = pathLength;
+      }
+    }
+    return longestPath + 1;
+  }
+}
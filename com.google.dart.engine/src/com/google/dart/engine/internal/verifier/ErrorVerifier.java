@@ -535,6 +535,10 @@ public class ErrorVerifier extends RecursiveAstVisitor<Void> {
 
   @Override
   public Void visitBlockFunctionBody(BlockFunctionBody node) {
+    if (node.isSkipped()) {
+      // The statements were not parsed, so there is nothing to verify.
+      return null;
+    }
     boolean wasInAsync = inAsync;
     boolean wasInGenerator = inGenerator;
     boolean previousHasReturnWithoutValue = hasReturnWithoutValue;
@@ -14,8 +14,11 @@
 package com.google.dart.engine.parser;
 
 import com.google.dart.engine.ast.AstNode;
+import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.ast.visitor.NodeLocator;
+import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.error.AnalysisErrorListener;
+import com.google.dart.engine.error.BooleanErrorListener;
 import com.google.dart.engine.scanner.Token;
 import com.google.dart.engine.scanner.TokenType;
 import com.google.dart.engine.source.Source;
@@ -82,6 +85,8 @@ public class IncrementalParser {
    *          tokens that were inserted
    * @param originalStart the offset in the original source of the first character that was modified
    * @param originalEnd the offset in the original source of the last character that was modified
+   * @return the updated AST structure, or {@code null} if the structure could not be updated, which
+   *         includes the case where a syntax error was found while re-parsing
    */
   @SuppressWarnings("unchecked")
   public <E extends AstNode> E reparse(E originalStructure, Token leftToken, Token rightToken,
@@ -113,34 +118,53 @@ public class IncrementalParser {
       return null;
     }
     //
-    // Parse the appropriate AST structure starting at the appropriate place.
+    // Parse the appropriate AST structure starting at the appropriate place. The parser recovers
+    // from syntax errors by inserting synthetic tokens into the token stream, so once an error has
+    // been reported neither the new node nor the token stream can be trusted.
     //
-    Parser parser = new Parser(source, errorListener);
+    final BooleanErrorListener syntaxErrorListener = new BooleanErrorListener();
+    Parser parser = new Parser(source, new AnalysisErrorListener() {
+      @Override
+      public void onError(AnalysisError error) {
+        syntaxErrorListener.onError(error);
+        errorListener.onError(error);
+      }
+    });
     parser.setCurrentToken(parseToken);
     while (newNode == null) {
       AstNode parent = oldNode.getParent();
       if (parent == null) {
         parseToken = findFirstToken(parseToken);
         parser.setCurrentToken(parseToken);
-        return (E) parser.parseCompilationUnit();
+        CompilationUnit unit = parser.parseCompilationUnit();
+        return syntaxErrorListener.getErrorReported() ? null : (E) unit;
       }
       boolean advanceToParent = false;
-      try {
-        IncrementalParseDispatcher dispatcher = new IncrementalParseDispatcher(parser, oldNode);
-        newNode = parent.accept(dispatcher);
-        //
-        // Validate that the new node can replace the old node.
-        //
-        Token mappedToken = tokenMap.get(oldNode.getEndToken().getNext());
-        if (mappedToken == null
-            || mappedToken.getOffset() != newNode.getEndToken().getNext().getOffset()
-            || newNode.getOffset() != oldNode.getOffset()) {
+      if (parseToken.getOffset() != originalOffset) {
+        // The tokens at the beginning of the old node were removed, so the new node cannot start
+        // at the same offset.
+        advanceToParent = true;
+      } else {
+        try {
+          IncrementalParseDispatcher dispatcher = new IncrementalParseDispatcher(parser, oldNode);
+          newNode = parent.accept(dispatcher);
+          if (syntaxErrorListener.getErrorReported()) {
+            return null;
+          }
+          //
+          // Validate that the new node can replace the old node.
+          //
+          Token mappedToken = tokenMap.get(oldNode.getEndToken().getNext());
+          if (mappedToken == null
+              || mappedToken.getOffset() != newNode.getEndToken().getNext().getOffset()
+              || newNode.getOffset() != oldNode.getOffset()) {
+            advanceToParent = true;
+          }
+        } catch (InsufficientContextException exception) {
           advanceToParent = true;
+        } catch (Exception exception) {
+          return null;
         }
-      } catch (InsufficientContextException exception) {
-        advanceToParent = true;
-      } catch (Exception exception) {
-        return null;
       }
       if (advanceToParent) {
         newNode = null;
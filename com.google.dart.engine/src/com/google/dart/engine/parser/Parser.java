@@ -33,6 +33,8 @@ import com.google.dart.engine.scanner.StringToken;
 import com.google.dart.engine.scanner.SubSequenceReader;
 import com.google.dart.engine.scanner.SyntheticStringToken;
 import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.scanner.TokenBuffer;
+import com.google.dart.engine.scanner.TokenCursor;
 import com.google.dart.engine.scanner.TokenType;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.utilities.dart.ParameterKind;
@@ -96,6 +98,12 @@ public class Parser {
    */
   private boolean parseFunctionBodies = true;
 
+  /**
+   * A flag indicating whether the parser is to skip the statements in block function bodies while
+   * still recording the bodies. Ignored if function bodies are not parsed at all.
+   */
+  private boolean skipFunctionBodies = false;
+
   /**
    * A flag indicating whether the parser is to parse the async support.
    */
@@ -199,6 +207,20 @@ public class Parser {
     }
   }
 
+  /**
+   * Parse the script tag and directives at the start of the compilation unit in the given buffer,
+   * as {@link #parseDirectives(Token)} does. Tokens are only created for the script tag and the
+   * directives, so the end token of the compilation unit is an end-of-file token that follows the
+   * last directive.
+   * 
+   * @param buffer the buffer containing the tokens of the compilation unit
+   * @return the compilation unit that was parsed
+   */
+  public CompilationUnit parseDirectivesFromBuffer(TokenBuffer buffer) {
+    int end = findEndOfDirectives(new TokenCursor(buffer));
+    return parseDirectives(buffer.toTokens(end));
+  }
+
   /**
    * Parse an expression, starting with the given token.
    * 
@@ -286,6 +308,19 @@ public class Parser {
     this.parseFunctionBodies = parseFunctionBodies;
   }
 
+  /**
+   * Set whether the parser is to skip the statements in block function bodies. A skipped body is
+   * represented by an empty block spanning the original brackets and is marked as being
+   * {@link BlockFunctionBody#isSkipped() skipped}, so that the function is not treated as being
+   * abstract. Expression function bodies are still parsed. This has no effect if the parser is not
+   * to parse function bodies at all.
+   * 
+   * @param skipFunctionBodies {@code true} if the parser is to skip the statements in block bodies
+   */
+  public void setSkipFunctionBodies(boolean skipFunctionBodies) {
+    this.skipFunctionBodies = skipFunctionBodies;
+  }
+
   /**
    * Parse an annotation.
    * 
@@ -1920,6 +1955,50 @@ public class Parser {
     }
   }
 
+  /**
+   * Return the index of the first token in the buffer being traversed by the given cursor that
+   * follows the script tag and the directives, using the same rules as {@link #parseDirectives()}
+   * to decide whether a token starts a directive.
+   * 
+   * @param cursor the cursor positioned at the first token in the buffer
+   * @return the index of the first token that is not part of a directive
+   */
+  private int findEndOfDirectives(TokenCursor cursor) {
+    if (cursor.matches(TokenType.SCRIPT_TAG)) {
+      cursor.advance();
+    }
+    while (!cursor.isEof()) {
+      int start = cursor.getIndex();
+      // skip the metadata preceding a directive
+      while (cursor.matches(TokenType.AT)) {
+        cursor.advance();
+        while (cursor.matches(TokenType.IDENTIFIER) || cursor.matches(TokenType.PERIOD)) {
+          cursor.advance();
+        }
+        if (cursor.matches(TokenType.OPEN_PAREN)) {
+          cursor.skipGroup();
+        }
+      }
+      // the same tokens start a directive as in parseDirectives()
+      Keyword keyword = cursor.getKeyword();
+      TokenType nextType = cursor.peekType();
+      if ((keyword == Keyword.IMPORT || keyword == Keyword.EXPORT || keyword == Keyword.LIBRARY
+          || keyword == Keyword.PART)
+          && nextType != TokenType.PERIOD && nextType != TokenType.LT
+          && nextType != TokenType.OPEN_PAREN) {
+        while (!cursor.isEof() && !cursor.matches(TokenType.SEMICOLON)) {
+          cursor.skipGroup();
+        }
+        cursor.advance();
+      } else if (cursor.matches(TokenType.SEMICOLON)) {
+        cursor.advance();
+      } else {
+        return start;
+      }
+    }
+    return cursor.getIndex();
+  }
+
   /**
    * Search the given list of ranges for a range that contains the given index. Return the range
    * that was found, or {@code null} if none of the ranges contain the index.
@@ -4138,6 +4217,22 @@ public class Parser {
           skipBlock();
           return new EmptyFunctionBody(createSyntheticToken(TokenType.SEMICOLON));
         }
+        if (skipFunctionBodies) {
+          // Represent the skipped statements as an empty block spanning the original brackets so
+          // that the function is not treated as being abstract and the range of the body is known.
+          Token leftBracket = currentToken;
+          Token rightBracket = ((BeginToken) leftBracket).getEndToken();
+          skipBlock();
+          if (rightBracket == null) {
+            rightBracket = createSyntheticToken(TokenType.CLOSE_CURLY_BRACKET);
+          }
+          BlockFunctionBody body = new BlockFunctionBody(keyword, star, new Block(
+              leftBracket,
+              new ArrayList<Statement>(),
+              rightBracket));
+          body.setSkipped(true);
+          return body;
+        }
         return new BlockFunctionBody(keyword, star, parseBlock());
       } else {
         // Invalid function body
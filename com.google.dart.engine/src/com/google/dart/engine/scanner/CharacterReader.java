@@ -45,6 +45,20 @@ public interface CharacterReader {
    */
   public String getString(int start, int endDelta);
 
+  /**
+   * Return the canonical string from the given table that is equal to the substring of the source
+   * code between the start offset and the modified current position, as described in
+   * {@link #getString(int, int)}, without creating a string if the table already contains it.
+   * 
+   * @param start the offset to the beginning of the string, relative to the start of the file
+   * @param endDelta the number of characters after the current location to be included in the
+   *          string, or the number of characters before the current location to be excluded if the
+   *          offset is negative
+   * @param table the table containing the canonical strings
+   * @return the canonical string equal to the specified substring of the source code
+   */
+  public String getString(int start, int endDelta, IdentifierTable table);
+
   /**
    * Return the character at the current position without changing the current position.
    * 
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+import com.google.dart.engine.utilities.general.StringUtilities;
+
+/**
+ * Instances of the class {@code IdentifierTable} map the identifiers found by a {@link Scanner} to
+ * canonical strings. An identifier is looked up using the range of characters in which it occurs,
+ * so no string needs to be created unless the identifier has not been seen before. The strings in
+ * the table are also interned using {@link StringUtilities#intern(String)}.
+ * <p>
+ * A table can be shared by the scanners of all of the sources in a context. It is safe to use a
+ * table from multiple threads. The table is bounded: once it is full, each identifier that is not
+ * in the table replaces the identifier in the slot at which it would have been stored. Because the
+ * strings are also interned globally, replacing an identifier never causes two different strings
+ * to be used for the same identifier.
+ * 
+ * @coverage dart.engine.parser
+ */
+public class IdentifierTable {
+  /**
+   * The initial number of slots in the table, which must be a power of two.
+   */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /**
+   * The maximum number of slots in the table, which must be a power of two.
+   */
+  private static final int MAXIMUM_CAPACITY = 1 << 16;
+
+  /**
+   * The mask applied to hash codes while they are being computed. It keeps intermediate values
+   * small enough that the same hash code is computed whether or not integer arithmetic overflows.
+   */
+  private static final int HASH_MASK = 0x3FFFFFF;
+
+  /**
+   * The canonical strings in the table, indexed by their hash code. Collisions are resolved using
+   * linear probing.
+   */
+  private String[] strings = new String[INITIAL_CAPACITY];
+
+  /**
+   * The hash codes of the strings in the table, stored at the same index as the string.
+   */
+  private int[] hashes = new int[INITIAL_CAPACITY];
+
+  /**
+   * The number of strings in the table.
+   */
+  private int size = 0;
+
+  /**
+   * Remove all of the strings from the table.
+   */
+  public synchronized void clear() {
+    strings = new String[INITIAL_CAPACITY];
+    hashes = new int[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  /**
+   * Return the canonical string whose characters are the characters of the given sequence between
+   * the given start (inclusive) and end (exclusive) indices.
+   * 
+   * @param sequence the sequence containing the characters of the string
+   * @param start the index of the first character of the string
+   * @param end the index one past the last character of the string
+   * @return the canonical string with the given characters
+   */
+  public synchronized String intern(CharSequence sequence, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = (31 * hash + sequence.charAt(i)) & HASH_MASK;
+    }
+    int mask = strings.length - 1;
+    int index = hash & mask;
+    String string = strings[index];
+    while (string != null) {
+      if (hashes[index] == hash && matches(string, sequence, start, end)) {
+        return string;
+      }
+      index = (index + 1) & mask;
+      string = strings[index];
+    }
+    string = StringUtilities.intern(sequence.subSequence(start, end).toString());
+    if ((size + 1) * 2 > strings.length && strings.length >= MAXIMUM_CAPACITY) {
+      // The table is full, so replace the string in the slot at which the search started. The slot
+      // stays occupied, so the searches for the other strings in the table are not affected.
+      index = hash & mask;
+      strings[index] = string;
+      hashes[index] = hash;
+      return string;
+    }
+    strings[index] = string;
+    hashes[index] = hash;
+    size++;
+    if (size * 2 > strings.length) {
+      rehash();
+    }
+    return string;
+  }
+
+  /**
+   * Return the number of strings in the table.
+   * 
+   * @return the number of strings in the table
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Return {@code true} if the given string consists of the characters of the given sequence
+   * between the given start and end indices.
+   * 
+   * @param string the string being compared
+   * @param sequence the sequence containing the characters being compared
+   * @param start the index of the first character being compared
+   * @param end the index one past the last character being compared
+   * @return {@code true} if the string consists of the given characters
+   */
+  private boolean matches(String string, CharSequence sequence, int start, int end) {
+    int length = end - start;
+    if (string.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (string.charAt(i) != sequence.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Double the number of slots in the table.
+   */
+  private void rehash() {
+    String[] oldStrings = strings;
+    int[] oldHashes = hashes;
+    strings = new String[oldStrings.length * 2];
+    hashes = new int[oldStrings.length * 2];
+    int mask = strings.length - 1;
+    for (int i = 0; i < oldStrings.length; i++) {
+      String string = oldStrings[i];
+      if (string != null) {
+        int hash = oldHashes[i];
+        int index = hash & mask;
+        while (strings[index] != null) {
+          index = (index + 1) & mask;
+        }
+        strings[index] = string;
+        hashes[index] = hash;
+      }
+    }
+  }
+}
@@ -55,6 +55,12 @@ public class Scanner {
    */
   private boolean preserveComments = true;
 
+  /**
+   * The table used to map the identifiers that are found to canonical strings, or {@code null} if
+   * the identifiers are interned individually.
+   */
+  private IdentifierTable identifierTable;
+
   /**
    * The token pointing to the head of the linked list of tokens.
    */
@@ -137,6 +143,18 @@ public class Scanner {
     return hasUnmatchedGroups;
   }
 
+  /**
+   * Set the table used to map the identifiers that are found to canonical strings. Sharing a table
+   * between the scanners of related sources avoids creating a string for each occurrence of an
+   * identifier that has already been seen. If no table is set, each identifier is interned
+   * individually, which avoids allocating a table for short-lived scanners.
+   * 
+   * @param identifierTable the table used to map identifiers to canonical strings
+   */
+  public void setIdentifierTable(IdentifierTable identifierTable) {
+    this.identifierTable = identifierTable;
+  }
+
   /**
    * Set whether documentation tokens should be scanned.
    * 
@@ -469,6 +487,21 @@ public class Scanner {
     }
   }
 
+  private void appendIdentifierToken(String value) {
+    if (firstComment == null) {
+      tail = tail.setNext(new StringToken(TokenType.IDENTIFIER, value, tokenStart, false));
+    } else {
+      tail = tail.setNext(new StringTokenWithComment(
+          TokenType.IDENTIFIER,
+          value,
+          tokenStart,
+          firstComment,
+          false));
+      firstComment = null;
+      lastComment = null;
+    }
+  }
+
   private void appendKeywordToken(Keyword keyword) {
     if (firstComment == null) {
       tail = tail.setNext(new KeywordToken(keyword, tokenStart));
@@ -770,7 +803,11 @@ public class Scanner {
         || ('0' <= next && next <= '9') || next == '_' || (next == '$' && allowDollar)) {
       next = reader.advance();
     }
-    appendStringToken(TokenType.IDENTIFIER, reader.getString(start, next < 0 ? 0 : -1));
+    if (identifierTable == null) {
+      appendStringToken(TokenType.IDENTIFIER, reader.getString(start, next < 0 ? 0 : -1));
+    } else {
+      appendIdentifierToken(reader.getString(start, next < 0 ? 0 : -1, identifierTable));
+    }
     return next;
   }
 
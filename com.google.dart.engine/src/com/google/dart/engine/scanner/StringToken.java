@@ -35,13 +35,26 @@ public class StringToken extends Token {
    * @param offset the offset from the beginning of the file to the first character in the token
    */
   public StringToken(TokenType type, String value, int offset) {
+    this(type, value, offset, true);
+  }
+
+  /**
+   * Initialize a newly created token to represent a token of the given type with the given value.
+   * 
+   * @param type the type of the token
+   * @param value the lexeme represented by this token
+   * @param offset the offset from the beginning of the file to the first character in the token
+   * @param intern {@code true} if the value needs to be interned, {@code false} if it is already a
+   *          canonical string
+   */
+  StringToken(TokenType type, String value, int offset, boolean intern) {
     super(type, offset);
-    this.value = StringUtilities.intern(value);
+    this.value = intern ? StringUtilities.intern(value) : value;
   }
 
   @Override
   public Token copy() {
-    return new StringToken(getType(), value, getOffset());
+    return new StringToken(getType(), value, getOffset(), false);
   }
 
   @Override
@@ -46,6 +46,11 @@ public class SubSequenceReader extends CharSequenceReader {
     return super.getString(start - offsetDelta, endDelta);
   }
 
+  @Override
+  public String getString(int start, int endDelta, IdentifierTable table) {
+    return super.getString(start - offsetDelta, endDelta, table);
+  }
+
   @Override
   public void setOffset(int offset) {
     super.setOffset(offset - offsetDelta);
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Instances of the class {@code TokenBuffer} represent a token stream produced by a
+ * {@link Scanner} in a compact form. Rather than one object per token, the buffer uses parallel
+ * arrays holding the kind, the offset and the length of each token, and a table of the lexemes of
+ * the tokens whose lexeme is not determined by their kind. The comments preceding a token are
+ * stored immediately before it.
+ * <p>
+ * The tokens of a buffer can be inspected by index, or using a {@link TokenCursor}. Linked tokens
+ * are only created when they are asked for, either for the whole buffer or for the tokens before
+ * a given index. Buffers are immutable.
+ * 
+ * @coverage dart.engine.parser
+ */
+public class TokenBuffer {
+  /**
+   * The tag of an entry representing a token of class {@link Token}.
+   */
+  private static final int TAG_SIMPLE = 0;
+
+  /**
+   * The tag of an entry representing a token of class {@link BeginToken}.
+   */
+  private static final int TAG_BEGIN = 1;
+
+  /**
+   * The tag of an entry representing a token of class {@link KeywordToken}.
+   */
+  private static final int TAG_KEYWORD = 2;
+
+  /**
+   * The tag of an entry representing a token of class {@link StringToken}.
+   */
+  private static final int TAG_STRING = 3;
+
+  /**
+   * The tag of an entry representing a comment preceding the next token that is not a comment.
+   */
+  private static final int TAG_COMMENT = 4;
+
+  /**
+   * The number of low-order bits used to encode the ordinal of the token type or keyword of an
+   * entry.
+   */
+  private static final int TAG_SHIFT = 16;
+
+  /**
+   * The mask used to extract the ordinal of the token type or keyword of an entry.
+   */
+  private static final int ORDINAL_MASK = (1 << TAG_SHIFT) - 1;
+
+  /**
+   * The token types, indexed by their ordinal.
+   */
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+  /**
+   * The keywords, indexed by their ordinal.
+   */
+  private static final Keyword[] KEYWORDS = Keyword.values();
+
+  /**
+   * Create a buffer containing the token stream beginning with the given token and ending with the
+   * first end-of-file token.
+   * 
+   * @param token the first token in the token stream
+   * @return the buffer containing the token stream
+   */
+  public static TokenBuffer fromTokens(Token token) {
+    int count = 0;
+    Token current = token;
+    while (true) {
+      Token comment = current.getPrecedingComments();
+      while (comment != null) {
+        count++;
+        comment = comment.getNext();
+      }
+      count++;
+      if (current.getType() == TokenType.EOF) {
+        break;
+      }
+      current = current.getNext();
+    }
+    TokenBuffer buffer = new TokenBuffer(count);
+    HashMap<String, Integer> lexemeIndices = new HashMap<String, Integer>();
+    List<String> lexemes = new ArrayList<String>();
+    // tokens don't override equals, so the end tokens are found by identity
+    HashMap<Token, Integer> beginIndices = new HashMap<Token, Integer>();
+    int index = 0;
+    current = token;
+    while (true) {
+      Token comment = current.getPrecedingComments();
+      while (comment != null) {
+        buffer.setEntry(index++, TAG_COMMENT, comment.getType().ordinal(), comment);
+        buffer.setLexeme(index - 1, comment.getLexeme(), lexemeIndices, lexemes);
+        comment = comment.getNext();
+      }
+      Integer beginIndex = beginIndices.remove(current);
+      if (beginIndex != null) {
+        buffer.endIndices[beginIndex.intValue()] = index;
+      }
+      if (current instanceof BeginToken) {
+        Token endToken = ((BeginToken) current).getEndToken();
+        if (endToken != null) {
+          beginIndices.put(endToken, Integer.valueOf(index));
+        }
+        buffer.setEntry(index++, TAG_BEGIN, current.getType().ordinal(), current);
+      } else if (current instanceof KeywordToken) {
+        int ordinal = ((KeywordToken) current).getKeyword().ordinal();
+        buffer.setEntry(index++, TAG_KEYWORD, ordinal, current);
+      } else if (current instanceof StringToken) {
+        buffer.setEntry(index++, TAG_STRING, current.getType().ordinal(), current);
+        buffer.setLexeme(index - 1, current.getLexeme(), lexemeIndices, lexemes);
+      } else {
+        buffer.setEntry(index++, TAG_SIMPLE, current.getType().ordinal(), current);
+      }
+      if (current.getType() == TokenType.EOF) {
+        buffer.lexemeTable = lexemes.toArray(new String[lexemes.size()]);
+        return buffer;
+      }
+      current = current.getNext();
+    }
+  }
+
+  /**
+   * The tag and the ordinal of the token type or keyword of each entry.
+   */
+  private final int[] kinds;
+
+  /**
+   * The offset of each entry.
+   */
+  private final int[] offsets;
+
+  /**
+   * The length of the lexeme of each entry.
+   */
+  private final int[] lengths;
+
+  /**
+   * The index in the {@link #lexemeTable} of the lexeme of each entry representing a string token
+   * or comment, or {@code -1} for the entries whose lexeme is determined by their token type or
+   * keyword.
+   */
+  private final int[] lexemeIndices;
+
+  /**
+   * The distinct lexemes of the entries representing string tokens or comments.
+   */
+  private String[] lexemeTable;
+
+  /**
+   * The index of the entry representing the end token of each entry representing a begin token,
+   * or {@code -1} if there is no corresponding end token or the entry is not a begin token.
+   */
+  private final int[] endIndices;
+
+  /**
+   * Initialize a newly created buffer to have the given number of entries.
+   * 
+   * @param count the number of entries in the buffer
+   */
+  private TokenBuffer(int count) {
+    kinds = new int[count];
+    offsets = new int[count];
+    lengths = new int[count];
+    lexemeIndices = new int[count];
+    endIndices = new int[count];
+  }
+
+  /**
+   * Return the number of tokens, including comments, in this buffer.
+   * 
+   * @return the number of tokens in this buffer
+   */
+  public int getCount() {
+    return kinds.length;
+  }
+
+  /**
+   * Return the index of the end token corresponding to the begin token at the given index, or
+   * {@code -1} if the token is not a begin token or does not have an end token.
+   * 
+   * @param index the index of the token
+   * @return the index of the corresponding end token
+   */
+  public int getEndIndex(int index) {
+    return endIndices[index];
+  }
+
+  /**
+   * Return the keyword of the token at the given index, or {@code null} if the token is not a
+   * keyword token.
+   * 
+   * @param index the index of the token
+   * @return the keyword of the token
+   */
+  public Keyword getKeyword(int index) {
+    if (kinds[index] >> TAG_SHIFT != TAG_KEYWORD) {
+      return null;
+    }
+    return KEYWORDS[kinds[index] & ORDINAL_MASK];
+  }
+
+  /**
+   * Return the length of the lexeme of the token at the given index.
+   * 
+   * @param index the index of the token
+   * @return the length of the lexeme of the token
+   */
+  public int getLength(int index) {
+    return lengths[index];
+  }
+
+  /**
+   * Return the lexeme of the token at the given index.
+   * 
+   * @param index the index of the token
+   * @return the lexeme of the token
+   */
+  public String getLexeme(int index) {
+    int lexemeIndex = lexemeIndices[index];
+    if (lexemeIndex >= 0) {
+      return lexemeTable[lexemeIndex];
+    }
+    Keyword keyword = getKeyword(index);
+    if (keyword != null) {
+      return keyword.getSyntax();
+    }
+    return getType(index).getLexeme();
+  }
+
+  /**
+   * Return the offset of the token at the given index.
+   * 
+   * @param index the index of the token
+   * @return the offset of the token
+   */
+  public int getOffset(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * Return the type of the token at the given index.
+   * 
+   * @param index the index of the token
+   * @return the type of the token
+   */
+  public TokenType getType(int index) {
+    if (kinds[index] >> TAG_SHIFT == TAG_KEYWORD) {
+      return TokenType.KEYWORD;
+    }
+    return TOKEN_TYPES[kinds[index] & ORDINAL_MASK];
+  }
+
+  /**
+   * Return {@code true} if the token at the given index is a comment.
+   * 
+   * @param index the index of the token
+   * @return {@code true} if the token is a comment
+   */
+  public boolean isComment(int index) {
+    return kinds[index] >> TAG_SHIFT == TAG_COMMENT;
+  }
+
+  /**
+   * Create a new token stream containing the tokens in this buffer. As in the streams produced by
+   * the scanner, the first token in the stream is preceded by a token of type
+   * {@link TokenType#EOF}, and the last token is an end-of-file token that points to itself.
+   * 
+   * @return the first token in the token stream
+   */
+  public Token toTokens() {
+    return toTokens(kinds.length);
+  }
+
+  /**
+   * Create a new token stream containing the tokens in this buffer that are before the given
+   * index, followed by an end-of-file token at the offset of the first token that is not
+   * included. The end token of a begin token is only set if it is included.
+   * 
+   * @param end the index of the first token that is not included
+   * @return the first token in the token stream
+   */
+  public Token toTokens(int end) {
+    int count = kinds.length;
+    Token[] tokens = new Token[count];
+    Token head = new Token(TokenType.EOF, -1);
+    head.setNext(head);
+    Token tail = head;
+    Token firstComment = null;
+    Token lastComment = null;
+    for (int i = 0; i < count; i++) {
+      int tag = kinds[i] >> TAG_SHIFT;
+      if (tag == TAG_COMMENT) {
+        Token comment = new StringToken(getType(i), getLexeme(i), offsets[i], false);
+        if (firstComment == null) {
+          firstComment = comment;
+        } else {
+          lastComment.setNext(comment);
+        }
+        lastComment = comment;
+        continue;
+      }
+      if (i >= end) {
+        tail = tail.setNext(new Token(TokenType.EOF, offsets[i]));
+        break;
+      }
+      Token token = createToken(i, tag, firstComment);
+      tokens[i] = token;
+      firstComment = null;
+      lastComment = null;
+      tail = tail.setNext(token);
+    }
+    tail.setNextWithoutSettingPrevious(tail);
+    for (int i = 0; i < count && i < end; i++) {
+      int endIndex = endIndices[i];
+      if (endIndex >= 0 && endIndex < end) {
+        ((BeginToken) tokens[i]).setEndToken(tokens[endIndex]);
+      }
+    }
+    return head.getNext();
+  }
+
+  /**
+   * Return a newly created token representing the entry at the given index.
+   * 
+   * @param index the index of the entry
+   * @param tag the tag of the entry
+   * @param precedingComment the first comment preceding the token, or {@code null} if there are no
+   *          comments preceding the token
+   * @return the token representing the entry
+   */
+  private Token createToken(int index, int tag, Token precedingComment) {
+    int offset = offsets[index];
+    switch (tag) {
+      case TAG_BEGIN:
+        if (precedingComment == null) {
+          return new BeginToken(getType(index), offset);
+        }
+        return new BeginTokenWithComment(getType(index), offset, precedingComment);
+      case TAG_KEYWORD:
+        if (precedingComment == null) {
+          return new KeywordToken(getKeyword(index), offset);
+        }
+        return new KeywordTokenWithComment(getKeyword(index), offset, precedingComment);
+      case TAG_STRING:
+        if (precedingComment == null) {
+          return new StringToken(getType(index), getLexeme(index), offset, false);
+        }
+        return new StringTokenWithComment(
+            getType(index),
+            getLexeme(index),
+            offset,
+            precedingComment,
+            false);
+      default:
+        if (precedingComment == null) {
+          return new Token(getType(index), offset);
+        }
+        return new TokenWithComment(getType(index), offset, precedingComment);
+    }
+  }
+
+  /**
+   * Record the given token as the entry at the given index.
+   * 
+   * @param index the index of the entry
+   * @param tag the tag of the entry
+   * @param ordinal the ordinal of the token type or keyword of the token
+   * @param token the token being recorded
+   */
+  private void setEntry(int index, int tag, int ordinal, Token token) {
+    kinds[index] = (tag << TAG_SHIFT) | ordinal;
+    offsets[index] = token.getOffset();
+    lengths[index] = token.getLength();
+    lexemeIndices[index] = -1;
+    endIndices[index] = -1;
+  }
+
+  /**
+   * Record the given lexeme as the lexeme of the entry at the given index.
+   * 
+   * @param index the index of the entry
+   * @param lexeme the lexeme of the entry
+   * @param indices the indices of the lexemes that have been recorded
+   * @param lexemes the lexemes that have been recorded
+   */
+  private void setLexeme(int index, String lexeme, HashMap<String, Integer> indices,
+      List<String> lexemes) {
+    Integer lexemeIndex = indices.get(lexeme);
+    if (lexemeIndex == null) {
+      lexemeIndex = Integer.valueOf(lexemes.size());
+      indices.put(lexeme, lexemeIndex);
+      lexemes.add(lexeme);
+    }
+    lexemeIndices[index] = lexemeIndex.intValue();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+/**
+ * Instances of the class {@code TokenCursor} move over the tokens in a {@link TokenBuffer},
+ * skipping comments, without creating any tokens.
+ * 
+ * @coverage dart.engine.parser
+ */
+public class TokenCursor {
+  /**
+   * The buffer containing the tokens.
+   */
+  private final TokenBuffer buffer;
+
+  /**
+   * The index of the current token in the buffer.
+   */
+  private int index;
+
+  /**
+   * Initialize a newly created cursor to be positioned at the first token in the given buffer.
+   * 
+   * @param buffer the buffer containing the tokens
+   */
+  public TokenCursor(TokenBuffer buffer) {
+    this.buffer = buffer;
+    index = skipComments(0);
+  }
+
+  /**
+   * Move to the next token, unless the current token is the end-of-file token.
+   */
+  public void advance() {
+    if (!isEof()) {
+      index = skipComments(index + 1);
+    }
+  }
+
+  /**
+   * Return the index of the current token in the buffer.
+   * 
+   * @return the index of the current token
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Return the keyword of the current token, or {@code null} if it is not a keyword token.
+   * 
+   * @return the keyword of the current token
+   */
+  public Keyword getKeyword() {
+    return buffer.getKeyword(index);
+  }
+
+  /**
+   * Return the lexeme of the current token.
+   * 
+   * @return the lexeme of the current token
+   */
+  public String getLexeme() {
+    return buffer.getLexeme(index);
+  }
+
+  /**
+   * Return the offset of the current token.
+   * 
+   * @return the offset of the current token
+   */
+  public int getOffset() {
+    return buffer.getOffset(index);
+  }
+
+  /**
+   * Return the type of the current token.
+   * 
+   * @return the type of the current token
+   */
+  public TokenType getType() {
+    return buffer.getType(index);
+  }
+
+  /**
+   * Return {@code true} if the current token is the end-of-file token.
+   * 
+   * @return {@code true} if the current token is the end-of-file token
+   */
+  public boolean isEof() {
+    return buffer.getType(index) == TokenType.EOF;
+  }
+
+  /**
+   * Return {@code true} if the current token has the given type.
+   * 
+   * @param type the type of token that can optionally appear in the current location
+   * @return {@code true} if the current token has the given type
+   */
+  public boolean matches(TokenType type) {
+    return buffer.getType(index) == type;
+  }
+
+  /**
+   * Return {@code true} if the current token is the given keyword.
+   * 
+   * @param keyword the keyword that can optionally appear in the current location
+   * @return {@code true} if the current token is the given keyword
+   */
+  public boolean matchesKeyword(Keyword keyword) {
+    return buffer.getKeyword(index) == keyword;
+  }
+
+  /**
+   * Return the type of the token following the current token, which is the end-of-file token if
+   * the current token is the end-of-file token.
+   * 
+   * @return the type of the next token
+   */
+  public TokenType peekType() {
+    if (isEof()) {
+      return TokenType.EOF;
+    }
+    return buffer.getType(skipComments(index + 1));
+  }
+
+  /**
+   * If the current token is a begin token with a corresponding end token, move to the token
+   * following the end token. Otherwise, move to the next token.
+   */
+  public void skipGroup() {
+    int endIndex = buffer.getEndIndex(index);
+    if (endIndex >= 0) {
+      index = endIndex;
+    }
+    advance();
+  }
+
+  /**
+   * Return the index of the first token at or after the given index that is not a comment.
+   * 
+   * @param index the index at which to start
+   * @return the index of the first token that is not a comment
+   */
+  private int skipComments(int index) {
+    while (buffer.isComment(index)) {
+      index++;
+    }
+    return index;
+  }
+}
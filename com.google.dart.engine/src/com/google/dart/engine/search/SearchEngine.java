@@ -13,6 +13,7 @@
  */
 package com.google.dart.engine.search;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.PropertyInducingElement;
@@ -61,6 +62,21 @@ public interface SearchEngine {
   void searchDeclarations(String name, SearchScope scope, SearchFilter filter,
       SearchListener listener);
 
+  /**
+   * Search for declarations of the given name within the given scope without blocking. Return a
+   * future that is completed with at most the given number of matches that pass the optional
+   * filter, sorted by element name. Once the limit is reached, or the future is cancelled, any
+   * matches that are found later are ignored.
+   * 
+   * @param name the name being declared by the found matches
+   * @param filter the filter used to determine which matches should be returned, or {@code null} if
+   *          all of the matches should be returned
+   * @param limit the maximum number of matches to return, or {@code -1} if there is no limit
+   * @return the future that will be completed with the matches
+   */
+  ListenableFuture<List<SearchMatch>> searchDeclarations(String name, SearchScope scope,
+      SearchFilter filter, int limit);
+
   /**
    * Synchronously search for all functions matching the given pattern within the given scope.
    * Return all matches that pass the optional filter.
@@ -148,6 +164,23 @@ public interface SearchEngine {
   void searchReferences(Element element, SearchScope scope, SearchFilter filter,
       SearchListener listener);
 
+  /**
+   * Search for references to the given {@link Element} within the given scope without blocking.
+   * Return a future that is completed with at most the given number of matches that pass the
+   * optional filter, sorted by element name. Once the limit is reached, or the future is cancelled,
+   * any matches that are found later are ignored.
+   * 
+   * @param element the element being referenced by the found matches
+   * @param scope the scope containing the references to be searched, may be {@code null} if all
+   *          references should be returned
+   * @param filter the filter used to determine which matches should be returned, or {@code null} if
+   *          all of the matches should be returned
+   * @param limit the maximum number of matches to return, or {@code -1} if there is no limit
+   * @return the future that will be completed with the matches
+   */
+  ListenableFuture<List<SearchMatch>> searchReferences(Element element, SearchScope scope,
+      SearchFilter filter, int limit);
+
   /**
    * Synchronously search for subtypes of the given type within the given scope. Return all matches
    * that pass the optional filter.
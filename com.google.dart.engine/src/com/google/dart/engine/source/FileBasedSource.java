@@ -17,6 +17,7 @@ import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.internal.context.PerformanceStatistics;
 import com.google.dart.engine.internal.context.TimestampedData;
+import com.google.dart.engine.utilities.general.AsciiCharSequence;
 import com.google.dart.engine.utilities.general.TimeCounter;
 import com.google.dart.engine.utilities.general.TimeCounter.TimeCounterHandle;
 import com.google.dart.engine.utilities.instrumentation.Instrumentation;
@@ -225,34 +226,9 @@ public class FileBasedSource implements Source {
   protected TimestampedData<CharSequence> getContentsFromFile() throws Exception {
     long modificationTime = file.lastModified();
     try {
-      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
-      FileChannel channel = null;
-      ByteBuffer byteBuffer = null;
-      try {
-        channel = randomAccessFile.getChannel();
-        long size = channel.size();
-        if (size > Integer.MAX_VALUE) {
-          throw new IllegalStateException("File is too long to be read");
-        }
-        int length = (int) size;
-        byte[] bytes = new byte[length];
-        byteBuffer = ByteBuffer.wrap(bytes);
-        byteBuffer.position(0);
-        byteBuffer.limit(length);
-        channel.read(byteBuffer);
-      } catch (ClosedByInterruptException exception) {
-        byteBuffer = null;
-      } finally {
-        try {
-          randomAccessFile.close();
-        } catch (IOException closeException) {
-          // Ignored
-        }
-      }
-      if (byteBuffer != null) {
-        byteBuffer.rewind();
-        skipOptionalBOM(byteBuffer);
-        return new TimestampedData<CharSequence>(modificationTime, UTF_8_CHARSET.decode(byteBuffer));
+      CharSequence contents = readContentsUsingChannel();
+      if (contents != null) {
+        return new TimestampedData<CharSequence>(modificationTime, contents);
       }
     } catch (IOException exception) {
       // Ignored so that we can try reading using non-native I/O
@@ -289,34 +265,9 @@ public class FileBasedSource implements Source {
   protected void getContentsFromFileToReceiver(ContentReceiver receiver) throws Exception {
     long modificationTime = file.lastModified();
     try {
-      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
-      FileChannel channel = null;
-      ByteBuffer byteBuffer = null;
-      try {
-        channel = randomAccessFile.getChannel();
-        long size = channel.size();
-        if (size > Integer.MAX_VALUE) {
-          throw new IllegalStateException("File is too long to be read");
-        }
-        int length = (int) size;
-        byte[] bytes = new byte[length];
-        byteBuffer = ByteBuffer.wrap(bytes);
-        byteBuffer.position(0);
-        byteBuffer.limit(length);
-        channel.read(byteBuffer);
-      } catch (ClosedByInterruptException exception) {
-        byteBuffer = null;
-      } finally {
-        try {
-          randomAccessFile.close();
-        } catch (IOException closeException) {
-          // Ignored
-        }
-      }
-      if (byteBuffer != null) {
-        byteBuffer.rewind();
-        skipOptionalBOM(byteBuffer);
-        receiver.accept(UTF_8_CHARSET.decode(byteBuffer), modificationTime);
+      CharSequence contents = readContentsUsingChannel();
+      if (contents != null) {
+        receiver.accept(contents, modificationTime);
         return;
       }
     } catch (IOException exception) {
@@ -359,6 +310,50 @@ public class FileBasedSource implements Source {
     return new FileInputStream(file);
   }
 
+  /**
+   * Read the contents of the underlying file using native I/O, or return {@code null} if the
+   * reading was interrupted. The contents of ASCII files are not decoded, but are returned as an
+   * {@link AsciiCharSequence} backed by the bytes that were read, which also halves the memory used
+   * to hold them.
+   * 
+   * @return the contents of the underlying file, or {@code null} if the reading was interrupted
+   * @throws IOException if the contents of the file could not be read
+   */
+  @DartOmit
+  private CharSequence readContentsUsingChannel() throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    byte[] bytes;
+    ByteBuffer byteBuffer;
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalStateException("File is too long to be read");
+      }
+      bytes = new byte[(int) size];
+      byteBuffer = ByteBuffer.wrap(bytes);
+      while (byteBuffer.hasRemaining() && channel.read(byteBuffer) >= 0) {
+        // keep reading until the buffer is full or the end of the file is reached
+      }
+    } catch (ClosedByInterruptException exception) {
+      return null;
+    } finally {
+      try {
+        randomAccessFile.close();
+      } catch (IOException closeException) {
+        // Ignored
+      }
+    }
+    byteBuffer.flip();
+    skipOptionalBOM(byteBuffer);
+    int offset = byteBuffer.position();
+    int length = byteBuffer.remaining();
+    if (AsciiCharSequence.isAscii(bytes, offset, length)) {
+      return new AsciiCharSequence(bytes, offset, length);
+    }
+    return UTF_8_CHARSET.decode(byteBuffer);
+  }
+
   /**
    * Record the time the IO took if it was slow
    */
@@ -13,6 +13,7 @@
  */
 package com.google.dart.engine.source;
 
+import com.google.common.collect.Maps;
 import com.google.dart.engine.AnalysisEngine;
 import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.context.AnalysisException;
@@ -20,6 +21,7 @@ import com.google.dart.engine.internal.context.AnalysisContextImpl;
 import com.google.dart.engine.sdk.DartSdk;
 
 import java.net.URI;
+import java.util.Map;
 
 /**
  * Instances of the class {@code SourceFactory} resolve possibly relative URI's against an existing
@@ -43,6 +45,23 @@ public class SourceFactory {
    */
   private LocalSourcePredicate localSourcePredicate = LocalSourcePredicate.NOT_SDK;
 
+  /**
+   * The object used to synchronize access to the tables of resolved URI's. Resolution itself is
+   * performed outside of this lock.
+   */
+  private final Object uriCacheLock = new Object();
+
+  /**
+   * A table mapping absolute URI's to the sources they were resolved to.
+   */
+  private final Map<String, Source> absoluteUriCache = Maps.newHashMap();
+
+  /**
+   * A table mapping containing sources to tables mapping the relative URI's in those sources to the
+   * sources they were resolved to.
+   */
+  private final Map<Source, Map<String, Source>> relativeUriCache = Maps.newHashMap();
+
   /**
    * Initialize a newly created source factory.
    * 
@@ -52,6 +71,20 @@ public class SourceFactory {
     this.resolvers = resolvers;
   }
 
+  /**
+   * Discard the cached results of resolving URI's. This must be invoked when files are added or
+   * removed, because that can change the sources to which URI's are resolved.
+   */
+  public void clearCache() {
+    synchronized (uriCacheLock) {
+      absoluteUriCache.clear();
+      relativeUriCache.clear();
+    }
+    for (UriResolver resolver : resolvers) {
+      resolver.clearCache();
+    }
+  }
+
   /**
    * Return a source object representing the given absolute URI, or {@code null} if the URI is not a
    * valid URI or if it is not an absolute URI.
@@ -60,10 +93,16 @@ public class SourceFactory {
    * @return a source object representing the absolute URI
    */
   public Source forUri(String absoluteUri) {
+    Source source = getCachedSource(null, absoluteUri);
+    if (source != null) {
+      return source;
+    }
     try {
       URI uri = new URI(absoluteUri);
       if (uri.isAbsolute()) {
-        return internalResolveUri(null, uri);
+        source = internalResolveUri(null, uri);
+        cacheSource(null, absoluteUri, source);
+        return source;
       }
     } catch (Exception exception) {
       AnalysisEngine.getInstance().getLogger().logError(
@@ -159,9 +198,20 @@ public class SourceFactory {
     if (containedUri == null || containedUri.isEmpty()) {
       return null;
     }
+    Source source = getCachedSource(containingSource, containedUri);
+    if (source != null) {
+      return source;
+    }
     try {
       // Force the creation of an escaped URI to deal with spaces, etc.
-      return internalResolveUri(containingSource, new URI(containedUri));
+      URI uri = new URI(containedUri);
+      source = internalResolveUri(containingSource, uri);
+      if (uri.isAbsolute()) {
+        cacheSource(null, containedUri, source);
+      } else if (containingSource != null) {
+        cacheSource(containingSource, containedUri, source);
+      }
+      return source;
     } catch (Exception exception) {
       AnalysisEngine.getInstance().getLogger().logError(
           "Could not resolve URI (" + containedUri + ") relative to source ("
@@ -210,6 +260,56 @@ public class SourceFactory {
     this.localSourcePredicate = localSourcePredicate;
   }
 
+  /**
+   * Record the source to which the given URI was resolved. URI's that could not be resolved are not
+   * recorded, and neither are {@code package} URI's, because the packages directories they are
+   * resolved against are rewritten by pub without the context being told about it.
+   * 
+   * @param containingSource the source containing the relative URI, or {@code null} if the URI is
+   *          absolute
+   * @param uri the URI that was resolved
+   * @param source the source to which the URI was resolved, or {@code null} if it was not resolved
+   */
+  private void cacheSource(Source containingSource, String uri, Source source) {
+    if (source == null || uri.startsWith(PackageUriResolver.PACKAGE_SCHEME + ":")
+        || PackageUriResolver.isPackageUri(source.getUri())) {
+      return;
+    }
+    synchronized (uriCacheLock) {
+      if (containingSource == null) {
+        absoluteUriCache.put(uri, source);
+      } else {
+        Map<String, Source> containedUriCache = relativeUriCache.get(containingSource);
+        if (containedUriCache == null) {
+          containedUriCache = Maps.newHashMap();
+          relativeUriCache.put(containingSource, containedUriCache);
+        }
+        containedUriCache.put(uri, source);
+      }
+    }
+  }
+
+  /**
+   * Return the source to which the given URI was previously resolved, or {@code null} if it has not
+   * been resolved since the cache was last cleared.
+   * 
+   * @param containingSource the source containing the URI, or {@code null} if the URI is absolute
+   * @param uri the URI being resolved
+   * @return the source to which the given URI was previously resolved
+   */
+  private Source getCachedSource(Source containingSource, String uri) {
+    synchronized (uriCacheLock) {
+      Source source = absoluteUriCache.get(uri);
+      if (source == null && containingSource != null) {
+        Map<String, Source> containedUriCache = relativeUriCache.get(containingSource);
+        if (containedUriCache != null) {
+          source = containedUriCache.get(uri);
+        }
+      }
+      return source;
+    }
+  }
+
   /**
    * Return a source object representing the URI that results from resolving the given (possibly
    * relative) contained URI against the URI associated with an existing source object, or
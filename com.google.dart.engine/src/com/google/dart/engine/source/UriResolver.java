@@ -30,6 +30,14 @@ public abstract class UriResolver {
     super();
   }
 
+  /**
+   * Discard any information this resolver has cached about the file system. This is invoked when
+   * files have been added or removed, so that URI's are resolved again against the current state of
+   * the file system.
+   */
+  public void clearCache() {
+  }
+
   /**
    * Resolve the given absolute URI. Return a {@link Source source} representing the file to which
    * it was resolved, whether or not the resulting source exists, or {@code null} if it could not be
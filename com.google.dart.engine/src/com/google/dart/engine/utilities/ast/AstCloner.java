@@ -107,7 +107,12 @@ public class AstCloner implements AstVisitor<AstNode> {
 
   @Override
   public BlockFunctionBody visitBlockFunctionBody(BlockFunctionBody node) {
-    return new BlockFunctionBody(node.getKeyword(), node.getStar(), cloneNode(node.getBlock()));
+    BlockFunctionBody copy = new BlockFunctionBody(
+        node.getKeyword(),
+        node.getStar(),
+        cloneNode(node.getBlock()));
+    copy.setSkipped(node.isSkipped());
+    return copy;
   }
 
   @Override
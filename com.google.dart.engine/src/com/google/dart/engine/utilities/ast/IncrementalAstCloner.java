@@ -144,10 +144,12 @@ public class IncrementalAstCloner implements AstVisitor<AstNode> {
 
   @Override
   public BlockFunctionBody visitBlockFunctionBody(BlockFunctionBody node) {
-    return new BlockFunctionBody(
+    BlockFunctionBody copy = new BlockFunctionBody(
         mapToken(node.getKeyword()),
         mapToken(node.getStar()),
         cloneNode(node.getBlock()));
+    copy.setSkipped(node.isSkipped());
+    return copy;
   }
 
   @Override
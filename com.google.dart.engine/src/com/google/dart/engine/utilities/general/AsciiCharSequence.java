@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.utilities.general;
+
+import com.google.dart.engine.utilities.translation.DartOmit;
+
+import java.nio.charset.Charset;
+
+/**
+ * Instances of the class {@code AsciiCharSequence} implement a {@link CharSequence} that is backed
+ * by an array of ASCII encoded bytes, so that the contents of an ASCII file can be used without
+ * decoding it and using only one byte per character.
+ * 
+ * @coverage dart.engine.utilities
+ */
+@DartOmit
+public class AsciiCharSequence implements CharSequence {
+  /**
+   * The charset used to convert the bytes to strings.
+   */
+  private static final Charset ASCII_CHARSET = Charset.forName("US-ASCII");
+
+  /**
+   * Return {@code true} if all of the bytes in the given range of the given array are ASCII
+   * characters.
+   * 
+   * @param bytes the array containing the bytes to be tested
+   * @param offset the index of the first byte to be tested
+   * @param length the number of bytes to be tested
+   * @return {@code true} if all of the bytes in the given range are ASCII characters
+   */
+  public static boolean isAscii(byte[] bytes, int offset, int length) {
+    int end = offset + length;
+    for (int i = offset; i < end; i++) {
+      if (bytes[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The bytes containing the characters of this sequence.
+   */
+  private final byte[] bytes;
+
+  /**
+   * The index in {@link #bytes} of the first character of this sequence.
+   */
+  private final int offset;
+
+  /**
+   * The number of characters in this sequence.
+   */
+  private final int length;
+
+  /**
+   * Initialize a newly created sequence to contain the characters in the given range of the given
+   * array. The bytes must all be ASCII characters and must not be modified after this sequence has
+   * been created.
+   * 
+   * @param bytes the bytes containing the characters of the sequence
+   * @param offset the index of the first character of the sequence
+   * @param length the number of characters in the sequence
+   */
+  public AsciiCharSequence(byte[] bytes, int offset, int length) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+    }
+    return (char) bytes[offset + index];
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > length || start > end) {
+      throw new IndexOutOfBoundsException("Start: " + start + ", end: " + end + ", length: "
+          + length);
+    }
+    return new AsciiCharSequence(bytes, offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    return new String(bytes, offset, length, ASCII_CHARSET);
+  }
+}
@@ -86,6 +86,28 @@ public class LineInfo {
     this.lineStarts = lineStarts;
   }
 
+  /**
+   * Return the one-based index of the column containing the character at the given offset. Unlike
+   * {@link #getLocation(int)}, this method does not allocate any objects.
+   * 
+   * @param offset the offset of the character whose column is to be returned
+   * @return the one-based index of the column containing the character at the given offset
+   */
+  public int getColumnNumber(int offset) {
+    return offset - lineStarts[getLineIndex(offset)] + 1;
+  }
+
+  /**
+   * Return the one-based index of the line containing the character at the given offset. Unlike
+   * {@link #getLocation(int)}, this method does not allocate any objects.
+   * 
+   * @param offset the offset of the character whose line is to be returned
+   * @return the one-based index of the line containing the character at the given offset
+   */
+  public int getLineNumber(int offset) {
+    return getLineIndex(offset) + 1;
+  }
+
   /**
    * Return the location information for the character at the given offset.
    * 
@@ -93,12 +115,30 @@ public class LineInfo {
    * @return the location information for the character at the given offset
    */
   public Location getLocation(int offset) {
-    int lineCount = lineStarts.length;
-    for (int i = 1; i < lineCount; i++) {
-      if (offset < lineStarts[i]) {
-        return new Location(i, offset - lineStarts[i - 1] + 1);
+    int lineIndex = getLineIndex(offset);
+    return new Location(lineIndex + 1, offset - lineStarts[lineIndex] + 1);
+  }
+
+  /**
+   * Return the zero-based index of the line containing the character at the given offset. Offsets
+   * before the start of the first line are treated as being on the first line, and offsets after
+   * the start of the last line are treated as being on the last line.
+   * 
+   * @param offset the offset of the character whose line is to be returned
+   * @return the zero-based index of the line containing the character at the given offset
+   */
+  private int getLineIndex(int offset) {
+    int low = 0;
+    int high = lineStarts.length - 1;
+    while (low < high) {
+      // Find the last line whose start is less than or equal to the offset.
+      int middle = (low + high + 1) >>> 1;
+      if (lineStarts[middle] <= offset) {
+        low = middle;
+      } else {
+        high = middle - 1;
       }
     }
-    return new Location(lineCount, offset - lineStarts[lineCount - 1] + 1);
+    return low;
   }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine;
+
+import com.google.dart.engine.context.ChangeSet;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.sdk.DirectoryBasedDartSdk;
+import com.google.dart.engine.source.DartUriResolver;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.FileUriResolver;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceFactory;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * The abstract class {@code EngineTestCase} defines utility methods shared by the tests of the
+ * analysis engine. Files created by a test are written to a temporary directory that is deleted
+ * when the test completes.
+ */
+public abstract class EngineTestCase extends TestCase {
+  /**
+   * The content of the minimal version of the library "dart:core" used by {@link #createSdk()}.
+   */
+  private static final String CORE_CONTENT = createSource(
+      "library dart.core;",
+      "import 'dart:async';",
+      "class Object {",
+      "  bool operator ==(other) => identical(this, other);",
+      "  String toString() => 'a string';",
+      "  int get hashCode => 0;",
+      "}",
+      "class Function {}",
+      "class StackTrace {}",
+      "class Symbol {}",
+      "class Type {}",
+      "class Null {}",
+      "class Deprecated {",
+      "  final String expires;",
+      "  const Deprecated(this.expires);",
+      "}",
+      "const Object deprecated = const Deprecated('next release');",
+      "abstract class Comparable<T> {",
+      "  int compareTo(T other);",
+      "}",
+      "class bool {}",
+      "abstract class num implements Comparable<num> {",
+      "  bool operator <(num other);",
+      "  bool operator >(num other);",
+      "  num operator +(num other);",
+      "  num operator -(num other);",
+      "  num operator *(num other);",
+      "  num operator /(num other);",
+      "  int toInt();",
+      "}",
+      "abstract class int extends num {",
+      "  int operator -();",
+      "}",
+      "abstract class double extends num {}",
+      "abstract class String implements Comparable<String> {",
+      "  int get length;",
+      "  String operator +(String other);",
+      "  bool startsWith(String other);",
+      "}",
+      "abstract class Iterator<E> {",
+      "  E get current;",
+      "  bool moveNext();",
+      "}",
+      "abstract class Iterable<E> {",
+      "  Iterator<E> get iterator;",
+      "  int get length;",
+      "}",
+      "abstract class List<E> implements Iterable<E> {",
+      "  E operator [](int index);",
+      "  void operator []=(int index, E value);",
+      "  void add(E value);",
+      "}",
+      "abstract class Map<K, V> {",
+      "  V operator [](K key);",
+      "  void operator []=(K key, V value);",
+      "}",
+      "external bool identical(Object a, Object b);",
+      "void print(Object object) {}");
+
+  /**
+   * The content of the minimal version of the library "dart:async" used by {@link #createSdk()}.
+   */
+  private static final String ASYNC_CONTENT = createSource(
+      "library dart.async;",
+      "abstract class Future<T> {",
+      "  Future then(onValue(T value));",
+      "}",
+      "abstract class Stream<T> {}");
+
+  /**
+   * The content of the libraries file used by {@link #createSdk()}.
+   */
+  private static final String LIBRARIES_CONTENT = createSource(
+      "final Map<String, LibraryInfo> LIBRARIES = const <String, LibraryInfo> {",
+      "  'core': const LibraryInfo('core/core.dart'),",
+      "  'async': const LibraryInfo('async/async.dart'),",
+      "};");
+
+  /**
+   * Create a single string containing the given lines, each terminated by a newline.
+   * 
+   * @param lines the lines to be joined
+   * @return the source code represented by the given lines
+   */
+  protected static String createSource(String... lines) {
+    StringBuilder builder = new StringBuilder();
+    for (String line : lines) {
+      builder.append(line);
+      builder.append('\n');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Delete the given file or directory, including the content of a directory.
+   * 
+   * @param file the file or directory to be deleted
+   */
+  private static void deleteRecursively(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    file.delete();
+  }
+
+  /**
+   * The temporary directory in which the files created by this test are written, or {@code null}
+   * if no files have been created.
+   */
+  private File tempDirectory;
+
+  /**
+   * Add a source with the given content to the given context. The file is written to disk so that
+   * it also exists for the parts of the engine that read files directly.
+   * 
+   * @param context the context to which the source is to be added
+   * @param path the path of the file relative to the temporary directory of this test
+   * @param content the content of the file
+   * @return the source that was added
+   */
+  protected Source addSource(AnalysisContextImpl context, String path, String content)
+      throws IOException {
+    Source source = new FileBasedSource(createFile(path, content));
+    ChangeSet changeSet = new ChangeSet();
+    changeSet.addedSource(source);
+    context.applyChanges(changeSet);
+    context.setContents(source, content);
+    return source;
+  }
+
+  /**
+   * Return a newly created analysis context that uses an SDK created by {@link #createSdk()}.
+   * 
+   * @return the analysis context that was created
+   */
+  protected AnalysisContextImpl createContext() throws IOException {
+    AnalysisContextImpl context = new AnalysisContextImpl();
+    context.setSourceFactory(new SourceFactory(
+        new DartUriResolver(createSdk()),
+        new FileUriResolver()));
+    return context;
+  }
+
+  /**
+   * Write a file with the given content, creating any missing parent directories.
+   * 
+   * @param path the path of the file relative to the temporary directory of this test
+   * @param content the content of the file
+   * @return the file that was written
+   */
+  protected File createFile(String path, String content) throws IOException {
+    File file = new File(getTempDirectory(), path.replace('/', File.separatorChar));
+    file.getParentFile().mkdirs();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+    try {
+      writer.write(content);
+    } finally {
+      writer.close();
+    }
+    return file;
+  }
+
+  /**
+   * Return a newly created SDK containing minimal versions of the libraries "dart:core" and
+   * "dart:async".
+   * 
+   * @return the SDK that was created
+   */
+  protected DirectoryBasedDartSdk createSdk() throws IOException {
+    createFile("sdk/lib/_internal/libraries.dart", LIBRARIES_CONTENT);
+    createFile("sdk/lib/core/core.dart", CORE_CONTENT);
+    createFile("sdk/lib/async/async.dart", ASYNC_CONTENT);
+    return new DirectoryBasedDartSdk(new File(getTempDirectory(), "sdk"));
+  }
+
+  /**
+   * Return the temporary directory in which the files created by this test are written, creating
+   * it if necessary.
+   * 
+   * @return the temporary directory of this test
+   */
+  protected File getTempDirectory() throws IOException {
+    if (tempDirectory == null) {
+      tempDirectory = File.createTempFile("engineTest", "");
+      tempDirectory.delete();
+      tempDirectory.mkdirs();
+    }
+    return tempDirectory;
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    if (tempDirectory != null) {
+      deleteRecursively(tempDirectory);
+      tempDirectory = null;
+    }
+    super.tearDown();
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class TestAll {
+  public static Test suite() {
+    TestSuite suite = new TestSuite("Tests in " + TestAll.class.getPackage().getName());
+    suite.addTest(com.google.dart.engine.ast.TestAll.suite());
+    suite.addTest(com.google.dart.engine.html.scanner.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.cache.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.context.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.element.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.html.angular.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.index.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.index.file.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.index.operation.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.resolver.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.search.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.search.listener.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.task.TestAll.suite());
+    suite.addTest(com.google.dart.engine.internal.type.TestAll.suite());
+    suite.addTest(com.google.dart.engine.parser.TestAll.suite());
+    suite.addTest(com.google.dart.engine.scanner.TestAll.suite());
+    suite.addTest(com.google.dart.engine.source.TestAll.suite());
+    suite.addTest(com.google.dart.engine.utilities.general.TestAll.suite());
+    suite.addTest(com.google.dart.engine.utilities.source.TestAll.suite());
+    return suite;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.ast;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.scanner.StringToken;
+import com.google.dart.engine.scanner.TokenType;
+
+public class AstNodeTest extends EngineTestCase {
+  private AstNode node = createIdentifier();
+
+  public void test_getProperty_noProperties() {
+    assertNull(node.getProperty("a"));
+  }
+
+  public void test_getProperty_otherNode() {
+    node.setProperty("a", "1");
+    assertNull(createIdentifier().getProperty("a"));
+  }
+
+  public void test_getProperty_unknownName() {
+    node.setProperty("a", "1");
+    assertNull(node.getProperty("unknownPropertyName"));
+  }
+
+  public void test_setProperty_multiple() {
+    node.setProperty("a", "1");
+    node.setProperty("b", "2");
+    node.setProperty("c", "3");
+    assertEquals("1", node.getProperty("a"));
+    assertEquals("2", node.getProperty("b"));
+    assertEquals("3", node.getProperty("c"));
+  }
+
+  public void test_setProperty_null() {
+    node.setProperty("a", "1");
+    node.setProperty("b", "2");
+    node.setProperty("c", "3");
+    // remove the property in the middle, then the others
+    node.setProperty("b", null);
+    assertEquals("1", node.getProperty("a"));
+    assertNull(node.getProperty("b"));
+    assertEquals("3", node.getProperty("c"));
+    node.setProperty("a", null);
+    node.setProperty("c", null);
+    assertNull(node.getProperty("a"));
+    assertNull(node.getProperty("c"));
+    // removing a property that is not set has no effect
+    node.setProperty("d", null);
+    node.setProperty("a", "4");
+    assertEquals("4", node.getProperty("a"));
+  }
+
+  public void test_setProperty_replace() {
+    node.setProperty("a", "1");
+    node.setProperty("b", "2");
+    node.setProperty("a", "3");
+    assertEquals("3", node.getProperty("a"));
+    assertEquals("2", node.getProperty("b"));
+  }
+
+  private SimpleIdentifier createIdentifier() {
+    return new SimpleIdentifier(new StringToken(TokenType.IDENTIFIER, "x", 0));
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.html.scanner;
+
+import com.google.dart.engine.EngineTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StringScannerTest extends EngineTestCase {
+  public void test_tokenize_preserveText() {
+    assertTokens(
+        scan("<!DOCTYPE html><!-- c --><p>text</p>", true),
+        "<!DOCTYPE html>",
+        "<!-- c -->",
+        "<",
+        "p",
+        ">",
+        "text",
+        "</",
+        "p",
+        ">");
+  }
+
+  public void test_tokenize_withoutText() {
+    assertTokens(
+        scan("<!DOCTYPE html><!-- c --><p class='a'>text</p>", false),
+        "<",
+        "p",
+        "class",
+        "=",
+        "'a'",
+        ">",
+        "</",
+        "p",
+        ">");
+  }
+
+  public void test_tokenize_withoutText_expression() {
+    assertTokens(scan("<p>a {{b}}</p>", false), "<", "p", ">", "a {{b}}", "</", "p", ">");
+  }
+
+  public void test_tokenize_withoutText_passThrough() {
+    assertTokens(
+        scan("<script>main() {}</script>", false),
+        "<",
+        "script",
+        ">",
+        "main() {}",
+        "</",
+        "script",
+        ">");
+  }
+
+  private void assertTokens(List<String> actual, String... expected) {
+    assertEquals(Arrays.asList(expected), actual);
+  }
+
+  /**
+   * Scan the given contents and return the lexemes of the tokens that were produced.
+   */
+  private List<String> scan(String contents, boolean preserveText) {
+    StringScanner scanner = new StringScanner(null, contents);
+    scanner.setPassThroughElements(new String[] {"script"});
+    scanner.setPreserveText(preserveText);
+    List<String> lexemes = new ArrayList<String>();
+    Token token = scanner.tokenize();
+    while (token.getType() != TokenType.EOF) {
+      lexemes.add(token.getLexeme());
+      token = token.getNext();
+    }
+    return lexemes;
+  }
+}
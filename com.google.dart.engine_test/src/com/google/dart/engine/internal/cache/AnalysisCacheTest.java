@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.source.DirectoryBasedSourceContainer;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnalysisCacheTest extends EngineTestCase {
+  private File directory = new File(File.separator + "project");
+
+  private Source sourceA = new FileBasedSource(new File(directory, "a.dart"));
+
+  private Source sourceB = new FileBasedSource(new File(new File(directory, "lib"), "b.dart"));
+
+  private Source sourceC = new FileBasedSource(new File(File.separator + "other", "c.dart"));
+
+  public void test_addSourcesInContainer_directory() throws Exception {
+    AnalysisCache cache = createCache();
+    List<Source> sources = new ArrayList<Source>();
+    cache.addSourcesInContainer(sources, new DirectoryBasedSourceContainer(directory));
+    assertEquals(2, sources.size());
+    assertTrue(sources.contains(sourceA));
+    assertTrue(sources.contains(sourceB));
+  }
+
+  public void test_addSourcesInContainer_directorySubclass() throws Exception {
+    AnalysisCache cache = createCache();
+    List<Source> sources = new ArrayList<Source>();
+    // a subclass that excludes a subdirectory must be asked about each source
+    cache.addSourcesInContainer(sources, new DirectoryBasedSourceContainer(directory) {
+      @Override
+      public boolean contains(Source source) {
+        return super.contains(source) && !source.getFullName().contains("lib");
+      }
+    });
+    assertEquals(1, sources.size());
+    assertTrue(sources.contains(sourceA));
+  }
+
+  private AnalysisCache createCache() {
+    AnalysisCache cache = new AnalysisCache(new CachePartition[] {new UniversalCachePartition(
+        null,
+        8,
+        null)});
+    cache.put(sourceA, new DartEntryImpl());
+    cache.put(sourceB, new DartEntryImpl());
+    cache.put(sourceC, new DartEntryImpl());
+    return cache;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.EngineTestCase;
+
+public class CacheStateArrayTest extends EngineTestCase {
+  private static final CacheState[] STATES = {
+      CacheState.INVALID, CacheState.VALID, CacheState.FLUSHED, CacheState.IN_PROCESS,
+      CacheState.ERROR};
+
+  public void test_contains_int() {
+    int array = 0;
+    assertTrue(CacheStateArray.contains(array, CacheState.INVALID));
+    assertFalse(CacheStateArray.contains(array, CacheState.ERROR));
+    array = CacheStateArray.set(array, 9, CacheState.ERROR);
+    assertTrue(CacheStateArray.contains(array, CacheState.ERROR));
+    array = CacheStateArray.set(array, 9, CacheState.VALID);
+    assertFalse(CacheStateArray.contains(array, CacheState.ERROR));
+  }
+
+  public void test_contains_long() {
+    long array = 0L;
+    array = CacheStateArray.set(array, 20, CacheState.IN_PROCESS);
+    assertTrue(CacheStateArray.contains(array, CacheState.IN_PROCESS));
+    assertFalse(CacheStateArray.contains(array, CacheState.FLUSHED));
+  }
+
+  public void test_get_zero() {
+    for (int i = 0; i <= 9; i++) {
+      assertSame(CacheState.INVALID, CacheStateArray.get(0, i));
+    }
+    for (int i = 0; i <= 20; i++) {
+      assertSame(CacheState.INVALID, CacheStateArray.get(0L, i));
+    }
+  }
+
+  public void test_set_int() {
+    int array = 0;
+    for (int i = 0; i <= 9; i++) {
+      array = CacheStateArray.set(array, i, STATES[i % STATES.length]);
+    }
+    for (int i = 0; i <= 9; i++) {
+      assertSame(STATES[i % STATES.length], CacheStateArray.get(array, i));
+    }
+  }
+
+  public void test_set_long() {
+    long array = 0L;
+    for (int i = 0; i <= 20; i++) {
+      array = CacheStateArray.set(array, i, STATES[(i + 3) % STATES.length]);
+    }
+    for (int i = 0; i <= 20; i++) {
+      assertSame(STATES[(i + 3) % STATES.length], CacheStateArray.get(array, i));
+    }
+  }
+
+  public void test_set_overwrite() {
+    long array = CacheStateArray.set(0L, 5, CacheState.ERROR);
+    array = CacheStateArray.set(array, 5, CacheState.FLUSHED);
+    assertSame(CacheState.FLUSHED, CacheStateArray.get(array, 5));
+    assertSame(CacheState.INVALID, CacheStateArray.get(array, 4));
+    assertSame(CacheState.INVALID, CacheStateArray.get(array, 6));
+  }
+}
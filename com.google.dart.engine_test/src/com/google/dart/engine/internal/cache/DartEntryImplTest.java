@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.context.AnalysisException;
+import com.google.dart.engine.error.AnalysisError;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.scanner.TokenType;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.utilities.source.LineInfo;
+
+import java.io.File;
+
+public class DartEntryImplTest extends EngineTestCase {
+  private static final DataDescriptor<?>[] DESCRIPTORS = {
+      DartEntry.ELEMENT, DartEntry.EXPORTED_LIBRARIES, DartEntry.IMPORTED_LIBRARIES,
+      DartEntry.INCLUDED_PARTS, DartEntry.IS_CLIENT, DartEntry.IS_LAUNCHABLE,
+      DartEntry.PARSE_ERRORS, DartEntry.PARSED_UNIT, DartEntry.PUBLIC_NAMESPACE,
+      DartEntry.SCAN_ERRORS, DartEntry.SOURCE_KIND, DartEntry.TOKEN_STREAM,
+      SourceEntry.CONTENT, SourceEntry.LINE_INFO};
+
+  private static final DataDescriptor<?>[] LIBRARY_DESCRIPTORS = {
+      DartEntry.RESOLUTION_ERRORS, DartEntry.RESOLVED_UNIT, DartEntry.VERIFICATION_ERRORS,
+      DartEntry.HINTS};
+
+  public void test_getState_initial() {
+    DartEntryImpl entry = new DartEntryImpl();
+    for (DataDescriptor<?> descriptor : DESCRIPTORS) {
+      assertSame(descriptor.toString(), CacheState.INVALID, entry.getState(descriptor));
+    }
+    assertFalse(entry.hasErrorState());
+  }
+
+  public void test_getWritableCopy() {
+    DartEntryImpl entry = new DartEntryImpl();
+    Source librarySource = createSource("lib.dart");
+    entry.setState(DartEntry.PARSED_UNIT, CacheState.FLUSHED);
+    entry.setValue(DartEntry.SCAN_ERRORS, AnalysisError.NO_ERRORS);
+    entry.setStateInLibrary(DartEntry.HINTS, librarySource, CacheState.IN_PROCESS);
+    DartEntryImpl copy = entry.getWritableCopy();
+    assertSame(CacheState.FLUSHED, copy.getState(DartEntry.PARSED_UNIT));
+    assertSame(CacheState.VALID, copy.getState(DartEntry.SCAN_ERRORS));
+    assertSame(CacheState.INVALID, copy.getState(DartEntry.TOKEN_STREAM));
+    assertSame(CacheState.IN_PROCESS, copy.getStateInLibrary(DartEntry.HINTS, librarySource));
+    copy.setState(DartEntry.PARSED_UNIT, CacheState.INVALID);
+    assertSame(CacheState.FLUSHED, entry.getState(DartEntry.PARSED_UNIT));
+  }
+
+  public void test_hasErrorState() {
+    DartEntryImpl entry = new DartEntryImpl();
+    entry.recordScanError(new AnalysisException());
+    assertTrue(entry.hasErrorState());
+    assertSame(CacheState.ERROR, entry.getState(DartEntry.SCAN_ERRORS));
+    assertSame(CacheState.ERROR, entry.getState(DartEntry.PARSED_UNIT));
+  }
+
+  public void test_hasErrorState_inLibrary() {
+    DartEntryImpl entry = new DartEntryImpl();
+    entry.setStateInLibrary(DartEntry.HINTS, createSource("lib.dart"), CacheState.ERROR);
+    assertTrue(entry.hasErrorState());
+  }
+
+  public void test_setState_independent() {
+    CacheState[] states = {
+        CacheState.ERROR, CacheState.FLUSHED, CacheState.IN_PROCESS, CacheState.INVALID};
+    for (int i = 0; i < DESCRIPTORS.length; i++) {
+      DartEntryImpl entry = new DartEntryImpl();
+      CacheState state = states[i % states.length];
+      entry.setState(DESCRIPTORS[i], state);
+      for (int j = 0; j < DESCRIPTORS.length; j++) {
+        CacheState expected = i == j ? state : CacheState.INVALID;
+        assertSame(DESCRIPTORS[j].toString(), expected, entry.getState(DESCRIPTORS[j]));
+      }
+    }
+  }
+
+  public void test_setStateInLibrary_independent() {
+    Source firstLibrary = createSource("first.dart");
+    Source secondLibrary = createSource("second.dart");
+    DartEntryImpl entry = new DartEntryImpl();
+    for (int i = 0; i < LIBRARY_DESCRIPTORS.length; i++) {
+      entry.setStateInLibrary(LIBRARY_DESCRIPTORS[i], firstLibrary, CacheState.ERROR);
+      entry.setStateInLibrary(LIBRARY_DESCRIPTORS[i], secondLibrary, CacheState.FLUSHED);
+      for (int j = 0; j < LIBRARY_DESCRIPTORS.length; j++) {
+        DataDescriptor<?> descriptor = LIBRARY_DESCRIPTORS[j];
+        assertSame(
+            j <= i ? CacheState.ERROR : CacheState.INVALID,
+            entry.getStateInLibrary(descriptor, firstLibrary));
+        assertSame(
+            j <= i ? CacheState.FLUSHED : CacheState.INVALID,
+            entry.getStateInLibrary(descriptor, secondLibrary));
+      }
+    }
+  }
+
+  public void test_setValue() {
+    DartEntryImpl entry = new DartEntryImpl();
+    LineInfo lineInfo = new LineInfo(new int[] {0});
+    entry.setValue(SourceEntry.LINE_INFO, lineInfo);
+    assertSame(CacheState.VALID, entry.getState(SourceEntry.LINE_INFO));
+    assertSame(lineInfo, entry.getValue(SourceEntry.LINE_INFO));
+    entry.setState(SourceEntry.LINE_INFO, CacheState.FLUSHED);
+    assertSame(CacheState.FLUSHED, entry.getState(SourceEntry.LINE_INFO));
+    assertNull(entry.getValue(SourceEntry.LINE_INFO));
+  }
+
+  public void test_setValue_tokenStream() {
+    DartEntryImpl entry = new DartEntryImpl();
+    Token token = new Token(TokenType.EOF, 0);
+    token.setNext(token);
+    entry.setValue(DartEntry.TOKEN_STREAM, token);
+    assertSame(token, entry.getValue(DartEntry.TOKEN_STREAM));
+    assertSame(token, entry.getWritableCopy().getValue(DartEntry.TOKEN_STREAM));
+  }
+
+  private Source createSource(String fileName) {
+    return new FileBasedSource(new File(fileName));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.EngineTestCase;
+
+public class HtmlEntryImplTest extends EngineTestCase {
+  private static final DataDescriptor<?>[] DESCRIPTORS = {
+      HtmlEntry.ANGULAR_ENTRY, HtmlEntry.ANGULAR_ERRORS, HtmlEntry.ELEMENT, HtmlEntry.HINTS,
+      HtmlEntry.PARSE_ERRORS, HtmlEntry.PARSED_UNIT, HtmlEntry.REFERENCED_LIBRARIES,
+      HtmlEntry.RESOLUTION_ERRORS, HtmlEntry.RESOLVED_UNIT, HtmlEntry.POLYMER_BUILD_ERRORS,
+      HtmlEntry.POLYMER_RESOLUTION_ERRORS, SourceEntry.CONTENT, SourceEntry.LINE_INFO};
+
+  public void test_getState_initial() {
+    HtmlEntryImpl entry = new HtmlEntryImpl();
+    for (DataDescriptor<?> descriptor : DESCRIPTORS) {
+      assertSame(descriptor.toString(), CacheState.INVALID, entry.getState(descriptor));
+    }
+    assertSame(CacheState.VALID, entry.getState(HtmlEntry.ANGULAR_APPLICATION));
+    assertSame(CacheState.VALID, entry.getState(HtmlEntry.ANGULAR_COMPONENT));
+    assertFalse(entry.hasErrorState());
+  }
+
+  public void test_getWritableCopy() {
+    HtmlEntryImpl entry = new HtmlEntryImpl();
+    entry.setState(HtmlEntry.RESOLVED_UNIT, CacheState.IN_PROCESS);
+    entry.setState(HtmlEntry.ANGULAR_COMPONENT, CacheState.ERROR);
+    HtmlEntryImpl copy = entry.getWritableCopy();
+    assertSame(CacheState.IN_PROCESS, copy.getState(HtmlEntry.RESOLVED_UNIT));
+    assertSame(CacheState.ERROR, copy.getState(HtmlEntry.ANGULAR_COMPONENT));
+    assertTrue(copy.hasErrorState());
+  }
+
+  public void test_setState_independent() {
+    CacheState[] states = {
+        CacheState.ERROR, CacheState.FLUSHED, CacheState.IN_PROCESS, CacheState.INVALID};
+    for (int i = 0; i < DESCRIPTORS.length; i++) {
+      HtmlEntryImpl entry = new HtmlEntryImpl();
+      CacheState state = states[i % states.length];
+      entry.setState(DESCRIPTORS[i], state);
+      for (int j = 0; j < DESCRIPTORS.length; j++) {
+        CacheState expected = i == j ? state : CacheState.INVALID;
+        assertSame(DESCRIPTORS[j].toString(), expected, entry.getState(DESCRIPTORS[j]));
+      }
+      assertSame(CacheState.VALID, entry.getState(HtmlEntry.ANGULAR_APPLICATION));
+    }
+  }
+}
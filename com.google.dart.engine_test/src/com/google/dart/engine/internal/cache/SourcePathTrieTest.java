@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class SourcePathTrieTest extends EngineTestCase {
+  private File root = new File(File.separator + "project");
+
+  private Source sourceA = createFileSource("lib", "a.dart");
+
+  private Source sourceB = createFileSource("lib", "src", "b.dart");
+
+  private Source sourceC = createFileSource("lib", "src", "c.dart");
+
+  private Source sourceD = createFileSource("test", "d.dart");
+
+  public void test_addSourcesInDirectory() throws Exception {
+    SourcePathTrie trie = createTrie();
+    assertSources(getSources(trie, "lib"), sourceA, sourceB, sourceC);
+    assertSources(getSources(trie, "lib" + File.separator + "src"), sourceB, sourceC);
+    assertSources(getSources(trie, "test"), sourceD);
+    assertSources(getSources(trie, ""), sourceA, sourceB, sourceC, sourceD);
+  }
+
+  public void test_addSourcesInDirectory_missing() throws Exception {
+    SourcePathTrie trie = createTrie();
+    assertSources(getSources(trie, "bin"));
+    assertSources(getSources(trie, "lib" + File.separator + "src" + File.separator + "c"));
+  }
+
+  public void test_addSourcesInDirectory_partialSegment() throws Exception {
+    SourcePathTrie trie = createTrie();
+    // "li" and "lib/sr" are prefixes of full names, but not directories containing sources
+    assertSources(getSources(trie, "li"));
+    assertSources(getSources(trie, "lib" + File.separator + "sr"));
+  }
+
+  public void test_remove() throws Exception {
+    SourcePathTrie trie = createTrie();
+    trie.remove(sourceB);
+    assertSources(getSources(trie, "lib"), sourceA, sourceC);
+    trie.remove(sourceC);
+    assertSources(getSources(trie, "lib" + File.separator + "src"));
+    assertSources(getSources(trie, "lib"), sourceA);
+    // removing a source that is not in the trie has no effect
+    trie.remove(sourceC);
+    assertSources(getSources(trie, ""), sourceA, sourceD);
+  }
+
+  private void assertSources(List<Source> actual, Source... expected) {
+    assertEquals(expected.length, actual.size());
+    HashSet<Source> actualSet = new HashSet<Source>(actual);
+    for (Source source : expected) {
+      assertTrue(actualSet.contains(source));
+    }
+  }
+
+  private Source createFileSource(String... segments) {
+    File file = root;
+    for (String segment : segments) {
+      file = new File(file, segment);
+    }
+    return new FileBasedSource(file);
+  }
+
+  private SourcePathTrie createTrie() {
+    SourcePathTrie trie = new SourcePathTrie();
+    trie.add(sourceA);
+    trie.add(sourceB);
+    trie.add(sourceC);
+    trie.add(sourceD);
+    return trie;
+  }
+
+  private List<Source> getSources(SourcePathTrie trie, String relativePath) {
+    String path = root.getAbsolutePath() + File.separator;
+    if (relativePath.length() > 0) {
+      path += relativePath + File.separator;
+    }
+    List<Source> result = new ArrayList<Source>();
+    trie.addSourcesInDirectory(path, result);
+    return result;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.BlockFunctionBody;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.CompilationUnitMember;
+import com.google.dart.engine.ast.FunctionDeclaration;
+import com.google.dart.engine.context.ChangeSet;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.MethodElement;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.util.Arrays;
+
+public class AnalysisContextImplTest extends EngineTestCase {
+  public void test_applyChanges_addMissingSource() throws Exception {
+    AnalysisContextImpl context = createContext();
+    Source sourceA = addSource(context, "a.dart", createSource(//
+        "library a;",
+        "import 'b.dart';"));
+    Source sourceC = addSource(context, "c.dart", createSource(//
+        "library c;",
+        "import 'a.dart';"));
+    Source sourceD = addSource(context, "d.dart", createSource(//
+        "library d;"));
+    context.computeLibraryElement(sourceC);
+    LibraryElement libraryD = context.computeLibraryElement(sourceD);
+    // adding the missing source invalidates only the library referencing it and its dependents
+    ChangeSet changeSet = new ChangeSet();
+    changeSet.addedSource(new FileBasedSource(createFile("b.dart", "library b;")));
+    context.applyChanges(changeSet);
+    assertNull(context.getLibraryElement(sourceA));
+    assertNull(context.getLibraryElement(sourceC));
+    assertSame(libraryD, context.getLibraryElement(sourceD));
+  }
+
+  public void test_lazyFunctionBodies() throws Exception {
+    AnalysisContextImpl context = createContext();
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setLazyFunctionBodies(true);
+    context.setAnalysisOptions(options);
+    Source source = addSource(context, "a.dart", createSource(//
+        "library a;",
+        "f() {",
+        "  print(0);",
+        "}"));
+    context.computeLibraryElement(source);
+    // the bodies of the SDK are skipped, but not the bodies of other sources
+    assertFalse(getBody(context.parseCompilationUnit(source), "f").isSkipped());
+    Source coreSource = context.getSourceFactory().forUri("dart:core");
+    assertTrue(getBody(context.parseCompilationUnit(coreSource), "print").isSkipped());
+    // a priority source is parsed again with its bodies
+    context.setAnalysisPriorityOrder(Arrays.asList(coreSource));
+    assertFalse(getBody(context.parseCompilationUnit(coreSource), "print").isSkipped());
+  }
+
+  public void test_lazyFunctionBodies_resolvedUnitRequested() throws Exception {
+    AnalysisContextImpl context = createContext();
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setLazyFunctionBodies(true);
+    context.setAnalysisOptions(options);
+    Source source = addSource(context, "a.dart", "library a;");
+    context.computeLibraryElement(source);
+    Source coreSource = context.getSourceFactory().forUri("dart:core");
+    assertTrue(getBody(context.parseCompilationUnit(coreSource), "print").isSkipped());
+    // asking for the resolved unit causes the source to be parsed again with its bodies
+    assertNull(context.getResolvedCompilationUnit(coreSource, coreSource));
+    CompilationUnit unit = context.resolveCompilationUnit(coreSource, coreSource);
+    assertFalse(getBody(unit, "print").isSkipped());
+    assertSame(unit, context.getResolvedCompilationUnit(coreSource, coreSource));
+    // and the bodies stay parsed when the source is parsed again
+    context.setContents(coreSource, context.getContents(coreSource).getData().toString());
+    assertFalse(getBody(context.parseCompilationUnit(coreSource), "print").isSkipped());
+  }
+
+  public void test_setContents_apiChange() throws Exception {
+    AnalysisContextImpl context = createContext();
+    Source sourceA = addSource(context, "a.dart", createLibraryA("return 1;", ""));
+    Source sourceB = addSource(context, "b.dart", createLibraryB());
+    assertNotNull(context.computeLibraryElement(sourceB));
+    // adding a method changes the API of the library, so the dependent library is invalidated
+    context.setContents(sourceA, createLibraryA("return 1;", "  void baz() {}"));
+    context.computeLibraryElement(sourceA);
+    assertNull(context.getLibraryElement(sourceB));
+    assertNotNull(context.computeLibraryElement(sourceB));
+  }
+
+  public void test_setContents_bodyChange() throws Exception {
+    AnalysisContextImpl context = createContext();
+    Source sourceA = addSource(context, "a.dart", createLibraryA("return 1;", ""));
+    Source sourceB = addSource(context, "b.dart", createLibraryB());
+    LibraryElement libraryB = context.computeLibraryElement(sourceB);
+    ClassElement oldClassA = getClass(context.computeLibraryElement(sourceA), 0);
+    // only change a body, which moves the declarations following it
+    context.setContents(sourceA, createLibraryA("return 1 + 2 + 3;", ""));
+    LibraryElement libraryA = context.computeLibraryElement(sourceA);
+    ClassElement classA = getClass(libraryA, 0);
+    assertNotSame(oldClassA, classA);
+    // the dependent library keeps its resolution and the elements from before the change
+    assertSame(libraryB, context.getLibraryElement(sourceB));
+    ClassElement superclass = getClass(libraryB, 0).getSupertype().getElement();
+    assertSame(oldClassA, superclass);
+    assertEquals(classA, superclass);
+    MethodElement oldBar = oldClassA.getMethod("bar");
+    assertEquals(classA.getMethod("bar").getNameOffset(), oldBar.getNameOffset());
+    // a library depending on both versions of the elements is resolved without errors
+    Source sourceC = addSource(context, "c.dart", createSource(//
+        "library c;",
+        "import 'a.dart';",
+        "import 'b.dart';",
+        "class C extends B implements A {}",
+        "int g(C c) => c.foo() + c.bar();"));
+    assertEquals(0, context.computeErrors(sourceC).length);
+    assertEquals(0, context.computeErrors(sourceB).length);
+    assertSame(libraryB, context.getLibraryElement(sourceB));
+  }
+
+  private String createLibraryA(String fooBody, String extraMember) {
+    return createSource(//
+        "library a;",
+        "class A {",
+        "  int foo() {",
+        "    " + fooBody,
+        "  }",
+        "  int bar() => 0;",
+        extraMember,
+        "}");
+  }
+
+  private String createLibraryB() {
+    return createSource(//
+        "library b;",
+        "import 'a.dart';",
+        "class B extends A {}",
+        "int f(B b) => b.foo();");
+  }
+
+  private BlockFunctionBody getBody(CompilationUnit unit, String name) {
+    for (CompilationUnitMember member : unit.getDeclarations()) {
+      if (member instanceof FunctionDeclaration
+          && ((FunctionDeclaration) member).getName().getName().equals(name)) {
+        return (BlockFunctionBody) ((FunctionDeclaration) member).getFunctionExpression().getBody();
+      }
+    }
+    fail("No function " + name);
+    return null;
+  }
+
+  private ClassElement getClass(LibraryElement library, int index) {
+    return library.getDefiningCompilationUnit().getTypes()[index];
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.ElementLocation;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.internal.element.ElementLocationImpl;
+import com.google.dart.engine.internal.element.LibraryElementImpl;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+
+public class ElementLocationCacheTest extends EngineTestCase {
+  private Source source = new FileBasedSource(new File("a.dart"));
+
+  private ElementLocation location = new ElementLocationImpl(new String[] {"a.dart", "A"});
+
+  public void test_get() throws Exception {
+    ElementLocationCache cache = new ElementLocationCache();
+    LibraryElement library = new LibraryElementImpl(null, "a", 0);
+    ClassElementImpl element = new ClassElementImpl("A", 0);
+    assertNull(cache.get(source, library, location));
+    cache.put(source, library, location, element);
+    assertSame(element, cache.get(source, library, location));
+    ElementLocation equalLocation = new ElementLocationImpl(new String[] {"a.dart", "A"});
+    assertSame(element, cache.get(source, library, equalLocation));
+  }
+
+  public void test_get_libraryReplaced() throws Exception {
+    ElementLocationCache cache = new ElementLocationCache();
+    LibraryElement library = new LibraryElementImpl(null, "a", 0);
+    cache.put(source, library, location, new ClassElementImpl("A", 0));
+    // the elements found in a library element that was replaced are not returned
+    LibraryElement newLibrary = new LibraryElementImpl(null, "a", 0);
+    assertNull(cache.get(source, newLibrary, location));
+    assertNull(cache.get(source, library, location));
+  }
+
+  public void test_getElement() throws Exception {
+    AnalysisContextImpl context = createContext();
+    Source sourceA = addSource(context, "a.dart", createSource(//
+        "library a;",
+        "class A {}"));
+    ClassElement classA = getClass(context, sourceA);
+    assertSame(classA, context.getElement(classA.getLocation()));
+    assertSame(classA, context.getElement(classA.getLocation()));
+    // a new element model is found after the library has been resolved again
+    context.setContents(sourceA, createSource(//
+        "library a;",
+        "class A {}",
+        "class B {}"));
+    ClassElement newClassA = getClass(context, sourceA);
+    assertNotSame(classA, newClassA);
+    assertSame(newClassA, context.getElement(classA.getLocation()));
+  }
+
+  public void test_invalidateLibrary() throws Exception {
+    ElementLocationCache cache = new ElementLocationCache();
+    LibraryElement library = new LibraryElementImpl(null, "a", 0);
+    cache.put(source, library, location, new ClassElementImpl("A", 0));
+    cache.invalidateLibrary(source);
+    assertNull(cache.get(source, library, location));
+  }
+
+  private ClassElement getClass(AnalysisContextImpl context, Source source) throws Exception {
+    return context.computeLibraryElement(source).getDefiningCompilationUnit().getTypes()[0];
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.common.collect.Sets;
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+
+public class MissingSourceIndexTest extends EngineTestCase {
+  private MissingSourceIndex index = new MissingSourceIndex();
+
+  private Source sourceA = createFileSource("a.dart");
+
+  private Source sourceB = createFileSource("b.dart");
+
+  private Source missingSource = createFileSource("missing.dart");
+
+  private Source otherMissingSource = createFileSource("other.dart");
+
+  public void test_clear() {
+    index.addReference(sourceA, missingSource);
+    index.clear();
+    assertSources(index.removeMissingSource(missingSource));
+  }
+
+  public void test_removeMissingSource() {
+    index.addReference(sourceA, missingSource);
+    index.addReference(sourceB, missingSource);
+    index.addReference(sourceB, otherMissingSource);
+    assertSources(index.removeMissingSource(missingSource), sourceA, sourceB);
+    // the source is no longer missing, but the other reference is kept
+    assertSources(index.removeMissingSource(missingSource));
+    assertSources(index.removeMissingSource(otherMissingSource), sourceB);
+  }
+
+  public void test_removeMissingSource_unknown() {
+    assertSources(index.removeMissingSource(missingSource));
+  }
+
+  public void test_removeReferencingSource() {
+    index.addReference(sourceA, missingSource);
+    index.addReference(sourceB, missingSource);
+    index.addReference(sourceA, otherMissingSource);
+    index.removeReferencingSource(sourceA);
+    assertSources(index.removeMissingSource(missingSource), sourceB);
+    assertSources(index.removeMissingSource(otherMissingSource));
+  }
+
+  private void assertSources(Source[] actual, Source... expected) {
+    assertEquals(Sets.newHashSet(expected), Sets.newHashSet(actual));
+    assertEquals(expected.length, actual.length);
+  }
+
+  private Source createFileSource(String path) {
+    return new FileBasedSource(new File(path));
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class WorkManagerTest extends EngineTestCase {
+  private WorkManager manager = new WorkManager();
+
+  private Source sourceA = new FileBasedSource(new File("a.dart"));
+
+  private Source sourceB = new FileBasedSource(new File("b.dart"));
+
+  private Source sourceC = new FileBasedSource(new File("c.dart"));
+
+  public void test_add_changePriority() {
+    manager.add(sourceA, SourcePriority.LIBRARY);
+    manager.add(sourceB, SourcePriority.LIBRARY);
+    manager.add(sourceB, SourcePriority.PRIORITY_PART);
+    assertOrder(sourceB, sourceA);
+  }
+
+  public void test_add_order() {
+    manager.add(sourceA, SourcePriority.LIBRARY);
+    manager.add(sourceB, SourcePriority.LIBRARY);
+    manager.add(sourceC, SourcePriority.LIBRARY);
+    assertOrder(sourceA, sourceB, sourceC);
+  }
+
+  public void test_add_priority() {
+    manager.add(sourceA, SourcePriority.HTML);
+    manager.add(sourceB, SourcePriority.UNKNOWN);
+    manager.add(sourceC, SourcePriority.PRIORITY_PART);
+    assertOrder(sourceC, sourceB, sourceA);
+  }
+
+  public void test_add_samePriority() {
+    manager.add(sourceA, SourcePriority.LIBRARY);
+    manager.add(sourceB, SourcePriority.LIBRARY);
+    manager.add(sourceA, SourcePriority.LIBRARY);
+    assertOrder(sourceA, sourceB);
+  }
+
+  public void test_addFirst() {
+    manager.add(sourceA, SourcePriority.LIBRARY);
+    manager.add(sourceB, SourcePriority.LIBRARY);
+    manager.addFirst(sourceC, SourcePriority.LIBRARY);
+    manager.addFirst(sourceB, SourcePriority.LIBRARY);
+    assertOrder(sourceB, sourceC, sourceA);
+  }
+
+  public void test_iterator_empty() {
+    assertFalse(manager.iterator().hasNext());
+  }
+
+  public void test_iterator_remove() {
+    manager.add(sourceA, SourcePriority.LIBRARY);
+    manager.add(sourceB, SourcePriority.NORMAL_PART);
+    manager.add(sourceC, SourcePriority.HTML);
+    WorkManager.WorkIterator iterator = manager.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next() != sourceC) {
+        iterator.remove();
+      }
+    }
+    assertOrder(sourceC);
+  }
+
+  public void test_remove() {
+    manager.add(sourceA, SourcePriority.LIBRARY);
+    manager.add(sourceB, SourcePriority.LIBRARY);
+    manager.add(sourceC, SourcePriority.LIBRARY);
+    manager.remove(sourceB);
+    manager.remove(sourceB);
+    assertOrder(sourceA, sourceC);
+    manager.remove(sourceA);
+    manager.remove(sourceC);
+    assertOrder();
+    manager.add(sourceB, SourcePriority.LIBRARY);
+    assertOrder(sourceB);
+  }
+
+  private void assertOrder(Source... expectedSources) {
+    List<Source> sources = new ArrayList<Source>();
+    WorkManager.WorkIterator iterator = manager.iterator();
+    while (iterator.hasNext()) {
+      sources.add(iterator.next());
+    }
+    assertEquals(Arrays.asList(expectedSources), sources);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.element;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.FieldElement;
+import com.google.dart.engine.element.MethodElement;
+import com.google.dart.engine.element.PropertyAccessorElement;
+
+public class ClassElementImplTest extends EngineTestCase {
+  public void test_getChild() throws Exception {
+    ClassElementImpl classA = new ClassElementImpl("A", 0);
+    FieldElementImpl field = new FieldElementImpl("f", 10);
+    PropertyAccessorElementImpl getter = new PropertyAccessorElementImpl(field);
+    getter.setGetter(true);
+    MethodElementImpl method = new MethodElementImpl("m", 20);
+    classA.setFields(new FieldElement[] {field});
+    classA.setAccessors(new PropertyAccessorElement[] {getter});
+    classA.setMethods(new MethodElement[] {method});
+    assertSame(field, classA.getChild("f"));
+    assertSame(getter, classA.getChild("f?"));
+    assertSame(method, classA.getChild("m"));
+    assertNull(classA.getChild("x"));
+  }
+
+  public void test_getChild_afterSet() throws Exception {
+    ClassElementImpl classA = new ClassElementImpl("A", 0);
+    MethodElementImpl method = new MethodElementImpl("m", 10);
+    classA.setMethods(new MethodElement[] {method});
+    assertSame(method, classA.getChild("m"));
+    // replacing the children discards the table of children
+    MethodElementImpl newMethod = new MethodElementImpl("n", 10);
+    classA.setMethods(new MethodElement[] {newMethod});
+    assertNull(classA.getChild("m"));
+    assertSame(newMethod, classA.getChild("n"));
+  }
+
+  public void test_getChild_duplicate() throws Exception {
+    ClassElementImpl classA = new ClassElementImpl("A", 0);
+    MethodElementImpl first = new MethodElementImpl("m", 10);
+    MethodElementImpl second = new MethodElementImpl("m", 20);
+    classA.setMethods(new MethodElement[] {first, second});
+    assertSame(first, classA.getChild("m"));
+  }
+}
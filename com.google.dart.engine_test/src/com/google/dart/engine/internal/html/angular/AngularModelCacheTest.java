@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.html.angular;
+
+import com.google.common.collect.Sets;
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.ImportElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.angular.AngularElement;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.internal.element.CompilationUnitElementImpl;
+import com.google.dart.engine.internal.element.ImportElementImpl;
+import com.google.dart.engine.internal.element.LibraryElementImpl;
+import com.google.dart.engine.internal.element.angular.AngularControllerElementImpl;
+import com.google.dart.engine.internal.element.angular.AngularFormatterElementImpl;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class AngularModelCacheTest extends EngineTestCase {
+  private AngularModelCache cache = new AngularModelCache();
+
+  public void test_clear() {
+    LibraryElementImpl library = createLibrary("a");
+    createClass(library, "A").addToolkitObjects(new AngularFormatterElementImpl("f", 0));
+    AngularElement[] elements = getAccessibleElements(library);
+    cache.clear();
+    assertNotSame(elements, getAccessibleElements(library));
+  }
+
+  public void test_getAccessibleElements() {
+    LibraryElementImpl libraryB = createLibrary("b");
+    AngularElement formatter = new AngularFormatterElementImpl("f", 0);
+    createClass(libraryB, "B").addToolkitObjects(formatter);
+    LibraryElementImpl libraryA = createLibrary("a", libraryB);
+    AngularElement controller = new AngularControllerElementImpl("c", 0);
+    createClass(libraryA, "A").addToolkitObjects(controller);
+    Set<LibraryElement> libraries = new HashSet<LibraryElement>();
+    AngularElement[] elements = cache.getAccessibleElements(libraryA, libraries);
+    assertEquals(Arrays.asList(controller, formatter), Arrays.asList(elements));
+    assertEquals(Sets.newHashSet(libraryA, libraryB), libraries);
+    // the elements and the visited libraries are reused
+    libraries.clear();
+    assertSame(elements, cache.getAccessibleElements(libraryA, libraries));
+    assertEquals(Sets.newHashSet(libraryA, libraryB), libraries);
+  }
+
+  public void test_getAccessibleElements_cycle() {
+    LibraryElementImpl libraryA = createLibrary("a");
+    LibraryElementImpl libraryB = createLibrary("b", libraryA);
+    libraryA.setImports(createImports(libraryB));
+    Set<LibraryElement> libraries = new HashSet<LibraryElement>();
+    assertEquals(0, cache.getAccessibleElements(libraryA, libraries).length);
+    assertEquals(Sets.newHashSet(libraryA, libraryB), libraries);
+  }
+
+  public void test_getAccessibleElements_null() {
+    Set<LibraryElement> libraries = new HashSet<LibraryElement>();
+    assertEquals(0, cache.getAccessibleElements(null, libraries).length);
+    assertEquals(0, libraries.size());
+  }
+
+  public void test_getAccessibleElements_replacedLibrary() {
+    LibraryElementImpl library = createLibrary("a");
+    AngularElement[] elements = getAccessibleElements(library);
+    LibraryElementImpl newLibrary = createLibrary("a");
+    AngularElement formatter = new AngularFormatterElementImpl("f", 0);
+    createClass(newLibrary, "A").addToolkitObjects(formatter);
+    assertEquals(Arrays.asList(formatter), Arrays.asList(getAccessibleElements(newLibrary)));
+    assertNotSame(elements, getAccessibleElements(newLibrary));
+  }
+
+  public void test_invalidateLibrary() {
+    LibraryElementImpl libraryB = createLibrary("b");
+    ClassElementImpl classB = createClass(libraryB, "B");
+    LibraryElementImpl libraryA = createLibrary("a", libraryB);
+    LibraryElementImpl libraryC = createLibrary("c");
+    assertEquals(0, getAccessibleElements(libraryA).length);
+    AngularElement[] elementsC = getAccessibleElements(libraryC);
+    // invalidating an imported library invalidates the importing library, but no other libraries
+    AngularElement formatter = new AngularFormatterElementImpl("f", 0);
+    classB.addToolkitObjects(formatter);
+    cache.invalidateLibrary(libraryB.getSource());
+    assertEquals(Arrays.asList(formatter), Arrays.asList(getAccessibleElements(libraryA)));
+    assertSame(elementsC, getAccessibleElements(libraryC));
+  }
+
+  private ClassElementImpl createClass(LibraryElementImpl library, String name) {
+    ClassElementImpl element = new ClassElementImpl(name, 0);
+    CompilationUnitElementImpl unit =
+        (CompilationUnitElementImpl) library.getDefiningCompilationUnit();
+    unit.setTypes(new ClassElement[] {element});
+    return element;
+  }
+
+  private ImportElement[] createImports(LibraryElement... importedLibraries) {
+    ImportElement[] imports = new ImportElement[importedLibraries.length];
+    for (int i = 0; i < importedLibraries.length; i++) {
+      ImportElementImpl importElement = new ImportElementImpl(0);
+      importElement.setImportedLibrary(importedLibraries[i]);
+      imports[i] = importElement;
+    }
+    return imports;
+  }
+
+  private LibraryElementImpl createLibrary(String name, LibraryElement... importedLibraries) {
+    Source source = new FileBasedSource(new File(name + ".dart"));
+    CompilationUnitElementImpl unit = new CompilationUnitElementImpl(name + ".dart");
+    unit.setSource(source);
+    LibraryElementImpl library = new LibraryElementImpl(null, name, 0);
+    library.setDefiningCompilationUnit(unit);
+    library.setImports(createImports(importedLibraries));
+    return library;
+  }
+
+  private AngularElement[] getAccessibleElements(LibraryElement library) {
+    return cache.getAccessibleElements(library, new HashSet<LibraryElement>());
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.internal.index.operation.IndexOperation;
+import com.google.dart.engine.internal.index.operation.OperationProcessor;
+import com.google.dart.engine.internal.index.operation.OperationQueue;
+import com.google.dart.engine.source.Source;
+
+import java.util.concurrent.CountDownLatch;
+
+public class IndexImplTest extends EngineTestCase {
+  /**
+   * A store that counts the number of times it was closed.
+   */
+  private static class ClosingIndexStore extends MemoryIndexStoreImpl {
+    private int closeCount = 0;
+
+    @Override
+    public void close() {
+      closeCount++;
+    }
+  }
+
+  private ClosingIndexStore store = new ClosingIndexStore();
+
+  private OperationQueue queue = new OperationQueue();
+
+  private OperationProcessor processor = new OperationProcessor(queue);
+
+  private IndexImpl index = new IndexImpl(store, queue, processor);
+
+  public void test_stop_running() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    queue.enqueue(new IndexOperation() {
+      @Override
+      public boolean isQuery() {
+        return false;
+      }
+
+      @Override
+      public void performOperation() {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException exception) {
+        }
+      }
+
+      @Override
+      public boolean removeWhenSourceRemoved(Source source) {
+        return false;
+      }
+    });
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        index.run();
+      }
+    };
+    thread.start();
+    started.await();
+    // does not wait for the operation being performed
+    index.stop();
+    assertEquals(0, store.closeCount);
+    // the store is closed once the operation has completed
+    release.countDown();
+    thread.join();
+    assertEquals(1, store.closeCount);
+  }
+
+  public void test_stop_notRunning() throws Exception {
+    index.stop();
+    assertEquals(1, store.closeCount);
+  }
+}
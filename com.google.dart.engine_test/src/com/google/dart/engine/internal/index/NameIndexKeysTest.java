@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.Element;
+
+import java.util.Locale;
+
+public class NameIndexKeysTest extends EngineTestCase {
+  public void test_getDefinitionKeys() throws Exception {
+    Element[] keys = NameIndexKeys.getDefinitionKeys("IndexStore");
+    assertKeys(
+        keys,
+        "prefix:i",
+        "prefix:in",
+        "prefix:ind",
+        "trigram:ind",
+        "trigram:nde",
+        "trigram:dex",
+        "trigram:exs",
+        "trigram:xst",
+        "trigram:sto",
+        "trigram:tor",
+        "trigram:ore",
+        "hump:I",
+        "hump:IS");
+  }
+
+  public void test_getDefinitionKeys_turkishLocale() throws Exception {
+    Locale locale = Locale.getDefault();
+    Locale.setDefault(new Locale("tr", "TR"));
+    try {
+      Element[] keys = NameIndexKeys.getDefinitionKeys("ID");
+      assertKeys(keys, "prefix:i", "prefix:id", "hump:I", "hump:ID");
+      assertKey("prefix:id", NameIndexKeys.getPrefixKey("ID"));
+      assertKey("trigram:ind", NameIndexKeys.getWildcardKey("*IND*".toCharArray()));
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+
+  public void test_getPrefixKey() throws Exception {
+    assertNull(NameIndexKeys.getPrefixKey(""));
+    assertKey("prefix:a", NameIndexKeys.getPrefixKey("A"));
+    assertKey("prefix:abc", NameIndexKeys.getPrefixKey("AbcDef"));
+  }
+
+  public void test_getWildcardKey() throws Exception {
+    assertKey("prefix:abc", NameIndexKeys.getWildcardKey("Abcd*".toCharArray()));
+    assertKey("trigram:cde", NameIndexKeys.getWildcardKey("a*Cdef?".toCharArray()));
+    assertKey("prefix:a", NameIndexKeys.getWildcardKey("a*b".toCharArray()));
+    assertNull(NameIndexKeys.getWildcardKey("*".toCharArray()));
+  }
+
+  private void assertKey(String expected, Element key) {
+    assertEquals("name:" + expected, key.getName());
+  }
+
+  private void assertKeys(Element[] keys, String... expected) {
+    assertEquals(expected.length, keys.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertKey(expected[i], keys[i]);
+    }
+  }
+}
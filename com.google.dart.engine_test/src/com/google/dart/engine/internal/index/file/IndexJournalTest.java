@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.utilities.logging.Logger;
+
+import java.io.DataOutputStream;
+import java.io.File;
+
+public class IndexJournalTest extends EngineTestCase {
+  public void test_flush_dependencyFirst() throws Exception {
+    IndexJournal strings = newJournal("strings");
+    IndexJournal elements = newJournal("elements", strings);
+    strings.beginRecord().writeUTF("name");
+    elements.beginRecord().writeInt(0);
+    assertEquals(0, getFile("strings").length());
+    elements.flush();
+    assertTrue(getFile("strings").length() > 4);
+    assertTrue(getFile("elements").length() > 4);
+  }
+
+  public void test_replay_unknownStringId() throws Exception {
+    IndexJournal strings = newJournal("strings");
+    strings.beginRecord().writeBoolean(false);
+    strings.close();
+    // the second path refers to a string that was lost
+    IndexJournal elements = newJournal("elements", strings);
+    writePath(elements, 0);
+    writePath(elements, 0, 1);
+    writePath(elements, 0, -2);
+    elements.close();
+    ElementCodec codec = new ElementCodec(new StringCodec(strings), elements);
+    assertTrue(codec.hasId(0));
+    assertFalse(codec.hasId(1));
+    assertNull(codec.decode(null, 1));
+    assertTrue(codec.hasId(2));
+    assertFalse(codec.hasId(3));
+  }
+
+  public void test_write_dependencyFirstWhenBufferFull() throws Exception {
+    IndexJournal strings = newJournal("strings");
+    IndexJournal elements = newJournal("elements", strings);
+    strings.beginRecord().writeUTF("name");
+    DataOutputStream stream = elements.beginRecord();
+    for (int i = 0; i < 10000; i++) {
+      stream.writeInt(i);
+    }
+    // the buffer of the dependent journal was written, so the dependency was written before it
+    assertTrue(getFile("elements").length() > 0);
+    assertTrue(getFile("strings").length() > 4);
+  }
+
+  private File getFile(String name) throws Exception {
+    return new File(getTempDirectory(), name);
+  }
+
+  private IndexJournal newJournal(String name, IndexJournal... dependencies) throws Exception {
+    return new IndexJournal(getFile(name), Logger.NULL, dependencies);
+  }
+
+  private void writePath(IndexJournal journal, int... path) throws Exception {
+    DataOutputStream stream = journal.beginRecord();
+    stream.writeInt(path.length);
+    for (int component : path) {
+      stream.writeInt(component);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.dart.engine.EngineTestCase;
+
+import java.util.Arrays;
+
+public class LongToIntArrayMapTest extends EngineTestCase {
+  public void test_addAll() throws Exception {
+    LongToIntArrayMap map = new LongToIntArrayMap(16, 0.75f);
+    map.addAll(1L, new int[] {1, 2});
+    map.addAll(1L << 40, new int[] {3});
+    map.addAll(1L, new int[] {4, 5, 6});
+    assertEquals(2, map.size());
+    assertEquals(6, map.getValueCount());
+    assertEqualArrays(new int[] {1, 2, 4, 5, 6}, map.get(1L));
+    assertEqualArrays(new int[] {3}, map.get(1L << 40));
+    assertEquals(0, map.get(2L).length);
+  }
+
+  public void test_clear() throws Exception {
+    LongToIntArrayMap map = new LongToIntArrayMap(16, 0.75f);
+    map.addAll(1L, new int[] {1});
+    map.clear();
+    assertEquals(0, map.size());
+    assertEquals(0, map.getValueCount());
+    assertEquals(0, map.get(1L).length);
+    assertEquals(0, map.getKeys().length);
+  }
+
+  public void test_get_doesNotModifyMap() throws Exception {
+    LongToIntArrayMap map = new LongToIntArrayMap(16, 0.75f);
+    map.addAll(1L, new int[] {1});
+    map.addAll(1L, new int[] {2});
+    map.addAll(1L, new int[] {3});
+    // values with spare capacity are copied, not trimmed in place
+    int[] first = map.get(1L);
+    int[] second = map.get(1L);
+    assertEqualArrays(new int[] {1, 2, 3}, first);
+    assertNotSame(first, second);
+    // trimming is done explicitly, after which the values are returned without copying
+    map.trimToSize();
+    assertSame(map.get(1L), map.get(1L));
+    assertEqualArrays(new int[] {1, 2, 3}, map.get(1L));
+  }
+
+  public void test_rehash() throws Exception {
+    LongToIntArrayMap map = new LongToIntArrayMap(2, 0.75f);
+    for (int i = 0; i < 1000; i++) {
+      map.addAll(i * 31L, new int[] {i, -i});
+    }
+    assertEquals(1000, map.size());
+    assertEquals(2000, map.getValueCount());
+    for (int i = 0; i < 1000; i++) {
+      assertEqualArrays(new int[] {i, -i}, map.get(i * 31L));
+    }
+    long[] keys = map.getKeys();
+    Arrays.sort(keys);
+    assertEquals(1000, keys.length);
+    assertEquals(999 * 31L, keys[999]);
+  }
+
+  private void assertEqualArrays(int[] expected, int[] actual) {
+    assertTrue(Arrays.toString(actual), Arrays.equals(expected, actual));
+  }
+}
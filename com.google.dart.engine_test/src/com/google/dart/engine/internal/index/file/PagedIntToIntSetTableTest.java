@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.dart.engine.EngineTestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class PagedIntToIntSetTableTest extends EngineTestCase {
+  public void test_add() throws Exception {
+    PagedIntToIntSetTable table = createTable(4);
+    table.add(1, 20);
+    table.add(1, 10);
+    table.add(1, 20);
+    table.add(2, 10);
+    assertEquals(2, table.size());
+    assertEqualArrays(new int[] {10, 20}, table.get(1));
+    assertEqualArrays(new int[] {10}, table.get(2));
+    assertEqualArrays(new int[] {}, table.get(3));
+    assertEqualArrays(new int[] {1, 2}, table.getKeys());
+    table.close();
+  }
+
+  public void test_add_manyPages() throws Exception {
+    // only a few pages are kept in memory, the others are read from the file again
+    PagedIntToIntSetTable table = createTable(4);
+    for (int value = 0; value < 100; value++) {
+      for (int key = 0; key < 500; key++) {
+        table.add(key, value);
+      }
+    }
+    assertEquals(500, table.size());
+    for (int key = 0; key < 500; key++) {
+      int[] values = table.get(key);
+      assertEquals(100, values.length);
+      for (int value = 0; value < 100; value++) {
+        assertEquals(value, values[value]);
+      }
+    }
+    assertEquals(500, table.getKeys().length);
+    table.close();
+  }
+
+  public void test_clear() throws Exception {
+    PagedIntToIntSetTable table = createTable(4);
+    for (int key = 0; key < 1000; key++) {
+      table.add(key, 1);
+    }
+    table.clear();
+    assertEquals(0, table.size());
+    assertEqualArrays(new int[] {}, table.get(1));
+    table.add(1, 2);
+    assertEqualArrays(new int[] {2}, table.get(1));
+    table.close();
+  }
+
+  public void test_get_maxKey() throws Exception {
+    PagedIntToIntSetTable table = createTable(4);
+    table.add(Integer.MAX_VALUE, -1);
+    table.add(Integer.MAX_VALUE, 1);
+    table.add(Integer.MAX_VALUE - 1, 2);
+    assertEqualArrays(new int[] {1, -1}, table.get(Integer.MAX_VALUE));
+    assertEqualArrays(new int[] {2}, table.get(Integer.MAX_VALUE - 1));
+    table.close();
+  }
+
+  public void test_remove() throws Exception {
+    PagedIntToIntSetTable table = createTable(4);
+    for (int value = 0; value < 1000; value++) {
+      table.add(1, value);
+      table.add(2, value);
+    }
+    for (int value = 0; value < 1000; value += 2) {
+      assertTrue(table.remove(1, value));
+    }
+    assertFalse(table.remove(1, 0));
+    assertFalse(table.remove(3, 0));
+    assertEquals(500, table.get(1).length);
+    assertEquals(1, table.get(1)[0]);
+    assertEquals(1000, table.get(2).length);
+    // a key without values is no longer counted
+    for (int value = 0; value < 1000; value++) {
+      table.remove(2, value);
+    }
+    assertEquals(1, table.size());
+    assertEqualArrays(new int[] {1}, table.getKeys());
+    table.close();
+  }
+
+  private void assertEqualArrays(int[] expected, int[] actual) {
+    assertTrue(Arrays.toString(actual), Arrays.equals(expected, actual));
+  }
+
+  private PagedIntToIntSetTable createTable(int maxPages) throws IOException {
+    return new PagedIntToIntSetTable(new File(getTempDirectory(), "pages"), maxPages);
+  }
+}
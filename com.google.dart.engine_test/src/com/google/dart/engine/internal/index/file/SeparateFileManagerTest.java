@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.dart.engine.EngineTestCase;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+public class SeparateFileManagerTest extends EngineTestCase {
+  public void test_clear() throws Exception {
+    SeparateFileManager manager = createManager();
+    writeFile(manager, "a", 1);
+    manager.openBuffer("a");
+    new File(getTempDirectory(), "journals").mkdirs();
+    manager.clear();
+    assertNull(manager.openBuffer("a"));
+    assertEquals(0, manager.getMappingCount());
+    assertTrue(new File(getTempDirectory(), "journals").isDirectory());
+  }
+
+  public void test_delete() throws Exception {
+    SeparateFileManager manager = createManager();
+    writeFile(manager, "a", 1);
+    writeFile(manager, "b", 2);
+    manager.openBuffer("a");
+    ByteBuffer bufferB = manager.openBuffer("b");
+    assertEquals(2, manager.getMappingCount());
+    manager.delete("a");
+    assertNull(manager.openBuffer("a"));
+    assertEquals(1, manager.getMappingCount());
+    assertEquals(2, bufferB.getInt(0));
+  }
+
+  public void test_openOutputStream_replace() throws Exception {
+    SeparateFileManager manager = createManager();
+    writeFile(manager, "a", 1);
+    assertEquals(1, manager.openBuffer("a").getInt(0));
+    assertEquals(1, manager.getMappingCount());
+    // the mapped file is replaced, rather than rewritten in place
+    writeFile(manager, "a", 2);
+    assertEquals(0, manager.getMappingCount());
+    assertEquals(2, manager.openBuffer("a").getInt(0));
+    assertEquals(1, getTempDirectory().list().length);
+  }
+
+  public void test_retainAll() throws Exception {
+    SeparateFileManager manager = createManager();
+    writeFile(manager, "a", 1);
+    writeFile(manager, "b", 2);
+    manager.openBuffer("a");
+    manager.openBuffer("b");
+    manager.retainAll(ImmutableSet.of("b"));
+    assertNull(manager.openBuffer("a"));
+    assertEquals(2, manager.openBuffer("b").getInt(0));
+  }
+
+  private SeparateFileManager createManager() throws Exception {
+    return new SeparateFileManager(getTempDirectory());
+  }
+
+  private void writeFile(SeparateFileManager manager, String name, int value) throws Exception {
+    OutputStream stream = manager.openOutputStream(name);
+    try {
+      stream.write(new byte[] {0, 0, 0, (byte) value});
+    } finally {
+      stream.close();
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.dart.engine.AnalysisEngine;
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.index.IndexFactory;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.RelationshipCallback;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.internal.index.IndexConstants;
+import com.google.dart.engine.internal.index.operation.GetRelationshipsOperation;
+import com.google.dart.engine.internal.index.operation.IndexUnitOperation;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SplitIndexStoreImplTest extends EngineTestCase {
+  /**
+   * A {@link NodeManager} that can block the next read of a node, and counts the nodes put.
+   */
+  private static class BlockingNodeManager implements NodeManager {
+    private final NodeManager manager;
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger putCount = new AtomicInteger();
+    private volatile boolean blocking = false;
+
+    public BlockingNodeManager(NodeManager manager) {
+      this.manager = manager;
+    }
+
+    @Override
+    public void clear() {
+      manager.clear();
+    }
+
+    @Override
+    public ContextCodec getContextCodec() {
+      return manager.getContextCodec();
+    }
+
+    @Override
+    public ElementCodec getElementCodec() {
+      return manager.getElementCodec();
+    }
+
+    @Override
+    public int getLocationCount() {
+      return manager.getLocationCount();
+    }
+
+    @Override
+    public IndexNode getNode(String name) {
+      if (blocking) {
+        blocking = false;
+        blocked.countDown();
+        Uninterruptibles.awaitUninterruptibly(release);
+      }
+      return manager.getNode(name);
+    }
+
+    @Override
+    public StringCodec getStringCodec() {
+      return manager.getStringCodec();
+    }
+
+    @Override
+    public IndexNode newNode(AnalysisContext context) {
+      return manager.newNode(context);
+    }
+
+    @Override
+    public void putNode(String name, IndexNode node) {
+      putCount.incrementAndGet();
+      manager.putNode(name, node);
+    }
+
+    @Override
+    public void removeNode(String name) {
+      manager.removeNode(name);
+    }
+  }
+
+  public void test_getRelationships_whileIndexing() throws Exception {
+    final AnalysisContextImpl context = createLibraries();
+    File directory = new File(getTempDirectory(), "index");
+    directory.mkdirs();
+    StringCodec stringCodec = new StringCodec();
+    final BlockingNodeManager nodeManager = new BlockingNodeManager(new FileNodeManager(
+        new SeparateFileManager(directory),
+        AnalysisEngine.getInstance().getLogger(),
+        stringCodec,
+        new ContextCodec(),
+        new ElementCodec(stringCodec),
+        new RelationshipCodec(stringCodec)));
+    final IndexStore store = new SplitIndexStoreImpl(nodeManager);
+    indexUnit(store, context, "a.dart");
+    indexUnit(store, context, "b.dart");
+    LibraryElement library = context.computeLibraryElement(getSource(context, "a.dart"));
+    final ClassElement classA = library.getDefiningCompilationUnit().getTypes()[0];
+    // start a query that blocks while it reads a node
+    nodeManager.blocking = true;
+    final Location[][] result = new Location[1][];
+    Thread query = new Thread() {
+      @Override
+      public void run() {
+        result[0] = store.getRelationships(classA, IndexConstants.IS_REFERENCED_BY);
+      }
+    };
+    query.start();
+    nodeManager.blocked.await();
+    // the unit is indexed again without waiting for the query
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          indexUnit(store, context, "b.dart");
+        } catch (Exception exception) {
+          throw new RuntimeException(exception);
+        }
+      }
+    };
+    int putCount = nodeManager.putCount.get();
+    writer.start();
+    writer.join(10000);
+    assertFalse(writer.isAlive());
+    // but its node is put only once the query is done
+    assertEquals(putCount, nodeManager.putCount.get());
+    nodeManager.release.countDown();
+    query.join();
+    assertEquals(1, result[0].length);
+    assertEquals(putCount + 1, nodeManager.putCount.get());
+    assertEquals(1, getReferences(store, context).length);
+    store.close();
+  }
+
+  public void test_getRelationships_whileStoreLocked() throws Exception {
+    AnalysisContextImpl context = createLibraries();
+    final IndexStore store = IndexFactory.newFileIndexStore(new File(getTempDirectory(), "index"));
+    indexUnit(store, context, "a.dart");
+    indexUnit(store, context, "b.dart");
+    // hold the monitor of the store, as an index operation does
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        synchronized (store) {
+          locked.countDown();
+          Uninterruptibles.awaitUninterruptibly(release);
+        }
+      }
+    };
+    writer.start();
+    locked.await();
+    // a query does not wait for the monitor
+    final Location[][] result = new Location[1][];
+    LibraryElement library = context.computeLibraryElement(getSource(context, "a.dart"));
+    ClassElement classA = library.getDefiningCompilationUnit().getTypes()[0];
+    new GetRelationshipsOperation(
+        store,
+        classA,
+        IndexConstants.IS_REFERENCED_BY,
+        new RelationshipCallback() {
+          @Override
+          public void hasRelationships(Element element, Relationship relationship,
+              Location[] locations) {
+            result[0] = locations;
+          }
+        }).performOperation();
+    assertTrue(writer.isAlive());
+    release.countDown();
+    writer.join();
+    assertEquals(1, result[0].length);
+    store.close();
+  }
+
+  public void test_restore_removeSource() throws Exception {
+    File directory = new File(getTempDirectory(), "index");
+    // index both libraries and close the store
+    AnalysisContextImpl context = createLibraries();
+    IndexStore store = IndexFactory.newFileIndexStore(directory);
+    store.bindContext(context, "project");
+    indexUnit(store, context, "a.dart");
+    indexUnit(store, context, "b.dart");
+    assertEquals(1, getReferences(store, context).length);
+    store.close();
+    // restore the store for a new context bound to the same key, without indexing again
+    context = createLibraries();
+    store = IndexFactory.newFileIndexStore(directory);
+    store.bindContext(context, "project");
+    Location[] locations = getReferences(store, context);
+    assertEquals(1, locations.length);
+    assertEquals(getSource(context, "b.dart"), locations[0].getElement().getSource());
+    // the restored library/unit pairs allow the node of the referencing unit to be removed
+    store.removeSource(context, getSource(context, "b.dart"));
+    assertEquals(0, getReferences(store, context).length);
+    store.close();
+    // the removal is persisted
+    context = createLibraries();
+    store = IndexFactory.newFileIndexStore(directory);
+    store.bindContext(context, "project");
+    assertEquals(0, getReferences(store, context).length);
+    store.close();
+  }
+
+  public void test_restore_unboundContext() throws Exception {
+    File directory = new File(getTempDirectory(), "index");
+    AnalysisContextImpl context = createLibraries();
+    IndexStore store = IndexFactory.newFileIndexStore(directory);
+    indexUnit(store, context, "a.dart");
+    indexUnit(store, context, "b.dart");
+    store.close();
+    assertEquals(2, getNodeFileCount(directory));
+    // the nodes of a context without a key can never be used again
+    store = IndexFactory.newFileIndexStore(directory);
+    assertEquals(0, getNodeFileCount(directory));
+    context = createLibraries();
+    store.bindContext(context, "project");
+    assertEquals(0, getReferences(store, context).length);
+    store.close();
+  }
+
+  private AnalysisContextImpl createLibraries() throws IOException {
+    AnalysisContextImpl context = createContext();
+    addSource(context, "a.dart", createSource(//
+        "library a;",
+        "class A {}"));
+    addSource(context, "b.dart", createSource(//
+        "library b;",
+        "import 'a.dart';",
+        "A a;"));
+    return context;
+  }
+
+  private int getNodeFileCount(File directory) {
+    int count = 0;
+    for (File file : directory.listFiles()) {
+      if (file.getName().endsWith(".index")) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private Location[] getReferences(IndexStore store, AnalysisContextImpl context) throws Exception {
+    LibraryElement library = context.computeLibraryElement(getSource(context, "a.dart"));
+    ClassElement classA = library.getDefiningCompilationUnit().getTypes()[0];
+    return store.getRelationships(classA, IndexConstants.IS_REFERENCED_BY);
+  }
+
+  private Source getSource(AnalysisContextImpl context, String path) throws IOException {
+    return context.getSourceFactory().forUri(new File(getTempDirectory(), path).toURI().toString());
+  }
+
+  private void indexUnit(IndexStore store, AnalysisContextImpl context, String path)
+      throws Exception {
+    Source source = getSource(context, path);
+    CompilationUnit unit = context.resolveCompilationUnit(source, source);
+    new IndexUnitOperation(store, context, unit).performOperation();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.operation;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.index.IndexFactory;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.internal.index.IndexConstants;
+import com.google.dart.engine.internal.index.IndexContributor;
+import com.google.dart.engine.source.Source;
+
+public class RecordingIndexStoreTest extends EngineTestCase {
+  private AnalysisContextImpl context;
+  private Source sourceA;
+  private Source sourceB;
+  private ClassElement classA;
+  private RecordingIndexStore store = new RecordingIndexStore();
+
+  public void test_aboutToIndexDart() throws Exception {
+    CompilationUnitElement unitElement = getUnit(sourceA).getElement();
+    assertTrue(store.aboutToIndexDart(context, unitElement));
+    context.dispose();
+    assertFalse(store.aboutToIndexDart(context, unitElement));
+  }
+
+  public void test_clear() throws Exception {
+    store.clear();
+    assertEquals(0, store.getRelationships(classA, IndexConstants.IS_REFERENCED_BY).length);
+  }
+
+  public void test_getRelationships() throws Exception {
+    assertEquals(1, store.getRelationships(classA, IndexConstants.IS_REFERENCED_BY).length);
+    assertEquals(0, store.getRelationships(classA, IndexConstants.IS_INVOKED_BY).length);
+  }
+
+  public void test_removeSource_element() throws Exception {
+    String statistics = store.getStatistics();
+    // the element is in "a.dart"
+    store.removeSource(context, sourceA);
+    assertEquals(0, store.getRelationships(classA, IndexConstants.IS_REFERENCED_BY).length);
+    assertFalse(statistics.equals(store.getStatistics()));
+    assertFalse("0 relationships".equals(store.getStatistics()));
+  }
+
+  public void test_removeSource_location() throws Exception {
+    // all of the locations are in "b.dart"
+    store.removeSource(context, sourceB);
+    assertEquals("0 relationships", store.getStatistics());
+  }
+
+  public void test_removeSources() throws Exception {
+    store.removeSources(context, null);
+    assertEquals("0 relationships", store.getStatistics());
+  }
+
+  public void test_replay() throws Exception {
+    IndexStore memoryStore = IndexFactory.newMemoryIndexStore();
+    assertTrue(memoryStore.aboutToIndexDart(context, getUnit(sourceB).getElement()));
+    store.replay(memoryStore);
+    memoryStore.doneIndex();
+    assertEquals(1, memoryStore.getRelationships(classA, IndexConstants.IS_REFERENCED_BY).length);
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    context = createContext();
+    sourceA = addSource(context, "a.dart", createSource(//
+        "library a;",
+        "class A {}"));
+    sourceB = addSource(context, "b.dart", createSource(//
+        "library b;",
+        "import 'a.dart';",
+        "A a;"));
+    classA = context.computeLibraryElement(sourceA).getDefiningCompilationUnit().getTypes()[0];
+    getUnit(sourceB).accept(new IndexContributor(store));
+  }
+
+  private CompilationUnit getUnit(Source source) throws Exception {
+    return context.resolveCompilationUnit(source, source);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.resolver;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.internal.element.CompilationUnitElementImpl;
+import com.google.dart.engine.internal.element.LibraryElementImpl;
+import com.google.dart.engine.internal.type.InterfaceTypeImpl;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+
+public class MemberMapCacheTest extends EngineTestCase {
+  private MemberMapCache cache = new MemberMapCache();
+
+  public void test_getClassChainMap_notCached() {
+    ClassElementImpl classA = createClass(createLibrary("a"), "A", null);
+    assertNull(cache.getClassChainMap(classA, classA.getLibrary()));
+  }
+
+  public void test_getClassChainMap_replacedElement() {
+    LibraryElementImpl library = createLibrary("a");
+    ClassElementImpl classA = createClass(library, "A", null);
+    cache.putClassChainMap(classA, library, new MemberMap());
+    ClassElementImpl newClassA = createClass(createLibrary("a"), "A", null);
+    assertEquals(classA, newClassA);
+    assertNull(cache.getClassChainMap(newClassA, newClassA.getLibrary()));
+  }
+
+  public void test_getClassChainMap_views() {
+    LibraryElementImpl libraryA = createLibrary("a");
+    LibraryElementImpl libraryB = createLibrary("b");
+    LibraryElementImpl libraryC = createLibrary("c");
+    ClassElementImpl classA = createClass(libraryA, "A", null);
+    ClassElementImpl classB = createClass(libraryB, "B", classA);
+    MemberMap mapA = new MemberMap();
+    MemberMap mapB = new MemberMap();
+    MemberMap mapOther = new MemberMap();
+    cache.putClassChainMap(classB, libraryA, mapA);
+    cache.putClassChainMap(classB, libraryB, mapB);
+    cache.putClassChainMap(classB, libraryC, mapOther);
+    assertSame(mapA, cache.getClassChainMap(classB, libraryA));
+    assertSame(mapB, cache.getClassChainMap(classB, libraryB));
+    assertSame(mapOther, cache.getClassChainMap(classB, libraryC));
+    assertSame(mapOther, cache.getClassChainMap(classB, createLibrary("d")));
+  }
+
+  public void test_invalidateLibrary() {
+    LibraryElementImpl libraryA = createLibrary("a");
+    LibraryElementImpl libraryB = createLibrary("b");
+    LibraryElementImpl libraryC = createLibrary("c");
+    ClassElementImpl classA = createClass(libraryA, "A", null);
+    ClassElementImpl classB = createClass(libraryB, "B", classA);
+    ClassElementImpl classC = createClass(libraryC, "C", null);
+    cache.putClassChainMap(classB, libraryB, new MemberMap());
+    cache.putInterfaceMap(classC, libraryC, new MemberMap(), null);
+    assertEquals(3, cache.size());
+    // Invalidating the library of the superclass removes the subclass as well.
+    cache.invalidateLibrary(libraryA.getSource());
+    assertEquals(1, cache.size());
+    assertNull(cache.getClassChainMap(classB, libraryB));
+    assertNotNull(cache.getInterfaceMap(classC, libraryC));
+  }
+
+  public void test_putClassChainMap_cycle() {
+    LibraryElementImpl library = createLibrary("a");
+    ClassElementImpl classA = createClass(library, "A", null);
+    ClassElementImpl classB = createClass(library, "B", classA);
+    classA.setSupertype(classB.getType());
+    cache.putClassChainMap(classA, library, new MemberMap());
+    assertNull(cache.getClassChainMap(classA, library));
+    assertEquals(0, cache.size());
+  }
+
+  public void test_putInterfaceMap_errors() {
+    LibraryElementImpl library = createLibrary("a");
+    ClassElementImpl classA = createClass(library, "A", null);
+    MemberMap map = new MemberMap();
+    cache.putInterfaceMap(classA, library, map, null);
+    assertSame(map, cache.getInterfaceMap(classA, library));
+    assertNull(cache.getInterfaceErrors(classA, library));
+  }
+
+  private ClassElementImpl createClass(LibraryElementImpl library, String name,
+      ClassElement superclass) {
+    ClassElementImpl element = new ClassElementImpl(name, 0);
+    element.setType(new InterfaceTypeImpl(element));
+    if (superclass != null) {
+      element.setSupertype(superclass.getType());
+    }
+    CompilationUnitElementImpl unit =
+        (CompilationUnitElementImpl) library.getDefiningCompilationUnit();
+    ClassElement[] types = unit.getTypes();
+    ClassElement[] newTypes = new ClassElement[types.length + 1];
+    System.arraycopy(types, 0, newTypes, 0, types.length);
+    newTypes[types.length] = element;
+    unit.setTypes(newTypes);
+    return element;
+  }
+
+  private LibraryElementImpl createLibrary(String name) {
+    Source source = new FileBasedSource(new File(name + ".dart"));
+    CompilationUnitElementImpl unit = new CompilationUnitElementImpl(name + ".dart");
+    unit.setSource(source);
+    LibraryElementImpl library = new LibraryElementImpl(null, name, 0);
+    library.setDefiningCompilationUnit(unit);
+    return library;
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search;
+
+import com.google.common.collect.Lists;
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.html.ast.HtmlUnit;
+import com.google.dart.engine.index.Index;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.RelationshipCallback;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.search.MatchKind;
+import com.google.dart.engine.search.SearchMatch;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceContainer;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+public class SearchEngineImplTest extends EngineTestCase {
+  /**
+   * An index that keeps the callbacks of the queries it is asked to perform until the test provides
+   * the results.
+   */
+  private static class QueuedIndex implements Index {
+    private final List<RelationshipCallback> callbacks = Lists.newArrayList();
+
+    @Override
+    public void bindContext(AnalysisContext context, String key) {
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public void getRelationships(Element element, Relationship relationship,
+        RelationshipCallback callback) {
+      callbacks.add(callback);
+    }
+
+    @Override
+    public String getStatistics() {
+      return "";
+    }
+
+    @Override
+    public void indexHtmlUnit(AnalysisContext context, HtmlUnit unit) {
+    }
+
+    @Override
+    public void indexUnit(AnalysisContext context, CompilationUnit unit) {
+    }
+
+    @Override
+    public void removeContext(AnalysisContext context) {
+    }
+
+    @Override
+    public void removeSource(AnalysisContext context, Source source) {
+    }
+
+    @Override
+    public void removeSources(AnalysisContext context, SourceContainer container) {
+    }
+
+    @Override
+    public void run() {
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    private void reply(Location... locations) {
+      for (RelationshipCallback callback : callbacks) {
+        callback.hasRelationships(null, null, locations);
+      }
+      callbacks.clear();
+    }
+  }
+
+  private final QueuedIndex index = new QueuedIndex();
+
+  private final SearchEngineImpl engine = new SearchEngineImpl(index);
+
+  public void test_searchDeclarations_limit() throws Exception {
+    Future<List<SearchMatch>> future = engine.searchDeclarations("test", null, null, 2);
+    assertFalse(future.isDone());
+    index.reply(createLocation("C"), createLocation("A"), createLocation("B"));
+    // the first two matches are returned, sorted by element name
+    List<SearchMatch> matches = future.get();
+    assertEquals(2, matches.size());
+    assertEquals("A", matches.get(0).getElement().getName());
+    assertEquals("C", matches.get(1).getElement().getName());
+    assertSame(MatchKind.NAME_DECLARATION, matches.get(0).getKind());
+  }
+
+  public void test_searchReferences_cancel() throws Exception {
+    Future<List<SearchMatch>> future = engine.searchReferences(
+        new ClassElementImpl("T", 0),
+        null,
+        null,
+        -1);
+    assertTrue(future.cancel(false));
+    index.reply(createLocation("A"));
+    assertTrue(future.isCancelled());
+  }
+
+  public void test_searchReferences_noLimit() throws Exception {
+    Future<List<SearchMatch>> future = engine.searchReferences(
+        new ClassElementImpl("T", 0),
+        null,
+        null,
+        -1);
+    index.reply(createLocation("B"), createLocation("A"));
+    List<SearchMatch> matches = future.get();
+    assertEquals(2, matches.size());
+    assertEquals("A", matches.get(0).getElement().getName());
+    assertSame(MatchKind.TYPE_REFERENCE, matches.get(0).getKind());
+  }
+
+  private Location createLocation(String name) {
+    return new Location(new ClassElementImpl(name, 0), 0, name.length());
+  }
+}
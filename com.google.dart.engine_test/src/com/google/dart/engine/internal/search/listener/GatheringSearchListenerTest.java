@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search.listener;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.search.MatchKind;
+import com.google.dart.engine.search.MatchQuality;
+import com.google.dart.engine.search.SearchMatch;
+import com.google.dart.engine.utilities.source.SourceRange;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+public class GatheringSearchListenerTest extends EngineTestCase {
+  public void test_getFuture() throws Exception {
+    GatheringSearchListener listener = new GatheringSearchListener();
+    Future<List<SearchMatch>> future = listener.getFuture();
+    listener.matchFound(createMatch("B"));
+    listener.matchFound(createMatch("A"));
+    assertFalse(future.isDone());
+    listener.searchComplete();
+    List<SearchMatch> matches = future.get();
+    assertEquals(2, matches.size());
+    assertEquals("A", matches.get(0).getElement().getName());
+  }
+
+  public void test_getFuture_cancel() throws Exception {
+    GatheringSearchListener listener = new GatheringSearchListener();
+    listener.matchFound(createMatch("A"));
+    assertTrue(listener.getFuture().cancel(false));
+    assertTrue(listener.isComplete());
+    // matches that are found later are ignored
+    listener.matchFound(createMatch("B"));
+    listener.searchComplete();
+    assertTrue(listener.getFuture().isCancelled());
+  }
+
+  public void test_getMatches() throws Exception {
+    final GatheringSearchListener listener = new GatheringSearchListener();
+    final SearchMatch matchA = createMatch("A");
+    final SearchMatch matchB = createMatch("B");
+    assertFalse(listener.isComplete());
+    // report the results on another thread, after the listener started to wait
+    Thread searcher = new Thread() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(50);
+        } catch (InterruptedException exception) {
+          // ignored
+        }
+        listener.matchFound(matchB);
+        listener.matchFound(matchA);
+        listener.searchComplete();
+      }
+    };
+    searcher.start();
+    List<SearchMatch> matches = listener.getMatches();
+    searcher.join();
+    assertTrue(listener.isComplete());
+    assertEquals(2, matches.size());
+    assertSame(matchA, matches.get(0));
+    assertSame(matchB, matches.get(1));
+  }
+
+  private SearchMatch createMatch(String name) {
+    return new SearchMatch(
+        MatchQuality.EXACT,
+        MatchKind.CLASS_DECLARATION,
+        new ClassElementImpl(name, 0),
+        new SourceRange(0, name.length()));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search.listener;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.search.MatchKind;
+import com.google.dart.engine.search.MatchQuality;
+import com.google.dart.engine.search.SearchListener;
+import com.google.dart.engine.search.SearchMatch;
+import com.google.dart.engine.utilities.source.SourceRange;
+
+public class LimitingSearchListenerTest extends EngineTestCase {
+  private static class RecordingSearchListener implements SearchListener {
+    private int matchCount;
+    private int completionCount;
+
+    @Override
+    public void matchFound(SearchMatch match) {
+      matchCount++;
+    }
+
+    @Override
+    public void searchComplete() {
+      completionCount++;
+    }
+  }
+
+  public void test_cancel() throws Exception {
+    RecordingSearchListener recorder = new RecordingSearchListener();
+    LimitingSearchListener listener = new LimitingSearchListener(-1, recorder);
+    listener.matchFound(createMatch("A"));
+    assertFalse(listener.isComplete());
+    listener.cancel();
+    assertTrue(listener.isComplete());
+    assertEquals(1, recorder.completionCount);
+    // results reported after the search was cancelled are ignored
+    listener.matchFound(createMatch("B"));
+    listener.searchComplete();
+    assertEquals(1, recorder.matchCount);
+    assertEquals(1, recorder.completionCount);
+  }
+
+  public void test_limit() throws Exception {
+    RecordingSearchListener recorder = new RecordingSearchListener();
+    LimitingSearchListener listener = new LimitingSearchListener(2, recorder);
+    listener.matchFound(createMatch("A"));
+    assertEquals(0, recorder.completionCount);
+    listener.matchFound(createMatch("B"));
+    assertTrue(listener.isComplete());
+    assertEquals(1, recorder.completionCount);
+    listener.matchFound(createMatch("C"));
+    listener.searchComplete();
+    assertEquals(2, recorder.matchCount);
+    assertEquals(1, recorder.completionCount);
+  }
+
+  public void test_limit_zero() throws Exception {
+    RecordingSearchListener recorder = new RecordingSearchListener();
+    LimitingSearchListener listener = new LimitingSearchListener(0, recorder);
+    assertTrue(listener.isComplete());
+    listener.matchFound(createMatch("A"));
+    assertEquals(0, recorder.matchCount);
+    assertEquals(1, recorder.completionCount);
+  }
+
+  public void test_noLimit() throws Exception {
+    RecordingSearchListener recorder = new RecordingSearchListener();
+    LimitingSearchListener listener = new LimitingSearchListener(-1, recorder);
+    for (int i = 0; i < 10; i++) {
+      listener.matchFound(createMatch("A" + i));
+    }
+    assertFalse(listener.isComplete());
+    listener.searchComplete();
+    assertTrue(listener.isComplete());
+    assertEquals(10, recorder.matchCount);
+    assertEquals(1, recorder.completionCount);
+  }
+
+  private SearchMatch createMatch(String name) {
+    return new SearchMatch(
+        MatchQuality.EXACT,
+        MatchKind.CLASS_DECLARATION,
+        new ClassElementImpl(name, 0),
+        new SourceRange(0, name.length()));
+  }
+}
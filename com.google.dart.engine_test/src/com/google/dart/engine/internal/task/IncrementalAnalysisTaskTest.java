@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.task;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.internal.context.AnalysisOptionsImpl;
+import com.google.dart.engine.internal.context.PerformanceStatistics;
+import com.google.dart.engine.source.Source;
+
+public class IncrementalAnalysisTaskTest extends EngineTestCase {
+  private String contents = createSource(//
+      "library a;",
+      "int f(int x) {",
+      "  int y = x + 1;",
+      "  return y * 2;",
+      "}",
+      "int g() => f(3);");
+
+  public void test_perform_declarationChange() throws Exception {
+    assertIncremental(false, "int f(int x)", "int f(int x, int z)");
+  }
+
+  public void test_perform_deletion() throws Exception {
+    assertIncremental(true, "x + 1", "x");
+  }
+
+  public void test_perform_insertion() throws Exception {
+    assertIncremental(true, "y * 2", "y * 2 + x");
+  }
+
+  public void test_perform_replacement() throws Exception {
+    assertIncremental(true, "x + 1", "x - 42");
+  }
+
+  public void test_perform_syntaxError() throws Exception {
+    assertIncremental(false, "x + 1", "x +");
+  }
+
+  /**
+   * Resolve the library, replace the first occurrence of the given text, and assert whether the
+   * edit was analyzed incrementally.
+   */
+  private void assertIncremental(boolean expected, String oldText, String newText)
+      throws Exception {
+    AnalysisContextImpl context = createContext();
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setIncremental(true);
+    context.setAnalysisOptions(options);
+    Source source = addSource(context, "a.dart", contents);
+    context.resolveCompilationUnit(source, source);
+    PerformanceStatistics.reset();
+    int offset = contents.indexOf(oldText);
+    String newContents = contents.substring(0, offset) + newText
+        + contents.substring(offset + oldText.length());
+    context.setChangedContents(source, newContents, offset, oldText.length(), newText.length());
+    while (context.performAnalysisTask().getChangeNotices() != null) {
+      // perform all of the analysis caused by the change
+    }
+    assertEquals(1, PerformanceStatistics.getIncrementalAnalysisAttempts());
+    assertEquals(expected ? 1 : 0, PerformanceStatistics.getIncrementalAnalysisSuccesses());
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.type;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.TypeParameterElement;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.internal.element.TypeParameterElementImpl;
+import com.google.dart.engine.type.InterfaceType;
+import com.google.dart.engine.type.Type;
+
+import java.util.Set;
+
+public class SupertypeClosureTest extends EngineTestCase {
+  private ClassElementImpl objectElement = createClass("Object", null);
+
+  public void test_depth() {
+    ClassElementImpl classA = createClass("A", objectElement);
+    ClassElementImpl classB = createClass("B", classA);
+    ClassElementImpl classI = createClass("I", objectElement);
+    ClassElementImpl classC = createClass("C", classB, classI);
+    assertEquals(0, getDepth(objectElement));
+    assertEquals(1, getDepth(classA));
+    assertEquals(2, getDepth(classB));
+    assertEquals(3, getDepth(classC));
+  }
+
+  public void test_depth_afterSetSupertype() {
+    ClassElementImpl classA = createClass("A", objectElement);
+    ClassElementImpl classB = createClass("B", classA);
+    assertEquals(2, getDepth(classB));
+    classB.setSupertype(objectElement.getType());
+    assertEquals(1, getDepth(classB));
+  }
+
+  public void test_depth_afterSetSupertypeOfSuperclass() {
+    ClassElementImpl classA = createClass("A", objectElement);
+    ClassElementImpl classB = createClass("B", classA);
+    ClassElementImpl classC = createClass("C", classB);
+    assertEquals(3, getDepth(classC));
+    // the closure of C depends on the supertypes of B, which have changed
+    classB.setSupertype(objectElement.getType());
+    assertEquals(2, getDepth(classC));
+    assertFalse(InterfaceTypeImpl.computeSuperinterfaceSet(classC.getType()).contains(
+        classA.getType()));
+  }
+
+  public void test_depth_cycle() {
+    ClassElementImpl classA = createClass("A", objectElement);
+    ClassElementImpl classB = createClass("B", classA);
+    classA.setSupertype(classB.getType());
+    // The result is not meaningful, but computing it must terminate.
+    getDepth(classA);
+    InterfaceTypeImpl.computeSuperinterfaceSet(classB.getType());
+  }
+
+  public void test_getLeastUpperBound_generic() {
+    ClassElementImpl classG = createGenericClass("G", objectElement);
+    ClassElementImpl classH = createGenericClass("H", classG);
+    ClassElementImpl classInt = createClass("int", objectElement);
+    ClassElementImpl classString = createClass("String", objectElement);
+    InterfaceType gOfInt = classG.getType().substitute(new Type[] {classInt.getType()});
+    InterfaceType hOfInt = classH.getType().substitute(new Type[] {classInt.getType()});
+    InterfaceType hOfString = classH.getType().substitute(new Type[] {classString.getType()});
+    assertEquals(gOfInt, hOfInt.getLeastUpperBound(gOfInt));
+    assertEquals(objectElement.getType(), hOfString.getLeastUpperBound(gOfInt));
+  }
+
+  public void test_getLeastUpperBound_sharedSupertype() {
+    ClassElementImpl classA = createClass("A", objectElement);
+    ClassElementImpl classB = createClass("B", classA);
+    ClassElementImpl classC = createClass("C", classA);
+    assertEquals(classA.getType(), classB.getType().getLeastUpperBound(classC.getType()));
+    assertEquals(classA.getType(), classB.getType().getLeastUpperBound(classA.getType()));
+  }
+
+  public void test_getLeastUpperBound_tie() {
+    ClassElementImpl classA = createClass("A", objectElement);
+    ClassElementImpl classI = createClass("I", objectElement);
+    ClassElementImpl classC = createClass("C", classA, classI);
+    ClassElementImpl classD = createClass("D", classA, classI);
+    // A and I are both at depth one, so the least upper bound is Object.
+    assertEquals(objectElement.getType(), classC.getType().getLeastUpperBound(classD.getType()));
+  }
+
+  public void test_superinterfaceSet() {
+    ClassElementImpl classA = createClass("A", objectElement);
+    ClassElementImpl classI = createClass("I", objectElement);
+    ClassElementImpl classC = createClass("C", classA, classI);
+    Set<InterfaceType> set = InterfaceTypeImpl.computeSuperinterfaceSet(classC.getType());
+    assertEquals(3, set.size());
+    assertTrue(set.contains(objectElement.getType()));
+    assertTrue(set.contains(classA.getType()));
+    assertTrue(set.contains(classI.getType()));
+  }
+
+  private ClassElementImpl createClass(String name, ClassElement superclass,
+      ClassElement... interfaces) {
+    ClassElementImpl element = new ClassElementImpl(name, 0);
+    element.setType(new InterfaceTypeImpl(element));
+    if (superclass != null) {
+      element.setSupertype(superclass.getType());
+    }
+    InterfaceType[] interfaceTypes = new InterfaceType[interfaces.length];
+    for (int i = 0; i < interfaces.length; i++) {
+      interfaceTypes[i] = interfaces[i].getType();
+    }
+    element.setInterfaces(interfaceTypes);
+    return element;
+  }
+
+  private ClassElementImpl createGenericClass(String name, ClassElementImpl superclass) {
+    ClassElementImpl element = new ClassElementImpl(name, 0);
+    TypeParameterElementImpl typeParameter = new TypeParameterElementImpl("T", 0);
+    TypeParameterTypeImpl typeParameterType = new TypeParameterTypeImpl(typeParameter);
+    typeParameter.setType(typeParameterType);
+    element.setTypeParameters(new TypeParameterElement[] {typeParameter});
+    InterfaceTypeImpl type = new InterfaceTypeImpl(element);
+    type.setTypeArguments(new Type[] {typeParameterType});
+    element.setType(type);
+    InterfaceType supertype = superclass.getType();
+    if (supertype.getTypeArguments().length > 0) {
+      supertype = supertype.substitute(new Type[] {typeParameterType});
+    }
+    element.setSupertype(supertype);
+    return element;
+  }
+
+  private int getDepth(ClassElement element) {
+    return InterfaceTypeImpl.computeLongestInheritancePathToObject(element.getType());
+  }
+}
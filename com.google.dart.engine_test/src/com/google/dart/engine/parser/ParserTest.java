@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.parser;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.BlockFunctionBody;
+import com.google.dart.engine.ast.ClassDeclaration;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.Directive;
+import com.google.dart.engine.ast.EmptyFunctionBody;
+import com.google.dart.engine.ast.ExpressionFunctionBody;
+import com.google.dart.engine.ast.MethodDeclaration;
+import com.google.dart.engine.error.AnalysisErrorListener;
+import com.google.dart.engine.scanner.CharSequenceReader;
+import com.google.dart.engine.scanner.Scanner;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.scanner.TokenBuffer;
+import com.google.dart.engine.scanner.TokenType;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import java.io.File;
+import java.util.List;
+
+public class ParserTest extends EngineTestCase {
+  private static final String CONTENT = createSource(//
+      "class A {",
+      "  int f() {",
+      "    return 1;",
+      "  }",
+      "  int g() => 2;",
+      "}");
+
+  public void test_parseDirectivesFromBuffer() throws Exception {
+    String content = createSource(//
+        "#!/bin/dart",
+        "@A(0) library a.b;",
+        "import 'b.dart' as b show f, g;",
+        "export 'c.dart';",
+        ";",
+        "part 'd.dart';",
+        "@A(1) class C {}",
+        "import 'e.dart';");
+    Token token = scan(content);
+    CompilationUnit expected = createParser().parseDirectives(token);
+    CompilationUnit unit = createParser().parseDirectivesFromBuffer(TokenBuffer.fromTokens(token));
+    assertNotNull(unit.getScriptTag());
+    List<Directive> directives = unit.getDirectives();
+    assertEquals(4, directives.size());
+    for (int i = 0; i < directives.size(); i++) {
+      assertEquals(expected.getDirectives().get(i).toSource(), directives.get(i).toSource());
+    }
+    // the tokens following the directives are not created
+    Token endToken = unit.getEndToken();
+    assertEquals(TokenType.EOF, endToken.getType());
+    assertEquals(content.indexOf("@A(1)"), endToken.getOffset());
+  }
+
+  public void test_parseDirectivesFromBuffer_metadataOnly() throws Exception {
+    Token token = scan("library a; @A(0) f() {}");
+    CompilationUnit unit = createParser().parseDirectivesFromBuffer(TokenBuffer.fromTokens(token));
+    assertEquals(1, unit.getDirectives().size());
+    assertEquals(11, unit.getEndToken().getOffset());
+  }
+
+  public void test_parseFunctionBodies() throws Exception {
+    Parser parser = createParser();
+    ClassDeclaration classA = parse(parser);
+    BlockFunctionBody body = (BlockFunctionBody) getMethod(classA, 0).getBody();
+    assertFalse(body.isSkipped());
+    assertEquals(1, body.getBlock().getStatements().size());
+    assertTrue(getMethod(classA, 1).getBody() instanceof ExpressionFunctionBody);
+  }
+
+  public void test_parseFunctionBodies_false() throws Exception {
+    Parser parser = createParser();
+    parser.setParseFunctionBodies(false);
+    parser.setSkipFunctionBodies(true);
+    ClassDeclaration classA = parse(parser);
+    assertTrue(getMethod(classA, 0).getBody() instanceof EmptyFunctionBody);
+    assertTrue(getMethod(classA, 1).getBody() instanceof EmptyFunctionBody);
+  }
+
+  public void test_skipFunctionBodies() throws Exception {
+    Parser parser = createParser();
+    parser.setSkipFunctionBodies(true);
+    ClassDeclaration classA = parse(parser);
+    MethodDeclaration methodF = getMethod(classA, 0);
+    assertFalse(methodF.isAbstract());
+    BlockFunctionBody body = (BlockFunctionBody) methodF.getBody();
+    assertTrue(body.isSkipped());
+    assertEquals(0, body.getBlock().getStatements().size());
+    assertEquals(CONTENT.indexOf('{', CONTENT.indexOf("f()")), body.getOffset());
+    assertEquals(CONTENT.indexOf("  int g") - 1, body.getEnd());
+    assertTrue(getMethod(classA, 1).getBody() instanceof ExpressionFunctionBody);
+  }
+
+  private Parser createParser() {
+    return new Parser(createTestSource(), AnalysisErrorListener.NULL_LISTENER);
+  }
+
+  private Source createTestSource() {
+    return new FileBasedSource(new File("test.dart"));
+  }
+
+  private MethodDeclaration getMethod(ClassDeclaration classDeclaration, int index) {
+    return (MethodDeclaration) classDeclaration.getMembers().get(index);
+  }
+
+  private ClassDeclaration parse(Parser parser) {
+    CompilationUnit unit = parser.parseCompilationUnit(scan(CONTENT));
+    return (ClassDeclaration) unit.getDeclarations().get(0);
+  }
+
+  private Token scan(String content) {
+    Scanner scanner = new Scanner(
+        createTestSource(),
+        new CharSequenceReader(content),
+        AnalysisErrorListener.NULL_LISTENER);
+    return scanner.tokenize();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.error.AnalysisErrorListener;
+import com.google.dart.engine.utilities.general.StringUtilities;
+
+public class IdentifierTableTest extends EngineTestCase {
+  public void test_clear() throws Exception {
+    IdentifierTable table = new IdentifierTable();
+    table.intern("abc", 0, 3);
+    assertEquals(1, table.size());
+    table.clear();
+    assertEquals(0, table.size());
+    assertEquals("abc", table.intern("abc", 0, 3));
+  }
+
+  public void test_intern() throws Exception {
+    IdentifierTable table = new IdentifierTable();
+    String first = table.intern("a foo b", 2, 5);
+    assertEquals("foo", first);
+    assertSame(first, table.intern(new StringBuilder("foo"), 0, 3));
+    assertSame(first, table.intern("xfoo", 1, 4));
+    assertEquals(1, table.size());
+    assertEquals("fo", table.intern("foo", 0, 2));
+    assertEquals(2, table.size());
+  }
+
+  public void test_intern_bounded() throws Exception {
+    IdentifierTable table = new IdentifierTable();
+    for (int i = 0; i < 100000; i++) {
+      String name = "id" + i;
+      assertEquals(name, table.intern(name, 0, name.length()));
+      assertTrue(table.size() <= 1 << 15);
+    }
+    // once full, the table replaces individual strings rather than being emptied
+    assertEquals(1 << 15, table.size());
+    String name = StringUtilities.intern("id0");
+    assertSame(name, table.intern(new StringBuilder("id0"), 0, 3));
+  }
+
+  public void test_intern_rehash() throws Exception {
+    IdentifierTable table = new IdentifierTable();
+    String[] strings = new String[2000];
+    for (int i = 0; i < strings.length; i++) {
+      String name = "name" + i;
+      strings[i] = table.intern(name, 0, name.length());
+    }
+    assertEquals(strings.length, table.size());
+    for (int i = 0; i < strings.length; i++) {
+      String name = "name" + i;
+      assertSame(strings[i], table.intern(name, 0, name.length()));
+    }
+  }
+
+  public void test_scanner_sharedTable() throws Exception {
+    IdentifierTable table = new IdentifierTable();
+    Token first = scan("foo bar", table);
+    Token second = scan("bar foo", table);
+    assertSame(first.getLexeme(), second.getNext().getLexeme());
+    assertSame(first.getNext().getLexeme(), second.getLexeme());
+    assertEquals(2, table.size());
+  }
+
+  public void test_scanner_withoutTable() throws Exception {
+    Token first = scan("foo bar", null);
+    Token second = scan("bar foo", null);
+    assertEquals("foo", first.getLexeme());
+    assertSame(first.getLexeme(), second.getNext().getLexeme());
+  }
+
+  private Token scan(String content, IdentifierTable table) {
+    Scanner scanner = new Scanner(
+        null,
+        new CharSequenceReader(content),
+        AnalysisErrorListener.NULL_LISTENER);
+    if (table != null) {
+      scanner.setIdentifierTable(table);
+    }
+    return scanner.tokenize();
+  }
+}
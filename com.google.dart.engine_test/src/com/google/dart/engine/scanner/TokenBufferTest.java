@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.error.AnalysisErrorListener;
+
+public class TokenBufferTest extends EngineTestCase {
+  private static final String CONTENT = "/* a */ f(\"s\", x) { // b\n return [1]; }";
+
+  public void test_fromTokens() throws Exception {
+    TokenBuffer buffer = TokenBuffer.fromTokens(scan(CONTENT));
+    // two comments, 13 tokens and the end-of-file token
+    assertEquals(16, buffer.getCount());
+    assertTrue(buffer.isComment(0));
+    assertEquals("/* a */", buffer.getLexeme(0));
+    assertEquals(TokenType.IDENTIFIER, buffer.getType(1));
+    assertEquals("f", buffer.getLexeme(1));
+    assertEquals(8, buffer.getOffset(1));
+    assertEquals(1, buffer.getLength(1));
+    assertEquals(TokenType.OPEN_PAREN, buffer.getType(2));
+    assertEquals(6, buffer.getEndIndex(2));
+    assertEquals(TokenType.STRING, buffer.getType(3));
+    assertEquals("\"s\"", buffer.getLexeme(3));
+    assertEquals(-1, buffer.getEndIndex(3));
+    assertTrue(buffer.isComment(8));
+    assertEquals(Keyword.RETURN, buffer.getKeyword(9));
+    assertEquals(TokenType.KEYWORD, buffer.getType(9));
+    assertEquals("return", buffer.getLexeme(9));
+    assertNull(buffer.getKeyword(10));
+    assertEquals(TokenType.EOF, buffer.getType(15));
+  }
+
+  public void test_toTokens() throws Exception {
+    Token original = scan(CONTENT);
+    Token first = TokenBuffer.fromTokens(original).toTokens();
+    Token token = first;
+    assertEquals(TokenType.EOF, token.getPrevious().getType());
+    while (true) {
+      assertEqualTokens(original, token);
+      assertEqualComments(original.getPrecedingComments(), token.getPrecedingComments());
+      if (original instanceof BeginToken) {
+        int endOffset = ((BeginToken) original).getEndToken().getOffset();
+        assertSame(getTokenAt(first, endOffset), ((BeginToken) token).getEndToken());
+      }
+      if (original.getType() == TokenType.EOF) {
+        assertSame(token, token.getNext());
+        return;
+      }
+      original = original.getNext();
+      token = token.getNext();
+    }
+  }
+
+  public void test_toTokens_end() throws Exception {
+    Token token = TokenBuffer.fromTokens(scan(CONTENT)).toTokens(4);
+    assertEquals("f", token.getLexeme());
+    assertEquals("/* a */", token.getPrecedingComments().getLexeme());
+    BeginToken openParen = (BeginToken) token.getNext();
+    assertNull(openParen.getEndToken());
+    assertEquals("\"s\"", openParen.getNext().getLexeme());
+    // the tokens after the end are replaced by an end-of-file token
+    Token eof = openParen.getNext().getNext();
+    assertEquals(TokenType.EOF, eof.getType());
+    assertEquals(CONTENT.indexOf(','), eof.getOffset());
+    assertSame(eof, eof.getNext());
+  }
+
+  public void test_toTokens_lexemeTable() throws Exception {
+    TokenBuffer buffer = TokenBuffer.fromTokens(scan("a b a"));
+    assertSame(buffer.getLexeme(0), buffer.getLexeme(2));
+    Token token = buffer.toTokens();
+    assertSame(token.getLexeme(), token.getNext().getNext().getLexeme());
+  }
+
+  private void assertEqualComments(Token expected, Token actual) {
+    while (expected != null) {
+      assertNotNull(actual);
+      assertEqualTokens(expected, actual);
+      expected = expected.getNext();
+      actual = actual.getNext();
+    }
+    assertNull(actual);
+  }
+
+  private void assertEqualTokens(Token expected, Token actual) {
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getType(), actual.getType());
+    assertEquals(expected.getLexeme(), actual.getLexeme());
+    assertEquals(expected.getOffset(), actual.getOffset());
+    assertEquals(expected.getLength(), actual.getLength());
+  }
+
+  private Token getTokenAt(Token token, int offset) {
+    while (token.getOffset() != offset) {
+      token = token.getNext();
+    }
+    return token;
+  }
+
+  private Token scan(String content) {
+    Scanner scanner = new Scanner(
+        null,
+        new CharSequenceReader(content),
+        AnalysisErrorListener.NULL_LISTENER);
+    return scanner.tokenize();
+  }
+}
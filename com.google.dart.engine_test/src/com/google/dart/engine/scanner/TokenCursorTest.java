@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.error.AnalysisErrorListener;
+
+public class TokenCursorTest extends EngineTestCase {
+  public void test_advance() throws Exception {
+    TokenCursor cursor = createCursor("/* a */ import /* b */ 'x'; // c");
+    assertEquals(1, cursor.getIndex());
+    assertTrue(cursor.matchesKeyword(Keyword.IMPORT));
+    assertEquals(8, cursor.getOffset());
+    assertEquals(TokenType.STRING, cursor.peekType());
+    cursor.advance();
+    assertEquals(3, cursor.getIndex());
+    assertEquals("'x'", cursor.getLexeme());
+    assertNull(cursor.getKeyword());
+    cursor.advance();
+    assertTrue(cursor.matches(TokenType.SEMICOLON));
+    assertEquals(TokenType.EOF, cursor.peekType());
+    cursor.advance();
+    assertTrue(cursor.isEof());
+    // the cursor stays on the end-of-file token
+    cursor.advance();
+    assertTrue(cursor.isEof());
+    assertEquals(TokenType.EOF, cursor.peekType());
+  }
+
+  public void test_skipGroup() throws Exception {
+    TokenCursor cursor = createCursor("(a, [b]) c");
+    cursor.skipGroup();
+    assertEquals("c", cursor.getLexeme());
+    cursor.skipGroup();
+    assertTrue(cursor.isEof());
+  }
+
+  public void test_skipGroup_unterminated() throws Exception {
+    TokenCursor cursor = createCursor("(a");
+    cursor.skipGroup();
+    assertEquals(TokenType.IDENTIFIER, cursor.getType());
+  }
+
+  private TokenCursor createCursor(String content) {
+    Scanner scanner = new Scanner(
+        null,
+        new CharSequenceReader(content),
+        AnalysisErrorListener.NULL_LISTENER);
+    return new TokenCursor(TokenBuffer.fromTokens(scanner.tokenize()));
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.source;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.source.Source.ContentReceiver;
+import com.google.dart.engine.utilities.general.AsciiCharSequence;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class FileBasedSourceTest extends EngineTestCase {
+  public void test_getContents_ascii() throws Exception {
+    FileBasedSource source = new FileBasedSource(createFile("a.dart", "class A {}"));
+    CharSequence contents = source.getContents().getData();
+    assertTrue(contents instanceof AsciiCharSequence);
+    assertEquals("class A {}", contents.toString());
+  }
+
+  public void test_getContents_asciiWithBOM() throws Exception {
+    FileBasedSource source = new FileBasedSource(createFileWithBOM("a.dart", "class A {}"));
+    CharSequence contents = source.getContents().getData();
+    assertTrue(contents instanceof AsciiCharSequence);
+    assertEquals("class A {}", contents.toString());
+  }
+
+  public void test_getContents_nonAscii() throws Exception {
+    FileBasedSource source = new FileBasedSource(createFile("a.dart", "var s = '\u00E9';"));
+    CharSequence contents = source.getContents().getData();
+    assertFalse(contents instanceof AsciiCharSequence);
+    assertEquals("var s = '\u00E9';", contents.toString());
+  }
+
+  public void test_getContentsToReceiver_ascii() throws Exception {
+    FileBasedSource source = new FileBasedSource(createFile("a.dart", "class A {}"));
+    final CharSequence[] result = new CharSequence[1];
+    source.getContentsToReceiver(new ContentReceiver() {
+      @Override
+      public void accept(CharSequence contents, long modificationTime) {
+        result[0] = contents;
+      }
+    });
+    assertTrue(result[0] instanceof AsciiCharSequence);
+    assertEquals("class A {}", result[0].toString());
+  }
+
+  private File createFileWithBOM(String path, String content) throws IOException {
+    File file = new File(getTempDirectory(), path);
+    FileOutputStream stream = new FileOutputStream(file);
+    try {
+      stream.write(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+      stream.write(content.getBytes("US-ASCII"));
+    } finally {
+      stream.close();
+    }
+    return file;
+  }
+}
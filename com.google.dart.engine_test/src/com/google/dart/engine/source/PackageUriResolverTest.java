@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.source;
+
+import com.google.dart.engine.EngineTestCase;
+
+import java.io.File;
+import java.net.URI;
+
+public class PackageUriResolverTest extends EngineTestCase {
+  public void test_resolveAbsolute_fileAdded() throws Exception {
+    File firstDirectory = new File(getTempDirectory(), "packages1");
+    File secondDirectory = new File(getTempDirectory(), "packages2");
+    firstDirectory.mkdirs();
+    createFile("packages2/pkg/lib.dart", "");
+    PackageUriResolver resolver = new PackageUriResolver(firstDirectory, secondDirectory);
+    URI uri = new URI("package:pkg/lib.dart");
+    assertInDirectory(secondDirectory, resolver.resolveAbsolute(uri));
+    // a file added to an earlier directory, as pub does, is seen without clearing any cache
+    createFile("packages1/pkg/lib.dart", "");
+    assertInDirectory(firstDirectory, resolver.resolveAbsolute(uri));
+  }
+
+  public void test_resolveAbsolute_missing() throws Exception {
+    File directory = new File(getTempDirectory(), "packages");
+    directory.mkdirs();
+    PackageUriResolver resolver = new PackageUriResolver(directory);
+    Source source = resolver.resolveAbsolute(new URI("package:pkg/lib.dart"));
+    assertInDirectory(directory, source);
+    assertFalse(source.exists());
+  }
+
+  private void assertInDirectory(File directory, Source source) throws Exception {
+    File file = ((FileBasedSource) source).getFile();
+    File expected = new File(new File(directory, "pkg"), "lib.dart").getCanonicalFile();
+    assertEquals(expected, file.getCanonicalFile());
+  }
+}
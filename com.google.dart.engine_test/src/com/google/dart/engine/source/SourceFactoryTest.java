@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.source;
+
+import com.google.dart.engine.EngineTestCase;
+
+import java.io.File;
+import java.net.URI;
+
+public class SourceFactoryTest extends EngineTestCase {
+  /**
+   * A resolver that counts the URI's it is asked to resolve.
+   */
+  private static class CountingUriResolver extends UriResolver {
+    private FileUriResolver resolver = new FileUriResolver();
+
+    private int resolveCount = 0;
+
+    private int clearCount = 0;
+
+    @Override
+    public void clearCache() {
+      clearCount++;
+    }
+
+    @Override
+    public Source resolveAbsolute(URI uri) {
+      resolveCount++;
+      return resolver.resolveAbsolute(uri);
+    }
+  }
+
+  public void test_clearCache() throws Exception {
+    CountingUriResolver resolver = new CountingUriResolver();
+    SourceFactory factory = new SourceFactory(resolver);
+    String uri = createFile("a.dart", "").toURI().toString();
+    Source source = factory.forUri(uri);
+    factory.clearCache();
+    assertEquals(1, resolver.clearCount);
+    assertEquals(source, factory.forUri(uri));
+    assertEquals(2, resolver.resolveCount);
+  }
+
+  public void test_forUri_cached() throws Exception {
+    CountingUriResolver resolver = new CountingUriResolver();
+    SourceFactory factory = new SourceFactory(resolver);
+    String uri = createFile("a.dart", "").toURI().toString();
+    Source source = factory.forUri(uri);
+    assertNotNull(source);
+    assertSame(source, factory.forUri(uri));
+    // an absolute URI in a directive is resolved from the same cache
+    Source containingSource = new FileBasedSource(createFile("b.dart", ""));
+    assertSame(source, factory.resolveUri(containingSource, uri));
+    assertEquals(1, resolver.resolveCount);
+  }
+
+  public void test_forUri_package() throws Exception {
+    File packagesDirectory = new File(getTempDirectory(), "packages");
+    createFile("packages/pkg/lib.dart", "");
+    SourceFactory factory = new SourceFactory(new PackageUriResolver(packagesDirectory));
+    Source source = factory.forUri("package:pkg/lib.dart");
+    assertNotNull(source);
+    // package URI's are resolved against the file system every time
+    Source containingSource = new FileBasedSource(createFile("a.dart", ""));
+    assertEquals(source, factory.resolveUri(containingSource, "package:pkg/lib.dart"));
+    assertEquals(source, factory.forUri("package:pkg/lib.dart"));
+    assertNotSame(source, factory.forUri("package:pkg/lib.dart"));
+  }
+
+  public void test_resolveUri_relative() throws Exception {
+    CountingUriResolver resolver = new CountingUriResolver();
+    SourceFactory factory = new SourceFactory(resolver);
+    Source sourceA = new FileBasedSource(createFile("a/lib.dart", ""));
+    Source sourceB = new FileBasedSource(createFile("b/lib.dart", ""));
+    createFile("a/part.dart", "");
+    createFile("b/part.dart", "");
+    Source partA = factory.resolveUri(sourceA, "part.dart");
+    assertSame(partA, factory.resolveUri(sourceA, "part.dart"));
+    assertEquals(1, resolver.resolveCount);
+    // the same relative URI in a different source is resolved separately
+    Source partB = factory.resolveUri(sourceB, "part.dart");
+    assertEquals(2, resolver.resolveCount);
+    assertEquals(new File(getTempDirectory(), "a/part.dart"), ((FileBasedSource) partA).getFile());
+    assertEquals(new File(getTempDirectory(), "b/part.dart"), ((FileBasedSource) partB).getFile());
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.utilities.general;
+
+import com.google.dart.engine.EngineTestCase;
+
+import java.nio.charset.Charset;
+
+public class AsciiCharSequenceTest extends EngineTestCase {
+  private AsciiCharSequence sequence = createSequence("[abc]", 1, 3);
+
+  public void test_charAt() {
+    assertEquals('a', sequence.charAt(0));
+    assertEquals('c', sequence.charAt(2));
+  }
+
+  public void test_charAt_outOfRange() {
+    try {
+      sequence.charAt(3);
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException exception) {
+      // Expected
+    }
+  }
+
+  public void test_isAscii() {
+    byte[] bytes = "a\u00E9b".getBytes(Charset.forName("UTF-8"));
+    assertTrue(AsciiCharSequence.isAscii(bytes, 0, 1));
+    assertFalse(AsciiCharSequence.isAscii(bytes, 0, bytes.length));
+    assertTrue(AsciiCharSequence.isAscii(bytes, bytes.length - 1, 1));
+  }
+
+  public void test_length() {
+    assertEquals(3, sequence.length());
+  }
+
+  public void test_subSequence() {
+    CharSequence subSequence = sequence.subSequence(1, 3);
+    assertEquals(2, subSequence.length());
+    assertEquals('b', subSequence.charAt(0));
+    assertEquals("bc", subSequence.toString());
+  }
+
+  public void test_subSequence_outOfRange() {
+    try {
+      sequence.subSequence(2, 4);
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException exception) {
+      // Expected
+    }
+  }
+
+  public void test_toString() {
+    assertEquals("abc", sequence.toString());
+  }
+
+  private AsciiCharSequence createSequence(String contents, int offset, int length) {
+    return new AsciiCharSequence(contents.getBytes(Charset.forName("US-ASCII")), offset, length);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.utilities.source;
+
+import com.google.dart.engine.EngineTestCase;
+
+public class LineInfoTest extends EngineTestCase {
+  public void test_getLocation_firstLine() {
+    LineInfo info = new LineInfo(new int[] {0, 12, 34});
+    assertLocation(info, 4, 1, 5);
+  }
+
+  public void test_getLocation_lastLine() {
+    LineInfo info = new LineInfo(new int[] {0, 12, 34});
+    assertLocation(info, 34, 3, 1);
+    assertLocation(info, 50, 3, 17);
+  }
+
+  public void test_getLocation_lineStart() {
+    LineInfo info = new LineInfo(new int[] {0, 12, 34});
+    assertLocation(info, 12, 2, 1);
+    assertLocation(info, 33, 2, 22);
+  }
+
+  public void test_getLocation_matchesLinearScan() {
+    int[] lineStarts = {0, 1, 5, 5, 9, 20, 21, 40};
+    LineInfo info = new LineInfo(lineStarts);
+    for (int offset = -2; offset < 45; offset++) {
+      int lineCount = lineStarts.length;
+      int line = lineCount;
+      for (int i = 1; i < lineCount; i++) {
+        if (offset < lineStarts[i]) {
+          line = i;
+          break;
+        }
+      }
+      assertLocation(info, offset, line, offset - lineStarts[line - 1] + 1);
+    }
+  }
+
+  public void test_getLocation_singleLine() {
+    LineInfo info = new LineInfo(new int[] {0});
+    assertLocation(info, 0, 1, 1);
+    assertLocation(info, 7, 1, 8);
+  }
+
+  private void assertLocation(LineInfo info, int offset, int line, int column) {
+    LineInfo.Location location = info.getLocation(offset);
+    assertEquals(line, location.getLineNumber());
+    assertEquals(column, location.getColumnNumber());
+    assertEquals(line, info.getLineNumber(offset));
+    assertEquals(column, info.getColumnNumber(offset));
+  }
+}